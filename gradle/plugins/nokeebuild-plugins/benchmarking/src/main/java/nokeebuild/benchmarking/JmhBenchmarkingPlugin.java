@@ -0,0 +1,58 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package nokeebuild.benchmarking;
+
+import me.champeau.jmh.JmhParameters;
+import org.gradle.api.Plugin;
+import org.gradle.api.Project;
+
+import javax.inject.Inject;
+import java.util.Collections;
+import java.util.Objects;
+
+/**
+ * Configures the microbenchmarks under {@literal src/jmh}.
+ * Run with {@literal ./gradlew :<project>:jmh}, use {@literal -PjmhIncludes=<regex>} to select benchmarks.
+ */
+abstract /*final*/ class JmhBenchmarkingPlugin implements Plugin<Project> {
+	private static final String JMH_VERSION = "1.36";
+
+	@Inject
+	public JmhBenchmarkingPlugin() {}
+
+	@Override
+	public void apply(Project project) {
+		project.getPluginManager().apply("me.champeau.jmh");
+
+		project.getExtensions().configure(JmhParameters.class, jmh -> {
+			jmh.getJmhVersion().set(JMH_VERSION);
+			if (project.hasProperty("jmhIncludes")) {
+				jmh.getIncludes().set(Collections.singletonList(Objects.toString(project.property("jmhIncludes"))));
+			}
+			jmh.getProfilers().set(Collections.singletonList("gc"));
+			jmh.getResultFormat().set("JSON");
+			jmh.getFork().set(1);
+			jmh.getWarmupIterations().set(3);
+			jmh.getIterations().set(5);
+		});
+
+		project.getDependencies().add("jmhImplementation", "com.google.guava:guava:" + guavaVersion(project));
+	}
+
+	private static String guavaVersion(Project project) {
+		return Objects.toString(project.property("guavaVersion"), null);
+	}
+}
@@ -33,11 +33,11 @@ import static dev.nokee.internal.testing.FileSystemMatchers.anExistingFile;
 import static dev.nokee.internal.testing.FileSystemMatchers.hasRelativeDescendants;
 import static dev.nokee.internal.testing.FileSystemMatchers.ofLines;
 import static dev.nokee.internal.testing.FileSystemMatchers.withTextContent;
-import static dev.nokee.internal.testing.util.ProjectTestUtils.fileSystemOperations;
 import static dev.nokee.internal.testing.util.ProjectTestUtils.objectFactory;
 import static java.nio.file.Files.createDirectory;
 import static java.nio.file.Files.createFile;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
 
 @ExtendWith(TestDirectoryExtension.class)
 class DerivedDataAssemblingRunnableIntegrationTests {
@@ -49,7 +49,7 @@ class DerivedDataAssemblingRunnableIntegrationTests {
 	@BeforeEach
 	void givenSubject() {
 		parameters = objectFactory().newInstance(AssembleDerivedDataDirectoryTask.DerivedDataAssemblingRunnable.Parameters.class);
-		subject = new AssembleDerivedDataDirectoryTask.DerivedDataAssemblingRunnable(fileSystemOperations(), parameters);
+		subject = new AssembleDerivedDataDirectoryTask.DerivedDataAssemblingRunnable(parameters);
 
 		parameters.getXcodeDerivedDataPath().set((derivedDataDirectory = testDirectory.resolve("derived-data")).toFile());
 	}
@@ -69,6 +69,12 @@ class DerivedDataAssemblingRunnableIntegrationTests {
 			subject.run();
 		}
 
+		@Test
+		void linksInputFilesIntoDerivedDataDirectory() throws IOException {
+			assertThat(Files.isSameFile(inputDirectory.resolve("a.txt"), derivedDataDirectory.resolve("a.txt")), is(true));
+			assertThat(Files.isSameFile(inputDirectory.resolve("dir/b.txt"), derivedDataDirectory.resolve("dir/b.txt")), is(true));
+		}
+
 		@Nested
 		class WhenInputFileChanged {
 			@BeforeEach
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.nokee.xcode;
+
+import com.google.common.collect.ImmutableList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the parsing and the evaluation of build settings with and without memoization.
+ *
+ * <p>The build settings mimic an iOS application target: SDK defaults, project and target levels (each with an xcconfig),
+ * {@literal $(inherited)}-heavy flags and search paths derived from {@code BUILD_DIR}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class XCBuildSettingsEvaluationBenchmark {
+	@Param({"100", "1000"})
+	public int buildSettingCount;
+
+	private final XCStringParser antlrParser = new AntlrMacroExpansionParser();
+	private final XCStringParser memoizedParser = new MemoizedXCStringParser(new AntlrMacroExpansionParser(), 10_000);
+	private final List<String> rawValues = new ArrayList<>();
+	private final List<String> names = new ArrayList<>();
+	private XCBuildSettingLayer layer;
+
+	@Setup
+	public void setup() {
+		final Map<String, XCBuildSetting> sdk = new LinkedHashMap<>();
+		final List<Map<String, XCBuildSettingDefinition>> levels = new ArrayList<>();
+		for (int level = 0; level < 4; ++level) {
+			levels.add(new LinkedHashMap<>());
+		}
+
+		put(sdk, "SDKROOT", "/Applications/Xcode.app/Contents/Developer/Platforms/iPhoneOS.platform/Developer/SDKs/iPhoneOS16.2.sdk");
+		put(sdk, "PLATFORM_NAME", "iphoneos");
+		put(sdk, "SDK_NAME", "iphoneos16.2");
+		put(sdk, "CONFIGURATION", "Debug");
+		put(sdk, "EFFECTIVE_PLATFORM_NAME", "-$(PLATFORM_NAME)");
+		put(sdk, "BUILD_DIR", "/tmp/DerivedData/Build/Products");
+		put(sdk, "CONFIGURATION_BUILD_DIR", "$(BUILD_DIR)/$(CONFIGURATION)$(EFFECTIVE_PLATFORM_NAME)");
+		put(sdk, "BUILT_PRODUCTS_DIR", "$(CONFIGURATION_BUILD_DIR)");
+		for (int i = 0; i < buildSettingCount; ++i) {
+			put(sdk, "SETTING_" + i, "-default-" + i);
+			for (int level = 0; level < levels.size(); ++level) {
+				final String value = i % 3 == 0 ? "$(inherited) -level" + level + "-" + i
+					: i % 3 == 1 ? "$(inherited) \"$(BUILT_PRODUCTS_DIR)/Module" + i + "\""
+					: "$(inherited) $(SETTING_" + (i / 2) + ")";
+				levels.get(level).put("SETTING_" + i, ConditionalBuildSettingDefinitions.builder("SETTING_" + i)
+					.put("", new DefaultXCBuildSetting("SETTING_" + i, XCString.of(value)))
+					.put("[sdk=iphonesimulator*]", new DefaultXCBuildSetting("SETTING_" + i, XCString.of("$(inherited) -simulator")))
+					.build());
+				rawValues.add(value);
+			}
+			names.add("SETTING_" + i);
+		}
+
+		final ImmutableList.Builder<XCBuildSettingLayer> layers = ImmutableList.builder();
+		levels.forEach(it -> layers.add(new XCBuildSettingDefinitionLayer(it)));
+		layers.add(new DefaultXCBuildSettingLayer(sdk));
+		layer = new CompositeXCBuildSettingLayer(layers.build());
+	}
+
+	private static void put(Map<String, XCBuildSetting> buildSettings, String name, String value) {
+		buildSettings.put(name, new DefaultXCBuildSetting(name, XCString.of(value)));
+	}
+
+	@Benchmark
+	public void parseWithAntlr(Blackhole blackhole) {
+		for (String rawValue : rawValues) {
+			blackhole.consume(antlrParser.parse(rawValue));
+		}
+	}
+
+	@Benchmark
+	public void parseWithMemoization(Blackhole blackhole) {
+		for (String rawValue : rawValues) {
+			blackhole.consume(memoizedParser.parse(rawValue));
+		}
+	}
+
+	@Benchmark
+	public void evaluateWithoutMemoization(Blackhole blackhole) {
+		final NonMemoizedBuildSettings buildSettings = new NonMemoizedBuildSettings(layer);
+		for (String name : names) {
+			blackhole.consume(buildSettings.get(name));
+		}
+	}
+
+	@Benchmark
+	public void evaluateWithMemoization(Blackhole blackhole) {
+		final DefaultXCBuildSettings buildSettings = new DefaultXCBuildSettings(layer);
+		for (String name : names) {
+			blackhole.consume(buildSettings.get(name));
+		}
+	}
+
+	// Evaluates every reference from the top layer, as before the memoization
+	private static final class NonMemoizedBuildSettings implements XCBuildSettings {
+		private final XCBuildSettingLayer layer;
+
+		private NonMemoizedBuildSettings(XCBuildSettingLayer layer) {
+			this.layer = layer;
+		}
+
+		@Override
+		public String get(String name) {
+			return layer.find(new DefaultXCBuildSettingSearchContext(name)).evaluate(new DefaultXCBuildSettingEvaluationContext(this));
+		}
+	}
+}
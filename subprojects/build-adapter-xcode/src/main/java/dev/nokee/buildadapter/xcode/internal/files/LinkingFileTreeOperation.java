@@ -0,0 +1,420 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.nokee.buildadapter.xcode.internal.files;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Copies file trees by hard-linking the files instead of copying their content.
+ *
+ * <p>Destination files with the same size and last modified time as their source are considered unchanged and left untouched.
+ * Changed destination files are replaced, never written through, so a file shared with the source tree is never modified by this operation.
+ * However, Xcode tools modify some build products in place (e.g. {@code codesign}, {@code strip} or {@code install_name_tool} rewrite binaries),
+ * which would write through a hard link into the source tree.
+ * Those files, i.e. Mach-O binaries, static archives and code signatures, are always copied.
+ * The remaining files (headers, modules, resources, etc.) are only ever replaced by Xcode, so they are safe to link.
+ * Note that touching a linked file still updates the last modified time of its source, which the next synchronization sees as a change.
+ * When the file system doesn't support hard links (e.g. across volumes), the file is copied with its attributes.
+ * In all cases, the last modified time of files and directories is preserved, see {@link PreserveLastModifiedFileSystemOperation}.
+ */
+public final class LinkingFileTreeOperation {
+	private static final Set<String> BINARY_EXTENSIONS = new HashSet<>(Arrays.asList("a", "dylib", "o", "so"));
+	// MH_MAGIC, MH_MAGIC_64, FAT_MAGIC, FAT_MAGIC_64 in both byte orders
+	private static final Set<Integer> MACH_O_MAGICS = new HashSet<>(Arrays.asList(0xFEEDFACE, 0xCEFAEDFE, 0xFEEDFACF, 0xCFFAEDFE, 0xCAFEBABE, 0xBEBAFECA, 0xCAFEBABF, 0xBFBAFECA));
+	private static final byte[] AR_MAGIC = "!<arch>\n".getBytes(StandardCharsets.US_ASCII);
+	private final Statistics statistics = new Statistics();
+
+	/**
+	 * Copies the content of each source directories into the destination directory.
+	 * Regular file sources are copied directly into the destination directory.
+	 * Later sources overwrite the files of earlier sources.
+	 *
+	 * @param sources  the source directories or files, must not be null
+	 * @param destination  the destination directory, must not be null
+	 * @return the operation statistics, never null
+	 */
+	public Statistics copy(Iterable<Path> sources, Path destination) {
+		try {
+			final Map<Path, Path> entries = new LinkedHashMap<>();
+			for (Path source : sources) {
+				if (Files.isDirectory(source)) {
+					collect(source, destination, entries);
+				} else if (Files.isRegularFile(source)) {
+					entries.put(destination.resolve(source.getFileName().toString()), source);
+				}
+			}
+			apply(destination, entries);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return statistics;
+	}
+
+	/**
+	 * Synchronizes the destination directory with the source directory.
+	 * Files in the destination directory that do not exist in the source directory are deleted.
+	 *
+	 * @param source  the source directory, a missing directory is considered empty, must not be null
+	 * @param destination  the destination directory, must not be null
+	 * @return the operation statistics, never null
+	 */
+	public Statistics sync(Path source, Path destination) {
+		try {
+			final Map<Path, Path> entries = new LinkedHashMap<>();
+			if (Files.isDirectory(source)) {
+				collect(source, destination, entries);
+			}
+			apply(destination, entries);
+
+			final Set<Path> retainedPaths = new HashSet<>(entries.keySet());
+			retainedPaths.add(destination);
+			deleteStale(destination, retainedPaths);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return statistics;
+	}
+
+	/**
+	 * Synchronizes the destination directory with the source directory using the manifest of the last synchronization.
+	 * Only the entries that changed since the last synchronization are transferred and only the entries recorded in the manifest but missing from the source directory are deleted.
+	 * The destination of each unchanged entry is checked against the manifest, without walking the destination directory.
+	 * Without a valid manifest (e.g. first synchronization or modified destination directory), it behaves as {@link #sync(Path, Path)}.
+	 *
+	 * @param source  the source directory, a missing directory is considered empty, must not be null
+	 * @param destination  the destination directory, must not be null
+	 * @param manifestFile  the manifest file to read and update, must not be null
+	 * @return the operation statistics, never null
+	 */
+	public Statistics sync(Path source, Path destination, Path manifestFile) {
+		try {
+			SyncManifest previousManifest = SyncManifest.read(manifestFile);
+			if (previousManifest != null && (!Files.isDirectory(destination) || Files.getLastModifiedTime(destination).toMillis() != previousManifest.getDestinationLastModifiedTime())) {
+				previousManifest = null; // destination was modified outside this operation
+			}
+			final Map<String, SyncManifest.Entry> previousEntries = previousManifest == null ? Collections.emptyMap() : previousManifest.getEntries();
+
+			final Map<String, SyncManifest.Entry> currentEntries = new LinkedHashMap<>();
+			final Map<Path, Path> allEntries = new LinkedHashMap<>();
+			final Map<Path, Path> changedEntries = new LinkedHashMap<>();
+			final Set<String> touchedDirectories = new HashSet<>();
+			final boolean[] destinationModified = new boolean[] { previousManifest == null };
+			final long[] unchangedFileCount = new long[1];
+			if (Files.isDirectory(source)) {
+				Files.walkFileTree(source, EnumSet.of(FileVisitOption.FOLLOW_LINKS), Integer.MAX_VALUE, new SimpleFileVisitor<Path>() {
+					@Override
+					public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+						visit(dir, attrs);
+						return FileVisitResult.CONTINUE;
+					}
+
+					@Override
+					public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+						visit(file, attrs);
+						return FileVisitResult.CONTINUE;
+					}
+
+					private void visit(Path path, BasicFileAttributes attrs) throws IOException {
+						final String relativePath = source.relativize(path).toString();
+						final SyncManifest.Entry entry = SyncManifest.Entry.of(attrs);
+						final Path target = destination.resolve(relativePath);
+						currentEntries.put(relativePath, entry);
+						allEntries.put(target, path);
+						if (destinationModified[0]) {
+							return; // full synchronization, no need to compare
+						} else if (entry.equals(previousEntries.get(relativePath))) {
+							// The entry is unchanged, the destination must still match it (e.g. not deleted or modified by another tool)
+							if (!matches(target, entry)) {
+								destinationModified[0] = true;
+							} else if (!entry.isDirectory()) {
+								unchangedFileCount[0]++;
+							}
+						} else {
+							changedEntries.put(target, path);
+							touchParentDirectories(relativePath, touchedDirectories);
+						}
+					}
+				});
+			}
+
+			if (destinationModified[0]) {
+				apply(destination, allEntries);
+				final Set<Path> retainedPaths = new HashSet<>(allEntries.keySet());
+				retainedPaths.add(destination);
+				deleteStale(destination, retainedPaths);
+			} else {
+				statistics.unchangedFileCount += unchangedFileCount[0];
+
+				// Children sort after their parent, delete them first
+				final List<String> stalePaths = new ArrayList<>();
+				for (String relativePath : previousEntries.keySet()) {
+					if (!relativePath.isEmpty() && !currentEntries.containsKey(relativePath)) {
+						stalePaths.add(relativePath);
+					}
+				}
+				stalePaths.sort(Collections.reverseOrder());
+				for (String relativePath : stalePaths) {
+					final Path target = destination.resolve(relativePath);
+					if (Files.exists(target, LinkOption.NOFOLLOW_LINKS)) {
+						deleteRecursively(target);
+						if (!previousEntries.get(relativePath).isDirectory()) {
+							statistics.deletedFileCount++;
+						}
+					}
+					touchParentDirectories(relativePath, touchedDirectories);
+				}
+
+				apply(destination, changedEntries);
+
+				// Adding or removing entries changes the parent directories last modified time
+				for (String relativePath : touchedDirectories) {
+					if (currentEntries.containsKey(relativePath)) {
+						Files.setLastModifiedTime(destination.resolve(relativePath), Files.getLastModifiedTime(source.resolve(relativePath)));
+					}
+				}
+			}
+
+			new SyncManifest(Files.getLastModifiedTime(destination).toMillis(), currentEntries).write(manifestFile);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return statistics;
+	}
+
+	// Destination directories keep the last modified time of their source, adding or removing a child is detected as well
+	private static boolean matches(Path target, SyncManifest.Entry entry) throws IOException {
+		if (!Files.exists(target, LinkOption.NOFOLLOW_LINKS)) {
+			return false;
+		}
+		return entry.equals(SyncManifest.Entry.of(Files.readAttributes(target, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS)));
+	}
+
+	private static void touchParentDirectories(String relativePath, Set<String> touchedDirectories) {
+		Path parent = Paths.get(relativePath).getParent();
+		while (parent != null && touchedDirectories.add(parent.toString())) {
+			parent = parent.getParent();
+		}
+		if (!relativePath.isEmpty()) {
+			touchedDirectories.add("");
+		}
+	}
+
+	// Maps each destination path to its source, the later sources win
+	private static void collect(Path source, Path destination, Map<Path, Path> entries) throws IOException {
+		// Follow the symbolic links, like Gradle's copy
+		Files.walkFileTree(source, EnumSet.of(FileVisitOption.FOLLOW_LINKS), Integer.MAX_VALUE, new SimpleFileVisitor<Path>() {
+			@Override
+			public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+				entries.put(destination.resolve(source.relativize(dir).toString()), dir);
+				return FileVisitResult.CONTINUE;
+			}
+
+			@Override
+			public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+				entries.put(destination.resolve(source.relativize(file).toString()), file);
+				return FileVisitResult.CONTINUE;
+			}
+		});
+	}
+
+	private void apply(Path destination, Map<Path, Path> entries) throws IOException {
+		Files.createDirectories(destination);
+		final List<Map.Entry<Path, Path>> directories = new ArrayList<>();
+		for (Map.Entry<Path, Path> entry : entries.entrySet()) {
+			final Path target = entry.getKey();
+			final BasicFileAttributes sourceAttributes = Files.readAttributes(entry.getValue(), BasicFileAttributes.class);
+			if (sourceAttributes.isDirectory()) {
+				if (Files.exists(target, LinkOption.NOFOLLOW_LINKS) && !Files.isDirectory(target, LinkOption.NOFOLLOW_LINKS)) {
+					Files.delete(target);
+				}
+				Files.createDirectories(target);
+				directories.add(entry);
+			} else {
+				copyFile(entry.getValue(), target, sourceAttributes);
+			}
+		}
+
+		// Adding files changes the directories last modified time, restore them last and children first
+		Collections.reverse(directories);
+		for (Map.Entry<Path, Path> directory : directories) {
+			Files.setLastModifiedTime(directory.getKey(), Files.getLastModifiedTime(directory.getValue()));
+		}
+	}
+
+	private void copyFile(Path source, Path target, BasicFileAttributes sourceAttributes) throws IOException {
+		if (Files.exists(target, LinkOption.NOFOLLOW_LINKS)) {
+			final BasicFileAttributes targetAttributes = Files.readAttributes(target, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+			if (targetAttributes.isRegularFile() && targetAttributes.size() == sourceAttributes.size() && targetAttributes.lastModifiedTime().equals(sourceAttributes.lastModifiedTime())) {
+				statistics.unchangedFileCount++;
+				return;
+			}
+			deleteRecursively(target);
+		}
+
+		if (!isModifiedInPlace(source)) {
+			try {
+				// Hard-linking a symbolic link may link the link itself, depending on the platform
+				Files.createLink(target, Files.isSymbolicLink(source) ? source.toRealPath() : source);
+				statistics.linkedFileCount++;
+				statistics.linkedByteCount += sourceAttributes.size();
+				return;
+			} catch (UnsupportedOperationException | IOException e) {
+				// fall back to copying
+			}
+		}
+
+		Files.copy(source, target, StandardCopyOption.COPY_ATTRIBUTES);
+		statistics.copiedFileCount++;
+		statistics.copiedByteCount += sourceAttributes.size();
+	}
+
+	// Binaries are usually without extension inside bundles (e.g. Foo.framework/Foo), only the candidates are read
+	private static boolean isModifiedInPlace(Path file) throws IOException {
+		final Path parent = file.getParent();
+		if (parent != null && parent.getFileName() != null && parent.getFileName().toString().equals("_CodeSignature")) {
+			return true;
+		}
+
+		final String fileName = file.getFileName().toString();
+		final int extensionIndex = fileName.lastIndexOf('.');
+		final String extension = extensionIndex <= 0 ? "" : fileName.substring(extensionIndex + 1);
+		if (!extension.isEmpty() && !BINARY_EXTENSIONS.contains(extension)) {
+			return false;
+		}
+
+		final byte[] magic = new byte[8];
+		int count = 0;
+		try (InputStream inStream = Files.newInputStream(file)) {
+			for (int n = 0; count < magic.length && (n = inStream.read(magic, count, magic.length - count)) != -1; ) {
+				count += n;
+			}
+		}
+		if (count >= 4) {
+			final int value = ((magic[0] & 0xFF) << 24) | ((magic[1] & 0xFF) << 16) | ((magic[2] & 0xFF) << 8) | (magic[3] & 0xFF);
+			if (MACH_O_MAGICS.contains(value)) {
+				return true;
+			}
+		}
+		return count == AR_MAGIC.length && Arrays.equals(magic, AR_MAGIC);
+	}
+
+	private void deleteStale(Path destination, Set<Path> retainedPaths) throws IOException {
+		Files.walkFileTree(destination, new SimpleFileVisitor<Path>() {
+			@Override
+			public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+				if (!retainedPaths.contains(file)) {
+					Files.delete(file);
+					statistics.deletedFileCount++;
+				}
+				return FileVisitResult.CONTINUE;
+			}
+
+			@Override
+			public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+				if (exc != null) {
+					throw exc;
+				}
+				if (!retainedPaths.contains(dir)) {
+					Files.delete(dir);
+				}
+				return FileVisitResult.CONTINUE;
+			}
+		});
+	}
+
+	private void deleteRecursively(Path path) throws IOException {
+		if (Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
+			Files.walkFileTree(path, new SimpleFileVisitor<Path>() {
+				@Override
+				public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+					Files.delete(file);
+					return FileVisitResult.CONTINUE;
+				}
+
+				@Override
+				public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+					if (exc != null) {
+						throw exc;
+					}
+					Files.delete(dir);
+					return FileVisitResult.CONTINUE;
+				}
+			});
+		} else {
+			Files.delete(path);
+		}
+	}
+
+	public static final class Statistics {
+		private long linkedFileCount;
+		private long linkedByteCount;
+		private long copiedFileCount;
+		private long copiedByteCount;
+		private long unchangedFileCount;
+		private long deletedFileCount;
+
+		public long getLinkedFileCount() {
+			return linkedFileCount;
+		}
+
+		public long getLinkedByteCount() {
+			return linkedByteCount;
+		}
+
+		public long getCopiedFileCount() {
+			return copiedFileCount;
+		}
+
+		public long getCopiedByteCount() {
+			return copiedByteCount;
+		}
+
+		public long getUnchangedFileCount() {
+			return unchangedFileCount;
+		}
+
+		public long getDeletedFileCount() {
+			return deletedFileCount;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("%d files linked (%d bytes), %d files copied (%d bytes), %d files unchanged, %d files deleted",
+				linkedFileCount, linkedByteCount, copiedFileCount, copiedByteCount, unchangedFileCount, deletedFileCount);
+		}
+	}
+}
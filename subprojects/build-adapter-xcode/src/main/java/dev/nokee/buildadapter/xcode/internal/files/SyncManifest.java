@@ -0,0 +1,141 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.nokee.buildadapter.xcode.internal.files;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Records the source state of each entry (relative path) last synchronized into a destination directory.
+ * The manifest is only valid for a destination which last modified time matches the one recorded.
+ */
+final class SyncManifest {
+	private static final int VERSION = 1;
+	private final long destinationLastModifiedTime;
+	private final Map<String, Entry> entries;
+
+	SyncManifest(long destinationLastModifiedTime, Map<String, Entry> entries) {
+		this.destinationLastModifiedTime = destinationLastModifiedTime;
+		this.entries = Collections.unmodifiableMap(entries);
+	}
+
+	public long getDestinationLastModifiedTime() {
+		return destinationLastModifiedTime;
+	}
+
+	public Map<String, Entry> getEntries() {
+		return entries;
+	}
+
+	/**
+	 * Reads the manifest from the specified file.
+	 *
+	 * @param manifestFile  the manifest file, must not be null
+	 * @return the manifest or {@code null} if the manifest is missing or unreadable
+	 */
+	public static SyncManifest read(Path manifestFile) {
+		if (!Files.isRegularFile(manifestFile)) {
+			return null;
+		}
+
+		try (DataInputStream inStream = new DataInputStream(new BufferedInputStream(Files.newInputStream(manifestFile)))) {
+			if (inStream.readInt() != VERSION) {
+				return null;
+			}
+			final long destinationLastModifiedTime = inStream.readLong();
+			final int size = inStream.readInt();
+			final Map<String, Entry> entries = new LinkedHashMap<>(size * 4 / 3 + 1);
+			for (int i = 0; i < size; ++i) {
+				final String path = inStream.readUTF();
+				entries.put(path, new Entry(inStream.readBoolean(), inStream.readLong(), inStream.readLong()));
+			}
+			return new SyncManifest(destinationLastModifiedTime, entries);
+		} catch (IOException e) {
+			return null; // corrupted, a full sync will rewrite it
+		}
+	}
+
+	/**
+	 * Writes this manifest into the specified file, atomically when supported.
+	 *
+	 * @param manifestFile  the manifest file, must not be null
+	 * @throws IOException if the manifest could not be written
+	 */
+	public void write(Path manifestFile) throws IOException {
+		Files.createDirectories(manifestFile.getParent());
+		final Path temporaryFile = manifestFile.resolveSibling(manifestFile.getFileName() + ".tmp");
+		try (DataOutputStream outStream = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporaryFile)))) {
+			outStream.writeInt(VERSION);
+			outStream.writeLong(destinationLastModifiedTime);
+			outStream.writeInt(entries.size());
+			for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+				outStream.writeUTF(entry.getKey());
+				outStream.writeBoolean(entry.getValue().directory);
+				outStream.writeLong(entry.getValue().size);
+				outStream.writeLong(entry.getValue().lastModifiedTime);
+			}
+		}
+		Files.move(temporaryFile, manifestFile, StandardCopyOption.REPLACE_EXISTING);
+	}
+
+	public static final class Entry {
+		private final boolean directory;
+		private final long size;
+		private final long lastModifiedTime;
+
+		Entry(boolean directory, long size, long lastModifiedTime) {
+			this.directory = directory;
+			this.size = size;
+			this.lastModifiedTime = lastModifiedTime;
+		}
+
+		public static Entry of(BasicFileAttributes attributes) {
+			return new Entry(attributes.isDirectory(), attributes.isDirectory() ? 0 : attributes.size(), attributes.lastModifiedTime().toMillis());
+		}
+
+		public boolean isDirectory() {
+			return directory;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof Entry)) {
+				return false;
+			}
+			final Entry that = (Entry) o;
+			return directory == that.directory && size == that.size && lastModifiedTime == that.lastModifiedTime;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(directory, size, lastModifiedTime);
+		}
+	}
+}
@@ -15,12 +15,12 @@
  */
 package dev.nokee.buildadapter.xcode.internal.plugins;
 
-import dev.nokee.buildadapter.xcode.internal.files.PreserveLastModifiedFileSystemOperation;
+import dev.nokee.buildadapter.xcode.internal.files.LinkingFileTreeOperation;
 import org.gradle.api.file.ConfigurableFileCollection;
 import org.gradle.api.file.Directory;
 import org.gradle.api.file.DirectoryProperty;
-import org.gradle.api.file.DuplicatesStrategy;
-import org.gradle.api.file.FileSystemOperations;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
 import org.gradle.api.tasks.InputFiles;
 import org.gradle.api.tasks.Internal;
 import org.gradle.api.tasks.OutputFiles;
@@ -29,6 +29,10 @@ import org.gradle.workers.WorkParameters;
 import org.gradle.workers.WorkerExecutor;
 
 import javax.inject.Inject;
+import java.io.File;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
 
 @SuppressWarnings("UnstableApiUsage")
 public abstract class AssembleDerivedDataDirectoryTask extends ParameterizedTask<AssembleDerivedDataDirectoryTask.Parameters> {
@@ -57,35 +61,27 @@ public abstract class AssembleDerivedDataDirectoryTask extends ParameterizedTask
 	}
 
 	public static abstract class TaskAction implements WorkAction<Parameters> {
-		private final FileSystemOperations fileOperations;
-
-		@Inject
-		public TaskAction(FileSystemOperations fileOperations) {
-			this.fileOperations = fileOperations;
-		}
-
 		@Override
 		public void execute() {
-			new DerivedDataAssemblingRunnable(fileOperations, getParameters()).run();
+			new DerivedDataAssemblingRunnable(getParameters()).run();
 		}
 	}
 
 	public static final class DerivedDataAssemblingRunnable implements Runnable {
-		private final FileSystemOperations fileOperations;
+		private static final Logger LOGGER = Logging.getLogger(DerivedDataAssemblingRunnable.class);
 		private final Parameters parameters;
 
-		public DerivedDataAssemblingRunnable(FileSystemOperations fileOperations, Parameters parameters) {
-			this.fileOperations = fileOperations;
+		public DerivedDataAssemblingRunnable(Parameters parameters) {
 			this.parameters = parameters;
 		}
 
 		@Override
 		public void run() {
-			new PreserveLastModifiedFileSystemOperation(fileOperations::copy).execute(spec -> {
-				spec.from(parameters.getIncomingDerivedDataPaths());
-				spec.into(parameters.getXcodeDerivedDataPath());
-				spec.setDuplicatesStrategy(DuplicatesStrategy.INCLUDE);
-			});
+			// Each downstream target assembles all upstream products, link them instead of copying
+			final Path destination = parameters.getXcodeDerivedDataPath().get().getAsFile().toPath();
+			final List<Path> sources = parameters.getIncomingDerivedDataPaths().getFiles().stream().map(File::toPath).collect(Collectors.toList());
+			final LinkingFileTreeOperation.Statistics statistics = new LinkingFileTreeOperation().copy(sources, destination);
+			LOGGER.info("Assembled derived data directory '{}': {}", destination, statistics);
 		}
 
 		public interface Parameters {
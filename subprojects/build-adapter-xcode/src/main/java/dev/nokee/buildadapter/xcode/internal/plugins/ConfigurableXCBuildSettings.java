@@ -44,6 +44,9 @@ import java.util.stream.Collectors;
 import static java.util.stream.Collectors.joining;
 
 public abstract class ConfigurableXCBuildSettings implements XCBuildSettings {
+	// Evaluated build settings shared by every lookup once the value is final, see finalizeValue()
+	@Nullable private volatile XCBuildSettings finalizedValue;
+
 	@Nullable
 	@Override
 	public String get(String name) {
@@ -116,17 +119,40 @@ public abstract class ConfigurableXCBuildSettings implements XCBuildSettings {
 		return this;
 	}
 
+	/**
+	 * Disallows further changes and evaluates the build settings once.
+	 * Each build setting is then evaluated at most once across all lookups, instead of once per lookup.
+	 * The values of providers added to this instance are captured at this point.
+	 *
+	 * @return this
+	 */
+	public synchronized ConfigurableXCBuildSettings finalizeValue() {
+		if (finalizedValue == null) {
+			getObjects().finalizeValue();
+			finalizedValue = evaluate(getObjects().get());
+		}
+		return this;
+	}
+
 	@Internal
 	protected abstract ListProperty<Object> getObjects();
 
 	@Input
 	protected Provider<XCBuildSettings> getValue() {
 		return getObjects().map(it -> {
-			List<Object> l = new ArrayList<>(it);
-			Collections.reverse(l);
-			// flatUnpack takes care of the Iterable, List, Set, Provider of any value, Callable of any value, etc.
-			//   toLayer only needs to consider Map, XCBuildSettingLayer
-			return new DefaultXCBuildSettings(new CompositeXCBuildSettingLayer(DeferredUtils.flatUnpack(l).stream().map(ConfigurableXCBuildSettings::toLayer).collect(Collectors.toList())));
+			final XCBuildSettings result = finalizedValue;
+			if (result != null) {
+				return result;
+			}
+			return evaluate(it);
 		});
 	}
+
+	private static XCBuildSettings evaluate(List<Object> objects) {
+		List<Object> l = new ArrayList<>(objects);
+		Collections.reverse(l);
+		// flatUnpack takes care of the Iterable, List, Set, Provider of any value, Callable of any value, etc.
+		//   toLayer only needs to consider Map, XCBuildSettingLayer
+		return new DefaultXCBuildSettings(new CompositeXCBuildSettingLayer(DeferredUtils.flatUnpack(l).stream().map(ConfigurableXCBuildSettings::toLayer).collect(Collectors.toList())));
+	}
 }
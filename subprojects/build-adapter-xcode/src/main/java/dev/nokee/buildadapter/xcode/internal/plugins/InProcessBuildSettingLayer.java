@@ -0,0 +1,382 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.nokee.buildadapter.xcode.internal.plugins;
+
+import com.google.common.base.Suppliers;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import dev.nokee.xcode.CompositeXCBuildSettingLayer;
+import dev.nokee.xcode.ConditionalBuildSettingDefinitions;
+import dev.nokee.xcode.DefaultXCBuildSetting;
+import dev.nokee.xcode.DefaultXCBuildSettingLayer;
+import dev.nokee.xcode.SDKSettingsLoader;
+import dev.nokee.xcode.XCBuildSetting;
+import dev.nokee.xcode.XCBuildSettingDefinition;
+import dev.nokee.xcode.XCBuildSettingDefinitionLayer;
+import dev.nokee.xcode.XCBuildSettingLayer;
+import dev.nokee.xcode.XCConfigParser;
+import dev.nokee.xcode.XCFileReferencesLoader;
+import dev.nokee.xcode.XCLoaders;
+import dev.nokee.xcode.XCString;
+import dev.nokee.xcode.XCTargetReference;
+import dev.nokee.xcode.objects.PBXProject;
+import dev.nokee.xcode.objects.configuration.BuildSettings;
+import dev.nokee.xcode.objects.configuration.XCBuildConfiguration;
+import dev.nokee.xcode.objects.configuration.XCConfigurationList;
+import dev.nokee.xcode.objects.targets.PBXTarget;
+import lombok.val;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.gradle.api.model.ObjectFactory;
+import org.gradle.api.provider.Property;
+import org.gradle.api.provider.Provider;
+
+import javax.annotation.Nullable;
+import java.io.UncheckedIOException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static dev.nokee.util.provider.ZipProviderBuilder.newBuilder;
+import static dev.nokee.utils.ProviderUtils.disallowChanges;
+import static dev.nokee.utils.ProviderUtils.finalizeValueOnRead;
+
+/**
+ * Evaluates the build settings of a target in process, avoiding {@code xcodebuild -showBuildSettings}.
+ *
+ * <p>The layers follow the Xcode build settings levels: the overriding xcconfig (i.e. {@code XCODE_XCCONFIG_FILE}), the target's build configuration, the target's xcconfig,
+ * the project's build configuration, the project's xcconfig and the SDK defaults.
+ * Build settings without any in-process definition, or inheriting from an unknown lower level, fall through to the next layer, usually {@link XcodebuildBuildSettingLayer}.
+ * The next layer returns the final value of a build setting, so a fall through always replaces the whole in-process evaluation of that build setting.
+ * Inheriting from the bottom of the in-process layers evaluates to a sentinel value, which triggers the fall through.
+ */
+public final class InProcessBuildSettingLayer implements XCBuildSettingLayer {
+	private static final Logger LOGGER = Logging.getLogger(InProcessBuildSettingLayer.class);
+	private static final LongAdder lookupCount = new LongAdder();
+	private static final LongAdder fallThroughCount = new LongAdder();
+	private final Provider<XCBuildSettingLayer> layers;
+
+	public InProcessBuildSettingLayer(Provider<XCBuildSettingLayer> layers) {
+		this.layers = layers;
+	}
+
+	@Override
+	public XCBuildSetting find(SearchContext context) {
+		lookupCount.increment();
+		final XCBuildSetting result = layers.get().find(new BottomSearchContext(context.getName()));
+		if (result == FallThrough.INSTANCE) {
+			fallThroughCount.increment();
+			return context.findNext();
+		}
+		return new FallThroughAwareBuildSetting(result, Suppliers.memoize(context::findNext));
+	}
+
+	@Override
+	public Map<String, XCBuildSetting> findAll() {
+		return layers.get().findAll();
+	}
+
+	@Override
+	public void accept(Visitor visitor) {
+		visitor.visit(this);
+	}
+
+	/**
+	 * Returns the lookup statistics since the last {@link #resetStatistics()}.
+	 *
+	 * @return a statistics snapshot, never null
+	 */
+	public static Statistics statistics() {
+		return new Statistics(lookupCount.sum(), fallThroughCount.sum());
+	}
+
+	public static void resetStatistics() {
+		lookupCount.reset();
+		fallThroughCount.reset();
+	}
+
+	public static final class Statistics {
+		private final long lookupCount;
+		private final long fallThroughCount;
+
+		private Statistics(long lookupCount, long fallThroughCount) {
+			this.lookupCount = lookupCount;
+			this.fallThroughCount = fallThroughCount;
+		}
+
+		public long getLookupCount() {
+			return lookupCount;
+		}
+
+		public long getFallThroughCount() {
+			return fallThroughCount;
+		}
+
+		@Override
+		public String toString() {
+			final double coverage = lookupCount == 0 ? 100.0 : 100.0 * (lookupCount - fallThroughCount) / lookupCount;
+			return String.format("%d lookups, %d fell through to xcodebuild (%.1f%% evaluated in process)", lookupCount, fallThroughCount, coverage);
+		}
+	}
+
+	private static final class BottomSearchContext implements SearchContext {
+		private final String name;
+
+		private BottomSearchContext(String name) {
+			this.name = name;
+		}
+
+		@Override
+		public String getName() {
+			return name;
+		}
+
+		@Override
+		public XCBuildSetting findNext() {
+			return FallThrough.INSTANCE;
+		}
+	}
+
+	// Marks the bottom of the in-process layers, evaluating it requires the next layer
+	private enum FallThrough implements XCBuildSetting {
+		INSTANCE;
+
+		// Sentinel value, the evaluation of a build setting inheriting from the bottom contains it, possibly transformed by operators (e.g. $(inherited:upper))
+		private static final String VALUE = "__NOKEE_FALL_THROUGH__";
+
+		@Override
+		public String getName() {
+			return VALUE;
+		}
+
+		@Override
+		public String evaluate(EvaluationContext context) {
+			return VALUE;
+		}
+
+		public static boolean isReachedBy(@Nullable String value) {
+			if (value == null) {
+				return false;
+			}
+			for (int i = value.indexOf('_'); i >= 0 && i <= value.length() - VALUE.length(); i = value.indexOf('_', i + 1)) {
+				if (value.regionMatches(true, i, VALUE, 0, VALUE.length())) {
+					return true;
+				}
+			}
+			return false;
+		}
+	}
+
+	private static final class FallThroughAwareBuildSetting implements XCBuildSetting {
+		private final XCBuildSetting delegate;
+		private final Supplier<XCBuildSetting> next;
+
+		private FallThroughAwareBuildSetting(XCBuildSetting delegate, Supplier<XCBuildSetting> next) {
+			this.delegate = delegate;
+			this.next = next;
+		}
+
+		@Override
+		public String getName() {
+			return delegate.getName();
+		}
+
+		@Nullable
+		@Override
+		public String evaluate(EvaluationContext context) {
+			final String result = delegate.evaluate(context);
+			if (FallThrough.isReachedBy(result)) {
+				fallThroughCount.increment();
+				return next.get().evaluate(context);
+			}
+			return result;
+		}
+
+		@Override
+		public String toString() {
+			return delegate.toString();
+		}
+	}
+
+	public static final class Builder {
+		private final ObjectFactory objects;
+		private final Property<XCTargetReference> targetReference;
+		private final Property<String> configuration;
+		private final Property<String> sdk;
+		private final Property<Path> developerDir;
+		private final Property<Path> overridingXcconfigFile;
+
+		public Builder(ObjectFactory objects) {
+			this.objects = objects;
+			this.targetReference = objects.property(XCTargetReference.class);
+			this.configuration = objects.property(String.class);
+			this.sdk = objects.property(String.class);
+			this.developerDir = objects.property(Path.class);
+			this.overridingXcconfigFile = objects.property(Path.class);
+		}
+
+		public Builder targetReference(Provider<XCTargetReference> reference) {
+			assert reference != null : "'reference' must not be null";
+			this.targetReference.set(reference);
+			return this;
+		}
+
+		// Use the target's default configuration, if absent
+		public Builder configuration(Provider<String> configuration) {
+			assert configuration != null : "'configuration' must not be null";
+			this.configuration.set(configuration);
+			return this;
+		}
+
+		// Use the target's SDKROOT, if absent
+		public Builder sdk(Provider<String> sdk) {
+			assert sdk != null : "'sdk' must not be null";
+			this.sdk.set(sdk);
+			return this;
+		}
+
+		public Builder developerDir(Provider<Path> developerDir) {
+			assert developerDir != null : "'developerDir' must not be null";
+			this.developerDir.set(developerDir);
+			return this;
+		}
+
+		// Xcode applies the xcconfig file from XCODE_XCCONFIG_FILE on top of every configuration, if present
+		public Builder overridingXcconfigFile(Provider<Path> xcconfigFile) {
+			assert xcconfigFile != null : "'xcconfigFile' must not be null";
+			this.overridingXcconfigFile.set(xcconfigFile);
+			return this;
+		}
+
+		public XCBuildSettingLayer build() {
+			val layers = finalizeValueOnRead(disallowChanges(objects.property(XCBuildSettingLayer.class)
+				.value(newBuilder(objects).value(targetReference).value(configuration.orElse("")).value(developerDir).value(sdk.orElse("")).value(overridingXcconfigFile.map(Path::toString).orElse("")).zip(values -> {
+					final XCTargetReference reference = values.get(0);
+					try {
+						return layersOf(reference, values.get(1), values.get(2), values.get(3), values.get(4));
+					} catch (RuntimeException e) {
+						return fallThroughEverything(reference, e);
+					}
+				}))));
+			return new InProcessBuildSettingLayer(layers);
+		}
+
+		private static XCBuildSettingLayer fallThroughEverything(XCTargetReference reference, Exception cause) {
+			LOGGER.info(String.format("Could not evaluate build settings of %s in process, falling back to xcodebuild.", reference), cause);
+			return new DefaultXCBuildSettingLayer(ImmutableMap.of());
+		}
+
+		private static XCBuildSettingLayer layersOf(XCTargetReference reference, String configurationName, Path developerDir, String sdk, String overridingXcconfigFile) {
+			final PBXProject project = XCLoaders.pbxprojectLoader().load(reference.getProject());
+			final PBXTarget target = project.getTargets().stream().filter(it -> it.getName().equals(reference.getName())).findFirst()
+				.orElseThrow(() -> new IllegalStateException(String.format("Could not find target '%s'.", reference.getName())));
+			final XCFileReferencesLoader.XCFileReferences fileRefs = XCLoaders.fileReferences().load(reference.getProject());
+			final SourceRootResolveContext context = new SourceRootResolveContext(reference.getProject());
+
+			final XCBuildConfiguration targetConfiguration = configurationOf(target.getBuildConfigurationList(), configurationName);
+			final XCBuildConfiguration projectConfiguration = configurationOf(project.getBuildConfigurationList(), targetConfiguration.getName());
+
+			final ImmutableList.Builder<XCBuildSettingLayer> result = ImmutableList.builder();
+			final List<Map<String, XCBuildSettingDefinition>> levels = ImmutableList.of(
+				overridingXcconfigFile.isEmpty() ? ImmutableMap.of() : XCConfigParser.parse(Paths.get(overridingXcconfigFile)),
+				definitionsOf(targetConfiguration.getBuildSettings()),
+				xcconfigOf(targetConfiguration, fileRefs, context),
+				definitionsOf(projectConfiguration.getBuildSettings()),
+				xcconfigOf(projectConfiguration, fileRefs, context));
+			levels.forEach(it -> result.add(new XCBuildSettingDefinitionLayer(it)));
+
+			final String effectiveSdk = sdk.isEmpty() ? literalOf(levels, "SDKROOT") : sdk;
+			if (effectiveSdk != null) {
+				result.add(new DefaultXCBuildSettingLayer(toBuildSettings(SDKSettingsLoader.load(developerDir, effectiveSdk))));
+			}
+			result.add(new DefaultXCBuildSettingLayer(toBuildSettings(ImmutableMap.of("CURRENT_ARCH", "undefined_arch", "CURRENT_VARIANT", "normal"))));
+			return new CompositeXCBuildSettingLayer(result.build());
+		}
+
+		private static XCBuildConfiguration configurationOf(XCConfigurationList configurations, String name) {
+			if (name.isEmpty()) {
+				name = configurations.getDefaultConfigurationName().orElseThrow(() -> new IllegalStateException("Could not find default build configuration."));
+			}
+			final XCBuildConfiguration result = configurations.getBuildConfigurationsByName().get(name);
+			if (result == null) {
+				throw new IllegalStateException(String.format("Could not find build configuration '%s'.", name));
+			}
+			return result;
+		}
+
+		private static Map<String, XCBuildSettingDefinition> xcconfigOf(XCBuildConfiguration configuration, XCFileReferencesLoader.XCFileReferences fileRefs, SourceRootResolveContext context) {
+			return configuration.getBaseConfigurationReference()
+				.map(it -> XCConfigParser.parse(fileRefs.get(it).resolve(context)))
+				.orElse(ImmutableMap.of());
+		}
+
+		// Build settings keys may include conditions, e.g. OTHER_LDFLAGS[sdk=iphoneos*]
+		private static Map<String, XCBuildSettingDefinition> definitionsOf(BuildSettings buildSettings) {
+			final Map<String, ConditionalBuildSettingDefinitions.Builder> builders = new LinkedHashMap<>();
+			buildSettings.asMap().forEach((key, value) -> {
+				final int conditionsIndex = key.indexOf('[');
+				final String name = conditionsIndex < 0 ? key : key.substring(0, conditionsIndex);
+				final String conditions = conditionsIndex < 0 ? "" : key.substring(conditionsIndex);
+				builders.computeIfAbsent(name, ConditionalBuildSettingDefinitions::builder).put(conditions, new DefaultXCBuildSetting(name, XCString.of(toString(value))));
+			});
+
+			final ImmutableMap.Builder<String, XCBuildSettingDefinition> result = ImmutableMap.builder();
+			builders.forEach((name, builder) -> result.put(name, builder.build()));
+			return result.build();
+		}
+
+		// Array values are space-separated, quoting the elements with spaces
+		private static String toString(Object value) {
+			if (value instanceof List) {
+				return ((List<?>) value).stream().map(Object::toString).map(it -> it.contains(" ") && !it.startsWith("\"") ? "\"" + it + "\"" : it).collect(Collectors.joining(" "));
+			}
+			return value.toString();
+		}
+
+		// Returns the unconditional value of a build setting when it is a plain literal
+		@Nullable
+		private static String literalOf(List<Map<String, XCBuildSettingDefinition>> levels, String name) {
+			for (Map<String, XCBuildSettingDefinition> level : levels) {
+				final XCBuildSettingDefinition definition = level.get(name);
+				if (definition != null) {
+					final XCBuildSetting buildSetting = definition.select(parameterName -> null);
+					if (buildSetting == null) {
+						return null;
+					}
+					final boolean[] hasVariables = new boolean[] {false};
+					final String result = buildSetting.evaluate(variableName -> {
+						hasVariables[0] = true;
+						return null;
+					});
+					return hasVariables[0] || result == null || result.isEmpty() ? null : result;
+				}
+			}
+			return null;
+		}
+
+		private static Map<String, XCBuildSetting> toBuildSettings(Map<String, String> values) {
+			final ImmutableMap.Builder<String, XCBuildSetting> result = ImmutableMap.builder();
+			values.forEach((name, value) -> result.put(name, new DefaultXCBuildSetting(name, XCString.of(value))));
+			return result.build();
+		}
+	}
+}
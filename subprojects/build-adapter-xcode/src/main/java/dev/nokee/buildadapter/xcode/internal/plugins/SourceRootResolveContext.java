@@ -0,0 +1,43 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.nokee.buildadapter.xcode.internal.plugins;
+
+import dev.nokee.xcode.XCFileReference;
+import dev.nokee.xcode.XCProjectReference;
+
+import java.nio.file.Path;
+
+// Resolves the file references relative to the project (e.g. base configurations) without evaluating any build settings
+final class SourceRootResolveContext implements XCFileReference.ResolveContext {
+	private final XCProjectReference reference;
+
+	public SourceRootResolveContext(XCProjectReference reference) {
+		this.reference = reference;
+	}
+
+	@Override
+	public Path getBuiltProductsDirectory() {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public Path get(String name) {
+		if (name.equals("SOURCE_ROOT")) {
+			return reference.getLocation().getParent();
+		}
+		throw new UnsupportedOperationException(name);
+	}
+}
@@ -16,13 +16,27 @@
 package dev.nokee.buildadapter.xcode.internal.plugins;
 
 import dev.nokee.xcode.XCCache;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
 import org.gradle.api.services.BuildService;
 import org.gradle.api.services.BuildServiceParameters;
 import org.gradle.tooling.events.FinishEvent;
 import org.gradle.tooling.events.OperationCompletionListener;
 
-public abstract class XCLoaderService implements BuildService<BuildServiceParameters.None>, AutoCloseable, OperationCompletionListener {
+public abstract class XCLoaderService implements BuildService<XCLoaderService.Parameters>, AutoCloseable, OperationCompletionListener {
+	private static final Logger LOGGER = Logging.getLogger(XCLoaderService.class);
+
+	interface Parameters extends BuildServiceParameters {
+		// Persistent cache for decoded project.pbxproj files, disabled when absent
+		DirectoryProperty getPersistentCacheDirectory();
+	}
+
+	// Scoped to this service, closing the service restores the persistent cache of the enclosing build, if any
+	private final XCCache.PersistentCacheScope persistentCache;
+
 	public XCLoaderService() {
+		this.persistentCache = XCCache.usePersistentCache(getParameters().getPersistentCacheDirectory().map(it -> it.getAsFile().toPath()).getOrNull());
 	}
 
 	@Override
@@ -32,6 +46,10 @@ public abstract class XCLoaderService implements BuildService<BuildServiceParame
 
 	@Override
 	public void close() {
+		LOGGER.info("Xcode loader cache: {}", XCCache.statistics());
+		LOGGER.info("In-process build settings: {}", InProcessBuildSettingLayer.statistics());
+		InProcessBuildSettingLayer.resetStatistics();
 		XCCache.clear();
+		persistentCache.close();
 	}
 }
@@ -120,6 +120,7 @@ import static dev.nokee.utils.TransformerUtils.transformEach;
 
 public class XcodeBuildAdapterPlugin implements Plugin<Settings> {
 	private static final Logger LOGGER = Logging.getLogger(XcodeBuildAdapterPlugin.class);
+	static final String PERSISTENT_CACHE_PROPERTY_NAME = "dev.nokee.internal.xcode.persistentCache";
 	private final ProviderFactory providers;
 	private final ObjectFactory objects;
 	private final BuildInputService buildInputs;
@@ -138,7 +139,12 @@ public class XcodeBuildAdapterPlugin implements Plugin<Settings> {
 		settings.getGradle().rootProject(new RedirectProjectBuildDirectoryToRootBuildDirectory());
 
 		val listenerRegistry = ((GradleInternal) settings.getGradle()).getServices().get(BuildEventsListenerRegistry.class);
-		val service = registerBuildServiceIfAbsent(settings.getGradle(), XCLoaderService.class);
+		// Use -Pdev.nokee.internal.xcode.persistentCache=false to always parse project.pbxproj files
+		val service = registerBuildServiceIfAbsent(settings.getGradle(), XCLoaderService.class, it -> {
+			if (forUseAtConfigurationTime(providers.gradleProperty(PERSISTENT_CACHE_PROPERTY_NAME)).map(Boolean::parseBoolean).getOrElse(true)) {
+				it.getPersistentCacheDirectory().set(new File(settings.getGradle().getGradleUserHomeDir(), "caches/nokee/xcode/pbxproj-v1"));
+			}
+		});
 		listenerRegistry.onTaskCompletion(service);
 		service.get(); // hypothetically, make sure the service clear the cache even if configuration phase fails
 
@@ -15,7 +15,11 @@
  */
 package dev.nokee.buildadapter.xcode.internal.plugins;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.Uninterruptibles;
 import dev.nokee.xcode.XCCacheLoader;
 import dev.nokee.xcode.XCDependenciesLoader;
 import dev.nokee.xcode.XCDependency;
@@ -29,6 +33,8 @@ import dev.nokee.xcode.XCTarget;
 import dev.nokee.xcode.XCTargetLoader;
 import dev.nokee.xcode.XCTargetReference;
 import lombok.val;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
 import org.gradle.api.provider.MapProperty;
 import org.gradle.api.services.BuildService;
 import org.gradle.api.services.BuildServiceParameters;
@@ -36,20 +42,30 @@ import org.gradle.util.Path;
 
 import javax.annotation.Nullable;
 import javax.inject.Inject;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 @SuppressWarnings("UnstableApiUsage")
-public abstract class XcodeDependenciesService implements BuildService<XcodeDependenciesService.Parameters> {
+public abstract class XcodeDependenciesService implements BuildService<XcodeDependenciesService.Parameters>, AutoCloseable {
 	interface Parameters extends BuildServiceParameters {
 		MapProperty<XCProjectReference, String> getProjectReferences();
 	}
 
-	private final Map<XCTargetReference, Coordinate> targetToCoordinates = new HashMap<>();
-	private final Map<XCFileReference, Coordinate> fileToCoordinates = new HashMap<>();
+	private static final Logger LOGGER = Logging.getLogger(XcodeDependenciesService.class);
 	private final XCLoader<Set<XCDependency>, XCTargetReference> dependenciesLoader = new XCCacheLoader<>(new XCDependenciesLoader(XCLoaders.pbxtargetLoader(), XCLoaders.fileReferences(), new XCDependenciesLoader.XCDependencyCoordinateLookup() {
 		@Nullable
 		@Override
@@ -66,17 +82,90 @@ public abstract class XcodeDependenciesService implements BuildService<XcodeDepe
 	private final XCLoader<XCTarget, XCTargetReference> targetLoader = new XCCacheLoader<>(new XCTargetLoader(XCLoaders.pbxprojectLoader(), XCLoaders.fileReferences(), dependenciesLoader));
 	private final XCLoader<XCProject, XCProjectReference> projectLoader = new XCCacheLoader<>(new XCProjectLoader(reference -> reference.load(XCLoaders.allTargetsLoader()).stream().map(targetLoader::load).collect(ImmutableSet.toImmutableSet())));
 
+	private final Map<XCProjectReference, String> projectReferences; // in the parameters order
+	private final ConcurrentMap<XCProjectReference, ProjectIndex> shards = new ConcurrentHashMap<>();
+	private final Map<XCProjectReference, Long> projectLoadTimeMillis = new ConcurrentHashMap<>();
+	private final int threadCount = Runtime.getRuntime().availableProcessors();
+	// Threads are only started on the first parallel indexing
+	private final ExecutorService executor = Executors.newFixedThreadPool(threadCount, new ThreadFactoryBuilder().setNameFormat("xcode-project-loader-%d").setDaemon(true).build());
+	private final ThreadLocal<Boolean> indexingThread = ThreadLocal.withInitial(() -> false);
+
 	@Inject
 	public XcodeDependenciesService() {
-		getParameters().getProjectReferences().get().forEach((reference, path) -> {
-			for (XCTarget target : reference.load(projectLoader).getTargets()) {
-				val outputFile = target.getOutputFile();
-				if (outputFile != null) {
-					fileToCoordinates.put(outputFile, new Coordinate(Path.path(path), target.getProject().getName(), target.getName()));
-				}
-				targetToCoordinates.put(target.asReference(), new Coordinate(Path.path(path), target.getProject().getName(), target.getName()));
+		// The coordinates are indexed per project on first use, see forTarget and forFile
+		this.projectReferences = ImmutableMap.copyOf(getParameters().getProjectReferences().get());
+	}
+
+	@Override
+	public void close() {
+		executor.shutdownNow();
+	}
+
+	@Nullable
+	private ProjectIndex shard(XCProjectReference reference) {
+		ProjectIndex result = shards.get(reference);
+		if (result == null) {
+			final String path = projectReferences.get(reference);
+			if (path == null) {
+				return null; // not included in the build
+			}
+
+			// Concurrent indexing of the same project is harmless, the project loader coalesces the loads
+			final long startTime = System.nanoTime();
+			final ProjectIndex newIndex = new ProjectIndex(Path.path(path), reference.load(projectLoader));
+			result = shards.putIfAbsent(reference, newIndex);
+			if (result == null) {
+				result = newIndex;
+				final long loadTimeMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+				projectLoadTimeMillis.put(reference, loadTimeMillis);
+				LOGGER.debug("Indexed Xcode project '{}' in {}ms.", reference, loadTimeMillis);
+			}
+		}
+		return result;
+	}
+
+	// Indexes the specified projects in parallel, bounded by the available processors
+	private void shardAll(Collection<XCProjectReference> references) {
+		final List<XCProjectReference> missingReferences = references.stream().filter(it -> !shards.containsKey(it)).collect(Collectors.toList());
+		if (missingReferences.size() <= 1 || indexingThread.get()) {
+			// Indexing a project may resolve dependencies of other projects, waiting on the pool from one of its threads could starve it
+			missingReferences.forEach(this::shard);
+			return;
+		}
+
+		final long startTime = System.nanoTime();
+		final Map<XCProjectReference, Future<ProjectIndex>> futures = new LinkedHashMap<>();
+		missingReferences.forEach(reference -> futures.put(reference, executor.submit(() -> {
+			indexingThread.set(true);
+			try {
+				return shard(reference);
+			} finally {
+				indexingThread.remove();
+			}
+		})));
+		futures.forEach(XcodeDependenciesService::getUninterruptibly);
+		LOGGER.info("Indexed {} Xcode projects in {}ms using {} threads.", missingReferences.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime), Math.min(missingReferences.size(), threadCount));
+	}
+
+	private static void getUninterruptibly(XCProjectReference reference, Future<ProjectIndex> future) {
+		try {
+			Uninterruptibles.getUninterruptibly(future);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
 			}
-		});
+			throw new RuntimeException(String.format("Could not load Xcode project '%s'.", reference), e.getCause());
+		}
+	}
+
+	/**
+	 * Returns the time spent loading and indexing each project indexed so far, in milliseconds.
+	 * A project loading time includes the time spent waiting on loads shared with other projects.
+	 *
+	 * @return the loading time of each indexed project, never null
+	 */
+	public Map<XCProjectReference, Long> getProjectLoadTimeMillis() {
+		return Collections.unmodifiableMap(projectLoadTimeMillis);
 	}
 
 	public XCProject load(XCProjectReference reference) {
@@ -87,20 +176,78 @@ public abstract class XcodeDependenciesService implements BuildService<XcodeDepe
 		return reference.load(targetLoader);
 	}
 
+	/**
+	 * Returns the coordinate of the target producing the specified built product, indexing only the projects required to find it.
+	 *
+	 * <p>The projects are searched in phases: the projects already indexed, then the projects they reference, then every project of the build.
+	 * The first phase finding a producer wins, and within a phase the last producing project wins, in the parameters order.
+	 * When more than one project produces the same file, the result thus depends on the projects indexed so far:
+	 * a producer already indexed wins over a later producer not yet indexed.
+	 * Only when no indexed project produces the file does the last of all the producing projects win, as when every project was indexed upfront.
+	 *
+	 * @param file  the file to resolve, must not be null
+	 * @return the coordinate of the producing target, or null if the file is not a built product
+	 * @throws IllegalStateException if no project of the build produces the built product
+	 */
 	@Nullable
 	public Coordinate forFile(XCFileReference file) {
 		if (file.getType() == XCFileReference.XCFileType.BUILT_PRODUCT) {
-			return Optional.ofNullable(fileToCoordinates.get(file)).orElseThrow(() -> {
-				return new RuntimeException("UNKNOWN " + file + "\n" + fileToCoordinates.keySet().stream().map(it -> " - " + it).collect(Collectors.joining("\n")));
+			Coordinate result = findIndexed(file);
+			if (result == null) {
+				// Most products come from the projects referenced by the indexed projects
+				for (XCProjectReference indexedProject : projectReferences.keySet().stream().filter(shards::containsKey).collect(ImmutableList.toImmutableList())) {
+					shardAll(ImmutableList.copyOf(indexedProject.load(XCLoaders.crossProjectReferencesLoader())));
+				}
+				result = findIndexed(file);
+			}
+			if (result == null) {
+				// Implicit dependencies may be produced by any project of the workspace
+				shardAll(projectReferences.keySet());
+				result = findIndexed(file);
+			}
+			return Optional.ofNullable(result).orElseThrow(() -> {
+				return new IllegalStateException(String.format("Could not find the target producing '%s' in any of the %d Xcode projects of the build.", file, projectReferences.size()));
 			});
 		} else {
 			return null;
 		}
 	}
 
+	// The last indexed project producing the file wins, in the parameters order
+	@Nullable
+	private Coordinate findIndexed(XCFileReference file) {
+		Coordinate result = null;
+		for (XCProjectReference reference : projectReferences.keySet()) {
+			final ProjectIndex index = shards.get(reference);
+			if (index != null) {
+				final Coordinate coordinate = index.fileToCoordinates.get(file);
+				if (coordinate != null) {
+					result = coordinate;
+				}
+			}
+		}
+		return result;
+	}
+
 	@Nullable
 	public Coordinate forTarget(XCTargetReference target) {
-		return Optional.ofNullable(targetToCoordinates.get(target)).orElseThrow(RuntimeException::new);
+		return Optional.ofNullable(shard(target.getProject())).map(it -> it.targetToCoordinates.get(target))
+			.orElseThrow(() -> new IllegalStateException(String.format("Could not find %s in the Xcode projects of the build.", target)));
+	}
+
+	private static final class ProjectIndex {
+		private final Map<XCTargetReference, Coordinate> targetToCoordinates = new HashMap<>();
+		private final Map<XCFileReference, Coordinate> fileToCoordinates = new HashMap<>();
+
+		private ProjectIndex(Path projectPath, XCProject project) {
+			for (XCTarget target : project.getTargets()) {
+				val outputFile = target.getOutputFile();
+				if (outputFile != null) {
+					fileToCoordinates.put(outputFile, new Coordinate(projectPath, target.getProject().getName(), target.getName()));
+				}
+				targetToCoordinates.put(target.asReference(), new Coordinate(projectPath, target.getProject().getName(), target.getName()));
+			}
+		}
 	}
 
 	public static final class Coordinate {
@@ -17,7 +17,7 @@ package dev.nokee.buildadapter.xcode.internal.plugins;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
-import dev.nokee.buildadapter.xcode.internal.files.PreserveLastModifiedFileSystemOperation;
+import dev.nokee.buildadapter.xcode.internal.files.LinkingFileTreeOperation;
 import dev.nokee.buildadapter.xcode.internal.plugins.specs.XCBuildPlan;
 import dev.nokee.buildadapter.xcode.internal.plugins.specs.XCBuildSpec;
 import dev.nokee.core.exec.CommandLineTool;
@@ -28,6 +28,7 @@ import dev.nokee.xcode.CompositeXCBuildSettingLayer;
 import dev.nokee.xcode.XCBuildSetting;
 import dev.nokee.xcode.XCBuildSettingLayer;
 import dev.nokee.xcode.XCBuildSettings;
+import dev.nokee.xcode.XCFileListParser;
 import dev.nokee.xcode.XCLoaders;
 import dev.nokee.xcode.XCProjectReference;
 import dev.nokee.xcode.XCTargetReference;
@@ -37,7 +38,9 @@ import org.gradle.api.DefaultTask;
 import org.gradle.api.Transformer;
 import org.gradle.api.file.DirectoryProperty;
 import org.gradle.api.file.FileCollection;
-import org.gradle.api.file.FileSystemOperations;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
 import org.gradle.api.model.ObjectFactory;
 import org.gradle.api.provider.ListProperty;
 import org.gradle.api.provider.Property;
@@ -60,6 +63,7 @@ import java.io.File;
 import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -74,8 +78,10 @@ import static dev.nokee.core.exec.CommandLineToolExecutionEngine.execOperations;
 import static dev.nokee.core.exec.CommandLineToolInvocationEnvironmentVariables.inherit;
 import static dev.nokee.core.exec.CommandLineToolInvocationOutputRedirection.toFile;
 import static dev.nokee.core.exec.CommandLineToolInvocationOutputRedirection.toStandardStream;
+import static dev.nokee.utils.BuildServiceUtils.registerBuildServiceIfAbsent;
 import static dev.nokee.utils.ProviderUtils.disallowChanges;
 import static dev.nokee.utils.ProviderUtils.finalizeValueOnRead;
+import static dev.nokee.utils.ProviderUtils.forUseAtConfigurationTime;
 import static dev.nokee.utils.ProviderUtils.ifPresent;
 import static dev.nokee.utils.TransformerUtils.flatTransformEach;
 
@@ -86,6 +92,8 @@ public abstract class XcodeTargetExecTask extends DefaultTask implements Xcodebu
 	private final Provider<XCTargetReference> targetReference;
 	private final Provider<XCBuildPlan> buildSpec;
 	private final ConfigurableXCBuildSettings buildSettings;
+	private final Provider<Path> buildSettingsCacheDirectory;
+	private final Provider<Path> overridingXcconfigFile;
 
 	@Internal
 	public abstract Property<XCProjectReference> getXcodeProject();
@@ -124,6 +132,12 @@ public abstract class XcodeTargetExecTask extends DefaultTask implements Xcodebu
 		this.objects = objects;
 		this.buildSettings = objects.newInstance(ConfigurableXCBuildSettings.class);
 
+		// Use -Pdev.nokee.internal.xcode.persistentCache=false to always query xcodebuild for the build settings
+		final Path buildSettingsCacheDirectory = getProject().getGradle().getGradleUserHomeDir().toPath().resolve("caches/nokee/xcode/build-settings-v1");
+		this.buildSettingsCacheDirectory = forUseAtConfigurationTime(providers.gradleProperty(XcodeBuildAdapterPlugin.PERSISTENT_CACHE_PROPERTY_NAME)).map(Boolean::parseBoolean).orElse(true)
+			.map(enabled -> enabled ? buildSettingsCacheDirectory : null);
+		this.overridingXcconfigFile = providers.environmentVariable("XCODE_XCCONFIG_FILE").map(it -> it.isEmpty() ? null : Paths.get(it).toAbsolutePath().normalize());
+
 		// Account for build settings overrides
 		getArguments().add(new CommandLineArgumentProvider() {
 			@Input
@@ -149,7 +163,8 @@ public abstract class XcodeTargetExecTask extends DefaultTask implements Xcodebu
 			.zip(XCProjectReference::ofTarget);
 
 		this.buildSpec = finalizeValueOnRead(objects.property(XCBuildPlan.class).value(getTargetReference().map(XCLoaders.buildSpecLoader()::load).map(spec -> {
-			final XCBuildSettings buildSettings = getBuildSettings();
+			// Evaluate each build setting once for the whole spec, e.g. across all entries of the xcfilelists
+			final XCBuildSettings buildSettings = getBuildSettings().finalizeValue();
 
 			val context = new BuildSettingsResolveContext(FileSystems.getDefault(), buildSettings);
 			val fileRefs = XCLoaders.fileReferences().load(getXcodeProject().get());
@@ -158,15 +173,35 @@ public abstract class XcodeTargetExecTask extends DefaultTask implements Xcodebu
 					return fileRefs.get(reference).resolve(context);
 				}
 
+				private Object fileOrTree(Path path) {
+					if (Files.isDirectory(path)) {
+						return objects.fileTree().setDir(path);
+					} else {
+						return path;
+					}
+				}
+
 				@Override
 				public FileCollection inputs(PBXReference reference) {
 					final Path path = resolve(reference);
-					return objects.fileCollection().from((Callable<Object>) () -> {
-						if (Files.isDirectory(path)) {
-							return objects.fileTree().setDir(path);
-						} else {
-							return path;
+					return objects.fileCollection().from((Callable<Object>) () -> fileOrTree(path));
+				}
+
+				@Override
+				public FileCollection fileListInputs(PBXReference reference) {
+					final Path path = resolve(reference);
+					return objects.fileCollection().from(path, (Callable<Object>) () -> {
+						if (!Files.isRegularFile(path)) {
+							return of(); // missing file list, xcodebuild will fail
 						}
+
+						// Xcode resolves relative paths against the project directory
+						final Path projectDirectory = getXcodeProject().get().getLocation().getParent();
+						return XCFileListParser.parse(path).stream()
+							.map(it -> it.resolve(buildSettings::get))
+							.filter(it -> it != null && !it.isEmpty())
+							.map(it -> fileOrTree(projectDirectory.resolve(it)))
+							.collect(Collectors.toList());
 					});
 				}
 
@@ -178,6 +213,7 @@ public abstract class XcodeTargetExecTask extends DefaultTask implements Xcodebu
 		})));
 
 		buildSettings.setFrom(xcodebuildLayer());
+		buildSettings.from(inProcessLayer());
 		buildSettings.from(overrideLayer());
 	}
 
@@ -191,11 +227,11 @@ public abstract class XcodeTargetExecTask extends DefaultTask implements Xcodebu
 				.add("TARGET_NAME", "TARGETNAME", "PROJECT_NAME") // when using SwiftPM, the override leak into the package causing incoherent builds
 				.build();
 
-			// Visit the build settings ignoring the XcodebuildBuildSettingLayer
+			// Visit the build settings ignoring the XcodebuildBuildSettingLayer and its in-process equivalent
 			new CompositeXCBuildSettingLayer((Iterable<XCBuildSettingLayer>) buildSettings).accept(new XCBuildSettingLayer.Visitor() {
 				@Override
 				public void visit(XCBuildSettingLayer layer) {
-					if (!(layer instanceof XcodebuildBuildSettingLayer)) {
+					if (!(layer instanceof XcodebuildBuildSettingLayer) && !(layer instanceof InProcessBuildSettingLayer)) {
 						layer.findAll().forEach((k, v) -> {
 							if (!result.containsKey(k) && !buildSettingsToIgnore.contains(k)) {
 								result.put(k, v);
@@ -241,6 +277,16 @@ public abstract class XcodeTargetExecTask extends DefaultTask implements Xcodebu
 		return new CodeSigningDisabledBuildSettingLayerBuilder().build();
 	}
 
+	private XCBuildSettingLayer inProcessLayer() {
+		return new InProcessBuildSettingLayer.Builder(objects)
+			.targetReference(getTargetReference())
+			.sdk(getSdk())
+			.configuration(getConfiguration())
+			.developerDir(getXcodeInstallation().map(XcodeInstallation::getDeveloperDirectory))
+			.overridingXcconfigFile(overridingXcconfigFile)
+			.build();
+	}
+
 	private XCBuildSettingLayer xcodebuildLayer() {
 		return new XcodebuildBuildSettingLayer.Builder(objects)
 			.targetReference(getTargetReference())
@@ -248,6 +294,8 @@ public abstract class XcodeTargetExecTask extends DefaultTask implements Xcodebu
 			.configuration(getConfiguration())
 			.developerDir(getXcodeInstallation().map(XcodeInstallation::getDeveloperDirectory))
 			.buildSettings(objects.mapProperty(String.class, XCBuildSetting.class).value(getBuildSettings().asProvider().map(buildSettingsOverride())))
+			.cacheDirectory(buildSettingsCacheDirectory)
+			.batchService(registerBuildServiceIfAbsent(getProject().getGradle(), XcodebuildBuildSettingsBatchService.class), getProject().getPath())
 			.build();
 	}
 
@@ -264,18 +312,18 @@ public abstract class XcodeTargetExecTask extends DefaultTask implements Xcodebu
 		workerExecutor.noIsolation().submit(XcodebuildExec.class, spec -> {
 			spec.getOutgoingDerivedDataPath().set(getOutputDirectory());
 			spec.getXcodeDerivedDataPath().set(getDerivedDataPath());
+			spec.getOutgoingDerivedDataManifestFile().set(new File(getTemporaryDir(), "outgoing-derived-data.manifest"));
 
 			spec.getInvocation().set(invocation);
 		});
 	}
 
 	public static final class DerivedDataAssemblingRunnable implements Runnable {
-		private final FileSystemOperations fileOperations;
+		private static final Logger LOGGER = Logging.getLogger(DerivedDataAssemblingRunnable.class);
 		private final Parameters parameters;
 		private final Runnable delegate;
 
-		public DerivedDataAssemblingRunnable(FileSystemOperations fileOperations, Parameters parameters, Runnable delegate) {
-			this.fileOperations = fileOperations;
+		public DerivedDataAssemblingRunnable(Parameters parameters, Runnable delegate) {
 			this.parameters = parameters;
 			this.delegate = delegate;
 		}
@@ -284,15 +332,18 @@ public abstract class XcodeTargetExecTask extends DefaultTask implements Xcodebu
 		public void run() {
 			delegate.run();
 
-			new PreserveLastModifiedFileSystemOperation(fileOperations::sync).execute(spec -> {
-				spec.from(parameters.getXcodeDerivedDataPath(), it -> it.include("Build/Products/**/*"));
-				spec.into(parameters.getOutgoingDerivedDataPath());
-			});
+			// The outgoing derived data only ever contains Build/Products/**
+			final Path destination = parameters.getOutgoingDerivedDataPath().get().getAsFile().toPath().resolve("Build/Products");
+			final Path source = parameters.getXcodeDerivedDataPath().get().getAsFile().toPath().resolve("Build/Products");
+			final Path manifestFile = parameters.getOutgoingDerivedDataManifestFile().get().getAsFile().toPath();
+			final LinkingFileTreeOperation.Statistics statistics = new LinkingFileTreeOperation().sync(source, destination, manifestFile);
+			LOGGER.info("Synchronized outgoing derived data directory '{}': {}", destination, statistics);
 		}
 
 		public interface Parameters {
 			DirectoryProperty getXcodeDerivedDataPath();
 			DirectoryProperty getOutgoingDerivedDataPath();
+			RegularFileProperty getOutgoingDerivedDataManifestFile();
 		}
 	}
 
@@ -321,9 +372,6 @@ public abstract class XcodeTargetExecTask extends DefaultTask implements Xcodebu
 		@Inject
 		protected abstract ExecOperations getExecOperations();
 
-		@Inject
-		protected abstract FileSystemOperations getFileOperations();
-
 		@Override
 		public void execute() {
 			derivedDataPath(executeBuild()).run();
@@ -334,7 +382,7 @@ public abstract class XcodeTargetExecTask extends DefaultTask implements Xcodebu
 		}
 
 		private Runnable derivedDataPath(Runnable action) {
-			return new DerivedDataAssemblingRunnable(getFileOperations(), getParameters(), action);
+			return new DerivedDataAssemblingRunnable(getParameters(), action);
 		}
 	}
 
@@ -43,16 +43,19 @@ public final class XcodeTargetExecTaskOutOfDateSpec implements Spec<HasXcodeTarg
 				.map(PBXShellScriptBuildPhase.class::cast)
 				.noneMatch(outOfDatePredicate)
 			).getOrElse(false);
-		// WHAT-IF: there is one xcfilelist (as input and/or output) but is empty?
 	}
 
 	public interface AlwaysOutOfDateShellScriptBuildPhasePredicate extends Predicate<PBXShellScriptBuildPhase> {}
 
+	/**
+	 * Shell script build phases without inputs or outputs run on every build.
+	 * The xcfilelist files and their content are tracked as task inputs, see {@link dev.nokee.buildadapter.xcode.internal.plugins.specs.FileListLocationEncoder}.
+	 */
 	@EqualsAndHashCode
 	public static final class DefaultPredicate implements AlwaysOutOfDateShellScriptBuildPhasePredicate {
 		@Override
 		public boolean test(PBXShellScriptBuildPhase buildPhase) {
-			return !hasAtLeastOneInputFile(buildPhase) || !hasAtLeastOneOutputFile(buildPhase) || useXCFileList(buildPhase);
+			return !hasAtLeastOneInputFile(buildPhase) || !hasAtLeastOneOutputFile(buildPhase);
 		}
 
 		private boolean hasAtLeastOneInputFile(PBXShellScriptBuildPhase buildPhase) {
@@ -62,9 +65,5 @@ public final class XcodeTargetExecTaskOutOfDateSpec implements Spec<HasXcodeTarg
 		private boolean hasAtLeastOneOutputFile(PBXShellScriptBuildPhase buildPhase) {
 			return !buildPhase.getOutputPaths().isEmpty() || !buildPhase.getOutputFileListPaths().isEmpty();
 		}
-
-		private boolean useXCFileList(PBXShellScriptBuildPhase buildPhase) {
-			return !buildPhase.getInputFileListPaths().isEmpty() || !buildPhase.getOutputFileListPaths().isEmpty();
-		}
 	}
 }
@@ -82,11 +82,17 @@ public final class XcodebuildBuildSettingLayer implements XCBuildSettingLayer {
 		private final MapProperty<String, String> buildSettings;
 		private final ObjectFactory objects;
 		private final Property<Path> developerDir;
+		private final Property<Path> cacheDirectory;
+		private final Property<XcodebuildBuildSettingsBatchService> batchService;
+		private final Property<String> projectPath;
 
 		public Builder(ObjectFactory objects) {
 			this.arguments = objects.mapProperty(String.class, String.class);
 			this.buildSettings = objects.mapProperty(String.class, String.class);
 			this.developerDir = objects.property(Path.class);
+			this.cacheDirectory = objects.property(Path.class);
+			this.batchService = objects.property(XcodebuildBuildSettingsBatchService.class);
+			this.projectPath = objects.property(String.class);
 			this.objects = objects;
 		}
 
@@ -115,6 +121,22 @@ public final class XcodebuildBuildSettingLayer implements XCBuildSettingLayer {
 			return this;
 		}
 
+		// Results are cached across builds when the directory is present, see XcodebuildBuildSettingsCache
+		public Builder cacheDirectory(Provider<Path> cacheDirectory) {
+			assert cacheDirectory != null : "'cacheDirectory' must not be null";
+			this.cacheDirectory.set(cacheDirectory);
+			return this;
+		}
+
+		// Queries are resolved together with other compatible queries of the same Gradle project when the service is present, see XcodebuildBuildSettingsBatchService
+		public Builder batchService(Provider<XcodebuildBuildSettingsBatchService> batchService, String projectPath) {
+			assert batchService != null : "'batchService' must not be null";
+			assert projectPath != null : "'projectPath' must not be null";
+			this.batchService.set(batchService);
+			this.projectPath.set(projectPath);
+			return this;
+		}
+
 		public Builder buildSettings(Provider<? extends Map<String, XCBuildSetting>> buildSettings) {
 			this.buildSettings.putAll(buildSettings.map(it -> it.entrySet().stream().collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().toString()))));
 			return this;
@@ -129,21 +151,27 @@ public final class XcodebuildBuildSettingLayer implements XCBuildSettingLayer {
 		}
 
 		public XCBuildSettingLayer build() {
+			val batchService = this.batchService.getOrNull();
+			if (batchService != null) {
+				val request = newBuilder(objects).value(arguments).value(buildSettings).value(developerDir).zip(values -> new XcodebuildBuildSettingsBatchService.Request(values.get(0), values.get(1), values.get(2)));
+				val projectPath = this.projectPath.get();
+				batchService.register(projectPath, request::getOrNull);
+				return newLayer(finalizeValueOnRead(disallowChanges(objects.mapProperty(String.class, String.class).value(request.map(it -> batchService.get(projectPath, it, cacheDirectory.getOrNull()))))));
+			}
+
 			val effectiveBuildSettings = finalizeValueOnRead(disallowChanges(objects.mapProperty(String.class, String.class)
 				.value(newBuilder(objects).value(newBuilder(objects).value(arguments.map(this::toArgument)).value(buildSettings).zip((args, settings) -> ImmutableList.<String>builder().addAll(args).addAll(settings.entrySet().stream().map(it -> it.getKey() + "=" + it.getValue()).collect(Collectors.toList())).build())).value(developerDir).zip((allArguments, developerDir) -> {
-					return CommandLineTool.of("xcodebuild").withArguments(it -> {
-							it.args(allArguments);
-							it.args("-showBuildSettings", "-json");
-						}).newInvocation(it -> {
-							it.withEnvironmentVariables(inherit("PATH").putOrReplace("DEVELOPER_DIR", developerDir.toString()));
-						}).submitTo(LoggingEngine.wrap(processBuilder())).waitFor().assertNormalExitValue()
-						.getStandardOutput().parse(output -> {
-							@SuppressWarnings("unchecked")
-							val parsedOutput = (List<ShowBuildSettingsEntry>) new Gson().fromJson(output, new TypeToken<List<ShowBuildSettingsEntry>>() {}.getType());
-							return parsedOutput.get(0).getBuildSettings();
-						});
+					val cacheDirectory = this.cacheDirectory.getOrNull();
+					if (cacheDirectory == null) {
+						return showBuildSettings(allArguments, developerDir);
+					}
+					return new XcodebuildBuildSettingsCache(cacheDirectory).computeIfAbsent(allArguments, developerDir, () -> showBuildSettings(allArguments, developerDir));
 				}))));
 
+			return newLayer(effectiveBuildSettings);
+		}
+
+		private static XCBuildSettingLayer newLayer(Provider<Map<String, String>> effectiveBuildSettings) {
 			return new XcodebuildBuildSettingLayer(effectiveBuildSettings.map(it -> {
 				ImmutableMap.Builder<String, XCBuildSetting> builder = ImmutableMap.builder();
 				it.forEach((key, value) -> {
@@ -153,6 +181,20 @@ public final class XcodebuildBuildSettingLayer implements XCBuildSettingLayer {
 			}));
 		}
 
+		private static Map<String, String> showBuildSettings(List<String> allArguments, Path developerDir) {
+			return CommandLineTool.of("xcodebuild").withArguments(it -> {
+					it.args(allArguments);
+					it.args("-showBuildSettings", "-json");
+				}).newInvocation(it -> {
+					it.withEnvironmentVariables(inherit("PATH").putOrReplace("DEVELOPER_DIR", developerDir.toString()));
+				}).submitTo(LoggingEngine.wrap(processBuilder())).waitFor().assertNormalExitValue()
+				.getStandardOutput().parse(output -> {
+					@SuppressWarnings("unchecked")
+					val parsedOutput = (List<ShowBuildSettingsEntry>) new Gson().fromJson(output, new TypeToken<List<ShowBuildSettingsEntry>>() {}.getType());
+					return parsedOutput.get(0).getBuildSettings();
+				});
+		}
+
 		private static final class ShowBuildSettingsEntry {
 			private final Map<String, String> buildSettings;
 
@@ -0,0 +1,361 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.nokee.buildadapter.xcode.internal.plugins;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import dev.nokee.core.exec.CommandLineTool;
+import dev.nokee.core.exec.LoggingEngine;
+import lombok.EqualsAndHashCode;
+import lombok.val;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.gradle.api.services.BuildService;
+import org.gradle.api.services.BuildServiceParameters;
+
+import javax.annotation.Nullable;
+import java.lang.reflect.Type;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
+
+import static dev.nokee.core.exec.CommandLineToolExecutionEngine.processBuilder;
+import static dev.nokee.core.exec.CommandLineToolInvocationEnvironmentVariables.inherit;
+
+/**
+ * Resolves {@code xcodebuild -showBuildSettings} queries in batches.
+ *
+ * <p>Each {@link XcodebuildBuildSettingLayer} explicitly registers its query, when built, under the path of the Gradle project owning it.
+ * When a query is first resolved, every registered query of the same Gradle project compatible with it (same project, SDK, configuration, build settings overrides and {@code DEVELOPER_DIR}) is resolved by the same {@code xcodebuild} invocation using multiple {@code -target} flags.
+ * Only queries of the same Gradle project are evaluated, so the evaluation happens under the lock of the project already resolving a query.
+ * As all queries are registered during configuration, the targets of a batch, and thus its persistent cache key, are the same from run to run.
+ *
+ * <p>The derived data location overrides ({@code OBJROOT} and {@code SYMROOT}) are different for every target,
+ * the batch uses placeholders for those overrides and relocates the values before fanning out the results to each query.
+ * Xcode may derive values from those overrides that cannot be relocated (e.g. using operators), so the relocation of each batch is first confirmed against a query of a single target with the actual overrides.
+ * When the relocation cannot be confirmed, each target of the batch is queried on its own.
+ */
+public abstract class XcodebuildBuildSettingsBatchService implements BuildService<BuildServiceParameters.None>, AutoCloseable {
+	private static final Logger LOGGER = Logging.getLogger(XcodebuildBuildSettingsBatchService.class);
+	private static final Set<String> RELOCATABLE_BUILD_SETTINGS = ImmutableSet.of("OBJROOT", "SYMROOT");
+	private static final String PLACEHOLDER_PREFIX = "__NOKEE_RELOCATABLE_";
+	private static final Type BATCH_RESULT_TYPE = new TypeToken<Map<String, Map<String, String>>>() {}.getType();
+	private final ConcurrentMap<String, List<Supplier<Request>>> registeredRequests = new ConcurrentHashMap<>();
+	private final ConcurrentMap<BatchKey, Batch> batches = new ConcurrentHashMap<>();
+	private final Set<Path> cacheDirectories = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * Registers a query to resolve with the next compatible batch of the same Gradle project.
+	 * The request is evaluated only when a batch of the same Gradle project is resolved, it can be absent.
+	 *
+	 * @param projectPath  the path of the Gradle project owning the request, must not be null
+	 * @param request  the pending request, must not be null
+	 */
+	public void register(String projectPath, Supplier<Request> request) {
+		registeredRequests.computeIfAbsent(projectPath, it -> new CopyOnWriteArrayList<>()).add(request);
+	}
+
+	/**
+	 * Returns the build settings for the specified request, resolving its batch if required.
+	 *
+	 * @param projectPath  the path of the Gradle project owning the request, must not be null
+	 * @param request  the request to resolve, must not be null
+	 * @param cacheDirectory  the persistent cache directory, see {@link XcodebuildBuildSettingsCache}, or null
+	 * @return the build settings, never null
+	 */
+	public Map<String, String> get(String projectPath, Request request, @Nullable Path cacheDirectory) {
+		if (cacheDirectory != null) {
+			cacheDirectories.add(cacheDirectory);
+		}
+		final BatchKey key = BatchKey.of(projectPath, request);
+		return batches.computeIfAbsent(key, Batch::new).get(request, cacheDirectory);
+	}
+
+	@Override
+	public void close() {
+		// The persistent cache is only cleaned up by builds using it
+		cacheDirectories.forEach(it -> new XcodebuildBuildSettingsCache(it).deleteUnusedEntries());
+	}
+
+	private final class Batch {
+		private final BatchKey key;
+		private final Map<String, Map<String, String>> results = new HashMap<>(); // with placeholders
+		private final Map<Request, Map<String, String>> individualResults = new HashMap<>();
+		@Nullable private Boolean relocatable = null; // unknown until confirmed
+
+		private Batch(BatchKey key) {
+			this.key = key;
+		}
+
+		public synchronized Map<String, String> get(Request request, @Nullable Path cacheDirectory) {
+			if (Boolean.FALSE.equals(relocatable)) {
+				return resolveIndividually(request, cacheDirectory);
+			}
+
+			Map<String, String> result = results.get(request.getTargetName());
+			if (result == null) {
+				final Set<String> targetNames = new TreeSet<>(); // stable order for the persistent cache
+				targetNames.add(request.getTargetName());
+				targetNames.addAll(drainRegisteredTargets());
+				if (targetNames.size() == 1) {
+					return resolveIndividually(request, cacheDirectory); // nothing to batch, no need to relocate
+				}
+
+				try {
+					resolve(targetNames, cacheDirectory);
+				} catch (RuntimeException e) {
+					// a single target can fail the whole batch, resolve the requested target on its own
+					LOGGER.info("Batched build settings query failed, querying target '{}' only.", request.getTargetName(), e);
+					return resolveIndividually(request, cacheDirectory);
+				}
+
+				result = results.get(request.getTargetName());
+				if (result == null) {
+					return resolveIndividually(request, cacheDirectory);
+				}
+			}
+
+			final Map<String, String> relocated = relocate(result, request);
+			if (relocatable == null) {
+				final Map<String, String> expected = resolveIndividually(request, cacheDirectory);
+				relocatable = expected.equals(relocated);
+				if (!relocatable) {
+					LOGGER.info("Could not confirm the relocation of batched build settings for target '{}', querying each target on its own.", request.getTargetName());
+				}
+				return expected;
+			} else if (relocated == null) {
+				return resolveIndividually(request, cacheDirectory);
+			}
+			return relocated;
+		}
+
+		// Evaluates the registered requests of the same Gradle project to find compatible targets, the requests of other batches stay registered
+		private Set<String> drainRegisteredTargets() {
+			final List<Supplier<Request>> projectRequests = registeredRequests.getOrDefault(key.projectPath, Collections.emptyList());
+			final Set<String> result = new TreeSet<>();
+			final List<Supplier<Request>> drained = new ArrayList<>();
+			for (Supplier<Request> registeredRequest : projectRequests) {
+				final Request request;
+				try {
+					request = registeredRequest.get();
+				} catch (RuntimeException e) {
+					continue; // the request will fail on its own, if ever resolved
+				}
+
+				if (request != null && key.equals(BatchKey.of(key.projectPath, request))) {
+					drained.add(registeredRequest);
+					if (!results.containsKey(request.getTargetName())) {
+						result.add(request.getTargetName());
+					}
+				}
+			}
+			projectRequests.removeAll(drained);
+			return result;
+		}
+
+		private void resolve(Set<String> targetNames, @Nullable Path cacheDirectory) {
+			final List<String> arguments = key.toArguments(targetNames);
+			LOGGER.info("Querying build settings of {} target(s) with a single xcodebuild invocation: {}", targetNames.size(), targetNames);
+			if (cacheDirectory == null) {
+				results.putAll(showBuildSettings(arguments, key.developerDir));
+			} else {
+				results.putAll(new XcodebuildBuildSettingsCache(cacheDirectory).computeIfAbsent(arguments, key.developerDir, BATCH_RESULT_TYPE, () -> showBuildSettings(arguments, key.developerDir)));
+			}
+		}
+
+		// Queries the target with its actual build settings overrides, no relocation
+		private Map<String, String> resolveIndividually(Request request, @Nullable Path cacheDirectory) {
+			Map<String, String> result = individualResults.get(request);
+			if (result == null) {
+				final List<String> arguments = request.toArguments();
+				final Supplier<Map<String, String>> query = () -> {
+					final Map<String, String> buildSettings = showBuildSettings(arguments, key.developerDir).get(request.getTargetName());
+					if (buildSettings == null) {
+						throw new IllegalStateException(String.format("Could not find build settings of target '%s' in xcodebuild output.", request.getTargetName()));
+					}
+					return buildSettings;
+				};
+				if (cacheDirectory == null) {
+					result = query.get();
+				} else {
+					result = new XcodebuildBuildSettingsCache(cacheDirectory).computeIfAbsent(arguments, key.developerDir, query);
+				}
+				individualResults.put(request, result);
+			}
+			return result;
+		}
+	}
+
+	// Returns null if a placeholder remains after relocation, i.e. Xcode transformed the placeholder
+	@Nullable
+	private static Map<String, String> relocate(Map<String, String> buildSettings, Request request) {
+		final Map<String, String> replacements = new LinkedHashMap<>();
+		request.getBuildSettings().forEach((name, value) -> {
+			if (RELOCATABLE_BUILD_SETTINGS.contains(name)) {
+				replacements.put(placeholderOf(name), value);
+			}
+		});
+		if (replacements.isEmpty()) {
+			return buildSettings;
+		}
+
+		final ImmutableMap.Builder<String, String> result = ImmutableMap.builder();
+		for (Map.Entry<String, String> entry : buildSettings.entrySet()) {
+			String value = entry.getValue();
+			for (Map.Entry<String, String> replacement : replacements.entrySet()) {
+				value = value.replace(replacement.getKey(), replacement.getValue());
+			}
+			if (value.contains(PLACEHOLDER_PREFIX)) {
+				return null;
+			}
+			result.put(entry.getKey(), value);
+		}
+		return result.build();
+	}
+
+	private static String placeholderOf(String buildSettingName) {
+		return "/" + PLACEHOLDER_PREFIX + buildSettingName + "__";
+	}
+
+	// Returns the build settings of each target in the xcodebuild output, visible for testing
+	Map<String, Map<String, String>> showBuildSettings(List<String> arguments, Path developerDir) {
+		return CommandLineTool.of("xcodebuild").withArguments(it -> {
+				it.args(arguments);
+				it.args("-showBuildSettings", "-json");
+			}).newInvocation(it -> {
+				it.withEnvironmentVariables(inherit("PATH").putOrReplace("DEVELOPER_DIR", developerDir.toString()));
+			}).submitTo(LoggingEngine.wrap(processBuilder())).waitFor().assertNormalExitValue()
+			.getStandardOutput().parse(output -> {
+				@SuppressWarnings("unchecked")
+				val parsedOutput = (List<ShowBuildSettingsEntry>) new Gson().fromJson(output, new TypeToken<List<ShowBuildSettingsEntry>>() {}.getType());
+				final Map<String, Map<String, String>> result = new LinkedHashMap<>();
+				for (ShowBuildSettingsEntry entry : parsedOutput) {
+					result.put(entry.getTarget(), entry.getBuildSettings());
+				}
+				return result;
+			});
+	}
+
+	private static final class ShowBuildSettingsEntry {
+		private final String target;
+		private final Map<String, String> buildSettings;
+
+		private ShowBuildSettingsEntry(String target, Map<String, String> buildSettings) {
+			this.target = target;
+			this.buildSettings = buildSettings;
+		}
+
+		public String getTarget() {
+			return target;
+		}
+
+		public Map<String, String> getBuildSettings() {
+			return buildSettings;
+		}
+	}
+
+	/**
+	 * A {@code xcodebuild -showBuildSettings} query for a single target.
+	 */
+	@EqualsAndHashCode
+	public static final class Request {
+		private final Map<String, String> arguments;
+		private final Map<String, String> buildSettings;
+		private final Path developerDir;
+
+		/**
+		 * Creates a query.
+		 *
+		 * @param arguments  the {@code xcodebuild} flags and their value, must include {@code -project} and {@code -target}
+		 * @param buildSettings  the build settings overrides, must not be null
+		 * @param developerDir  the {@code DEVELOPER_DIR} of the invocation, must not be null
+		 */
+		public Request(Map<String, String> arguments, Map<String, String> buildSettings, Path developerDir) {
+			assert arguments.containsKey("-target") : "'arguments' must include -target";
+			this.arguments = ImmutableMap.copyOf(arguments);
+			this.buildSettings = ImmutableMap.copyOf(buildSettings);
+			this.developerDir = developerDir;
+		}
+
+		public String getTargetName() {
+			return arguments.get("-target");
+		}
+
+		public Map<String, String> getBuildSettings() {
+			return buildSettings;
+		}
+
+		private List<String> toArguments() {
+			final ImmutableList.Builder<String> result = ImmutableList.builder();
+			arguments.forEach((flag, value) -> result.add(flag, value));
+			buildSettings.forEach((name, value) -> result.add(name + "=" + value));
+			return result.build();
+		}
+	}
+
+	@EqualsAndHashCode
+	private static final class BatchKey {
+		private final String projectPath; // Gradle project owning the requests
+		private final Map<String, String> arguments; // without -target
+		private final Map<String, String> buildSettings; // with relocatable placeholders
+		private final Path developerDir;
+
+		private BatchKey(String projectPath, Map<String, String> arguments, Map<String, String> buildSettings, Path developerDir) {
+			this.projectPath = projectPath;
+			this.arguments = arguments;
+			this.buildSettings = buildSettings;
+			this.developerDir = developerDir;
+		}
+
+		public static BatchKey of(String projectPath, Request request) {
+			final ImmutableMap.Builder<String, String> arguments = ImmutableMap.builder();
+			request.arguments.forEach((flag, value) -> {
+				if (!flag.equals("-target")) {
+					arguments.put(flag, value);
+				}
+			});
+
+			final ImmutableMap.Builder<String, String> buildSettings = ImmutableMap.builder();
+			request.buildSettings.forEach((name, value) -> {
+				buildSettings.put(name, RELOCATABLE_BUILD_SETTINGS.contains(name) ? placeholderOf(name) : value);
+			});
+			return new BatchKey(projectPath, arguments.build(), buildSettings.build(), request.developerDir);
+		}
+
+		public List<String> toArguments(Iterable<String> targetNames) {
+			final ImmutableList.Builder<String> result = ImmutableList.builder();
+			arguments.forEach((flag, value) -> result.add(flag, value));
+			for (String targetName : targetNames) {
+				result.add("-target", targetName);
+			}
+			buildSettings.forEach((name, value) -> result.add(name + "=" + value));
+			return result.build();
+		}
+	}
+}
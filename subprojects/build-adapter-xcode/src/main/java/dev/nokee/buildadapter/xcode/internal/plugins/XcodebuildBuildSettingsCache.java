@@ -0,0 +1,340 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.nokee.buildadapter.xcode.internal.plugins;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import dev.nokee.xcode.PersistentCacheCleanup;
+import dev.nokee.xcode.XCFileReference;
+import dev.nokee.xcode.XCFileReferencesLoader;
+import dev.nokee.xcode.XCLoaders;
+import dev.nokee.xcode.XCProjectReference;
+import dev.nokee.xcode.objects.PBXProject;
+import dev.nokee.xcode.objects.configuration.XCBuildConfiguration;
+import dev.nokee.xcode.objects.configuration.XCConfigurationList;
+import dev.nokee.xcode.objects.files.PBXFileReference;
+import dev.nokee.xcode.objects.targets.PBXTarget;
+import lombok.EqualsAndHashCode;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Persistent cache of {@code xcodebuild -showBuildSettings} results, shared across builds and daemons.
+ *
+ * <p>Entries are keyed by a hash of the {@code xcodebuild} arguments (project, target, configuration, SDK and overridden build settings),
+ * the {@code DEVELOPER_DIR} and the content of the inputs affecting the result.
+ * The inputs are the {@code project.pbxproj} file, every xcconfig file used as a base configuration by the project or its targets,
+ * the xcconfig files from the {@code -xcconfig} argument and the {@code XCODE_XCCONFIG_FILE} environment variable, including their {@code #include},
+ * as well as the Xcode version files and the SDK settings files, so updating Xcode or an SDK in place is detected.
+ * Changing any of those inputs yields a new key, stale entries are never read again.
+ * Entries are touched when used and deleted by {@link PersistentCacheCleanup} once unused for a while, see {@link #deleteUnusedEntries()}.
+ */
+public final class XcodebuildBuildSettingsCache {
+	private static final String FORMAT_VERSION = "2";
+	private static final Pattern INCLUDE_DIRECTIVE = Pattern.compile("^\\s*#include\\??\\s+\"([^\"]+)\"");
+	private static final Type BUILD_SETTINGS_TYPE = new TypeToken<Map<String, String>>() {}.getType();
+	// Bounded, the daemon may see many file versions over its lifetime
+	private static final Cache<FileStamp, HashCode> contentHashes = CacheBuilder.newBuilder().maximumSize(10_000).build();
+	private final Path cacheDirectory;
+
+	public XcodebuildBuildSettingsCache(Path cacheDirectory) {
+		this.cacheDirectory = cacheDirectory;
+	}
+
+	/**
+	 * Returns the cached build settings for the specified invocation or runs the query.
+	 *
+	 * @param arguments  the {@code xcodebuild} arguments, including {@code -project} and build settings overrides, must not be null
+	 * @param developerDir  the {@code DEVELOPER_DIR} of the invocation, must not be null
+	 * @param query  the {@code xcodebuild} query to run on cache miss, must not be null
+	 * @return the build settings, never null
+	 */
+	public Map<String, String> computeIfAbsent(List<String> arguments, Path developerDir, Supplier<Map<String, String>> query) {
+		return computeIfAbsent(arguments, developerDir, BUILD_SETTINGS_TYPE, query);
+	}
+
+	/**
+	 * Returns the cached result for the specified invocation or runs the query.
+	 * Use this method for queries returning more than the build settings of a single target, e.g. batched queries.
+	 *
+	 * @param arguments  the {@code xcodebuild} arguments, including {@code -project} and build settings overrides, must not be null
+	 * @param developerDir  the {@code DEVELOPER_DIR} of the invocation, must not be null
+	 * @param type  the JSON type of the result, must not be null
+	 * @param query  the {@code xcodebuild} query to run on cache miss, must not be null
+	 * @param <T>  the result type
+	 * @return the query result, never null
+	 */
+	public <T> T computeIfAbsent(List<String> arguments, Path developerDir, Type type, Supplier<T> query) {
+		final HashCode key;
+		try {
+			key = keyOf(arguments, developerDir, type);
+		} catch (IOException | RuntimeException e) {
+			return query.get(); // inputs cannot be fingerprinted, don't cache
+		}
+
+		final Path entryFile = cacheDirectory.resolve(key + ".json");
+		final T cached = read(entryFile, type);
+		if (cached != null) {
+			return cached;
+		}
+
+		final T result = query.get();
+		write(entryFile, type, result);
+		return result;
+	}
+
+	/**
+	 * Deletes the entries unused for a while, at most once a day.
+	 */
+	public void deleteUnusedEntries() {
+		PersistentCacheCleanup.deleteUnusedFiles(cacheDirectory, cacheDirectory);
+	}
+
+	private static HashCode keyOf(List<String> arguments, Path developerDir, Type type) throws IOException {
+		final Hasher hasher = Hashing.sha256().newHasher();
+		hasher.putString(FORMAT_VERSION, StandardCharsets.UTF_8);
+		hasher.putString(type.getTypeName(), StandardCharsets.UTF_8);
+		for (String argument : arguments) {
+			hasher.putInt(argument.length()).putString(argument, StandardCharsets.UTF_8);
+		}
+		hasher.putString(developerDir.toString(), StandardCharsets.UTF_8);
+
+		// An Xcode or SDK update may be installed at the same path
+		for (Path versionFile : xcodeVersionInputs(developerDir, valueOf(arguments, "-sdk").orElse(null))) {
+			putFile(hasher, versionFile);
+		}
+
+		final XCProjectReference project = XCProjectReference.of(Paths.get(valueOf(arguments, "-project").orElseThrow(() -> new IllegalArgumentException("no -project argument"))));
+		hasher.putBytes(contentHash(project.getLocation().resolve("project.pbxproj")).asBytes());
+		for (Path xcconfigFile : xcconfigInputs(project, valuesOf(arguments, "-target"), overridingXcconfigFiles(arguments))) {
+			putFile(hasher, xcconfigFile);
+		}
+		return hasher.hash();
+	}
+
+	private static void putFile(Hasher hasher, Path file) throws IOException {
+		hasher.putString(file.toString(), StandardCharsets.UTF_8);
+		if (Files.isRegularFile(file)) {
+			hasher.putBytes(contentHash(file).asBytes());
+		} else {
+			hasher.putBoolean(false);
+		}
+	}
+
+	// Xcode version files (i.e. Xcode.app/Contents/{version,Info}.plist) and the settings of the SDK, or of every installed SDK when the SDK is selected by name
+	private static Set<Path> xcodeVersionInputs(Path developerDir, @Nullable String sdk) throws IOException {
+		final Set<Path> result = new TreeSet<>();
+		final Path contentsDir = developerDir.toAbsolutePath().normalize().getParent();
+		if (contentsDir != null) {
+			result.add(contentsDir.resolve("version.plist"));
+			result.add(contentsDir.resolve("Info.plist"));
+		}
+
+		if (sdk != null && Files.isDirectory(Paths.get(sdk))) {
+			addSdkSettings(Paths.get(sdk), result);
+		} else {
+			final Path platformsDir = developerDir.resolve("Platforms");
+			if (Files.isDirectory(platformsDir)) {
+				try (DirectoryStream<Path> platforms = Files.newDirectoryStream(platformsDir, "*.platform")) {
+					for (Path platform : platforms) {
+						final Path sdksDir = platform.resolve("Developer/SDKs");
+						if (Files.isDirectory(sdksDir)) {
+							try (DirectoryStream<Path> sdks = Files.newDirectoryStream(sdksDir, "*.sdk")) {
+								for (Path sdkDir : sdks) {
+									addSdkSettings(sdkDir, result);
+								}
+							}
+						}
+					}
+				}
+			}
+		}
+		return result;
+	}
+
+	private static void addSdkSettings(Path sdkDir, Set<Path> result) {
+		result.add(sdkDir.resolve("SDKSettings.json"));
+		result.add(sdkDir.resolve("SDKSettings.plist"));
+	}
+
+	// Overriding xcconfig files apply on top of every configuration
+	private static List<Path> overridingXcconfigFiles(List<String> arguments) {
+		final List<Path> result = new ArrayList<>();
+		valueOf(arguments, "-xcconfig").ifPresent(it -> result.add(Paths.get(it).toAbsolutePath().normalize()));
+		final String xcconfigFile = System.getenv("XCODE_XCCONFIG_FILE");
+		if (xcconfigFile != null && !xcconfigFile.isEmpty()) {
+			result.add(Paths.get(xcconfigFile).toAbsolutePath().normalize());
+		}
+		return result;
+	}
+
+	private static Optional<String> valueOf(List<String> arguments, String flag) {
+		final int index = arguments.indexOf(flag);
+		if (index < 0 || index + 1 >= arguments.size()) {
+			return Optional.empty();
+		}
+		return Optional.of(arguments.get(index + 1));
+	}
+
+	private static Set<String> valuesOf(List<String> arguments, String flag) {
+		final Set<String> result = new HashSet<>();
+		for (int i = arguments.indexOf(flag); i >= 0 && i + 1 < arguments.size(); ++i) {
+			if (arguments.get(i).equals(flag)) {
+				result.add(arguments.get(++i));
+			}
+		}
+		return result;
+	}
+
+	// Base configurations of the project and requested targets (all configurations) and the overriding xcconfig files, followed by their includes
+	private static Set<Path> xcconfigInputs(XCProjectReference reference, Set<String> targetNames, List<Path> overridingXcconfigFiles) throws IOException {
+		final PBXProject project = XCLoaders.pbxprojectLoader().load(reference);
+		final XCFileReferencesLoader.XCFileReferences fileRefs = XCLoaders.fileReferences().load(reference);
+		final XCFileReference.ResolveContext context = new SourceRootResolveContext(reference);
+
+		final Deque<Path> queue = new ArrayDeque<>();
+		baseConfigurationsOf(project.getBuildConfigurationList(), fileRefs, context, queue);
+		for (PBXTarget target : project.getTargets()) {
+			if (targetNames.contains(target.getName())) {
+				baseConfigurationsOf(target.getBuildConfigurationList(), fileRefs, context, queue);
+			}
+		}
+		queue.addAll(overridingXcconfigFiles);
+
+		final Set<Path> result = new TreeSet<>();
+		while (!queue.isEmpty()) {
+			final Path xcconfigFile = queue.removeFirst();
+			if (result.add(xcconfigFile) && Files.isRegularFile(xcconfigFile)) {
+				for (String line : Files.readAllLines(xcconfigFile, StandardCharsets.UTF_8)) {
+					final Matcher matcher = INCLUDE_DIRECTIVE.matcher(line);
+					if (matcher.find() && !matcher.group(1).startsWith("<")) { // ignores <DEVELOPER_DIR> includes
+						queue.add(xcconfigFile.resolveSibling(matcher.group(1)).normalize());
+					}
+				}
+			}
+		}
+		return result;
+	}
+
+	private static void baseConfigurationsOf(XCConfigurationList configurations, XCFileReferencesLoader.XCFileReferences fileRefs, XCFileReference.ResolveContext context, Deque<Path> result) {
+		for (XCBuildConfiguration configuration : configurations.getBuildConfigurations()) {
+			final Optional<PBXFileReference> baseConfiguration = configuration.getBaseConfigurationReference();
+			if (baseConfiguration.isPresent()) {
+				// Unresolvable references fail the fingerprint, the result will not be cached
+				result.add(fileRefs.get(baseConfiguration.get()).resolve(context).normalize());
+			}
+		}
+	}
+
+	// Projects are shared by many targets, avoid rehashing unchanged files
+	private static HashCode contentHash(Path file) throws IOException {
+		final FileStamp stamp = FileStamp.of(file);
+		HashCode result = contentHashes.getIfPresent(stamp);
+		if (result == null) {
+			result = com.google.common.io.Files.asByteSource(file.toFile()).hash(Hashing.sha256());
+			contentHashes.put(stamp, result);
+		}
+		return result;
+	}
+
+	@Nullable
+	private static <T> T read(Path entryFile, Type type) {
+		if (!Files.isRegularFile(entryFile)) {
+			return null;
+		}
+		try (final Reader reader = Files.newBufferedReader(entryFile)) {
+			final T result = new Gson().fromJson(reader, type);
+			if (result != null) {
+				PersistentCacheCleanup.touch(entryFile);
+			}
+			return result;
+		} catch (IOException | RuntimeException e) {
+			return null; // corrupted entry, it will be rewritten
+		}
+	}
+
+	private static void write(Path entryFile, Type type, Object result) {
+		Path temporaryFile = null;
+		try {
+			Files.createDirectories(entryFile.getParent());
+			temporaryFile = Files.createTempFile(entryFile.getParent(), entryFile.getFileName().toString(), ".tmp");
+			try (final Writer writer = Files.newBufferedWriter(temporaryFile)) {
+				new Gson().toJson(result, type, writer);
+			}
+			try {
+				Files.move(temporaryFile, entryFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(temporaryFile, entryFile, StandardCopyOption.REPLACE_EXISTING);
+			}
+		} catch (IOException | RuntimeException e) {
+			// best effort, another build may be writing the same entry
+			if (temporaryFile != null) {
+				try {
+					Files.deleteIfExists(temporaryFile);
+				} catch (IOException ex) {
+					// ignores
+				}
+			}
+		}
+	}
+
+	@EqualsAndHashCode
+	private static final class FileStamp {
+		private final Path file;
+		private final long size;
+		private final long lastModified;
+
+		private FileStamp(Path file, long size, long lastModified) {
+			this.file = file;
+			this.size = size;
+			this.lastModified = lastModified;
+		}
+
+		public static FileStamp of(Path file) throws IOException {
+			final BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+			return new FileStamp(file.toAbsolutePath().normalize(), attributes.size(), attributes.lastModifiedTime().toMillis());
+		}
+	}
+}
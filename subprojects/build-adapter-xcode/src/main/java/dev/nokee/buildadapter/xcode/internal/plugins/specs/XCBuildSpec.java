@@ -24,6 +24,14 @@ public interface XCBuildSpec {
 	interface ResolveContext {
 		FileCollection inputs(PBXReference reference);
 
+		/**
+		 * Returns the xcfilelist file and the files it lists, after expanding their build settings.
+		 *
+		 * @param reference  the reference to the xcfilelist file, must not be null
+		 * @return the files, never null
+		 */
+		FileCollection fileListInputs(PBXReference reference);
+
 		String getConfiguration();
 	}
 
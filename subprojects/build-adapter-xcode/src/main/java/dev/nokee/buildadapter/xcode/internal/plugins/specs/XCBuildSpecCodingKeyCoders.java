@@ -160,9 +160,9 @@ public final class XCBuildSpecCodingKeyCoders implements CodingKeyCoders {
 		put(CodeablePBXShellScriptBuildPhase.CodingKeys.shellPath, forKey("shellPath", atInput(ofString())));
 		put(CodeablePBXShellScriptBuildPhase.CodingKeys.shellScript, forKey("shellScript", atInput(ofString())));
 		put(CodeablePBXShellScriptBuildPhase.CodingKeys.inputPaths, forKey("inputPaths", atInputFiles(setOfLocation())));
-		put(CodeablePBXShellScriptBuildPhase.CodingKeys.inputFileListPaths, null);
+		put(CodeablePBXShellScriptBuildPhase.CodingKeys.inputFileListPaths, forKey("inputFileListPaths", atInputFiles(setOfFileListLocation())));
 		put(CodeablePBXShellScriptBuildPhase.CodingKeys.outputPaths, null);
-		put(CodeablePBXShellScriptBuildPhase.CodingKeys.outputFileListPaths, null);
+		put(CodeablePBXShellScriptBuildPhase.CodingKeys.outputFileListPaths, forKey("outputFileListPaths", atInputFiles(setOfLocation()))); // outputs are tracked via the derived data, only the list matters
 
 		// PBXSourcesBuildPhase
 		put(CodeablePBXSourcesBuildPhase.CodingKeys.files, forKey("files", list(of(PBXBuildFile.class))));
@@ -255,6 +255,10 @@ public final class XCBuildSpecCodingKeyCoders implements CodingKeyCoders {
 		return new IgnoreEmptyStringEncoder<>(AtNestedCollectionEncoder.atNestedSet(new ListEncoder<>(new FileSystemLocationEncoder<>(new NormalizeStringAsPBXReferenceEncoder<>(new ThrowingValueEncoder<>())))));
 	}
 
+	private static ValueEncoder<XCBuildSpec, List<String>> setOfFileListLocation() {
+		return new IgnoreEmptyStringEncoder<>(AtNestedCollectionEncoder.atNestedSet(new ListEncoder<>(new FileListLocationEncoder<>(new NormalizeStringAsPBXReferenceEncoder<>(new ThrowingValueEncoder<>())))));
+	}
+
 	private static <T> ValueEncoder<XCBuildSpec, List<T>> list(ValueEncoder<XCBuildSpec, T> elementEncoder) {
 		return AtNestedCollectionEncoder.atNestedList(new ListEncoder<>(elementEncoder));
 	}
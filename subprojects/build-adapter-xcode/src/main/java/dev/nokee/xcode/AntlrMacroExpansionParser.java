@@ -27,6 +27,11 @@ import java.util.List;
 public final class AntlrMacroExpansionParser implements XCStringParser {
 	@Override
 	public XCString parse(String s) {
+		// Without any dollar sign, the whole string is a single literal, skip the lexer/parser setup
+		if (!s.isEmpty() && s.indexOf('$') < 0) {
+			return new XCStringList(ImmutableList.of(new XCStringLiteral(s)));
+		}
+
 		dev.nokee.xcode.MacroExpansionLexer lexer = new dev.nokee.xcode.MacroExpansionLexer(CharStreams.fromString(s));
 		lexer.removeErrorListeners();
 
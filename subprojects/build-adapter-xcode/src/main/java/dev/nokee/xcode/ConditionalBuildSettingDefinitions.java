@@ -15,6 +15,14 @@
  */
 package dev.nokee.xcode;
 
+import com.google.common.collect.ImmutableMap;
+import lombok.EqualsAndHashCode;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 public final class ConditionalBuildSettingDefinitions implements XCBuildSettingDefinition {
@@ -36,7 +44,111 @@ public final class ConditionalBuildSettingDefinitions implements XCBuildSettingD
 		return specs.entrySet().stream().filter(it -> it.getKey().test(context)).findFirst().map(Map.Entry::getValue).orElse(null);
 	}
 
+	public static Builder builder(String name) {
+		return new Builder(name);
+	}
+
 	interface Condition {
 		boolean test(SelectContext context);
 	}
+
+	/**
+	 * Conditions of a build setting specification, e.g. {@code [sdk=iphoneos*][arch=arm64]}.
+	 * All parameters must match, the patterns only support {@literal *} wildcards.
+	 */
+	@EqualsAndHashCode
+	static final class ParameterCondition implements Condition {
+		private final Map<String, String> patterns;
+
+		private ParameterCondition(Map<String, String> patterns) {
+			this.patterns = patterns;
+		}
+
+		public static ParameterCondition parse(String conditions) {
+			final ImmutableMap.Builder<String, String> patterns = ImmutableMap.builder();
+			int index = 0;
+			while (index < conditions.length()) {
+				final int end = conditions.indexOf(']', index);
+				final int separator = conditions.indexOf('=', index);
+				if (conditions.charAt(index) != '[' || end < 0 || separator < 0 || separator > end) {
+					throw new IllegalArgumentException(String.format("Invalid build setting condition '%s'.", conditions));
+				}
+				patterns.put(conditions.substring(index + 1, separator).trim(), conditions.substring(separator + 1, end).trim());
+				index = end + 1;
+			}
+			return new ParameterCondition(patterns.build());
+		}
+
+		public int size() {
+			return patterns.size();
+		}
+
+		@Override
+		public boolean test(SelectContext context) {
+			for (Map.Entry<String, String> pattern : patterns.entrySet()) {
+				final String value = context.get(pattern.getKey());
+				if (!matches(pattern.getValue(), value == null ? "" : value)) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		private static boolean matches(String pattern, String value) {
+			final int wildcard = pattern.indexOf('*');
+			if (wildcard < 0) {
+				return pattern.equals(value);
+			} else if (!value.startsWith(pattern.substring(0, wildcard))) {
+				return false;
+			}
+
+			final String remainingPattern = pattern.substring(wildcard + 1);
+			for (int i = wildcard; i <= value.length(); ++i) {
+				if (matches(remainingPattern, value.substring(i))) {
+					return true;
+				}
+			}
+			return false;
+		}
+	}
+
+	/**
+	 * Accumulates the specifications of a build setting in declaration order.
+	 * A specification replaces any previous specification with the same conditions.
+	 * Conditional specifications are selected before unconditional ones, the most specific and then the latest declared first.
+	 */
+	public static final class Builder {
+		private final String name;
+		private final Map<ParameterCondition, XCBuildSetting> specs = new LinkedHashMap<>();
+
+		private Builder(String name) {
+			this.name = name;
+		}
+
+		/**
+		 * Adds a specification.
+		 *
+		 * @param conditions  the conditions, e.g. {@code [sdk=iphoneos*]}, or empty string for an unconditional specification
+		 * @param buildSetting  the build setting specification, must not be null
+		 * @return this builder, never null
+		 */
+		public Builder put(String conditions, XCBuildSetting buildSetting) {
+			final ParameterCondition condition = ParameterCondition.parse(conditions);
+			specs.remove(condition); // move to the latest position
+			specs.put(condition, buildSetting);
+			return this;
+		}
+
+		public ConditionalBuildSettingDefinitions build() {
+			final List<ParameterCondition> conditions = new ArrayList<>(specs.keySet());
+			Collections.reverse(conditions);
+			conditions.sort(Comparator.comparingInt(ParameterCondition::size).reversed()); // stable sort
+
+			final ImmutableMap.Builder<Condition, XCBuildSetting> result = ImmutableMap.builder();
+			for (ParameterCondition condition : conditions) {
+				result.put(condition, specs.get(condition));
+			}
+			return new ConditionalBuildSettingDefinitions(name, result.build());
+		}
+	}
 }
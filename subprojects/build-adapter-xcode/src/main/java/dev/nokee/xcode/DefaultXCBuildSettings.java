@@ -19,11 +19,21 @@ import com.google.common.collect.Iterators;
 import lombok.EqualsAndHashCode;
 
 import java.io.Serializable;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
 
+/**
+ * Build settings evaluated from a layer.
+ * Each build setting is evaluated at most once per instance, nested references reuse the evaluated values.
+ */
 @EqualsAndHashCode
 public final class DefaultXCBuildSettings implements XCBuildSettings, Serializable, Iterable<XCBuildSettingLayer> {
 	private final XCBuildSettingLayer layer;
+	private transient Map<String, String> values;
+	private transient Set<String> evaluatingNames;
 
 	public DefaultXCBuildSettings(XCBuildSettingLayer layer) {
 		assert layer != null : "'layer' must not be null, use null layer instead";
@@ -31,8 +41,25 @@ public final class DefaultXCBuildSettings implements XCBuildSettings, Serializab
 	}
 
 	@Override
-	public String get(String name) {
-		return layer.find(new DefaultXCBuildSettingSearchContext(name)).evaluate(new DefaultXCBuildSettingEvaluationContext(this));
+	public synchronized String get(String name) {
+		if (values == null) {
+			values = new HashMap<>();
+			evaluatingNames = new LinkedHashSet<>();
+		}
+
+		if (values.containsKey(name)) {
+			return values.get(name);
+		} else if (!evaluatingNames.add(name)) {
+			throw new IllegalStateException(String.format("Circular reference detected while evaluating build setting '%s': %s -> %s.", name, String.join(" -> ", evaluatingNames), name));
+		}
+
+		try {
+			final String result = layer.find(new DefaultXCBuildSettingSearchContext(name)).evaluate(new DefaultXCBuildSettingEvaluationContext(this));
+			values.put(name, result);
+			return result;
+		} finally {
+			evaluatingNames.remove(name);
+		}
 	}
 
 	@Override
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.nokee.xcode;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+
+/**
+ * Interns the parsed {@link XCString} trees by raw string.
+ * The trees are immutable, the same build setting values (e.g. {@literal $(inherited)}) are shared across all projects and targets.
+ */
+final class MemoizedXCStringParser implements XCStringParser {
+	private final LoadingCache<String, XCString> cache;
+
+	public MemoizedXCStringParser(XCStringParser delegate, long maximumSize) {
+		assert delegate != null : "'delegate' must not be null";
+		this.cache = CacheBuilder.newBuilder().maximumSize(maximumSize).build(CacheLoader.from(delegate::parse));
+	}
+
+	@Override
+	public XCString parse(String s) {
+		return cache.getUnchecked(s);
+	}
+}
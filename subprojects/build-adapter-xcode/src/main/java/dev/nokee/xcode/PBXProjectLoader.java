@@ -17,24 +17,47 @@ package dev.nokee.xcode;
 
 import dev.nokee.xcode.objects.PBXProject;
 import dev.nokee.xcode.project.PBXObjectUnarchiver;
+import dev.nokee.xcode.project.PBXProj;
 import dev.nokee.xcode.project.PBXProjReader;
 import lombok.EqualsAndHashCode;
 
 import java.io.IOException;
 import java.io.Serializable;
 import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
 
 @EqualsAndHashCode
 public final class PBXProjectLoader implements XCLoader<PBXProject, XCProjectReference>, Serializable {
 	@Override
 	public PBXProject load(XCProjectReference reference) {
-		try (final PBXProjReader reader = new PBXProjReader(new AsciiPropertyListReader(Files.newBufferedReader(reference.getLocation().resolve("project.pbxproj"))))) {
-			return new PBXObjectUnarchiver().decode(reader.read());
+		// I/O failures, e.g. a missing project.pbxproj, propagate as is
+		final PBXProj pbxproj = XCCache.loadPBXProj(reference.getLocation().resolve("project.pbxproj"), this::parse);
+		try {
+			return new PBXObjectUnarchiver().decode(pbxproj);
+		} catch (Throwable e) {
+			throw loadFailure(e);
+		}
+	}
+
+	private PBXProj parse(Path pbxprojFile) {
+		final String content;
+		try {
+			content = new String(Files.readAllBytes(pbxprojFile), StandardCharsets.UTF_8);
 		} catch (IOException e) {
 			throw new UncheckedIOException(e);
-		}  catch (Throwable e) {
-			throw new RuntimeException(String.format("Could not load Xcode %s.", this), e);
 		}
+
+		// Objects are only indexed, most queries (e.g. listing targets) never decode most of them
+		try (final PBXProjReader reader = PBXProjReader.lazy(content)) {
+			return reader.read();
+		} catch (Throwable e) {
+			throw loadFailure(e);
+		}
+	}
+
+	private RuntimeException loadFailure(Throwable cause) {
+		return new RuntimeException(String.format("Could not load Xcode %s.", this), cause);
 	}
 }
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.nokee.xcode;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Age-based cleanup of the persistent caches shared across builds.
+ *
+ * <p>The last modified time of a cache file records when it was last used.
+ * It is refreshed at most once per {@link #TOUCH_INTERVAL} on use, so hits rarely write to the file system.
+ * Files unused for {@link #MAX_UNUSED_AGE} are deleted, at most once per {@link #CLEANUP_INTERVAL} for each cache directory.
+ * Cleanup is best effort, it never fails a build.
+ */
+public final class PersistentCacheCleanup {
+	static final Duration MAX_UNUSED_AGE = Duration.ofDays(7);
+	static final Duration CLEANUP_INTERVAL = Duration.ofDays(1);
+	private static final Duration TOUCH_INTERVAL = Duration.ofHours(1);
+	private static final String MARKER_FILE_NAME = "last-cleanup";
+
+	private PersistentCacheCleanup() {}
+
+	/**
+	 * Marks the specified cache file as used.
+	 *
+	 * @param file  the cache file used, must not be null
+	 */
+	public static void touch(Path file) {
+		try {
+			final Instant now = Instant.now();
+			if (Files.getLastModifiedTime(file).toInstant().isBefore(now.minus(TOUCH_INTERVAL))) {
+				Files.setLastModifiedTime(file, FileTime.from(now));
+			}
+		} catch (IOException e) {
+			// ignores, the file will be recreated if it gets deleted
+		}
+	}
+
+	/**
+	 * Deletes the files unused for {@link #MAX_UNUSED_AGE} from the specified directories, unless the cache was cleaned up recently.
+	 *
+	 * @param cacheDirectory  the cache directory, records the last cleanup, must not be null
+	 * @param directories  the directories containing the cache files, must not be null
+	 */
+	public static void deleteUnusedFiles(Path cacheDirectory, Path... directories) {
+		final Path markerFile = cacheDirectory.resolve(MARKER_FILE_NAME);
+		final Instant now = Instant.now();
+		try {
+			if (Files.getLastModifiedTime(markerFile).toInstant().isAfter(now.minus(CLEANUP_INTERVAL))) {
+				return;
+			}
+			Files.setLastModifiedTime(markerFile, FileTime.from(now));
+		} catch (NoSuchFileException e) {
+			try {
+				Files.createDirectories(cacheDirectory);
+				Files.createFile(markerFile);
+			} catch (IOException ex) {
+				return; // another build is cleaning up or the cache is not writable
+			}
+		} catch (IOException e) {
+			return;
+		}
+
+		final Instant unusedSince = now.minus(MAX_UNUSED_AGE);
+		for (Path directory : directories) {
+			if (!Files.isDirectory(directory)) {
+				continue;
+			}
+			try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+				for (Path file : files) {
+					try {
+						if (Files.getLastModifiedTime(file).toInstant().isBefore(unusedSince)) {
+							Files.deleteIfExists(file);
+						}
+					} catch (IOException e) {
+						// ignores, another build may be using or deleting the same file
+					}
+				}
+			} catch (IOException e) {
+				// ignores
+			}
+		}
+	}
+}
@@ -0,0 +1,242 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.nokee.xcode;
+
+import com.google.common.hash.HashCode;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import dev.nokee.xcode.project.PBXProj;
+import dev.nokee.xcode.project.PBXProjBinaryReader;
+import dev.nokee.xcode.project.PBXProjBinaryWriter;
+
+import javax.annotation.Nullable;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * Persistent cache of decoded {@code project.pbxproj} files, shared across builds.
+ *
+ * <p>Entries are keyed by the SHA-256 of the file content and stored in the {@link PBXProjBinaryWriter binary format}.
+ * A small per-location stamp records the size, last modified time and content hash of the file when it was last seen.
+ * When the size and last modified time still match the stamp, the content is not rehashed.
+ * Entries are memory-mapped when loaded and validated against the expected content hash, objects are decoded from the mapping on first access.
+ * New entries are written when the cache is closed, so writing them never decodes the objects of a freshly parsed project on the load path.
+ * Entries and stamps are touched when used and deleted by {@link PersistentCacheCleanup} once unused for a while, when the cache is closed.
+ * Any failure to read or write the cache falls back to parsing the file, the cache never fails a build.
+ */
+public final class PersistentPBXProjCache implements AutoCloseable {
+	private static final HashFunction CONTENT_HASH = Hashing.sha256();
+	private static final int STAMP_MAGIC = 0x50425853; // PBXS
+	private final Path cacheDirectory;
+	private final Path entriesDirectory;
+	private final Path stampsDirectory;
+	private final ConcurrentMap<HashCode, PBXProj> pendingEntries = new ConcurrentHashMap<>();
+
+	public PersistentPBXProjCache(Path cacheDirectory) {
+		this.cacheDirectory = cacheDirectory;
+		this.entriesDirectory = cacheDirectory.resolve("entries");
+		this.stampsDirectory = cacheDirectory.resolve("stamps");
+	}
+
+	/**
+	 * Returns the decoded project for the specified file, parsing it only when no valid cache entry exists.
+	 *
+	 * @param pbxprojFile  the {@code project.pbxproj} file to load, must not be null
+	 * @param parser  parser to use on cache miss, must not be null
+	 * @return the decoded project, never null
+	 */
+	public PBXProj load(Path pbxprojFile, Function<? super Path, ? extends PBXProj> parser) {
+		final FileStamp stamp;
+		try {
+			stamp = FileStamp.of(pbxprojFile);
+		} catch (IOException e) {
+			return parser.apply(pbxprojFile); // let the parser report the error
+		}
+
+		final Path stampFile = stampsDirectory.resolve(CONTENT_HASH.hashString(pbxprojFile.toAbsolutePath().normalize().toString(), StandardCharsets.UTF_8) + ".stamp");
+		final HashCode contentHash = contentHashOf(pbxprojFile, stampFile, stamp);
+		if (contentHash == null) {
+			return parser.apply(pbxprojFile);
+		}
+
+		final PBXProj pending = pendingEntries.get(contentHash);
+		if (pending != null) {
+			return pending;
+		}
+
+		final PBXProj cached = readEntry(entryFileOf(contentHash), contentHash);
+		if (cached != null) {
+			return cached;
+		}
+
+		final PBXProj result = parser.apply(pbxprojFile);
+		pendingEntries.putIfAbsent(contentHash, result);
+		return result;
+	}
+
+	private Path entryFileOf(HashCode contentHash) {
+		return entriesDirectory.resolve(contentHash + ".bin");
+	}
+
+	/**
+	 * Writes the entries of the projects parsed by this cache and deletes the unused entries and stamps.
+	 * Objects not yet decoded by the build are decoded at this point.
+	 */
+	@Override
+	public void close() {
+		for (Map.Entry<HashCode, PBXProj> entry : pendingEntries.entrySet()) {
+			final byte[] expectedHash = entry.getKey().asBytes();
+			writeAtomically(entryFileOf(entry.getKey()), out -> {
+				out.write(expectedHash);
+				new PBXProjBinaryWriter(out).write(entry.getValue());
+			});
+		}
+		pendingEntries.clear();
+		PersistentCacheCleanup.deleteUnusedFiles(cacheDirectory, entriesDirectory, stampsDirectory);
+	}
+
+	@Nullable
+	private static HashCode contentHashOf(Path pbxprojFile, Path stampFile, FileStamp stamp) {
+		final HashCode cachedHash = readContentHash(stampFile, stamp);
+		if (cachedHash != null) {
+			return cachedHash;
+		}
+
+		final HashCode result;
+		try {
+			result = com.google.common.io.Files.asByteSource(pbxprojFile.toFile()).hash(CONTENT_HASH);
+		} catch (IOException e) {
+			return null;
+		}
+		writeAtomically(stampFile, out -> {
+			final DataOutputStream stampOut = new DataOutputStream(out);
+			stampOut.writeInt(STAMP_MAGIC);
+			stampOut.writeLong(stamp.size);
+			stampOut.writeLong(stamp.lastModified);
+			stampOut.write(result.asBytes());
+			stampOut.flush();
+		});
+		return result;
+	}
+
+	@Nullable
+	private static HashCode readContentHash(Path stampFile, FileStamp stamp) {
+		if (!Files.isRegularFile(stampFile)) {
+			return null;
+		}
+		try (final DataInputStream in = new DataInputStream(Files.newInputStream(stampFile))) {
+			if (in.readInt() != STAMP_MAGIC || in.readLong() != stamp.size || in.readLong() != stamp.lastModified) {
+				return null;
+			}
+			final byte[] hash = new byte[CONTENT_HASH.bits() / Byte.SIZE];
+			in.readFully(hash);
+			PersistentCacheCleanup.touch(stampFile);
+			return HashCode.fromBytes(hash);
+		} catch (IOException e) {
+			return null;
+		}
+	}
+
+	@Nullable
+	private static PBXProj readEntry(Path entryFile, HashCode contentHash) {
+		if (!Files.isRegularFile(entryFile)) {
+			return null;
+		}
+		try (final FileChannel channel = FileChannel.open(entryFile, StandardOpenOption.READ)) {
+			final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			final byte[] actualHash = new byte[CONTENT_HASH.bits() / Byte.SIZE];
+			if (buffer.remaining() < actualHash.length) {
+				return null;
+			}
+			buffer.get(actualHash);
+			if (!Arrays.equals(actualHash, contentHash.asBytes())) {
+				return null;
+			}
+			final PBXProj result = new PBXProjBinaryReader(buffer.slice()).read();
+			PersistentCacheCleanup.touch(entryFile);
+			return result;
+		} catch (IOException | IllegalStateException e) {
+			deleteQuietly(entryFile); // corrupted entry, it will be rewritten
+			return null;
+		}
+	}
+
+	private static void writeAtomically(Path target, ThrowingConsumer<OutputStream> action) {
+		Path temporaryFile = null;
+		try {
+			Files.createDirectories(target.getParent());
+			temporaryFile = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+			try (final OutputStream out = new BufferedOutputStream(Files.newOutputStream(temporaryFile))) {
+				action.accept(out);
+			}
+			try {
+				Files.move(temporaryFile, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(temporaryFile, target, StandardCopyOption.REPLACE_EXISTING);
+			}
+		} catch (IOException | RuntimeException e) {
+			// best effort, another build may be writing the same entry
+			if (temporaryFile != null) {
+				deleteQuietly(temporaryFile);
+			}
+		}
+	}
+
+	private static void deleteQuietly(Path file) {
+		try {
+			Files.deleteIfExists(file);
+		} catch (IOException e) {
+			// ignores
+		}
+	}
+
+	private interface ThrowingConsumer<T> {
+		void accept(T t) throws IOException;
+	}
+
+	private static final class FileStamp {
+		private final long size;
+		private final long lastModified;
+
+		private FileStamp(long size, long lastModified) {
+			this.size = size;
+			this.lastModified = lastModified;
+		}
+
+		public static FileStamp of(Path file) throws IOException {
+			final BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+			return new FileStamp(attributes.size(), attributes.lastModifiedTime().toMillis());
+		}
+	}
+}
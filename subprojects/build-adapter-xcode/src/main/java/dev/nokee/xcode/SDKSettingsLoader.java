@@ -0,0 +1,193 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.nokee.xcode;
+
+import com.google.common.collect.ImmutableMap;
+import lombok.EqualsAndHashCode;
+import lombok.val;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Loads the default build settings of an SDK from its {@code SDKSettings.plist}.
+ *
+ * <p>The SDK can be an absolute path to the SDK directory, a canonical name (e.g. {@code iphoneos16.2}) or a unversioned name (e.g. {@code iphoneos}).
+ * For an unversioned name, the latest SDK installed in the developer directory is selected.
+ * The build settings are the SDK's {@code DefaultProperties} overridden by its {@code CustomProperties},
+ * together with {@code SDK_NAME}, {@code SDK_VERSION} and {@code SDKROOT}.
+ */
+public final class SDKSettingsLoader {
+	private SDKSettingsLoader() {}
+
+	/**
+	 * Returns the default build settings of the specified SDK.
+	 * The result is cached for the duration of the build, see {@link XCCache}.
+	 *
+	 * @param developerDir  the developer directory of the Xcode installation, must not be null
+	 * @param sdk  the SDK name or path, must not be null
+	 * @return the default build settings, empty if the SDK cannot be found
+	 */
+	public static Map<String, String> load(Path developerDir, String sdk) {
+		return XCCache.cacheIfAbsent(new CacheKey(developerDir, sdk), key -> {
+			final Path sdkDirectory = key.sdk.startsWith("/") ? developerDir.getFileSystem().getPath(key.sdk) : findSdk(key.developerDir, key.sdk);
+			if (sdkDirectory == null || !Files.isRegularFile(sdkDirectory.resolve("SDKSettings.plist"))) {
+				return ImmutableMap.of();
+			}
+
+			final Map<String, Object> settings = readSettings(sdkDirectory.resolve("SDKSettings.plist"));
+			final Map<String, String> result = new LinkedHashMap<>();
+			putAllStrings(result, settings.get("DefaultProperties"));
+			putAllStrings(result, settings.get("CustomProperties"));
+			if (settings.get("CanonicalName") instanceof String) {
+				result.put("SDK_NAME", (String) settings.get("CanonicalName"));
+			}
+			if (settings.get("Version") instanceof String) {
+				result.put("SDK_VERSION", (String) settings.get("Version"));
+			}
+			result.put("SDKROOT", sdkDirectory.toString());
+			return ImmutableMap.copyOf(result);
+		});
+	}
+
+	private static void putAllStrings(Map<String, String> result, Object properties) {
+		if (properties instanceof Map) {
+			((Map<?, ?>) properties).forEach((name, value) -> {
+				if (value instanceof String) {
+					result.put((String) name, (String) value);
+				}
+			});
+		}
+	}
+
+	// Selects the SDK with the same canonical name or, for unversioned names, the highest version
+	private static Path findSdk(Path developerDir, String sdk) {
+		Path result = null;
+		String resultVersion = null;
+		for (Path sdkDirectory : sdkDirectories(developerDir)) {
+			final Map<String, Object> settings;
+			try {
+				settings = readSettings(sdkDirectory.resolve("SDKSettings.plist"));
+			} catch (RuntimeException e) {
+				continue; // ignores unreadable SDK
+			}
+
+			final Object canonicalName = settings.get("CanonicalName");
+			final Object version = settings.get("Version");
+			if (!(canonicalName instanceof String) || !(version instanceof String)) {
+				continue;
+			} else if (canonicalName.equals(sdk)) {
+				return sdkDirectory;
+			} else if (canonicalName.equals(sdk + version) && (resultVersion == null || compareVersions((String) version, resultVersion) > 0)) {
+				result = sdkDirectory;
+				resultVersion = (String) version;
+			}
+		}
+		return result;
+	}
+
+	private static List<Path> sdkDirectories(Path developerDir) {
+		final List<Path> result = new ArrayList<>();
+		try (DirectoryStream<Path> platforms = Files.newDirectoryStream(developerDir.resolve("Platforms"), "*.platform")) {
+			for (Path platform : platforms) {
+				final Path sdks = platform.resolve("Developer/SDKs");
+				if (Files.isDirectory(sdks)) {
+					try (DirectoryStream<Path> stream = Files.newDirectoryStream(sdks, "*.sdk")) {
+						stream.forEach(result::add);
+					}
+				}
+			}
+		} catch (IOException e) {
+			// no platforms, no SDK
+		}
+		return result;
+	}
+
+	private static int compareVersions(String first, String second) {
+		final String[] firstParts = first.split("\\.");
+		final String[] secondParts = second.split("\\.");
+		for (int i = 0; i < Math.max(firstParts.length, secondParts.length); ++i) {
+			final int result = Integer.compare(versionPart(firstParts, i), versionPart(secondParts, i));
+			if (result != 0) {
+				return result;
+			}
+		}
+		return 0;
+	}
+
+	private static int versionPart(String[] parts, int index) {
+		try {
+			return index < parts.length ? Integer.parseInt(parts[index]) : 0;
+		} catch (NumberFormatException e) {
+			return 0;
+		}
+	}
+
+	private static Map<String, Object> readSettings(Path settingsFile) {
+		try (val reader = new XmlPropertyListReader(Files.newBufferedReader(settingsFile))) {
+			if (reader.next() != PropertyListReader.Event.DOCUMENT_START || reader.next() != PropertyListReader.Event.DICTIONARY_START) {
+				throw new IllegalStateException(String.format("Expecting a dictionary in '%s'.", settingsFile));
+			}
+			return readDictionary(reader);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	// Only keeps strings and dictionaries, other values are replaced by a placeholder
+	private static Map<String, Object> readDictionary(PropertyListReader reader) {
+		final Map<String, Object> result = new LinkedHashMap<>();
+		for (PropertyListReader.Event event = reader.next(); event != PropertyListReader.Event.DICTIONARY_END; event = reader.next()) {
+			final String key = reader.readDictionaryKey();
+			result.put(key, readValue(reader, reader.next()));
+		}
+		return result;
+	}
+
+	private static Object readValue(PropertyListReader reader, PropertyListReader.Event event) {
+		switch (event) {
+			case STRING:
+				return reader.readString();
+			case DICTIONARY_START:
+				return readDictionary(reader);
+			case ARRAY_START:
+				for (PropertyListReader.Event element = reader.next(); element != PropertyListReader.Event.ARRAY_END; element = reader.next()) {
+					readValue(reader, element);
+				}
+				return new Object();
+			default:
+				return new Object();
+		}
+	}
+
+	@EqualsAndHashCode
+	private static final class CacheKey {
+		private final Path developerDir;
+		private final String sdk;
+
+		private CacheKey(Path developerDir, String sdk) {
+			this.developerDir = developerDir;
+			this.sdk = sdk;
+		}
+	}
+}
@@ -15,12 +15,28 @@
  */
 package dev.nokee.xcode;
 
+import javax.annotation.Nullable;
+
 public interface XCBuildSettingDefinition {
 	String getName();
 
+	/**
+	 * Selects the build setting matching the specified context.
+	 *
+	 * @param context  the selection context, must not be null
+	 * @return the matching build setting or null if no specification matches
+	 */
+	@Nullable
 	XCBuildSetting select(SelectContext context);
 
 	interface SelectContext {
-
+		/**
+		 * Returns the value of a condition parameter, i.e. {@code sdk}, {@code arch}, {@code config} or {@code variant}.
+		 *
+		 * @param parameterName  the condition parameter name, must not be null
+		 * @return the parameter value or null if unknown
+		 */
+		@Nullable
+		String get(String parameterName);
 	}
 }
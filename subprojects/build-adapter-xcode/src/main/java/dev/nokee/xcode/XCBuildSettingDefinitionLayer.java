@@ -0,0 +1,102 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.nokee.xcode;
+
+import com.google.common.base.Suppliers;
+import com.google.common.collect.ImmutableMap;
+
+import javax.annotation.Nullable;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * A build setting layer of {@link XCBuildSettingDefinition}, e.g. an xcconfig file or the build settings of a {@code XCBuildConfiguration}.
+ * The specification is selected when the build setting is evaluated.
+ * The lower layers are only searched when no specification matches or to resolve {@literal $(inherited)}.
+ */
+public final class XCBuildSettingDefinitionLayer implements XCBuildSettingLayer {
+	private static final Map<String, String> CONDITION_PARAMETERS = ImmutableMap.of("sdk", "SDK_NAME", "arch", "CURRENT_ARCH", "config", "CONFIGURATION", "variant", "CURRENT_VARIANT");
+	private final Map<String, ? extends XCBuildSettingDefinition> definitions;
+
+	public XCBuildSettingDefinitionLayer(Map<String, ? extends XCBuildSettingDefinition> definitions) {
+		assert definitions != null : "'definitions' must not be null";
+		this.definitions = definitions;
+	}
+
+	@Override
+	public XCBuildSetting find(SearchContext context) {
+		assert context != null : "'context' must not be null";
+		final XCBuildSettingDefinition definition = definitions.get(context.getName());
+		if (definition == null) {
+			return context.findNext();
+		}
+		// The search context can only move forward once, share the lower layers' result
+		return new SelectingBuildSetting(definition, Suppliers.memoize(context::findNext));
+	}
+
+	@Override
+	public Map<String, XCBuildSetting> findAll() {
+		final Map<String, XCBuildSetting> result = new LinkedHashMap<>();
+		definitions.forEach((name, definition) -> {
+			result.put(name, new SelectingBuildSetting(definition, () -> new XCBuildSettingNull(name)));
+		});
+		return result;
+	}
+
+	@Override
+	public void accept(Visitor visitor) {
+		visitor.visit(this);
+	}
+
+	private static final class SelectingBuildSetting implements XCBuildSetting {
+		private final XCBuildSettingDefinition definition;
+		private final Supplier<XCBuildSetting> next;
+
+		private SelectingBuildSetting(XCBuildSettingDefinition definition, Supplier<XCBuildSetting> next) {
+			this.definition = definition;
+			this.next = next;
+		}
+
+		@Override
+		public String getName() {
+			return definition.getName();
+		}
+
+		@Nullable
+		@Override
+		public String evaluate(EvaluationContext context) {
+			final XCBuildSetting spec = definition.select(parameterName -> {
+				final String buildSettingName = CONDITION_PARAMETERS.get(parameterName);
+				return buildSettingName == null ? null : context.get(buildSettingName);
+			});
+			if (spec == null) {
+				return next.get().evaluate(context);
+			}
+			return spec.evaluate(variableName -> {
+				if (variableName.equals("inherited")) {
+					return next.get().evaluate(context);
+				}
+				return context.get(variableName);
+			});
+		}
+
+		@Override
+		public String toString() {
+			return definition.getName();
+		}
+	}
+}
@@ -15,24 +15,189 @@
  */
 package dev.nokee.xcode;
 
+import dev.nokee.xcode.project.PBXProj;
+
+import javax.annotation.Nullable;
+import java.nio.file.Path;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Function;
 
 public final class XCCache {
-	private static final ConcurrentMap<Object, Object> cache = new ConcurrentHashMap<>();
+	private static final ConcurrentMap<Object, Entry> cache = new ConcurrentHashMap<>();
+	private static final LongAdder hitCount = new LongAdder();
+	private static final LongAdder missCount = new LongAdder();
+	private static final LongAdder loadTimeNanos = new LongAdder();
+	private static final AtomicReference<PersistentPBXProjCache> persistentCache = new AtomicReference<>();
+
+	/**
+	 * Uses a persistent cache for the decoded {@code project.pbxproj} files, or disables it, until the returned scope is closed.
+	 * Closing the scope restores the persistent cache used before, so builds sharing the process, e.g. nested builds, don't leak their cache into each other.
+	 *
+	 * @param cacheDirectory  the persistent cache directory or null to disable the persistent cache
+	 * @return the scope of the persistent cache, never null
+	 */
+	public static PersistentCacheScope usePersistentCache(@Nullable Path cacheDirectory) {
+		final PersistentPBXProjCache cache = cacheDirectory == null ? null : new PersistentPBXProjCache(cacheDirectory);
+		return new PersistentCacheScope(cache, persistentCache.getAndSet(cache));
+	}
+
+	static PBXProj loadPBXProj(Path pbxprojFile, Function<? super Path, ? extends PBXProj> parser) {
+		final PersistentPBXProjCache cache = persistentCache.get();
+		if (cache == null) {
+			return parser.apply(pbxprojFile);
+		}
+		return cache.load(pbxprojFile, parser);
+	}
 
 	public static void clear() {
 		cache.clear();
+		hitCount.reset();
+		missCount.reset();
+		loadTimeNanos.reset();
 	}
 
-	static synchronized <KEY, VALUE> VALUE cacheIfAbsent(KEY key, Function<? super KEY, ? extends VALUE> factory) {
-		@SuppressWarnings("unchecked")
-		VALUE result = (VALUE) cache.get(key);
-		if (result == null) {
-			result = factory.apply(key);
-			cache.put(key, result);
+	/**
+	 * Returns the cached value for the specified key or loads it.
+	 * Loads of distinct keys run in parallel, concurrent loads of the same key are coalesced into a single load.
+	 * A failed load is not cached.
+	 *
+	 * @param key  the cache key, must not be null
+	 * @param factory  the loader for the value, must not be null
+	 * @return the cached value
+	 */
+	static <KEY, VALUE> VALUE cacheIfAbsent(KEY key, Function<? super KEY, ? extends VALUE> factory) {
+		Entry entry = cache.get(key);
+		if (entry == null) {
+			final Entry newEntry = new Entry();
+			entry = cache.putIfAbsent(key, newEntry);
+			if (entry == null) {
+				missCount.increment();
+				return load(key, newEntry, factory);
+			}
 		}
+
+		hitCount.increment();
+		@SuppressWarnings("unchecked")
+		final VALUE result = (VALUE) entry.await(key);
 		return result;
 	}
+
+	private static <KEY, VALUE> VALUE load(KEY key, Entry entry, Function<? super KEY, ? extends VALUE> factory) {
+		final long startTime = System.nanoTime();
+		try {
+			final VALUE result = factory.apply(key);
+			entry.complete(result);
+			return result;
+		} catch (Throwable e) {
+			cache.remove(key, entry); // let the next caller retry
+			entry.fail(e);
+			throw e;
+		} finally {
+			loadTimeNanos.add(System.nanoTime() - startTime);
+		}
+	}
+
+	public static final class PersistentCacheScope implements AutoCloseable {
+		@Nullable private final PersistentPBXProjCache cache;
+		@Nullable private final PersistentPBXProjCache previousCache;
+
+		private PersistentCacheScope(@Nullable PersistentPBXProjCache cache, @Nullable PersistentPBXProjCache previousCache) {
+			this.cache = cache;
+			this.previousCache = previousCache;
+		}
+
+		@Override
+		public void close() {
+			// Only restore when no other scope took over in the meantime
+			persistentCache.compareAndSet(cache, previousCache);
+			if (cache != null) {
+				cache.close();
+			}
+		}
+	}
+
+	public static Statistics statistics() {
+		return new Statistics(hitCount.sum(), missCount.sum(), loadTimeNanos.sum());
+	}
+
+	private static final class Entry {
+		private final Thread loadingThread = Thread.currentThread();
+		private final CountDownLatch done = new CountDownLatch(1);
+		@Nullable private volatile Object value;
+		@Nullable private volatile Throwable failure;
+
+		public void complete(Object value) {
+			this.value = value;
+			done.countDown();
+		}
+
+		public void fail(Throwable failure) {
+			this.failure = failure;
+			done.countDown();
+		}
+
+		public Object await(Object key) {
+			if (done.getCount() > 0) {
+				if (loadingThread == Thread.currentThread()) {
+					throw new IllegalStateException(String.format("Cycle detected while loading '%s'.", key));
+				}
+				boolean interrupted = false;
+				while (true) {
+					try {
+						done.await();
+						break;
+					} catch (InterruptedException e) {
+						interrupted = true;
+					}
+				}
+				if (interrupted) {
+					Thread.currentThread().interrupt();
+				}
+			}
+
+			if (failure != null) {
+				throw new RuntimeException(String.format("Could not load '%s'.", key), failure);
+			}
+			return value;
+		}
+	}
+
+	public static final class Statistics {
+		private final long hitCount;
+		private final long missCount;
+		private final long loadTimeNanos;
+
+		private Statistics(long hitCount, long missCount, long loadTimeNanos) {
+			this.hitCount = hitCount;
+			this.missCount = missCount;
+			this.loadTimeNanos = loadTimeNanos;
+		}
+
+		public long getHitCount() {
+			return hitCount;
+		}
+
+		public long getMissCount() {
+			return missCount;
+		}
+
+		/**
+		 * Returns the total time spent loading values, including nested loads.
+		 *
+		 * @return the load time in milliseconds
+		 */
+		public long getLoadTimeMillis() {
+			return TimeUnit.NANOSECONDS.toMillis(loadTimeNanos);
+		}
+
+		@Override
+		public String toString() {
+			return String.format("%d hits, %d misses, %dms loading", hitCount, missCount, getLoadTimeMillis());
+		}
+	}
 }
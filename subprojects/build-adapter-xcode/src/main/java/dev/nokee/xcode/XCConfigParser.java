@@ -0,0 +1,129 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.nokee.xcode;
+
+import com.google.common.collect.ImmutableMap;
+import lombok.EqualsAndHashCode;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Parses xcconfig files into build setting definitions.
+ *
+ * <p>The files are processed line by line, following the {@code #include} and {@code #include?} directives in place.
+ * Comments start with {@code //} anywhere on a line.
+ * Includes relative to the developer directory, i.e. {@code <DEVELOPER_DIR>/...}, are not supported and fail the parsing.
+ */
+public final class XCConfigParser {
+	private static final Pattern INCLUDE_DIRECTIVE = Pattern.compile("^#include(\\?)?\\s+\"([^\"]*)\"$");
+	private static final Pattern ASSIGNMENT = Pattern.compile("^([A-Za-z_][A-Za-z0-9_]*)((?:\\[[^\\]]*])*)\\s*=(.*)$");
+
+	private XCConfigParser() {}
+
+	/**
+	 * Returns the build setting definitions of the specified xcconfig file, including its {@code #include}.
+	 * The result is cached for the duration of the build, see {@link XCCache}.
+	 *
+	 * @param xcconfigFile  the xcconfig file to parse, must not be null
+	 * @return the build setting definitions by name, never null
+	 * @throws UncheckedIOException if a file cannot be read
+	 * @throws IllegalArgumentException if the file contains unsupported syntax
+	 */
+	public static Map<String, XCBuildSettingDefinition> parse(Path xcconfigFile) {
+		return XCCache.cacheIfAbsent(new CacheKey(xcconfigFile.toAbsolutePath().normalize()), key -> {
+			final Map<String, ConditionalBuildSettingDefinitions.Builder> builders = new LinkedHashMap<>();
+			parse(key.xcconfigFile, builders, new LinkedHashSet<>());
+
+			final ImmutableMap.Builder<String, XCBuildSettingDefinition> result = ImmutableMap.builder();
+			builders.forEach((name, builder) -> result.put(name, builder.build()));
+			return result.build();
+		});
+	}
+
+	private static void parse(Path xcconfigFile, Map<String, ConditionalBuildSettingDefinitions.Builder> builders, Set<Path> includeStack) {
+		if (!includeStack.add(xcconfigFile)) {
+			throw new IllegalArgumentException(String.format("Cyclic include of '%s'.", xcconfigFile));
+		}
+
+		final List<String> lines;
+		try {
+			lines = Files.readAllLines(xcconfigFile, StandardCharsets.UTF_8);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+
+		for (String line : lines) {
+			line = stripComment(line).trim();
+			if (line.isEmpty()) {
+				continue;
+			}
+
+			if (line.startsWith("#")) {
+				final Matcher matcher = INCLUDE_DIRECTIVE.matcher(line);
+				if (!matcher.matches() || matcher.group(2).startsWith("<")) {
+					throw new IllegalArgumentException(String.format("Unsupported directive '%s' in '%s'.", line, xcconfigFile));
+				}
+				final Path includedFile = xcconfigFile.resolveSibling(matcher.group(2)).normalize();
+				if (matcher.group(1) == null || Files.isRegularFile(includedFile)) {
+					parse(includedFile, builders, includeStack);
+				}
+			} else {
+				final Matcher matcher = ASSIGNMENT.matcher(line);
+				if (!matcher.matches()) {
+					throw new IllegalArgumentException(String.format("Unsupported line '%s' in '%s'.", line, xcconfigFile));
+				}
+				final String name = matcher.group(1);
+				builders.computeIfAbsent(name, ConditionalBuildSettingDefinitions::builder)
+					.put(matcher.group(2), new DefaultXCBuildSetting(name, XCString.of(valueOf(matcher.group(3)))));
+			}
+		}
+
+		includeStack.remove(xcconfigFile);
+	}
+
+	private static String stripComment(String line) {
+		final int index = line.indexOf("//");
+		return index < 0 ? line : line.substring(0, index);
+	}
+
+	private static String valueOf(String value) {
+		value = value.trim();
+		if (value.endsWith(";")) {
+			value = value.substring(0, value.length() - 1).trim();
+		}
+		return value;
+	}
+
+	@EqualsAndHashCode
+	private static final class CacheKey {
+		private final Path xcconfigFile;
+
+		private CacheKey(Path xcconfigFile) {
+			this.xcconfigFile = xcconfigFile;
+		}
+	}
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.nokee.xcode;
+
+import com.google.common.collect.ImmutableList;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Parses xcfilelist files, as used by the input and output file lists of shell script build phases.
+ *
+ * <p>Each line is a path which may reference build settings, e.g. {@code $(SRCROOT)/Pods/Target Support Files/Pods-App/Pods-App-frameworks.sh}.
+ * Empty lines and lines starting with {@code #} are ignored.
+ */
+public final class XCFileListParser {
+	private XCFileListParser() {}
+
+	/**
+	 * Returns the unexpanded paths listed in the specified xcfilelist file.
+	 *
+	 * @param xcfilelistFile  the xcfilelist file to parse, must not be null
+	 * @return the listed paths in declaration order, never null
+	 * @throws UncheckedIOException if the file cannot be read
+	 */
+	public static List<XCString> parse(Path xcfilelistFile) {
+		final ImmutableList.Builder<XCString> result = ImmutableList.builder();
+		try {
+			for (String line : Files.readAllLines(xcfilelistFile, StandardCharsets.UTF_8)) {
+				line = line.trim();
+				if (!line.isEmpty() && !line.startsWith("#")) {
+					result.add(XCString.of(line));
+				}
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return result.build();
+	}
+}
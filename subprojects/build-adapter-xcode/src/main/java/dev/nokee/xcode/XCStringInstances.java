@@ -21,7 +21,7 @@ import com.google.common.cache.LoadingCache;
 
 final class XCStringInstances {
 	public static final XCString EMPTY = new XCStringEmpty();
-	public static final AntlrMacroExpansionParser PARSER = new AntlrMacroExpansionParser();
+	public static final XCStringParser PARSER = new MemoizedXCStringParser(new AntlrMacroExpansionParser(), 10_000);
 	public static final LoadingCache<String, XCString> CACHE = CacheBuilder.newBuilder().maximumSize(1000).build(new CacheLoader<String, XCString>() {
 		@Override
 		public XCString load(String key) throws Exception {
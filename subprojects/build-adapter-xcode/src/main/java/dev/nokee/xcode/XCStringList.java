@@ -32,11 +32,22 @@ public final class XCStringList implements XCString, Serializable {
 
 	@Override
 	public String resolve(ResolveContext context) {
-		final String result = delegates.stream().map(it -> it.resolve(context)).map(it -> it == null ? "" : it).collect(Collectors.joining());
-		if (result.isEmpty()) {
+		if (delegates.size() == 1) {
+			final String result = delegates.get(0).resolve(context);
+			return result == null || result.isEmpty() ? null : result;
+		}
+
+		final StringBuilder result = new StringBuilder();
+		for (XCString delegate : delegates) {
+			final String value = delegate.resolve(context);
+			if (value != null) {
+				result.append(value);
+			}
+		}
+		if (result.length() == 0) {
 			return null;
 		} else {
-			return result;
+			return result.toString();
 		}
 	}
 
@@ -94,15 +94,19 @@ class XcodeTargetExecTaskOutOfDateSpecDefaultPredicateTests {
 				of(noInputFileListPaths, hasEmptyInputFileListPaths, hasNonEmptyInputFileListPaths),
 				of(noOutputFileListPaths, hasEmptyOutputFileListPaths, hasNonEmptyOutputFileListPaths)
 			).stream().map(specs -> arguments(ImmutableList.builder()
-				.add(specs.stream().anyMatch(xcFileListSpec()) || !(specs.contains(hasInputPaths) && specs.contains(hasOutputPaths)))
+				.add(!(specs.stream().anyMatch(inputSpec()) && specs.stream().anyMatch(outputSpec())))
 				.addAll(specs)
 				.build().toArray(new Object[0])
 			));
 		}
 	}
 
-	static Predicate<GivenSpec> xcFileListSpec() {
-		return of(hasEmptyInputFileListPaths, hasNonEmptyInputFileListPaths, hasEmptyOutputFileListPaths, hasNonEmptyOutputFileListPaths)::contains;
+	static Predicate<GivenSpec> inputSpec() {
+		return of(hasInputPaths, hasEmptyInputFileListPaths, hasNonEmptyInputFileListPaths)::contains;
+	}
+
+	static Predicate<GivenSpec> outputSpec() {
+		return of(hasOutputPaths, hasEmptyOutputFileListPaths, hasNonEmptyOutputFileListPaths)::contains;
 	}
 
 	enum GivenSpec {
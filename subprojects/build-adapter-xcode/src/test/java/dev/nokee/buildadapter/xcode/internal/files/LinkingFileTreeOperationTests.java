@@ -0,0 +1,220 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.nokee.buildadapter.xcode.internal.files;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+
+import static com.google.common.collect.ImmutableList.of;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+
+class LinkingFileTreeOperationTests {
+	@TempDir Path testDirectory;
+	Path source;
+	Path destination;
+
+	@BeforeEach
+	void givenSourceDirectory() throws IOException {
+		source = Files.createDirectories(testDirectory.resolve("source/dir")).getParent();
+		destination = testDirectory.resolve("destination");
+		Files.write(source.resolve("a.txt"), of("a"));
+		Files.write(source.resolve("dir/b.txt"), of("b"));
+		Files.setLastModifiedTime(source.resolve("dir"), FileTime.fromMillis(1000));
+	}
+
+	@Test
+	void linksFilesFromSourceDirectory() throws IOException {
+		LinkingFileTreeOperation.Statistics statistics = new LinkingFileTreeOperation().copy(of(source), destination);
+
+		assertThat(Files.isSameFile(source.resolve("a.txt"), destination.resolve("a.txt")), is(true));
+		assertThat(Files.isSameFile(source.resolve("dir/b.txt"), destination.resolve("dir/b.txt")), is(true));
+		assertThat(statistics.getLinkedFileCount(), equalTo(2L));
+		assertThat(statistics.getCopiedFileCount(), equalTo(0L));
+	}
+
+	@Test
+	void preservesDirectoriesLastModifiedTime() throws IOException {
+		new LinkingFileTreeOperation().copy(of(source), destination);
+
+		assertThat(Files.getLastModifiedTime(destination.resolve("dir")), equalTo(FileTime.fromMillis(1000)));
+	}
+
+	@Test
+	void skipsUnchangedFiles() {
+		new LinkingFileTreeOperation().copy(of(source), destination);
+		LinkingFileTreeOperation.Statistics statistics = new LinkingFileTreeOperation().copy(of(source), destination);
+
+		assertThat(statistics.getUnchangedFileCount(), equalTo(2L));
+		assertThat(statistics.getLinkedFileCount(), equalTo(0L));
+	}
+
+	@Test
+	void replacesChangedFilesWithoutModifyingPreviousSource() throws IOException {
+		Path otherSource = Files.createDirectories(testDirectory.resolve("other-source"));
+		Files.write(otherSource.resolve("a.txt"), of("other a"));
+		new LinkingFileTreeOperation().copy(of(source), destination);
+
+		new LinkingFileTreeOperation().copy(of(otherSource), destination);
+
+		assertThat(Files.readAllLines(destination.resolve("a.txt")), equalTo(of("other a")));
+		assertThat(Files.readAllLines(source.resolve("a.txt")), equalTo(of("a")));
+	}
+
+	@Test
+	void laterSourcesWin() throws IOException {
+		Path otherSource = Files.createDirectories(testDirectory.resolve("other-source"));
+		Files.write(otherSource.resolve("a.txt"), of("other a"));
+
+		LinkingFileTreeOperation.Statistics statistics = new LinkingFileTreeOperation().copy(of(source, otherSource), destination);
+
+		assertThat(Files.readAllLines(destination.resolve("a.txt")), equalTo(of("other a")));
+		assertThat(statistics.getLinkedFileCount(), equalTo(2L));
+	}
+
+	@Test
+	void syncDeletesStaleFiles() throws IOException {
+		Files.createDirectories(destination.resolve("stale"));
+		Files.write(destination.resolve("stale/c.txt"), of("c"));
+		Files.write(destination.resolve("d.txt"), of("d"));
+
+		LinkingFileTreeOperation.Statistics statistics = new LinkingFileTreeOperation().sync(source, destination);
+
+		assertThat(Files.exists(destination.resolve("stale")), is(false));
+		assertThat(Files.exists(destination.resolve("d.txt")), is(false));
+		assertThat(Files.exists(destination.resolve("dir/b.txt")), is(true));
+		assertThat(statistics.getDeletedFileCount(), equalTo(2L));
+	}
+
+	@Test
+	void syncEmptiesDestinationWhenSourceIsMissing() throws IOException {
+		new LinkingFileTreeOperation().sync(source, destination);
+
+		new LinkingFileTreeOperation().sync(testDirectory.resolve("missing"), destination);
+
+		assertThat(Files.list(destination).count(), equalTo(0L));
+	}
+
+	@Test
+	void incrementalSyncOnlyTransfersChangedFiles() throws IOException {
+		Path manifestFile = testDirectory.resolve("manifest");
+		new LinkingFileTreeOperation().sync(source, destination, manifestFile);
+		Files.delete(source.resolve("a.txt"));
+		Files.write(source.resolve("a.txt"), of("new a"));
+
+		LinkingFileTreeOperation.Statistics statistics = new LinkingFileTreeOperation().sync(source, destination, manifestFile);
+
+		assertThat(Files.readAllLines(destination.resolve("a.txt")), equalTo(of("new a")));
+		assertThat(statistics.getLinkedFileCount(), equalTo(1L));
+		assertThat(statistics.getUnchangedFileCount(), equalTo(1L));
+	}
+
+	@Test
+	void incrementalSyncDeletesStaleFilesRecordedInManifest() throws IOException {
+		Path manifestFile = testDirectory.resolve("manifest");
+		new LinkingFileTreeOperation().sync(source, destination, manifestFile);
+		Files.delete(source.resolve("dir/b.txt"));
+		Files.setLastModifiedTime(source.resolve("dir"), FileTime.fromMillis(2000));
+
+		LinkingFileTreeOperation.Statistics statistics = new LinkingFileTreeOperation().sync(source, destination, manifestFile);
+
+		assertThat(Files.exists(destination.resolve("dir/b.txt")), is(false));
+		assertThat(Files.getLastModifiedTime(destination.resolve("dir")), equalTo(FileTime.fromMillis(2000)));
+		assertThat(statistics.getDeletedFileCount(), equalTo(1L));
+	}
+
+	@Test
+	void incrementalSyncFallsBackToFullSyncWhenDestinationWasModified() throws IOException {
+		Path manifestFile = testDirectory.resolve("manifest");
+		new LinkingFileTreeOperation().sync(source, destination, manifestFile);
+		Files.write(destination.resolve("c.txt"), of("c"));
+
+		new LinkingFileTreeOperation().sync(source, destination, manifestFile);
+
+		assertThat(Files.exists(destination.resolve("c.txt")), is(false));
+	}
+
+	@Test
+	void incrementalSyncRestoresNestedDestinationFileDeletedBetweenSyncs() throws IOException {
+		Path manifestFile = testDirectory.resolve("manifest");
+		new LinkingFileTreeOperation().sync(source, destination, manifestFile);
+		Files.delete(destination.resolve("dir/b.txt"));
+
+		new LinkingFileTreeOperation().sync(source, destination, manifestFile);
+
+		assertThat(Files.readAllLines(destination.resolve("dir/b.txt")), equalTo(of("b")));
+		assertThat(Files.getLastModifiedTime(destination.resolve("dir")), equalTo(FileTime.fromMillis(1000)));
+	}
+
+	@Test
+	void incrementalSyncRestoresNestedDestinationFileReplacedBetweenSyncs() throws IOException {
+		Path manifestFile = testDirectory.resolve("manifest");
+		new LinkingFileTreeOperation().sync(source, destination, manifestFile);
+		Files.delete(destination.resolve("dir/b.txt"));
+		Files.write(destination.resolve("dir/b.txt"), of("other b"));
+		Files.setLastModifiedTime(destination.resolve("dir"), FileTime.fromMillis(1000));
+
+		new LinkingFileTreeOperation().sync(source, destination, manifestFile);
+
+		assertThat(Files.readAllLines(destination.resolve("dir/b.txt")), equalTo(of("b")));
+		assertThat(Files.readAllLines(source.resolve("dir/b.txt")), equalTo(of("b")));
+	}
+
+	@Test
+	void copiesBinariesModifiedInPlaceByXcodeTools() throws IOException {
+		Files.createDirectories(source.resolve("Foo.framework/_CodeSignature"));
+		Files.write(source.resolve("Foo.framework/Foo"), new byte[] {(byte) 0xCF, (byte) 0xFA, (byte) 0xED, (byte) 0xFE, 0x07, 0x00, 0x00, 0x01});
+		Files.write(source.resolve("libBar.a"), "!<arch>\nbar.o/".getBytes(StandardCharsets.US_ASCII));
+		Files.write(source.resolve("Foo.framework/_CodeSignature/CodeResources"), of("<plist/>"));
+
+		LinkingFileTreeOperation.Statistics statistics = new LinkingFileTreeOperation().copy(of(source), destination);
+
+		assertThat(Files.isSameFile(source.resolve("Foo.framework/Foo"), destination.resolve("Foo.framework/Foo")), is(false));
+		assertThat(Files.isSameFile(source.resolve("libBar.a"), destination.resolve("libBar.a")), is(false));
+		assertThat(Files.isSameFile(source.resolve("Foo.framework/_CodeSignature/CodeResources"), destination.resolve("Foo.framework/_CodeSignature/CodeResources")), is(false));
+		assertThat(statistics.getCopiedFileCount(), equalTo(3L));
+		assertThat(statistics.getLinkedFileCount(), equalTo(2L));
+	}
+
+	@Test
+	void writingCopiedBinaryInPlaceDoesNotModifySource() throws IOException {
+		final byte[] binary = new byte[] {(byte) 0xCF, (byte) 0xFA, (byte) 0xED, (byte) 0xFE, 0x07, 0x00, 0x00, 0x01};
+		Files.write(source.resolve("App"), binary);
+		new LinkingFileTreeOperation().copy(of(source), destination);
+
+		Files.write(destination.resolve("App"), new byte[] {0x00}, StandardOpenOption.APPEND); // e.g. codesign
+
+		assertThat(Files.readAllBytes(source.resolve("App")), equalTo(binary));
+	}
+
+	@Test
+	void linksFilesWithoutExtensionWhichAreNotBinaries() throws IOException {
+		Files.write(source.resolve("PkgInfo"), of("APPL????"));
+
+		new LinkingFileTreeOperation().copy(of(source), destination);
+
+		assertThat(Files.isSameFile(source.resolve("PkgInfo"), destination.resolve("PkgInfo")), is(true));
+	}
+}
@@ -17,12 +17,16 @@ package dev.nokee.buildadapter.xcode.internal.plugins;
 
 import com.google.common.collect.Iterators;
 import dev.nokee.xcode.DefaultXCBuildSettingLayer;
+import dev.nokee.xcode.XCBuildSetting;
 import dev.nokee.xcode.XCBuildSettingLayer;
 import dev.nokee.xcode.XCBuildSettingLiteral;
 import org.gradle.api.provider.MapProperty;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static com.google.common.collect.ImmutableMap.of;
 import static dev.nokee.internal.testing.util.ProjectTestUtils.objectFactory;
 import static dev.nokee.utils.DeferUtils.asToStringObject;
@@ -139,6 +143,46 @@ class ConfigurableXCBuildSettingsTests {
 		assertThat(subject.get("MY_VAR"), equalTo("literal-value"));
 	}
 
+	@Test
+	void evaluatesEachBuildSettingOnceAcrossLookupsWhenFinalized() {
+		final AtomicInteger findCount = new AtomicInteger();
+		final XCBuildSettingLayer layer = new DefaultXCBuildSettingLayer(of("MY_VAR", new XCBuildSettingLiteral("MY_VAR", "literal-value")));
+		subject.from(new XCBuildSettingLayer() {
+			@Override
+			public XCBuildSetting find(SearchContext context) {
+				findCount.incrementAndGet();
+				return layer.find(context);
+			}
+
+			@Override
+			public Map<String, XCBuildSetting> findAll() {
+				return layer.findAll();
+			}
+
+			@Override
+			public void accept(Visitor visitor) {
+				visitor.visit(this);
+			}
+		});
+		subject.finalizeValue();
+
+		assertThat(subject.get("MY_VAR"), equalTo("literal-value"));
+		assertThat(subject.get("MY_VAR"), equalTo("literal-value"));
+		assertThat(subject.asProvider().get().get("MY_VAR"), equalTo("literal-value"));
+		assertThat(findCount.get(), equalTo(1));
+	}
+
+	@Test
+	void capturesProvidedValuesWhenFinalized() {
+		MapProperty<String, String> property = objectFactory().mapProperty(String.class, String.class);
+		subject.from(property);
+		property.put("MY_VAR", "this-value");
+		subject.finalizeValue();
+
+		property.put("MY_VAR", "this-overridden-value");
+		assertThat(subject.get("MY_VAR"), equalTo("this-value"));
+	}
+
 	@SafeVarargs
 	@SuppressWarnings("varargs")
 	private static <T> Iterable<T> iterableOf(T... values) {
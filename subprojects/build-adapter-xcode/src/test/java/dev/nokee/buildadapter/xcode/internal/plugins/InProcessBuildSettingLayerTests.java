@@ -0,0 +1,304 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.nokee.buildadapter.xcode.internal.plugins;
+
+import com.google.common.collect.ImmutableList;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import dev.nokee.xcode.CompositeXCBuildSettingLayer;
+import dev.nokee.xcode.DefaultXCBuildSetting;
+import dev.nokee.xcode.DefaultXCBuildSettings;
+import dev.nokee.xcode.XCBuildSetting;
+import dev.nokee.xcode.XCBuildSettingLayer;
+import dev.nokee.xcode.XCBuildSettingNull;
+import dev.nokee.xcode.XCProjectReference;
+import dev.nokee.xcode.XCString;
+import dev.nokee.xcode.XCTargetReference;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static dev.nokee.internal.testing.util.ProjectTestUtils.objectFactory;
+import static dev.nokee.internal.testing.util.ProjectTestUtils.providerFactory;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+
+/**
+ * Compares the in-process evaluation against {@code xcodebuild -showBuildSettings -json -project App.xcodeproj -target App -configuration Debug} output of the same project.
+ * The fixture only keeps the build settings relevant to the project below.
+ */
+class InProcessBuildSettingLayerTests {
+	@TempDir Path testDirectory;
+	Map<String, String> xcodebuildBuildSettings;
+	List<String> fellThroughNames = new ArrayList<>();
+	DefaultXCBuildSettings subject;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		xcodebuildBuildSettings = readFixture();
+		write("Shared.xcconfig",
+			"// Included by Project.xcconfig",
+			"SHARED_NAME = Shared",
+			"OTHER_CFLAGS = -DSHARED");
+		write("Project.xcconfig",
+			"#include \"Shared.xcconfig\"",
+			"PROJECT_XCCONFIG_FLAGS = -DPROJECT_XCCONFIG");
+		write("Target.xcconfig",
+			"TARGET_XCCONFIG_FLAGS = $(PROJECT_XCCONFIG_FLAGS) -DTARGET_XCCONFIG",
+			"OTHER_CFLAGS = $(inherited) -DTARGET_XCCONFIG");
+		write("App.xcodeproj/project.pbxproj", PROJECT);
+		write("Developer/Platforms/MacOSX.platform/Developer/SDKs/MacOSX13.1.sdk/SDKSettings.plist",
+			"<?xml version=\"1.0\" encoding=\"UTF-8\"?>",
+			"<!DOCTYPE plist PUBLIC \"-//Apple//DTD PLIST 1.0//EN\" \"http://www.apple.com/DTDs/PropertyList-1.0.dtd\">",
+			"<plist version=\"1.0\">",
+			"<dict>",
+			"	<key>CanonicalName</key>",
+			"	<string>macosx13.1</string>",
+			"	<key>DefaultProperties</key>",
+			"	<dict>",
+			"		<key>PLATFORM_NAME</key>",
+			"		<string>macosx</string>",
+			"	</dict>",
+			"	<key>Version</key>",
+			"	<string>13.1</string>",
+			"</dict>",
+			"</plist>");
+
+		subject = newSubject(newInProcessLayerBuilder());
+	}
+
+	private InProcessBuildSettingLayer.Builder newInProcessLayerBuilder() {
+		return new InProcessBuildSettingLayer.Builder(objectFactory())
+			.targetReference(providerFactory().provider(() -> XCTargetReference.of(XCProjectReference.of(testDirectory.resolve("App.xcodeproj")), "App")))
+			.configuration(providerFactory().provider(() -> "Debug"))
+			.developerDir(providerFactory().provider(() -> testDirectory.resolve("Developer")));
+	}
+
+	private DefaultXCBuildSettings newSubject(InProcessBuildSettingLayer.Builder inProcessLayerBuilder) {
+		return new DefaultXCBuildSettings(new CompositeXCBuildSettingLayer(ImmutableList.of(inProcessLayerBuilder.build(), new RecordingXcodebuildLayer())));
+	}
+
+	@Test
+	void resolvesInheritedAcrossAllLevels() {
+		assertEvaluatedInProcess("OTHER_CFLAGS");
+	}
+
+	@Test
+	void resolvesXcconfigIncludes() {
+		assertEvaluatedInProcess("SHARED_NAME");
+		assertEvaluatedInProcess("PROJECT_XCCONFIG_FLAGS");
+	}
+
+	@Test
+	void resolvesReferencesToLowerLevels() {
+		assertEvaluatedInProcess("TARGET_XCCONFIG_FLAGS");
+	}
+
+	@Test
+	void selectsConditionalBuildSettingsOnSdk() {
+		assertEvaluatedInProcess("ARCH_FLAGS");
+	}
+
+	@Test
+	void selectsConditionalBuildSettingsOnConfiguration() {
+		assertEvaluatedInProcess("CONFIG_FLAGS");
+	}
+
+	@Test
+	void resolvesSdkDefaults() {
+		assertEvaluatedInProcess("SDK_FLAGS");
+		assertEvaluatedInProcess("SDK_NAME");
+		assertEvaluatedInProcess("PLATFORM_NAME");
+	}
+
+	@Test
+	void resolvesReferencesToXcodebuildBuildSettings() {
+		assertEvaluatedInProcess("PRODUCT_NAME");
+	}
+
+	@Test
+	void fallsThroughToXcodebuildWhenInheritingFromUnknownLevel() {
+		assertThat(subject.get("GCC_PREPROCESSOR_DEFINITIONS"), equalTo(xcodebuildBuildSettings.get("GCC_PREPROCESSOR_DEFINITIONS")));
+		assertThat(fellThroughNames, hasItem("GCC_PREPROCESSOR_DEFINITIONS"));
+	}
+
+	@Test
+	void fallsThroughToXcodebuildWhenXcconfigIsUnsupported() throws IOException {
+		write("Project.xcconfig", "#include \"<DEVELOPER_DIR>/Makefiles/CoreOS/Xcode/BSD.xcconfig\"");
+
+		assertThat(subject.get("OTHER_CFLAGS"), equalTo(xcodebuildBuildSettings.get("OTHER_CFLAGS")));
+		assertThat(fellThroughNames, hasItem("OTHER_CFLAGS"));
+	}
+
+	@Test
+	void resolvesOverridingXcconfigFileOnTopOfAllLevels() throws IOException {
+		write("Override.xcconfig", "OTHER_CFLAGS = $(inherited) -DOVERRIDE");
+		subject = newSubject(newInProcessLayerBuilder().overridingXcconfigFile(providerFactory().provider(() -> testDirectory.resolve("Override.xcconfig"))));
+
+		assertThat(subject.get("OTHER_CFLAGS"), equalTo(xcodebuildBuildSettings.get("OTHER_CFLAGS") + " -DOVERRIDE"));
+		assertThat(fellThroughNames, not(hasItem("OTHER_CFLAGS")));
+	}
+
+	private void assertEvaluatedInProcess(String name) {
+		assertThat(subject.get(name), equalTo(xcodebuildBuildSettings.get(name)));
+		assertThat(fellThroughNames, not(hasItem(name)));
+	}
+
+	// Only answers what cannot be known in process, e.g. TARGET_NAME, and records the fall through
+	private final class RecordingXcodebuildLayer implements XCBuildSettingLayer {
+		@Override
+		public XCBuildSetting find(SearchContext context) {
+			fellThroughNames.add(context.getName());
+			final String value = xcodebuildBuildSettings.get(context.getName());
+			if (value == null) {
+				return new XCBuildSettingNull(context.getName());
+			}
+			return new DefaultXCBuildSetting(context.getName(), XCString.literal(value));
+		}
+
+		@Override
+		public Map<String, XCBuildSetting> findAll() {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void accept(Visitor visitor) {
+			visitor.visit(this);
+		}
+	}
+
+	private static Map<String, String> readFixture() throws IOException {
+		try (Reader reader = new InputStreamReader(InProcessBuildSettingLayerTests.class.getResourceAsStream("InProcessBuildSettingLayerTests.json"), StandardCharsets.UTF_8)) {
+			final JsonObject buildSettings = JsonParser.parseReader(reader).getAsJsonArray().get(0).getAsJsonObject().getAsJsonObject("buildSettings");
+			final Map<String, String> result = new LinkedHashMap<>();
+			for (Map.Entry<String, JsonElement> entry : buildSettings.entrySet()) {
+				result.put(entry.getKey(), entry.getValue().getAsString());
+			}
+			return result;
+		}
+	}
+
+	private void write(String path, String... lines) throws IOException {
+		final Path file = testDirectory.resolve(path);
+		Files.createDirectories(file.getParent());
+		Files.write(file, String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static final String[] PROJECT = {
+		"// !$*UTF8*$!",
+		"{",
+		"	archiveVersion = 1;",
+		"	classes = {",
+		"	};",
+		"	objectVersion = 55;",
+		"	objects = {",
+		"		000000000000000000000001 = {",
+		"			isa = PBXGroup;",
+		"			children = (",
+		"				000000000000000000000002 /* Project.xcconfig */,",
+		"				000000000000000000000003 /* Target.xcconfig */,",
+		"			);",
+		"			sourceTree = \"<group>\";",
+		"		};",
+		"		000000000000000000000002 /* Project.xcconfig */ = {isa = PBXFileReference; lastKnownFileType = text.xcconfig; path = Project.xcconfig; sourceTree = \"<group>\"; };",
+		"		000000000000000000000003 /* Target.xcconfig */ = {isa = PBXFileReference; lastKnownFileType = text.xcconfig; path = Target.xcconfig; sourceTree = \"<group>\"; };",
+		"		000000000000000000000004 /* App */ = {",
+		"			isa = PBXNativeTarget;",
+		"			buildConfigurationList = 000000000000000000000007 /* Build configuration list for PBXNativeTarget \"App\" */;",
+		"			buildPhases = (",
+		"			);",
+		"			buildRules = (",
+		"			);",
+		"			dependencies = (",
+		"			);",
+		"			name = App;",
+		"			productName = App;",
+		"			productType = \"com.apple.product-type.tool\";",
+		"		};",
+		"		000000000000000000000005 /* Project object */ = {",
+		"			isa = PBXProject;",
+		"			buildConfigurationList = 000000000000000000000006 /* Build configuration list for PBXProject \"App\" */;",
+		"			compatibilityVersion = \"Xcode 13.0\";",
+		"			mainGroup = 000000000000000000000001;",
+		"			projectDirPath = \"\";",
+		"			projectRoot = \"\";",
+		"			targets = (",
+		"				000000000000000000000004 /* App */,",
+		"			);",
+		"		};",
+		"		000000000000000000000006 /* Build configuration list for PBXProject \"App\" */ = {",
+		"			isa = XCConfigurationList;",
+		"			buildConfigurations = (",
+		"				000000000000000000000008 /* Debug */,",
+		"			);",
+		"			defaultConfigurationIsVisible = 0;",
+		"			defaultConfigurationName = Debug;",
+		"		};",
+		"		000000000000000000000007 /* Build configuration list for PBXNativeTarget \"App\" */ = {",
+		"			isa = XCConfigurationList;",
+		"			buildConfigurations = (",
+		"				000000000000000000000009 /* Debug */,",
+		"			);",
+		"			defaultConfigurationIsVisible = 0;",
+		"			defaultConfigurationName = Debug;",
+		"		};",
+		"		000000000000000000000008 /* Debug */ = {",
+		"			isa = XCBuildConfiguration;",
+		"			baseConfigurationReference = 000000000000000000000002 /* Project.xcconfig */;",
+		"			buildSettings = {",
+		"				ARCH_FLAGS = \"-DANY\";",
+		"				\"ARCH_FLAGS[sdk=iphoneos*]\" = \"-DIPHONE\";",
+		"				\"ARCH_FLAGS[sdk=macosx*]\" = \"-DMAC\";",
+		"				GCC_PREPROCESSOR_DEFINITIONS = (",
+		"					\"DEBUG=1\",",
+		"					\"$(inherited)\",",
+		"				);",
+		"				OTHER_CFLAGS = \"$(inherited) -DPROJECT\";",
+		"				SDKROOT = macosx;",
+		"			};",
+		"			name = Debug;",
+		"		};",
+		"		000000000000000000000009 /* Debug */ = {",
+		"			isa = XCBuildConfiguration;",
+		"			baseConfigurationReference = 000000000000000000000003 /* Target.xcconfig */;",
+		"			buildSettings = {",
+		"				CONFIG_FLAGS = \"-DANY_CONFIG\";",
+		"				\"CONFIG_FLAGS[config=Debug]\" = \"-DDEBUG_ONLY\";",
+		"				OTHER_CFLAGS = \"$(inherited) -DTARGET\";",
+		"				PRODUCT_NAME = \"$(TARGET_NAME)\";",
+		"				SDK_FLAGS = \"-DSDK_VERSION=$(SDK_VERSION)\";",
+		"			};",
+		"			name = Debug;",
+		"		};",
+		"	};",
+		"	rootObject = 000000000000000000000005 /* Project object */;",
+		"}"
+	};
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.nokee.buildadapter.xcode.internal.plugins;
+
+import com.google.common.collect.ImmutableMap;
+import dev.nokee.samples.xcode.CrossProjectReference;
+import dev.nokee.samples.xcode.EmptyProject;
+import dev.nokee.samples.xcode.GreeterAppWithImplicitLib;
+import dev.nokee.xcode.XCFileReference;
+import dev.nokee.xcode.XCProjectReference;
+import dev.nokee.xcode.XCTargetReference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Map;
+
+import static dev.nokee.internal.testing.util.ProjectTestUtils.rootProject;
+import static dev.nokee.utils.BuildServiceUtils.registerBuildServiceIfAbsent;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasToString;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class XcodeDependenciesServiceTests {
+	@TempDir Path testDirectory;
+	XcodeDependenciesService subject;
+
+	private XcodeDependenciesService newService(Map<XCProjectReference, String> projectReferences) {
+		return subject = registerBuildServiceIfAbsent(rootProject().getGradle(), XcodeDependenciesService.class, it -> it.getProjectReferences().putAll(projectReferences)).get();
+	}
+
+	private XCProjectReference project(String path) {
+		return XCProjectReference.of(testDirectory.resolve(path));
+	}
+
+	@AfterEach
+	void closeService() {
+		if (subject != null) {
+			subject.close();
+		}
+	}
+
+	@Test
+	void onlyIndexesProjectsReachedFromRequestedTarget() {
+		new CrossProjectReference().writeToProject(testDirectory);
+		new EmptyProject().writeToProject(testDirectory);
+		newService(ImmutableMap.of(project("CrossProjectReference.xcodeproj"), ":app", project("Library.xcodeproj"), ":lib", project("Empty.xcodeproj"), ":empty"));
+
+		assertThat(subject.forTarget(XCTargetReference.of(project("CrossProjectReference.xcodeproj"), "GreeterApp")), hasToString(":app@GreeterApp"));
+		assertThat(subject.getProjectLoadTimeMillis().keySet(), containsInAnyOrder(project("CrossProjectReference.xcodeproj"), project("Library.xcodeproj")));
+	}
+
+	@Test
+	void findsBuiltProductInIndexedProjectsWithoutIndexingOtherProjects() {
+		new CrossProjectReference().writeToProject(testDirectory);
+		new EmptyProject().writeToProject(testDirectory);
+		newService(ImmutableMap.of(project("CrossProjectReference.xcodeproj"), ":app", project("Library.xcodeproj"), ":lib", project("Empty.xcodeproj"), ":empty"));
+		subject.forTarget(XCTargetReference.of(project("CrossProjectReference.xcodeproj"), "GreeterApp"));
+
+		assertThat(subject.forFile(XCFileReference.builtProduct("libGreeterLib.a")), hasToString(":lib@GreeterLib"));
+		assertThat(subject.getProjectLoadTimeMillis().keySet(), containsInAnyOrder(project("CrossProjectReference.xcodeproj"), project("Library.xcodeproj")));
+	}
+
+	@Test
+	void indexesAllProjectsWhenBuiltProductIsNotProducedByIndexedProjects() {
+		new GreeterAppWithImplicitLib().writeToProject(testDirectory);
+		new EmptyProject().writeToProject(testDirectory);
+		newService(ImmutableMap.of(project("Empty.xcodeproj"), ":empty", project("GreeterLib.xcodeproj"), ":lib"));
+
+		assertThat(subject.forFile(XCFileReference.builtProduct("libGreeterLib.a")), hasToString(":lib@GreeterLib"));
+		assertThat(subject.getProjectLoadTimeMillis().keySet(), containsInAnyOrder(project("Empty.xcodeproj"), project("GreeterLib.xcodeproj")));
+	}
+
+	@Test
+	void resolvesImplicitDependenciesWhileIndexingInParallel() {
+		new GreeterAppWithImplicitLib().writeToProject(testDirectory);
+		new EmptyProject().writeToProject(testDirectory);
+		newService(ImmutableMap.of(project("Empty.xcodeproj"), ":empty", project("GreeterApp.xcodeproj"), ":app", project("GreeterLib.xcodeproj"), ":lib"));
+
+		// Indexing GreeterApp resolves its implicit dependency on libGreeterLib.a from an indexing thread
+		assertThat(subject.forFile(XCFileReference.builtProduct("GreeterApp")), hasToString(":app@GreeterApp"));
+	}
+
+	@Test
+	void laterProjectsWinWhenMultipleProjectsProduceSameFile() {
+		new GreeterAppWithImplicitLib().writeToProject(testDirectory.resolve("first"));
+		new GreeterAppWithImplicitLib().writeToProject(testDirectory.resolve("second"));
+
+		newService(ImmutableMap.of(project("first/GreeterLib.xcodeproj"), ":first", project("second/GreeterLib.xcodeproj"), ":second"));
+		assertThat(subject.forFile(XCFileReference.builtProduct("libGreeterLib.a")), hasToString(":second@GreeterLib"));
+		subject.close();
+
+		newService(ImmutableMap.of(project("second/GreeterLib.xcodeproj"), ":second", project("first/GreeterLib.xcodeproj"), ":first"));
+		assertThat(subject.forFile(XCFileReference.builtProduct("libGreeterLib.a")), hasToString(":first@GreeterLib"));
+	}
+
+	@Test
+	void indexedProjectsWinOverLaterProjectsNotYetIndexedWhenMultipleProjectsProduceSameFile() {
+		new GreeterAppWithImplicitLib().writeToProject(testDirectory.resolve("first"));
+		new GreeterAppWithImplicitLib().writeToProject(testDirectory.resolve("second"));
+		newService(ImmutableMap.of(project("first/GreeterLib.xcodeproj"), ":first", project("second/GreeterLib.xcodeproj"), ":second"));
+		subject.forTarget(XCTargetReference.of(project("first/GreeterLib.xcodeproj"), "GreeterLib"));
+
+		assertThat(subject.forFile(XCFileReference.builtProduct("libGreeterLib.a")), hasToString(":first@GreeterLib"));
+		assertThat(subject.getProjectLoadTimeMillis().keySet(), containsInAnyOrder(project("first/GreeterLib.xcodeproj")));
+	}
+
+	@Test
+	void throwsExceptionWhenNoProjectProducesBuiltProduct() {
+		new EmptyProject().writeToProject(testDirectory);
+		newService(ImmutableMap.of(project("Empty.xcodeproj"), ":empty"));
+
+		final IllegalStateException ex = assertThrows(IllegalStateException.class, () -> subject.forFile(XCFileReference.builtProduct("libMissing.a")));
+		assertThat(ex.getMessage(), containsString("Could not find the target producing"));
+	}
+
+	@Test
+	void ignoresFilesOtherThanBuiltProducts() {
+		newService(ImmutableMap.of());
+
+		assertThat(subject.forFile(XCFileReference.absoluteFile("/usr/lib/libz.tbd")), nullValue());
+	}
+}
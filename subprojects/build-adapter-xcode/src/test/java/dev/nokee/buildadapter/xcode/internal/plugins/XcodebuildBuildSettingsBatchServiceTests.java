@@ -0,0 +1,163 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.nokee.buildadapter.xcode.internal.plugins;
+
+import com.google.common.collect.ImmutableMap;
+import org.gradle.api.services.BuildServiceParameters;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasEntry;
+import static org.hamcrest.Matchers.hasSize;
+
+class XcodebuildBuildSettingsBatchServiceTests {
+	static final Path DEVELOPER_DIR = Paths.get("/Applications/Xcode.app/Contents/Developer");
+	List<List<String>> invocations = new ArrayList<>();
+	Function<String, String> derivedBuildSetting = null; // derived from SYMROOT, if any
+	XcodebuildBuildSettingsBatchService subject = new XcodebuildBuildSettingsBatchService() {
+		@Override
+		public BuildServiceParameters.None getParameters() {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		Map<String, Map<String, String>> showBuildSettings(List<String> arguments, Path developerDir) {
+			invocations.add(arguments);
+			final Map<String, Map<String, String>> result = new LinkedHashMap<>();
+			for (int i = arguments.indexOf("-target"); i >= 0 && i < arguments.size(); i += 2) {
+				if (arguments.get(i).equals("-target")) {
+					final String targetName = arguments.get(i + 1);
+					final Map<String, String> buildSettings = new LinkedHashMap<>();
+					buildSettings.put("TARGET_NAME", targetName);
+					buildSettings.put("BUILT_PRODUCTS_DIR", valueOf(arguments, "SYMROOT") + "/Debug");
+					if (derivedBuildSetting != null) {
+						buildSettings.put("DERIVED_FROM_SYMROOT", derivedBuildSetting.apply(valueOf(arguments, "SYMROOT")));
+					}
+					result.put(targetName, buildSettings);
+				}
+			}
+			return result;
+		}
+	};
+
+	private static String valueOf(List<String> arguments, String buildSettingName) {
+		return arguments.stream().filter(it -> it.startsWith(buildSettingName + "=")).map(it -> it.substring(buildSettingName.length() + 1)).findFirst().orElse("");
+	}
+
+	private static XcodebuildBuildSettingsBatchService.Request request(String targetName, String configuration, String derivedDataPath) {
+		return new XcodebuildBuildSettingsBatchService.Request(
+			ImmutableMap.of("-project", "/test/App.xcodeproj", "-target", targetName, "-configuration", configuration),
+			ImmutableMap.of("SYMROOT", derivedDataPath + "/Build/Products", "SRCROOT", "/test"),
+			DEVELOPER_DIR);
+	}
+
+	@Test
+	void resolvesCompatibleRegisteredRequestsWithSingleInvocation() {
+		subject.register(":app", () -> request("App", "Debug", "/derived/App"));
+		subject.register(":app", () -> request("Lib", "Debug", "/derived/Lib"));
+
+		assertThat(subject.get(":app", request("App", "Debug", "/derived/App"), null), hasEntry("TARGET_NAME", "App"));
+		assertThat(subject.get(":app", request("Lib", "Debug", "/derived/Lib"), null), hasEntry("TARGET_NAME", "Lib"));
+		assertThat(invocations.get(0), contains("-project", "/test/App.xcodeproj", "-configuration", "Debug", "-target", "App", "-target", "Lib", "SYMROOT=/__NOKEE_RELOCATABLE_SYMROOT__", "SRCROOT=/test"));
+		assertThat("confirms relocation with a single target query", invocations.get(1), contains("-project", "/test/App.xcodeproj", "-target", "App", "-configuration", "Debug", "SYMROOT=/derived/App/Build/Products", "SRCROOT=/test"));
+		assertThat(invocations, hasSize(2));
+	}
+
+	@Test
+	void relocatesDerivedDataPathsOfEachRequest() {
+		subject.register(":app", () -> request("Lib", "Debug", "/derived/Lib"));
+
+		assertThat(subject.get(":app", request("App", "Debug", "/derived/App"), null), hasEntry("BUILT_PRODUCTS_DIR", "/derived/App/Build/Products/Debug"));
+		assertThat(subject.get(":app", request("Lib", "Debug", "/derived/Lib"), null), hasEntry("BUILT_PRODUCTS_DIR", "/derived/Lib/Build/Products/Debug"));
+	}
+
+	@Test
+	void queriesEachTargetWhenRelocationCannotBeConfirmed() {
+		derivedBuildSetting = symroot -> String.valueOf(symroot.length());
+		subject.register(":app", () -> request("App", "Debug", "/derived/App"));
+		subject.register(":app", () -> request("Lib", "Debug", "/derived/Lib"));
+
+		assertThat(subject.get(":app", request("App", "Debug", "/derived/App"), null), hasEntry("DERIVED_FROM_SYMROOT", String.valueOf("/derived/App/Build/Products".length())));
+		assertThat(subject.get(":app", request("Lib", "Debug", "/derived/Lib"), null), hasEntry("DERIVED_FROM_SYMROOT", String.valueOf("/derived/Lib/Build/Products".length())));
+		assertThat(invocations, hasSize(3));
+		assertThat(invocations.get(2), contains("-project", "/test/App.xcodeproj", "-target", "Lib", "-configuration", "Debug", "SYMROOT=/derived/Lib/Build/Products", "SRCROOT=/test"));
+	}
+
+	@Test
+	void queriesEachTargetWhenPlaceholderRemainsAfterRelocation() {
+		derivedBuildSetting = symroot -> symroot.substring(1);
+		subject.register(":app", () -> request("App", "Debug", "/derived/App"));
+		subject.register(":app", () -> request("Lib", "Debug", "/derived/Lib"));
+
+		assertThat(subject.get(":app", request("App", "Debug", "/derived/App"), null), hasEntry("DERIVED_FROM_SYMROOT", "derived/App/Build/Products"));
+		assertThat(subject.get(":app", request("Lib", "Debug", "/derived/Lib"), null), hasEntry("DERIVED_FROM_SYMROOT", "derived/Lib/Build/Products"));
+	}
+
+	@Test
+	void keepsIncompatibleRequestsRegistered() {
+		subject.register(":app", () -> request("App", "Release", "/derived/App"));
+		subject.register(":app", () -> request("Lib", "Release", "/derived/Lib"));
+
+		subject.get(":app", request("App", "Debug", "/derived/App"), null);
+		subject.get(":app", request("App", "Release", "/derived/App"), null);
+		assertThat(invocations.get(1), contains("-project", "/test/App.xcodeproj", "-configuration", "Release", "-target", "App", "-target", "Lib", "SYMROOT=/__NOKEE_RELOCATABLE_SYMROOT__", "SRCROOT=/test"));
+	}
+
+	@Test
+	void neverEvaluatesRequestsOfOtherProjects() {
+		subject.register(":lib", () -> { throw new AssertionError("must not be evaluated"); });
+
+		assertThat(subject.get(":app", request("App", "Debug", "/derived/App"), null), hasEntry("TARGET_NAME", "App"));
+		assertThat(invocations, hasSize(1));
+	}
+
+	@Test
+	void doesNotRelocateSingleTargetBatch() {
+		assertThat(subject.get(":app", request("App", "Debug", "/derived/App"), null), hasEntry("BUILT_PRODUCTS_DIR", "/derived/App/Build/Products/Debug"));
+		assertThat(invocations.get(0), contains("-project", "/test/App.xcodeproj", "-target", "App", "-configuration", "Debug", "SYMROOT=/derived/App/Build/Products", "SRCROOT=/test"));
+	}
+
+	@Test
+	void ignoresAbsentRegisteredRequests() {
+		subject.register(":app", () -> null);
+		subject.register(":app", () -> { throw new IllegalStateException(); });
+
+		assertThat(subject.get(":app", request("App", "Debug", "/derived/App"), null), hasEntry("TARGET_NAME", "App"));
+		assertThat(invocations, hasSize(1));
+	}
+
+	@Test
+	void reusesResolvedBuildSettings() {
+		subject.register(":app", () -> request("Lib", "Debug", "/derived/Lib"));
+		subject.get(":app", request("App", "Debug", "/derived/App"), null);
+		subject.get(":app", request("Lib", "Debug", "/derived/Lib"), null);
+		final int count = invocations.size();
+
+		assertThat(subject.get(":app", request("App", "Debug", "/derived/App"), null), equalTo(subject.get(":app", request("App", "Debug", "/derived/App"), null)));
+		assertThat(subject.get(":app", request("Lib", "Debug", "/derived/Lib"), null), equalTo(subject.get(":app", request("Lib", "Debug", "/derived/Lib"), null)));
+		assertThat(invocations, hasSize(count));
+	}
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.nokee.buildadapter.xcode.internal.plugins;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static com.google.common.collect.MoreCollectors.onlyElement;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+
+class XcodebuildBuildSettingsCacheTests {
+	@TempDir Path testDirectory;
+	Path developerDir;
+	List<String> arguments;
+	AtomicInteger queryCount = new AtomicInteger();
+
+	@BeforeEach
+	void setUp() throws IOException {
+		final Path projectDirectory = Files.createDirectories(testDirectory.resolve("Test.xcodeproj"));
+		Files.write(projectDirectory.resolve("project.pbxproj"), ImmutableList.of(
+			"// !$*UTF8*$!",
+			"{",
+			"	archiveVersion = 1;",
+			"	objectVersion = 55;",
+			"	objects = {",
+			"		BASE0001 = {isa = PBXFileReference; path = Base.xcconfig; sourceTree = \"<group>\"; };",
+			"		GROUP001 = {isa = PBXGroup; children = (BASE0001, ); sourceTree = \"<group>\"; };",
+			"		CONF0001 = {isa = XCBuildConfiguration; baseConfigurationReference = BASE0001; buildSettings = {}; name = Debug; };",
+			"		LIST0001 = {isa = XCConfigurationList; buildConfigurations = (CONF0001, ); };",
+			"		PROJ0001 = {isa = PBXProject; buildConfigurationList = LIST0001; mainGroup = GROUP001; targets = (); };",
+			"	};",
+			"	rootObject = PROJ0001;",
+			"}"));
+		Files.write(testDirectory.resolve("Base.xcconfig"), ImmutableList.of("#include \"Shared.xcconfig\"", "FOO = foo"));
+		Files.write(testDirectory.resolve("Shared.xcconfig"), ImmutableList.of("BAR = bar"));
+		developerDir = testDirectory.resolve("Xcode.app/Contents/Developer");
+		arguments = ImmutableList.of("-project", projectDirectory.toString(), "-configuration", "Debug");
+	}
+
+	private XcodebuildBuildSettingsCache newSubject() {
+		return new XcodebuildBuildSettingsCache(testDirectory.resolve("cache"));
+	}
+
+	private Supplier<Map<String, String>> query() {
+		return () -> ImmutableMap.of("QUERY", String.valueOf(queryCount.incrementAndGet()));
+	}
+
+	@Test
+	void queriesOnFirstUse() {
+		assertThat(newSubject().computeIfAbsent(arguments, developerDir, query()), equalTo(ImmutableMap.of("QUERY", "1")));
+	}
+
+	@Test
+	void reusesResultAcrossCacheInstances() {
+		newSubject().computeIfAbsent(arguments, developerDir, query());
+		assertThat(newSubject().computeIfAbsent(arguments, developerDir, query()), equalTo(ImmutableMap.of("QUERY", "1")));
+		assertThat(queryCount.get(), equalTo(1));
+	}
+
+	@Test
+	void queriesAgainWhenArgumentsChange() {
+		newSubject().computeIfAbsent(arguments, developerDir, query());
+		newSubject().computeIfAbsent(ImmutableList.<String>builder().addAll(arguments).add("FOO=overridden").build(), developerDir, query());
+		assertThat(queryCount.get(), equalTo(2));
+	}
+
+	@Test
+	void queriesAgainWhenDeveloperDirChanges() {
+		newSubject().computeIfAbsent(arguments, developerDir, query());
+		newSubject().computeIfAbsent(arguments, testDirectory.resolve("Xcode-beta.app/Contents/Developer"), query());
+		assertThat(queryCount.get(), equalTo(2));
+	}
+
+	@Test
+	void queriesAgainWhenBaseConfigurationChanges() throws IOException {
+		newSubject().computeIfAbsent(arguments, developerDir, query());
+		Files.write(testDirectory.resolve("Base.xcconfig"), ImmutableList.of("#include \"Shared.xcconfig\"", "FOO = foo-changed"));
+		newSubject().computeIfAbsent(arguments, developerDir, query());
+		assertThat(queryCount.get(), equalTo(2));
+	}
+
+	@Test
+	void queriesAgainWhenIncludedConfigurationChanges() throws IOException {
+		newSubject().computeIfAbsent(arguments, developerDir, query());
+		Files.write(testDirectory.resolve("Shared.xcconfig"), ImmutableList.of("BAR = bar-changed"));
+		newSubject().computeIfAbsent(arguments, developerDir, query());
+		assertThat(queryCount.get(), equalTo(2));
+	}
+
+	@Test
+	void queriesAgainWhenXcodeIsUpdatedInPlace() throws IOException {
+		Files.write(Files.createDirectories(developerDir).resolveSibling("version.plist"), ImmutableList.of("<string>14.2</string>"));
+		newSubject().computeIfAbsent(arguments, developerDir, query());
+		Files.write(developerDir.resolveSibling("version.plist"), ImmutableList.of("<string>14.3.1</string>"));
+		newSubject().computeIfAbsent(arguments, developerDir, query());
+		assertThat(queryCount.get(), equalTo(2));
+	}
+
+	@Test
+	void queriesAgainWhenSdkIsUpdatedInPlace() throws IOException {
+		final Path sdkDir = Files.createDirectories(developerDir.resolve("Platforms/iPhoneOS.platform/Developer/SDKs/iPhoneOS.sdk"));
+		final List<String> arguments = ImmutableList.<String>builder().addAll(this.arguments).add("-sdk", "iphoneos").build();
+		Files.write(sdkDir.resolve("SDKSettings.json"), ImmutableList.of("{\"Version\":\"16.2\"}"));
+		newSubject().computeIfAbsent(arguments, developerDir, query());
+		Files.write(sdkDir.resolve("SDKSettings.json"), ImmutableList.of("{\"Version\":\"16.4.1\"}"));
+		newSubject().computeIfAbsent(arguments, developerDir, query());
+		assertThat(queryCount.get(), equalTo(2));
+	}
+
+	@Test
+	void queriesAgainWhenOverridingXcconfigChanges() throws IOException {
+		Files.write(testDirectory.resolve("Override.xcconfig"), ImmutableList.of("#include \"Shared.xcconfig\""));
+		final List<String> arguments = ImmutableList.<String>builder().addAll(this.arguments).add("-xcconfig", testDirectory.resolve("Override.xcconfig").toString()).build();
+		newSubject().computeIfAbsent(arguments, developerDir, query());
+		Files.write(testDirectory.resolve("Shared.xcconfig"), ImmutableList.of("BAR = bar-changed"));
+		newSubject().computeIfAbsent(arguments, developerDir, query());
+		assertThat(queryCount.get(), equalTo(2));
+	}
+
+	@Test
+	void queriesAgainWhenEntryIsCorrupted() throws IOException {
+		newSubject().computeIfAbsent(arguments, developerDir, query());
+		try (final Stream<Path> entries = Files.list(testDirectory.resolve("cache"))) {
+			entries.forEach(entry -> {
+				try {
+					Files.write(entry, "{corrupted".getBytes());
+				} catch (IOException e) {
+					throw new RuntimeException(e);
+				}
+			});
+		}
+		assertThat(newSubject().computeIfAbsent(arguments, developerDir, query()), equalTo(ImmutableMap.of("QUERY", "2")));
+	}
+
+	@Test
+	void touchesEntryOnHit() throws IOException {
+		newSubject().computeIfAbsent(arguments, developerDir, query());
+		final FileTime longAgo = FileTime.from(Instant.now().minus(Duration.ofDays(30)));
+		final Path entry = onlyEntry();
+		Files.setLastModifiedTime(entry, longAgo);
+
+		newSubject().computeIfAbsent(arguments, developerDir, query());
+		assertThat(Files.getLastModifiedTime(entry), greaterThan(longAgo));
+	}
+
+	@Test
+	void deletesEntriesUnusedForAWhile() throws IOException {
+		newSubject().computeIfAbsent(arguments, developerDir, query());
+		final FileTime longAgo = FileTime.from(Instant.now().minus(Duration.ofDays(30)));
+		final Path entry = onlyEntry();
+		Files.setLastModifiedTime(entry, longAgo);
+
+		newSubject().deleteUnusedEntries();
+		assertThat(Files.exists(entry), is(false));
+		assertThat(newSubject().computeIfAbsent(arguments, developerDir, query()), equalTo(ImmutableMap.of("QUERY", "2")));
+	}
+
+	private Path onlyEntry() throws IOException {
+		try (final Stream<Path> entries = Files.list(testDirectory.resolve("cache"))) {
+			return entries.filter(it -> it.getFileName().toString().endsWith(".json")).collect(onlyElement());
+		}
+	}
+}
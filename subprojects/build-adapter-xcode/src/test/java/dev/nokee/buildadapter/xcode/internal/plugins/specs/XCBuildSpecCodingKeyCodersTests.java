@@ -174,9 +174,9 @@ class XCBuildSpecCodingKeyCodersTests {
 			add(arguments(CodeablePBXShellScriptBuildPhase.CodingKeys.shellPath, keyOf("shellPath", inputOf(string()))));
 			add(arguments(CodeablePBXShellScriptBuildPhase.CodingKeys.shellScript, keyOf("shellScript", inputOf(string()))));
 			add(arguments(CodeablePBXShellScriptBuildPhase.CodingKeys.inputPaths, keyOf("inputPaths", inputLocation(setOfResolvablePaths()))));
-			add(arguments(CodeablePBXShellScriptBuildPhase.CodingKeys.inputFileListPaths, ignore())); // TODO: implement support
+			add(arguments(CodeablePBXShellScriptBuildPhase.CodingKeys.inputFileListPaths, keyOf("inputFileListPaths", inputLocation(setOfResolvableFileLists()))));
 			add(arguments(CodeablePBXShellScriptBuildPhase.CodingKeys.outputPaths, ignore()));
-			add(arguments(CodeablePBXShellScriptBuildPhase.CodingKeys.outputFileListPaths, ignore())); // TODO: implement support
+			add(arguments(CodeablePBXShellScriptBuildPhase.CodingKeys.outputFileListPaths, keyOf("outputFileListPaths", inputLocation(setOfResolvablePaths()))));
 
 			add(arguments(CodeablePBXResourcesBuildPhase.CodingKeys.files, keyOf("files", listOf(object(PBXBuildFile.class)))));
 
@@ -278,6 +278,10 @@ class XCBuildSpecCodingKeyCodersTests {
 		return new IgnoreEmptyStringEncoder<>(new AtNestedCollectionEncoder<>(ImmutableSet.toImmutableSet(), new ListEncoder<>(new FileSystemLocationEncoder<>(new NormalizeStringAsPBXReferenceEncoder<>(new ThrowingValueEncoder<>())))));
 	}
 
+	public static ValueEncoder<XCBuildSpec, List<String>> setOfResolvableFileLists() {
+		return new IgnoreEmptyStringEncoder<>(new AtNestedCollectionEncoder<>(ImmutableSet.toImmutableSet(), new ListEncoder<>(new FileListLocationEncoder<>(new NormalizeStringAsPBXReferenceEncoder<>(new ThrowingValueEncoder<>())))));
+	}
+
 	public static <IN> ValueEncoder<XCBuildSpec, IN> inputOf(ValueEncoder<?, IN> encoder) {
 		return new AtInputEncoder<>(encoder);
 	}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.nokee.xcode;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.sameInstance;
+
+class MemoizedXCStringParserTests {
+	List<String> parsedStrings = new ArrayList<>();
+	MemoizedXCStringParser subject = new MemoizedXCStringParser(s -> {
+		parsedStrings.add(s);
+		return XCString.literal(s);
+	}, 100);
+
+	@Test
+	void parsesEachRawStringOnlyOnce() {
+		XCString first = subject.parse("$(inherited) -ObjC");
+		XCString second = subject.parse("$(inherited) -ObjC");
+
+		assertThat(second, sameInstance(first));
+		assertThat(parsedStrings, contains("$(inherited) -ObjC"));
+	}
+
+	@Test
+	void parsesDifferentRawStringsIndependently() {
+		subject.parse("$(inherited)");
+		subject.parse("$(SRCROOT)");
+
+		assertThat(parsedStrings, contains("$(inherited)", "$(SRCROOT)"));
+	}
+}
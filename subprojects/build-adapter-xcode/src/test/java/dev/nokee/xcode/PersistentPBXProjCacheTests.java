@@ -0,0 +1,172 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.nokee.xcode;
+
+import dev.nokee.xcode.project.PBXObjectReference;
+import dev.nokee.xcode.project.PBXProj;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+
+class PersistentPBXProjCacheTests {
+	@TempDir Path testDirectory;
+	PersistentPBXProjCache subject;
+	Path pbxprojFile;
+	List<Path> parsedFiles = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() throws IOException {
+		subject = new PersistentPBXProjCache(testDirectory.resolve("cache"));
+		pbxprojFile = Files.write(testDirectory.resolve("project.pbxproj"), "content-v1".getBytes());
+	}
+
+	private Function<Path, PBXProj> parser(String isa) {
+		return file -> {
+			parsedFiles.add(file);
+			return PBXProj.builder().rootObject("ROOT").objects(builder -> builder.add(PBXObjectReference.of("ROOT", it -> it.putField("isa", isa)))).build();
+		};
+	}
+
+	@Test
+	void parsesFileOnFirstLoad() {
+		assertThat(subject.load(pbxprojFile, parser("PBXProject")).getObjects().getById("ROOT").isa(), equalTo("PBXProject"));
+		assertThat(parsedFiles, hasSize(1));
+	}
+
+	@Test
+	void reusesEntryAcrossCacheInstances() {
+		subject.load(pbxprojFile, parser("PBXProject"));
+		subject.close();
+		final PBXProj result = new PersistentPBXProjCache(testDirectory.resolve("cache")).load(pbxprojFile, parser("Unexpected"));
+		assertThat(result.getObjects().getById("ROOT").isa(), equalTo("PBXProject"));
+		assertThat(parsedFiles, hasSize(1));
+	}
+
+	@Test
+	void writesEntriesOnlyWhenClosed() {
+		subject.load(pbxprojFile, parser("PBXProject"));
+		assertThat(Files.exists(testDirectory.resolve("cache/entries")), is(false));
+
+		subject.close();
+		assertThat(new PersistentPBXProjCache(testDirectory.resolve("cache")).load(pbxprojFile, parser("Unexpected")).getObjects().getById("ROOT").isa(), equalTo("PBXProject"));
+		assertThat(parsedFiles, hasSize(1));
+	}
+
+	@Test
+	void parsesFileAgainWhenContentChanges() throws IOException {
+		subject.load(pbxprojFile, parser("PBXProject"));
+		Files.write(pbxprojFile, "content-v2-longer".getBytes());
+		assertThat(subject.load(pbxprojFile, parser("PBXChanged")).getObjects().getById("ROOT").isa(), equalTo("PBXChanged"));
+		assertThat(parsedFiles, hasSize(2));
+	}
+
+	@Test
+	void reusesEntryWhenOnlyTimestampChanges() throws IOException {
+		subject.load(pbxprojFile, parser("PBXProject"));
+		Files.setLastModifiedTime(pbxprojFile, FileTime.fromMillis(Files.getLastModifiedTime(pbxprojFile).toMillis() + 10_000));
+		assertThat(subject.load(pbxprojFile, parser("Unexpected")).getObjects().getById("ROOT").isa(), equalTo("PBXProject"));
+		assertThat(parsedFiles, hasSize(1));
+	}
+
+	@Test
+	void parsesFileAgainWhenEntryIsCorrupted() throws IOException {
+		subject.load(pbxprojFile, parser("PBXProject"));
+		subject.close();
+		forEachFile("cache/entries", it -> Files.write(it, new byte[] {1, 2, 3}));
+		assertThat(subject.load(pbxprojFile, parser("PBXProject")).getObjects().getById("ROOT").isa(), equalTo("PBXProject"));
+		assertThat(parsedFiles, hasSize(2));
+	}
+
+	@Test
+	void touchesEntryAndStampOnHit() throws IOException {
+		subject.load(pbxprojFile, parser("PBXProject"));
+		subject.close();
+		final FileTime longAgo = FileTime.from(Instant.now().minus(Duration.ofDays(30)));
+		forEachFile("cache/entries", it -> Files.setLastModifiedTime(it, longAgo));
+		forEachFile("cache/stamps", it -> Files.setLastModifiedTime(it, longAgo));
+
+		new PersistentPBXProjCache(testDirectory.resolve("cache")).load(pbxprojFile, parser("Unexpected"));
+		forEachFile("cache/entries", it -> assertThat(Files.getLastModifiedTime(it), greaterThan(longAgo)));
+		forEachFile("cache/stamps", it -> assertThat(Files.getLastModifiedTime(it), greaterThan(longAgo)));
+	}
+
+	@Test
+	void deletesEntriesAndStampsUnusedForAWhileWhenClosed() throws IOException {
+		subject.load(pbxprojFile, parser("PBXProject"));
+		subject.close();
+		final FileTime longAgo = FileTime.from(Instant.now().minus(Duration.ofDays(30)));
+		forEachFile("cache/entries", it -> Files.setLastModifiedTime(it, longAgo));
+		forEachFile("cache/stamps", it -> Files.setLastModifiedTime(it, longAgo));
+		Files.setLastModifiedTime(testDirectory.resolve("cache/last-cleanup"), longAgo);
+
+		new PersistentPBXProjCache(testDirectory.resolve("cache")).close();
+		forEachFile("cache/entries", it -> { throw new AssertionError("unexpected entry " + it); });
+		forEachFile("cache/stamps", it -> { throw new AssertionError("unexpected stamp " + it); });
+	}
+
+	@Test
+	void usesPersistentCacheOnlyWhileScopeIsOpen() {
+		try (XCCache.PersistentCacheScope scope = XCCache.usePersistentCache(testDirectory.resolve("cache"))) {
+			XCCache.loadPBXProj(pbxprojFile, parser("PBXProject"));
+			XCCache.loadPBXProj(pbxprojFile, parser("Unexpected"));
+		}
+		assertThat(parsedFiles, hasSize(1));
+
+		assertThat(XCCache.loadPBXProj(pbxprojFile, parser("PBXUncached")).getObjects().getById("ROOT").isa(), equalTo("PBXUncached"));
+		assertThat(parsedFiles, hasSize(2));
+	}
+
+	@Test
+	void restoresEnclosingPersistentCacheWhenScopeCloses() {
+		try (XCCache.PersistentCacheScope outer = XCCache.usePersistentCache(testDirectory.resolve("cache"))) {
+			XCCache.loadPBXProj(pbxprojFile, parser("PBXProject"));
+			try (XCCache.PersistentCacheScope inner = XCCache.usePersistentCache(null)) {
+				XCCache.loadPBXProj(pbxprojFile, parser("PBXUncached"));
+			}
+			assertThat(XCCache.loadPBXProj(pbxprojFile, parser("Unexpected")).getObjects().getById("ROOT").isa(), equalTo("PBXProject"));
+		}
+		assertThat(parsedFiles, hasSize(2));
+	}
+
+	private void forEachFile(String directory, FileAction action) throws IOException {
+		try (Stream<Path> files = Files.list(testDirectory.resolve(directory))) {
+			for (Path file : (Iterable<Path>) files::iterator) {
+				action.execute(file);
+			}
+		}
+	}
+
+	private interface FileAction {
+		void execute(Path file) throws IOException;
+	}
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.nokee.xcode;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.aMapWithSize;
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.hasEntry;
+
+class SDKSettingsLoaderTests {
+	@TempDir Path developerDir;
+	Path macosSdk;
+
+	@BeforeEach
+	void givenInstalledSdks() throws IOException {
+		macosSdk = sdk("MacOSX", "macosx", "13.1",
+			"<key>DefaultProperties</key><dict><key>PLATFORM_NAME</key><string>macosx</string><key>MACOSX_DEPLOYMENT_TARGET</key><string>13.1</string><key>ARCHS_STANDARD</key><array><string>arm64</string></array></dict>",
+			"<key>CustomProperties</key><dict><key>MACOSX_DEPLOYMENT_TARGET</key><string>10.13</string></dict>",
+			"<key>SupportedTargets</key><dict><key>macosx</key><dict><key>Archs</key><array><string>arm64</string></array></dict></dict>");
+		sdk("MacOSX", "macosx", "12.3");
+		sdk("iPhoneOS", "iphoneos", "16.2");
+	}
+
+	private Path sdk(String platformName, String name, String version, String... entries) throws IOException {
+		final Path result = developerDir.resolve("Platforms/" + platformName + ".platform/Developer/SDKs/" + platformName + version + ".sdk");
+		Files.createDirectories(result);
+		Files.write(result.resolve("SDKSettings.plist"), String.join("\n",
+			"<?xml version=\"1.0\" encoding=\"UTF-8\"?>",
+			"<plist version=\"1.0\">",
+			"<dict>",
+			"<key>CanonicalName</key><string>" + name + version + "</string>",
+			"<key>Version</key><string>" + version + "</string>",
+			String.join("\n", entries),
+			"</dict>",
+			"</plist>").getBytes(StandardCharsets.UTF_8));
+		return result;
+	}
+
+	@Test
+	void loadsSdkByCanonicalName() {
+		assertThat(SDKSettingsLoader.load(developerDir, "macosx12.3"), allOf(hasEntry("SDK_NAME", "macosx12.3"), hasEntry("SDK_VERSION", "12.3")));
+	}
+
+	@Test
+	void loadsLatestSdkForUnversionedName() {
+		assertThat(SDKSettingsLoader.load(developerDir, "macosx"), allOf(hasEntry("SDK_NAME", "macosx13.1"), hasEntry("SDKROOT", macosSdk.toString())));
+	}
+
+	@Test
+	void loadsSdkByPath() {
+		assertThat(SDKSettingsLoader.load(developerDir, macosSdk.toString()), hasEntry("SDK_NAME", "macosx13.1"));
+	}
+
+	@Test
+	void customPropertiesOverrideDefaultProperties() {
+		assertThat(SDKSettingsLoader.load(developerDir, "macosx13.1"), allOf(hasEntry("PLATFORM_NAME", "macosx"), hasEntry("MACOSX_DEPLOYMENT_TARGET", "10.13")));
+	}
+
+	@Test
+	void ignoresNonStringProperties() {
+		assertThat(SDKSettingsLoader.load(developerDir, "macosx13.1"), aMapWithSize(5));
+	}
+
+	@Test
+	void returnsNoBuildSettingsForUnknownSdk() {
+		assertThat(SDKSettingsLoader.load(developerDir, "watchos"), aMapWithSize(0));
+	}
+}
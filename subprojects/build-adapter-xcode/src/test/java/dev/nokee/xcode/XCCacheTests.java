@@ -0,0 +1,111 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.nokee.xcode;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class XCCacheTests {
+	ExecutorService executor = Executors.newFixedThreadPool(2);
+
+	@BeforeEach
+	void clearCache() {
+		XCCache.clear();
+	}
+
+	@AfterEach
+	void tearDown() {
+		executor.shutdownNow();
+		XCCache.clear();
+	}
+
+	@Test
+	void loadsValueOnlyOnce() {
+		final AtomicInteger loadCount = new AtomicInteger();
+		assertThat(XCCache.cacheIfAbsent("key", it -> it + "-" + loadCount.incrementAndGet()), equalTo("key-1"));
+		assertThat(XCCache.cacheIfAbsent("key", it -> it + "-" + loadCount.incrementAndGet()), equalTo("key-1"));
+		assertThat(XCCache.statistics().getMissCount(), equalTo(1L));
+		assertThat(XCCache.statistics().getHitCount(), equalTo(1L));
+	}
+
+	@Test
+	void loadsDistinctKeysInParallel() throws Exception {
+		final CountDownLatch bothLoading = new CountDownLatch(2);
+		final Future<String> first = executor.submit(() -> XCCache.cacheIfAbsent("first", it -> awaitOther(bothLoading, it)));
+		final Future<String> second = executor.submit(() -> XCCache.cacheIfAbsent("second", it -> awaitOther(bothLoading, it)));
+		assertThat(first.get(5, TimeUnit.SECONDS), equalTo("first"));
+		assertThat(second.get(5, TimeUnit.SECONDS), equalTo("second"));
+	}
+
+	@Test
+	void coalescesConcurrentLoadsOfSameKey() throws Exception {
+		final CountDownLatch loading = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		final AtomicInteger loadCount = new AtomicInteger();
+		final Future<Object> first = executor.submit(() -> XCCache.cacheIfAbsent("key", it -> {
+			loadCount.incrementAndGet();
+			loading.countDown();
+			await(release);
+			return "value";
+		}));
+		await(loading);
+		final Future<Object> second = executor.submit(() -> XCCache.cacheIfAbsent("key", it -> "unexpected-" + loadCount.incrementAndGet()));
+		release.countDown();
+
+		assertThat(first.get(5, TimeUnit.SECONDS), equalTo("value"));
+		assertThat(second.get(5, TimeUnit.SECONDS), equalTo("value"));
+		assertThat(loadCount.get(), equalTo(1));
+	}
+
+	@Test
+	void doesNotCacheFailedLoads() {
+		assertThrows(IllegalStateException.class, () -> XCCache.cacheIfAbsent("key", it -> { throw new IllegalStateException(); }));
+		assertThat(XCCache.cacheIfAbsent("key", it -> "value"), equalTo("value"));
+	}
+
+	@Test
+	void throwsExceptionOnCyclicLoad() {
+		assertThrows(IllegalStateException.class, () -> XCCache.cacheIfAbsent("key", it -> XCCache.cacheIfAbsent("key", __ -> "value")));
+	}
+
+	private static String awaitOther(CountDownLatch latch, String value) {
+		latch.countDown();
+		await(latch);
+		return value;
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			if (!latch.await(5, TimeUnit.SECONDS)) {
+				throw new IllegalStateException("timeout");
+			}
+		} catch (InterruptedException e) {
+			throw new RuntimeException(e);
+		}
+	}
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.nokee.xcode;
+
+import com.google.common.collect.ImmutableMap;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class XCConfigParserTests {
+	@TempDir Path testDirectory;
+
+	private Path file(String name, String... lines) throws IOException {
+		return Files.write(testDirectory.resolve(name), String.join("\n", lines).getBytes());
+	}
+
+	private static String evaluate(Map<String, XCBuildSettingDefinition> definitions, String name, Map<String, String> parameters) {
+		final XCBuildSetting buildSetting = definitions.get(name).select(parameters::get);
+		return buildSetting == null ? null : buildSetting.evaluate(variableName -> "<" + variableName + ">");
+	}
+
+	@Test
+	void parsesAssignments() throws IOException {
+		final Map<String, XCBuildSettingDefinition> subject = XCConfigParser.parse(file("Test.xcconfig",
+			"// a comment",
+			"PRODUCT_NAME = MyApp",
+			"OTHER_LDFLAGS = $(inherited) -ObjC; // trailing comment",
+			"EMPTY ="));
+
+		assertThat(evaluate(subject, "PRODUCT_NAME", ImmutableMap.of()), equalTo("MyApp"));
+		assertThat(evaluate(subject, "OTHER_LDFLAGS", ImmutableMap.of()), equalTo("<inherited> -ObjC"));
+		assertThat(evaluate(subject, "EMPTY", ImmutableMap.of()), equalTo(""));
+	}
+
+	@Test
+	void laterAssignmentsOverrideEarlierOnes() throws IOException {
+		final Map<String, XCBuildSettingDefinition> subject = XCConfigParser.parse(file("Test.xcconfig",
+			"PRODUCT_NAME = First",
+			"PRODUCT_NAME = Second"));
+
+		assertThat(evaluate(subject, "PRODUCT_NAME", ImmutableMap.of()), equalTo("Second"));
+	}
+
+	@Test
+	void selectsMostSpecificMatchingCondition() throws IOException {
+		final Map<String, XCBuildSettingDefinition> subject = XCConfigParser.parse(file("Test.xcconfig",
+			"FLAGS[sdk=iphoneos*][arch=arm64] = device-arm64",
+			"FLAGS[sdk=iphoneos*] = device",
+			"FLAGS = default"));
+
+		assertThat(evaluate(subject, "FLAGS", ImmutableMap.of("sdk", "iphoneos16.2", "arch", "arm64")), equalTo("device-arm64"));
+		assertThat(evaluate(subject, "FLAGS", ImmutableMap.of("sdk", "iphoneos16.2", "arch", "x86_64")), equalTo("device"));
+		assertThat(evaluate(subject, "FLAGS", ImmutableMap.of("sdk", "macosx13.1")), equalTo("default"));
+	}
+
+	@Test
+	void returnsNoSpecificationWhenNoConditionMatches() throws IOException {
+		final Map<String, XCBuildSettingDefinition> subject = XCConfigParser.parse(file("Test.xcconfig",
+			"FLAGS[config=Debug] = debug"));
+
+		assertThat(evaluate(subject, "FLAGS", ImmutableMap.of("config", "Release")), nullValue());
+	}
+
+	@Test
+	void followsIncludesRelativeToIncludingFile() throws IOException {
+		Files.createDirectories(testDirectory.resolve("shared"));
+		file("shared/Shared.xcconfig", "PRODUCT_NAME = Shared", "SHARED_ONLY = yes");
+		file("Optional.xcconfig", "#include? \"Missing.xcconfig\"");
+		final Map<String, XCBuildSettingDefinition> subject = XCConfigParser.parse(file("Test.xcconfig",
+			"#include \"shared/Shared.xcconfig\"",
+			"#include \"Optional.xcconfig\"",
+			"PRODUCT_NAME = Overridden"));
+
+		assertThat(evaluate(subject, "PRODUCT_NAME", ImmutableMap.of()), equalTo("Overridden"));
+		assertThat(evaluate(subject, "SHARED_ONLY", ImmutableMap.of()), equalTo("yes"));
+	}
+
+	@Test
+	void throwsExceptionOnMissingRequiredInclude() throws IOException {
+		final Path xcconfigFile = file("Test.xcconfig", "#include \"Missing.xcconfig\"");
+		assertThrows(RuntimeException.class, () -> XCConfigParser.parse(xcconfigFile));
+	}
+
+	@Test
+	void throwsExceptionOnCyclicInclude() throws IOException {
+		file("Other.xcconfig", "#include \"Test.xcconfig\"");
+		final Path xcconfigFile = file("Test.xcconfig", "#include \"Other.xcconfig\"");
+		assertThrows(IllegalArgumentException.class, () -> XCConfigParser.parse(xcconfigFile));
+	}
+
+	@Test
+	void throwsExceptionOnDeveloperDirectoryInclude() throws IOException {
+		final Path xcconfigFile = file("Test.xcconfig", "#include \"<DEVELOPER_DIR>/Makefiles/CoreOS/Xcode/BSD.xcconfig\"");
+		assertThrows(IllegalArgumentException.class, () -> XCConfigParser.parse(xcconfigFile));
+	}
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.nokee.xcode;
+
+import com.google.common.collect.ImmutableMap;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.emptyIterable;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class XCFileListParserTests {
+	@TempDir Path testDirectory;
+	Map<String, String> buildSettings = ImmutableMap.of("SRCROOT", "/src", "PODS_ROOT", "/src/Pods");
+
+	@Test
+	void expandsListedPaths() throws IOException {
+		final Path xcfilelistFile = Files.write(testDirectory.resolve("inputs.xcfilelist"), String.join("\n",
+			"${PODS_ROOT}/Target Support Files/Pods-App/Pods-App-frameworks.sh",
+			"$(SRCROOT)/Sources/main.swift").getBytes());
+
+		assertThat(XCFileListParser.parse(xcfilelistFile).stream().map(it -> it.resolve(buildSettings::get)).collect(Collectors.toList()),
+			contains("/src/Pods/Target Support Files/Pods-App/Pods-App-frameworks.sh", "/src/Sources/main.swift"));
+	}
+
+	@Test
+	void ignoresCommentsAndEmptyLines() throws IOException {
+		final Path xcfilelistFile = Files.write(testDirectory.resolve("inputs.xcfilelist"), String.join("\n",
+			"# generated file",
+			"",
+			"   ",
+			"  $(SRCROOT)/a.txt  ").getBytes());
+
+		assertThat(XCFileListParser.parse(xcfilelistFile).stream().map(it -> it.resolve(buildSettings::get)).collect(Collectors.toList()),
+			contains("/src/a.txt"));
+	}
+
+	@Test
+	void returnsEmptyListForEmptyFile() throws IOException {
+		assertThat(XCFileListParser.parse(Files.write(testDirectory.resolve("empty.xcfilelist"), new byte[0])), emptyIterable());
+	}
+
+	@Test
+	void throwsExceptionForMissingFile() {
+		assertThrows(UncheckedIOException.class, () -> XCFileListParser.parse(testDirectory.resolve("missing.xcfilelist")));
+	}
+}
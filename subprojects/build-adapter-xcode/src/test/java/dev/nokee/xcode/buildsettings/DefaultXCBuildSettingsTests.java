@@ -28,6 +28,7 @@ import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 
 import static dev.nokee.internal.testing.SerializableMatchers.isSerializable;
@@ -81,6 +82,28 @@ class DefaultXCBuildSettingsTests {
 		assertThat(subject.get("EXISTING"), equalTo("foo"));
 	}
 
+	@Test
+	void evaluatesEachBuildSettingOnlyOnce() {
+		val evaluationCount = new AtomicInteger();
+		layer.add(buildSetting("COUNTED", context -> "count-" + evaluationCount.incrementAndGet()));
+		layer.add(buildSetting("FIRST", evaluateToNested("COUNTED")));
+		layer.add(buildSetting("SECOND", evaluateToNested("COUNTED")));
+
+		assertThat(subject.get("FIRST"), equalTo("count-1"));
+		assertThat(subject.get("SECOND"), equalTo("count-1"));
+		assertThat(subject.get("COUNTED"), equalTo("count-1"));
+		assertThat(evaluationCount.get(), equalTo(1));
+	}
+
+	@Test
+	void throwsExceptionOnCircularReference() {
+		layer.add(buildSetting("FIRST", evaluateToNested("SECOND")));
+		layer.add(buildSetting("SECOND", evaluateToNested("FIRST")));
+
+		val ex = assertThrows(IllegalStateException.class, () -> subject.get("FIRST"));
+		assertThat(ex.getMessage(), equalTo("Circular reference detected while evaluating build setting 'FIRST': FIRST -> SECOND -> FIRST."));
+	}
+
 	@Test
 	void canSerialize() {
 		assertThat(subject, isSerializable());
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.nokee.xcode.buildsettings;
+
+import com.google.common.collect.ImmutableMap;
+import dev.nokee.xcode.CompositeXCBuildSettingLayer;
+import dev.nokee.xcode.ConditionalBuildSettingDefinitions;
+import dev.nokee.xcode.DefaultXCBuildSetting;
+import dev.nokee.xcode.DefaultXCBuildSettingLayer;
+import dev.nokee.xcode.DefaultXCBuildSettings;
+import dev.nokee.xcode.XCBuildSettingDefinition;
+import dev.nokee.xcode.XCBuildSettingDefinitionLayer;
+import dev.nokee.xcode.XCBuildSettingLiteral;
+import dev.nokee.xcode.XCString;
+import org.junit.jupiter.api.Test;
+
+import static com.google.common.collect.ImmutableList.of;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasKey;
+import static org.hamcrest.Matchers.nullValue;
+
+class XCBuildSettingDefinitionLayerTests {
+	XCBuildSettingDefinition flags = ConditionalBuildSettingDefinitions.builder("FLAGS")
+		.put("", new DefaultXCBuildSetting("FLAGS", XCString.of("$(inherited) -default")))
+		.put("[sdk=iphoneos*]", new DefaultXCBuildSetting("FLAGS", XCString.of("$(inherited) -device")))
+		.build();
+	XCBuildSettingDefinition debugOnly = ConditionalBuildSettingDefinitions.builder("DEBUG_ONLY")
+		.put("[config=Debug]", new DefaultXCBuildSetting("DEBUG_ONLY", XCString.of("debug-value")))
+		.build();
+	XCBuildSettingDefinitionLayer subject = new XCBuildSettingDefinitionLayer(ImmutableMap.of("FLAGS", flags, "DEBUG_ONLY", debugOnly));
+
+	private static DefaultXCBuildSettings buildSettings(XCBuildSettingDefinitionLayer layer, String sdkName) {
+		return new DefaultXCBuildSettings(new CompositeXCBuildSettingLayer(of(layer, new DefaultXCBuildSettingLayer(ImmutableMap.of(
+			"SDK_NAME", new XCBuildSettingLiteral("SDK_NAME", sdkName),
+			"CONFIGURATION", new XCBuildSettingLiteral("CONFIGURATION", "Release"),
+			"FLAGS", new XCBuildSettingLiteral("FLAGS", "-lower"),
+			"DEBUG_ONLY", new XCBuildSettingLiteral("DEBUG_ONLY", "lower-value"))))));
+	}
+
+	@Test
+	void selectsSpecificationMatchingBuildSettingsConditions() {
+		assertThat(buildSettings(subject, "iphoneos16.2").get("FLAGS"), equalTo("-lower -device"));
+		assertThat(buildSettings(subject, "macosx13.1").get("FLAGS"), equalTo("-lower -default"));
+	}
+
+	@Test
+	void evaluatesLowerLayersWhenNoSpecificationMatches() {
+		assertThat(buildSettings(subject, "macosx13.1").get("DEBUG_ONLY"), equalTo("lower-value"));
+	}
+
+	@Test
+	void evaluatesLowerLayersForUnknownBuildSettings() {
+		assertThat(buildSettings(subject, "macosx13.1").get("CONFIGURATION"), equalTo("Release"));
+		assertThat(buildSettings(subject, "macosx13.1").get("MISSING"), nullValue());
+	}
+
+	@Test
+	void findAllBuildSettingsKnownToTheLayer() {
+		assertThat(subject.findAll(), hasKey("FLAGS"));
+		assertThat(subject.findAll(), hasKey("DEBUG_ONLY"));
+	}
+}
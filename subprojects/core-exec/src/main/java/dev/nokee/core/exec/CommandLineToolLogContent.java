@@ -18,12 +18,14 @@ package dev.nokee.core.exec;
 import java.util.List;
 import java.util.Objects;
 import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import static dev.nokee.core.exec.CommandLineToolLogContentEmptyImpl.EMPTY_LOG_CONTENT;
 
 /**
  * A representation of the log content from a command line tool execution.
  * The log content can be manipulated according to the consumer's need.
+ * Log contents are equal when they have the same {@link #getAsString() text}, regardless of their implementation.
  *
  * @since 0.4
  */
@@ -103,6 +105,16 @@ public interface CommandLineToolLogContent {
 	 */
 	List<String> getLines();
 
+	/**
+	 * Returns a stream of the lines of this content, split as the stream is consumed. The line does not include the line separator.
+	 * Contrary to {@link #getLines()}, the content doesn't need to be materialized as a whole, which matters for large outputs.
+	 * The stream should be closed after use.
+	 *
+	 * @return the lines of the content, never null.
+	 * @since 0.5
+	 */
+	Stream<String> lines();
+
 	/**
 	 * Visit each lines.
 	 *
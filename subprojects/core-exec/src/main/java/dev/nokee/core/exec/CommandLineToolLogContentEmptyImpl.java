@@ -20,6 +20,7 @@ import org.apache.commons.lang3.StringUtils;
 
 import java.util.List;
 import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 enum CommandLineToolLogContentEmptyImpl implements CommandLineToolLogContent {
 	EMPTY_LOG_CONTENT;
@@ -54,6 +55,11 @@ enum CommandLineToolLogContentEmptyImpl implements CommandLineToolLogContent {
 		return ImmutableList.of();
 	}
 
+	@Override
+	public Stream<String> lines() {
+		return Stream.empty();
+	}
+
 	@Override
 	public CommandLineToolLogContent visitEachLine(Consumer<LineDetails> visitor) {
 		return this;
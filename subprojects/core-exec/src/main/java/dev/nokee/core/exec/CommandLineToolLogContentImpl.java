@@ -15,7 +15,7 @@
  */
 package dev.nokee.core.exec;
 
-import lombok.EqualsAndHashCode;
+import dev.nokee.core.exec.internal.LogContentLines;
 import lombok.val;
 import net.rubygrapefruit.ansi.AnsiParser;
 import net.rubygrapefruit.ansi.console.AnsiConsole;
@@ -25,6 +25,7 @@ import org.apache.commons.lang3.StringUtils;
 
 import java.io.IOException;
 import java.io.OutputStreamWriter;
+import java.io.StringReader;
 import java.io.UncheckedIOException;
 import java.io.Writer;
 import java.util.Arrays;
@@ -32,14 +33,14 @@ import java.util.List;
 import java.util.Objects;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static dev.nokee.core.exec.CommandLineToolLogContentEmptyImpl.EMPTY_LOG_CONTENT;
 import static java.util.stream.Collectors.joining;
 
-@EqualsAndHashCode
 final class CommandLineToolLogContentImpl implements CommandLineToolLogContent {
 	private final String content;
-	@EqualsAndHashCode.Exclude private final boolean definitelyNoAnsiChars;
+	private final boolean definitelyNoAnsiChars;
 
 	CommandLineToolLogContentImpl(String content, boolean definitelyNoAnsiChars) {
 		this.content = content;
@@ -120,6 +121,11 @@ final class CommandLineToolLogContentImpl implements CommandLineToolLogContent {
 		return toLines(content);
 	}
 
+	@Override
+	public Stream<String> lines() {
+		return LogContentLines.lines(new StringReader(content));
+	}
+
 	@Override
 	public CommandLineToolLogContent visitEachLine(Consumer<LineDetails> visitor) {
 		val builder = new StringBuilder();
@@ -210,4 +216,21 @@ final class CommandLineToolLogContentImpl implements CommandLineToolLogContent {
 			return line;
 		}).collect(Collectors.toList());
 	}
+
+	// Equal to any log content with the same text, e.g. the chunked content of an execution result
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (!(o instanceof CommandLineToolLogContent)) {
+			return false;
+		}
+		return content.equals(((CommandLineToolLogContent) o).getAsString());
+	}
+
+	@Override
+	public int hashCode() {
+		return content.hashCode();
+	}
 }
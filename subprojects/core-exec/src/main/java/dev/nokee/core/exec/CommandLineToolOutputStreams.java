@@ -15,12 +15,12 @@
  */
 package dev.nokee.core.exec;
 
+import dev.nokee.core.exec.internal.CommandLineToolOutputStreamsIntertwineImpl;
 import lombok.val;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.io.output.CloseShieldOutputStream;
 import org.apache.commons.io.output.TeeOutputStream;
 
-import java.io.ByteArrayOutputStream;
 import java.io.Closeable;
 import java.io.IOException;
 import java.io.OutputStream;
@@ -29,11 +29,10 @@ import java.util.function.BiFunction;
 
 final class CommandLineToolOutputStreams {
 	public static <R> Result<R> execute(CommandLineToolInvocation invocation, BiFunction<? super OutputStream, ? super OutputStream, ? extends R> action) {
-		val fullOutput = new ByteArrayOutputStream();
-		val capturedStdOut = new ByteArrayOutputStream();
-		val capturedStdErr = new ByteArrayOutputStream();
-		val outStream = new TeeOutputStream(capturedStdOut, fullOutput);
-		val errStream = new TeeOutputStream(capturedStdErr, fullOutput);
+		// Stream pumpers may never flush, commit every write
+		val captured = CommandLineToolOutputStreamsIntertwineImpl.committingOnWrite();
+		val outStream = captured.getStandardOutput();
+		val errStream = captured.getErrorOutput();
 
 		OutputStream stdout = CloseShieldOutputStream.wrap(System.out);
 		OutputStream stderr = CloseShieldOutputStream.wrap(System.err);
@@ -86,17 +85,17 @@ final class CommandLineToolOutputStreams {
 
 				@Override
 				public CommandLineToolLogContent getErrorOutput() {
-					return CommandLineToolLogContent.of(capturedStdErr.toString());
+					return captured.getErrorOutputContent();
 				}
 
 				@Override
 				public CommandLineToolLogContent getStandardOutput() {
-					return CommandLineToolLogContent.of(capturedStdOut.toString());
+					return captured.getStandardOutputContent();
 				}
 
 				@Override
 				public CommandLineToolLogContent getOutput() {
-					return CommandLineToolLogContent.of(fullOutput.toString());
+					return captured.getOutputContent();
 				}
 			};
 		} catch (Throwable ex) {
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.nokee.core.exec.internal;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Append-only byte buffer made of chunks.
+ * Unlike {@link java.io.ByteArrayOutputStream}, growing the buffer never copies the bytes already written.
+ * The chunks start small and double in size up to a maximum, small outputs stay small.
+ *
+ * <p>This class is thread-safe, the streams returned by {@link #newInputStream(long[])} are unaffected by later writes.
+ */
+public final class ChunkedByteBuffer {
+	private static final int MIN_CHUNK_SIZE = 256;
+	private static final int MAX_CHUNK_SIZE = 64 * 1024;
+	private final List<byte[]> chunks = new ArrayList<>();
+	private byte[] currentChunk = null;
+	private int currentChunkCount = 0;
+	private long size = 0;
+
+	public synchronized void write(int b) {
+		if (currentChunk == null || currentChunkCount == currentChunk.length) {
+			newChunk();
+		}
+		currentChunk[currentChunkCount++] = (byte) b;
+		++size;
+	}
+
+	public synchronized void write(byte[] b, int off, int len) {
+		while (len > 0) {
+			if (currentChunk == null || currentChunkCount == currentChunk.length) {
+				newChunk();
+			}
+			final int n = Math.min(len, currentChunk.length - currentChunkCount);
+			System.arraycopy(b, off, currentChunk, currentChunkCount, n);
+			currentChunkCount += n;
+			size += n;
+			off += n;
+			len -= n;
+		}
+	}
+
+	private void newChunk() {
+		final int chunkSize = currentChunk == null ? MIN_CHUNK_SIZE : Math.min(MAX_CHUNK_SIZE, currentChunk.length * 2);
+		currentChunk = new byte[chunkSize];
+		currentChunkCount = 0;
+		chunks.add(currentChunk);
+	}
+
+	/**
+	 * Returns the number of bytes written.
+	 *
+	 * @return the buffer size
+	 */
+	public synchronized long size() {
+		return size;
+	}
+
+	/**
+	 * Returns a stream reading the specified byte ranges, in order.
+	 *
+	 * @param ranges  pairs of offset and length, must not be null
+	 * @return a new input stream, never null
+	 */
+	public synchronized InputStream newInputStream(long[] ranges) {
+		return new RangesInputStream(new ArrayList<>(chunks), ranges.clone());
+	}
+
+	private static final class RangesInputStream extends InputStream {
+		private final List<byte[]> chunks;
+		private final long[] ranges;
+		private int rangeIndex = 0;
+		private long position;
+		private long remaining;
+		private int chunkIndex = 0;
+		private long chunkOffset = 0; // offset of chunks[chunkIndex] within the buffer
+
+		private RangesInputStream(List<byte[]> chunks, long[] ranges) {
+			this.chunks = chunks;
+			this.ranges = ranges;
+			nextRange();
+		}
+
+		private boolean nextRange() {
+			while (rangeIndex < ranges.length) {
+				position = ranges[rangeIndex];
+				remaining = ranges[rangeIndex + 1];
+				rangeIndex += 2;
+				if (remaining > 0) {
+					// Ranges are usually increasing, rewind only when needed
+					if (position < chunkOffset) {
+						chunkIndex = 0;
+						chunkOffset = 0;
+					}
+					return true;
+				}
+			}
+			remaining = 0;
+			return false;
+		}
+
+		@Override
+		public int read() {
+			final byte[] b = new byte[1];
+			return read(b, 0, 1) == -1 ? -1 : b[0] & 0xff;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) {
+			if (len == 0) {
+				return 0;
+			}
+			if (remaining == 0 && !nextRange()) {
+				return -1;
+			}
+
+			while (position >= chunkOffset + chunks.get(chunkIndex).length) {
+				chunkOffset += chunks.get(chunkIndex).length;
+				++chunkIndex;
+			}
+			final byte[] chunk = chunks.get(chunkIndex);
+			final int offsetInChunk = (int) (position - chunkOffset);
+			final int n = (int) Math.min(Math.min(len, remaining), chunk.length - offsetInChunk);
+			System.arraycopy(chunk, offsetInChunk, b, off, n);
+			position += n;
+			remaining -= n;
+			return n;
+		}
+	}
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.nokee.core.exec.internal;
+
+import com.google.common.io.ByteStreams;
+import dev.nokee.core.exec.CommandLineToolLogContent;
+import dev.nokee.core.exec.CommandLineToolOutputParser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Log content backed by byte ranges of a {@link ChunkedByteBuffer}.
+ * The content is decoded on demand, {@link #lines()} never materialize the whole content.
+ * The transformations operate on the decoded content, see {@link CommandLineToolLogContent#of(String)}.
+ */
+public final class ChunkedLogContent implements CommandLineToolLogContent {
+	private final ChunkedByteBuffer buffer;
+	private final long[] ranges;
+	private final Charset charset;
+
+	public ChunkedLogContent(ChunkedByteBuffer buffer, long[] ranges, Charset charset) {
+		this.buffer = buffer;
+		this.ranges = ranges;
+		this.charset = charset;
+	}
+
+	@Override
+	public <T> T parse(CommandLineToolOutputParser<T> parser) {
+		Objects.requireNonNull(parser, "Command line tool output parser cannot be null.");
+		return parser.parse(getAsString());
+	}
+
+	@Override
+	public String getAsString() {
+		try (InputStream inStream = buffer.newInputStream(ranges)) {
+			return new String(ByteStreams.toByteArray(inStream), charset);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private CommandLineToolLogContent decoded() {
+		return CommandLineToolLogContent.of(getAsString());
+	}
+
+	@Override
+	public CommandLineToolLogContent withNormalizedEndOfLine() {
+		return decoded().withNormalizedEndOfLine();
+	}
+
+	@Override
+	public CommandLineToolLogContent drop(int n) {
+		return decoded().drop(n);
+	}
+
+	@Override
+	public CommandLineToolLogContent withAnsiControlCharactersInterpreted() {
+		return decoded().withAnsiControlCharactersInterpreted();
+	}
+
+	@Override
+	public List<String> getLines() {
+		try (Stream<String> lines = lines()) {
+			return lines.collect(Collectors.toList());
+		}
+	}
+
+	@Override
+	public Stream<String> lines() {
+		return LogContentLines.lines(new InputStreamReader(buffer.newInputStream(ranges), charset));
+	}
+
+	@Override
+	public CommandLineToolLogContent visitEachLine(Consumer<LineDetails> visitor) {
+		return decoded().visitEachLine(visitor);
+	}
+
+	// Equal to any log content with the same text, regardless of how the bytes are chunked
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (!(o instanceof CommandLineToolLogContent)) {
+			return false;
+		}
+		return getAsString().equals(((CommandLineToolLogContent) o).getAsString());
+	}
+
+	@Override
+	public int hashCode() {
+		return getAsString().hashCode();
+	}
+}
@@ -17,32 +17,105 @@ package dev.nokee.core.exec.internal;
 
 import dev.nokee.core.exec.CommandLineToolLogContent;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
+import javax.annotation.Nullable;
 import java.io.OutputStream;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.function.Predicate;
-
-import static dev.nokee.core.exec.CommandLineToolLogContent.of;
-import static java.util.stream.Collectors.joining;
+import java.nio.charset.Charset;
+import java.util.Arrays;
 
+/**
+ * Captures the standard and error outputs, in the order they are committed.
+ * The bytes of both outputs are written once into a shared {@link ChunkedByteBuffer}, an index of segments records which output each byte range belongs to.
+ * By default, the written bytes are only committed on flush, so partial lines of one output don't split the lines of the other output.
+ */
 public final class CommandLineToolOutputStreamsIntertwineImpl implements CommandLineToolOutputStreams {
-	private final List<OutputSegment> outputSegments = new ArrayList<>();
+	private static final int SEGMENT_TYPE = 0;
+	private static final int SEGMENT_OFFSET = 1;
+	private static final int SEGMENT_LENGTH = 2;
+	private static final int SEGMENT_FIELD_COUNT = 3;
+	private final ChunkedByteBuffer buffer = new ChunkedByteBuffer();
 	private final Object lock = new Object();
-	private final SegmentingOutputStream out = new SegmentingOutputStream(OutputType.OUT);
-	private final SegmentingOutputStream err = new SegmentingOutputStream(OutputType.ERR);
+	private final boolean commitOnWrite;
+	private long[] segments = new long[16 * SEGMENT_FIELD_COUNT]; // (type, offset, length) triples
+	private int segmentCount = 0;
+	private final CapturingOutputStream out = new CapturingOutputStream(OutputType.OUT);
+	private final CapturingOutputStream err = new CapturingOutputStream(OutputType.ERR);
+
+	public CommandLineToolOutputStreamsIntertwineImpl() {
+		this(false);
+	}
+
+	private CommandLineToolOutputStreamsIntertwineImpl(boolean commitOnWrite) {
+		this.commitOnWrite = commitOnWrite;
+	}
+
+	/**
+	 * Creates output streams committing the written bytes immediately instead of on flush.
+	 * Use when the writers may never flush, e.g. process stream pumpers.
+	 *
+	 * @return a new instance, never null
+	 */
+	public static CommandLineToolOutputStreamsIntertwineImpl committingOnWrite() {
+		return new CommandLineToolOutputStreamsIntertwineImpl(true);
+	}
 
 	public CommandLineToolLogContent getStandardOutputContent() {
-		return of(outputSegments.stream().filter(OutputType.OUT).map(OutputSegment::getAsString).collect(joining()));
+		return content(OutputType.OUT);
 	}
 
 	public CommandLineToolLogContent getErrorOutputContent() {
-		return of(outputSegments.stream().filter(OutputType.ERR).map(OutputSegment::getAsString).collect(joining()));
+		return content(OutputType.ERR);
 	}
 
 	public CommandLineToolLogContent getOutputContent() {
-		return of(outputSegments.stream().map(OutputSegment::getAsString).collect(joining()));
+		return content(null);
+	}
+
+	private CommandLineToolLogContent content(@Nullable OutputType type) {
+		synchronized (lock) {
+			final long[] ranges = new long[segmentCount * 2];
+			int rangeCount = 0;
+			for (int i = 0; i < segmentCount * SEGMENT_FIELD_COUNT; i += SEGMENT_FIELD_COUNT) {
+				if (type == null || segments[i + SEGMENT_TYPE] == type.ordinal()) {
+					final long offset = segments[i + SEGMENT_OFFSET];
+					final long length = segments[i + SEGMENT_LENGTH];
+					if (rangeCount > 0 && ranges[rangeCount - 2] + ranges[rangeCount - 1] == offset) {
+						ranges[rangeCount - 1] += length; // contiguous, e.g. the whole output
+					} else {
+						ranges[rangeCount++] = offset;
+						ranges[rangeCount++] = length;
+					}
+				}
+			}
+
+			if (rangeCount == 0) {
+				return CommandLineToolLogContent.empty();
+			}
+			return new ChunkedLogContent(buffer, Arrays.copyOf(ranges, rangeCount), Charset.defaultCharset());
+		}
+	}
+
+	private void commit(OutputType type, byte[] b, int off, int len) {
+		if (len == 0) {
+			return;
+		}
+
+		synchronized (lock) {
+			final long offset = buffer.size();
+			buffer.write(b, off, len);
+
+			final int last = (segmentCount - 1) * SEGMENT_FIELD_COUNT;
+			if (segmentCount > 0 && segments[last + SEGMENT_TYPE] == type.ordinal()) {
+				segments[last + SEGMENT_LENGTH] += len;
+			} else {
+				if (segments.length == segmentCount * SEGMENT_FIELD_COUNT) {
+					segments = Arrays.copyOf(segments, segments.length * 2);
+				}
+				final int next = segmentCount++ * SEGMENT_FIELD_COUNT;
+				segments[next + SEGMENT_TYPE] = type.ordinal();
+				segments[next + SEGMENT_OFFSET] = offset;
+				segments[next + SEGMENT_LENGTH] = len;
+			}
+		}
 	}
 
 	@Override
@@ -55,52 +128,50 @@ public final class CommandLineToolOutputStreamsIntertwineImpl implements Command
 		return err;
 	}
 
-	private class SegmentingOutputStream extends OutputStream {
+	private final class CapturingOutputStream extends OutputStream {
 		private final OutputType type;
-		private OutputSegment currentSegment;
+		private byte[] pending = new byte[128]; // reused between flushes
+		private int pendingCount = 0;
 
-		SegmentingOutputStream(OutputType type) {
+		CapturingOutputStream(OutputType type) {
 			this.type = type;
-			this.currentSegment = new OutputSegment(type);
 		}
 
 		@Override
-		public void write(int b) throws IOException {
-			currentSegment.append(b);
+		public synchronized void write(int b) {
+			if (commitOnWrite) {
+				commit(type, new byte[] {(byte) b}, 0, 1);
+			} else {
+				ensureCapacity(1);
+				pending[pendingCount++] = (byte) b;
+			}
 		}
 
 		@Override
-		public void flush() throws IOException {
-			synchronized (lock) {
-				outputSegments.add(currentSegment);
-				currentSegment = new OutputSegment(type);
+		public synchronized void write(byte[] b, int off, int len) {
+			if (commitOnWrite) {
+				commit(type, b, off, len);
+			} else {
+				ensureCapacity(len);
+				System.arraycopy(b, off, pending, pendingCount, len);
+				pendingCount += len;
 			}
 		}
-	}
 
-	private enum OutputType implements Predicate<OutputSegment> {
-		OUT, ERR;
+		private void ensureCapacity(int len) {
+			if (pendingCount + len > pending.length) {
+				pending = Arrays.copyOf(pending, Math.max(pending.length * 2, pendingCount + len));
+			}
+		}
 
 		@Override
-		public boolean test(OutputSegment outputSegment) {
-			return outputSegment.type == this;
+		public synchronized void flush() {
+			commit(type, pending, 0, pendingCount);
+			pendingCount = 0;
 		}
 	}
 
-	private static final class OutputSegment {
-		private final OutputType type;
-		private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
-
-		OutputSegment(OutputType type) {
-			this.type = type;
-		}
-
-		void append(int b) {
-			buffer.write(b);
-		}
-
-		String getAsString() {
-			return buffer.toString();
-		}
+	private enum OutputType {
+		OUT, ERR
 	}
 }
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.nokee.core.exec.internal;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Splits log content into lines as it is read.
+ * Lines are separated by a new line char, an optional carriage return before the new line char is dropped.
+ * Contrary to {@link BufferedReader#lines()}, the content after the last new line char is always a line, even if empty.
+ */
+public final class LogContentLines {
+	private LogContentLines() {}
+
+	/**
+	 * Returns the lines of the specified content, the reader is closed when the stream is closed.
+	 *
+	 * @param content  the content to split, must not be null
+	 * @return a lazy stream of lines, never null
+	 */
+	public static Stream<String> lines(Reader content) {
+		final BufferedReader reader = content instanceof BufferedReader ? (BufferedReader) content : new BufferedReader(content);
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(new LineIterator(reader), Spliterator.ORDERED | Spliterator.NONNULL), false).onClose(() -> {
+			try {
+				reader.close();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		});
+	}
+
+	private static final class LineIterator implements Iterator<String> {
+		private final BufferedReader reader;
+		private final StringBuilder builder = new StringBuilder();
+		private String nextLine = null;
+		private boolean endOfContent = false;
+
+		private LineIterator(BufferedReader reader) {
+			this.reader = reader;
+		}
+
+		@Override
+		public boolean hasNext() {
+			if (nextLine == null && !endOfContent) {
+				nextLine = readLine();
+			}
+			return nextLine != null;
+		}
+
+		@Override
+		public String next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			final String result = nextLine;
+			nextLine = null;
+			return result;
+		}
+
+		private String readLine() {
+			try {
+				builder.setLength(0);
+				int c;
+				while ((c = reader.read()) != -1) {
+					if (c == '\n') {
+						return dropCarriageReturn(builder);
+					}
+					builder.append((char) c);
+				}
+				endOfContent = true;
+				return dropCarriageReturn(builder);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+		private static String dropCarriageReturn(StringBuilder line) {
+			final int length = line.length();
+			if (length > 0 && line.charAt(length - 1) == '\r') {
+				return line.substring(0, length - 1);
+			}
+			return line.toString();
+		}
+	}
+}
@@ -23,6 +23,7 @@ import java.util.function.Consumer
 
 import static dev.nokee.core.exec.CommandLineToolLogContent.empty
 import static dev.nokee.core.exec.CommandLineToolLogContent.of
+import static java.util.stream.Collectors.toList
 import static org.fusesource.jansi.Ansi.Color.GREEN
 import static org.fusesource.jansi.Ansi.Color.RED
 import static org.fusesource.jansi.Ansi.ansi
@@ -134,6 +135,13 @@ bar
 		and:
 		of('  ').lines == ['  ']
 	}
+
+	def "can stream the lines of the content"() {
+		expect:
+		of('foo\nbar\n\n').lines().collect(toList()) == ['foo', 'bar', '', '']
+		of('\r\nfoo\r\nbar').lines().collect(toList()) == ['', 'foo', 'bar']
+		of('fo\ro\r\r\nbar').lines().collect(toList()) == ['fo\ro\r', 'bar']
+	}
 	//endregion
 
 	//region Line visitor
@@ -329,5 +337,10 @@ bar
 		expect:
 		empty().lines == []
 	}
+
+	def "returns empty stream of lines"() {
+		expect:
+		empty().lines().count() == 0
+	}
 	//endregion
 }
@@ -19,6 +19,8 @@ import dev.nokee.core.exec.internal.CommandLineToolOutputStreamsIntertwineImpl
 import spock.lang.Specification
 import spock.lang.Subject
 
+import static java.util.stream.Collectors.toList
+
 @Subject(CommandLineToolOutputStreamsIntertwineImpl)
 class CommandLineToolOutputStreamIntertwineImplTest extends Specification {
 	def streams = new CommandLineToolOutputStreamsIntertwineImpl()
@@ -102,4 +104,28 @@ class CommandLineToolOutputStreamIntertwineImplTest extends Specification {
 		streams.errorOutputContent.asString == "Goodbye, world!${System.lineSeparator()}"
 		streams.outputContent.asString == "Goodbye, world!${System.lineSeparator()}Hello, world!${System.lineSeparator()}"
 	}
+
+	def "can stream captured lines"() {
+		when:
+		out.print('Hello,\nworld!\n')
+		out.flush()
+
+		then:
+		streams.standardOutputContent.lines().collect(toList()) == ['Hello,', 'world!', '']
+	}
+
+	def "can commit captured output on write"() {
+		given:
+		def streams = CommandLineToolOutputStreamsIntertwineImpl.committingOnWrite()
+
+		when:
+		streams.standardOutput.write('Hello, '.bytes)
+		streams.errorOutput.write('Goodbye, '.bytes)
+		streams.standardOutput.write('world!'.bytes)
+
+		then:
+		streams.standardOutputContent.asString == 'Hello, world!'
+		streams.errorOutputContent.asString == 'Goodbye, '
+		streams.outputContent.asString == 'Hello, Goodbye, world!'
+	}
 }
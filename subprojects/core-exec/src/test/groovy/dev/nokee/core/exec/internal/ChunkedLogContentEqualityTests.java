@@ -0,0 +1,47 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.nokee.core.exec.internal;
+
+import com.google.common.testing.EqualsTester;
+import dev.nokee.core.exec.CommandLineToolLogContent;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+class ChunkedLogContentEqualityTests {
+	private static ChunkedLogContent content(String... segments) {
+		final ChunkedByteBuffer buffer = new ChunkedByteBuffer();
+		final long[] ranges = new long[segments.length * 2];
+		for (int i = 0; i < segments.length; ++i) {
+			buffer.write('#'); // bytes outside the ranges are not part of the content
+			final byte[] bytes = segments[i].getBytes(StandardCharsets.UTF_8);
+			ranges[i * 2] = buffer.size();
+			buffer.write(bytes, 0, bytes.length);
+			ranges[i * 2 + 1] = bytes.length;
+		}
+		return new ChunkedLogContent(buffer, ranges, StandardCharsets.UTF_8);
+	}
+
+	@Test
+	@SuppressWarnings("UnstableApiUsage")
+	void checkEquals() {
+		new EqualsTester()
+			.addEqualityGroup(content("foo\nbar"), content("foo\nbar"), content("fo", "o\nb", "ar"), CommandLineToolLogContent.of("foo\nbar"))
+			.addEqualityGroup(content("foo"), CommandLineToolLogContent.of("foo"))
+			.addEqualityGroup(content())
+			.testEquals();
+	}
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.nokee.model.internal.actions;
+
+import dev.nokee.model.internal.core.ModelEntityId;
+import dev.nokee.model.internal.core.ModelNode;
+import dev.nokee.model.internal.state.ModelState;
+import org.gradle.api.specs.Spec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static dev.nokee.model.internal.actions.ModelSpec.ownedBy;
+import static dev.nokee.model.internal.actions.ModelSpec.self;
+import static dev.nokee.model.internal.actions.ModelSpec.stateAtLeast;
+import static dev.nokee.model.internal.actions.ModelSpec.subtypeOf;
+import static dev.nokee.model.internal.core.ModelComponentType.componentOf;
+import static dev.nokee.model.internal.type.ModelType.of;
+
+/**
+ * Compares the action candidates lookup of {@link ModelActionIndex} against a linear scan over all actions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ModelActionMatchingBenchmark {
+	@Param({"100", "1000", "10000"})
+	public int actionCount;
+
+	private final ModelActionIndex index = new ModelActionIndex();
+	private final List<ModelNode> allActions = new ArrayList<>();
+	private DomainObjectIdentity identity;
+
+	@Setup
+	public void setup() {
+		final List<ModelEntityId> entities = new ArrayList<>();
+		for (int i = 0; i < actionCount; ++i) {
+			entities.add(ModelEntityId.nextId());
+		}
+
+		for (int i = 0; i < actionCount; ++i) {
+			final ModelSpec spec;
+			switch (i % 4) {
+				case 0: spec = self(entities.get(i)); break;
+				case 1: spec = ownedBy(entities.get(i)).and(stateAtLeast(ModelState.Realized)); break;
+				case 2: spec = stateAtLeast(ModelState.Realized).and(subtypeOf(of(Runnable.class))); break;
+				default: spec = stateAtLeast(ModelState.Finalized); break;
+			}
+			final ModelNode action = new ModelNode();
+			action.addComponent(new ModelSpecComponent(spec));
+			index.add(action);
+			allActions.add(action);
+		}
+
+		identity = DomainObjectIdentity.of(ModelState.Realized)
+			.with(new SelfRef(entities.get(0)))
+			.with(new ParentRef(entities.get(1)))
+			.plus(of(String.class));
+	}
+
+	@Benchmark
+	public void indexedCandidates(Blackhole blackhole) {
+		for (ModelNode action : index.candidates(identity)) {
+			blackhole.consume(matches(action));
+		}
+	}
+
+	@Benchmark
+	public void linearScan(Blackhole blackhole) {
+		for (ModelNode action : allActions) {
+			blackhole.consume(matches(action));
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private boolean matches(ModelNode action) {
+		return ((Spec<DomainObjectIdentity>) action.getComponent(componentOf(ModelSpecComponent.class)).get()).isSatisfiedBy(identity);
+	}
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.nokee.model.internal.core;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BitsBenchmark {
+	@Param({"1", "4"})
+	public int words;
+
+	private Bits bits;
+	private Bits otherBits;
+	private Bits subsetBits;
+
+	@Setup
+	public void setup() {
+		final int bitCount = words * 64;
+		bits = Bits.empty();
+		otherBits = Bits.empty();
+		for (int i = 0; i < bitCount; i += 3) {
+			bits = bits.or(Bits.nthBit(i));
+		}
+		for (int i = 0; i < bitCount; i += 5) {
+			otherBits = otherBits.or(Bits.nthBit(i));
+		}
+		subsetBits = Bits.nthBit(bitCount - 1 - ((bitCount - 1) % 3));
+	}
+
+	@Benchmark
+	public Bits or() {
+		return bits.or(otherBits);
+	}
+
+	@Benchmark
+	public Bits orWithSubset() {
+		return bits.or(subsetBits);
+	}
+
+	@Benchmark
+	public Bits and() {
+		return bits.and(otherBits);
+	}
+
+	@Benchmark
+	public boolean intersects() {
+		return bits.intersects(otherBits);
+	}
+
+	@Benchmark
+	public boolean containsAll() {
+		return bits.containsAll(subsetBits);
+	}
+
+	@Benchmark
+	public void mutableOr(Blackhole blackhole) {
+		final MutableBits result = new MutableBits();
+		for (int i = 0; i < 8; ++i) {
+			result.or(otherBits);
+		}
+		blackhole.consume(result.toBits());
+	}
+
+	@Benchmark
+	public void immutableOr(Blackhole blackhole) {
+		Bits result = Bits.empty();
+		for (int i = 0; i < 8; ++i) {
+			result = result.or(otherBits);
+		}
+		blackhole.consume(result);
+	}
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.nokee.model.internal.core;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the component storages on a synthetic model.
+ * Run with the {@literal gc} profiler to compare the allocated bytes per entity ({@literal gc.alloc.rate.norm}) of {@link #populate}.
+ * The {@link #retainedHeap} benchmark reports the heap retained per entity ({@literal retainedBytesPerEntity}) once populated.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ModelNodeBenchmark {
+	private static final int ENTITY_COUNT = 100_000;
+
+	@Param({"default", "columnar"})
+	public String storage;
+
+	private ModelNode[] entities;
+	private final ModelComponentType<FirstComponent> firstType = ModelComponentType.componentOf(FirstComponent.class);
+	private final ModelComponentType<ThirdComponent> missingType = ModelComponentType.componentOf(ThirdComponent.class);
+
+	@Setup(Level.Trial)
+	public void setup() {
+		entities = populate(newStorage());
+	}
+
+	private ComponentRegistry newStorage() {
+		switch (storage) {
+			case "default": return new DefaultComponentRegistry();
+			case "columnar": return new ColumnarComponentRegistry();
+			default: throw new IllegalArgumentException();
+		}
+	}
+
+	private static ModelNode[] populate(ComponentRegistry components) {
+		final ModelNode[] result = new ModelNode[ENTITY_COUNT];
+		for (int i = 0; i < ENTITY_COUNT; ++i) {
+			result[i] = new ModelNode(components);
+			result[i].addComponent(new FirstComponent());
+			result[i].addComponent(new SecondComponent());
+		}
+		return result;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(ENTITY_COUNT)
+	public ModelNode[] populate() {
+		return populate(newStorage());
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.SingleShotTime)
+	public ModelNode[] retainedHeap(RetainedHeap heap) {
+		final long baseline = usedHeapAfterGc();
+		final ModelNode[] result = populate(newStorage());
+		heap.retainedBytesPerEntity = (usedHeapAfterGc() - baseline) / ENTITY_COUNT;
+		return result;
+	}
+
+	// Forces a GC until the used heap stops shrinking, a single System.gc() may leave garbage behind
+	private static long usedHeapAfterGc() {
+		final Runtime runtime = Runtime.getRuntime();
+		long result = Long.MAX_VALUE;
+		for (int i = 0; i < 10; ++i) {
+			System.gc();
+			final long used = runtime.totalMemory() - runtime.freeMemory();
+			if (used >= result) {
+				break;
+			}
+			result = used;
+		}
+		return result;
+	}
+
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class RetainedHeap {
+		public long retainedBytesPerEntity;
+
+		@Setup(Level.Iteration)
+		public void reset() {
+			retainedBytesPerEntity = 0;
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(ENTITY_COUNT)
+	public void findComponent(Blackhole blackhole) {
+		for (ModelNode entity : entities) {
+			blackhole.consume(entity.findComponentNullable(firstType));
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(ENTITY_COUNT)
+	public void findMissingComponent(Blackhole blackhole) {
+		for (ModelNode entity : entities) {
+			blackhole.consume(entity.findComponentNullable(missingType));
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(ENTITY_COUNT)
+	public void addExistingComponent(Blackhole blackhole) {
+		for (ModelNode entity : entities) {
+			blackhole.consume(entity.addComponent(new SecondComponent()));
+		}
+	}
+
+	public static final class FirstComponent implements ModelComponent {}
+	public static final class SecondComponent implements ModelComponent {}
+	public static final class ThirdComponent implements ModelComponent {}
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.nokee.model.internal.core;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ModelPathBenchmark {
+	@Param({"1", "4", "8"})
+	public int depth;
+
+	private ModelPath path;
+	private ModelPath descendant;
+	private ModelPath nonDescendant;
+
+	@Setup
+	public void setup() {
+		path = ModelPath.root();
+		for (int i = 0; i < depth; ++i) {
+			path = path.child("component" + i);
+		}
+		descendant = path.child("variants").child("debug");
+		nonDescendant = ModelPath.path("other").child("variants").child("debug");
+	}
+
+	@Benchmark
+	public ModelPath child() {
+		return path.child("binaries");
+	}
+
+	@Benchmark
+	public void isDescendant(Blackhole blackhole) {
+		blackhole.consume(path.isDescendant(descendant));
+		blackhole.consume(path.isDescendant(nonDescendant));
+	}
+
+	@Benchmark
+	public void isDirectDescendant(Blackhole blackhole) {
+		blackhole.consume(path.isDirectDescendant(descendant.getParent().get()));
+		blackhole.consume(path.isDirectDescendant(descendant));
+	}
+
+	@Benchmark
+	public int hashCodeOfPath() {
+		return descendant.hashCode();
+	}
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.nokee.model.internal.registry;
+
+import dev.nokee.internal.reflect.Instantiator;
+import dev.nokee.model.internal.core.ColumnarComponentRegistry;
+import dev.nokee.model.internal.core.ComponentRegistry;
+import dev.nokee.model.internal.core.DefaultComponentRegistry;
+import dev.nokee.model.internal.core.ModelActionWithInputs;
+import dev.nokee.model.internal.core.ModelComponent;
+import dev.nokee.model.internal.core.ModelComponentReference;
+import dev.nokee.model.internal.core.ModelPath;
+import dev.nokee.model.internal.core.ModelPathComponent;
+import dev.nokee.model.internal.core.ModelRegistration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DefaultModelRegistryBenchmark {
+	private static final Instantiator NO_INSTANTIATOR = new Instantiator() {
+		@Override
+		public <T> T newInstance(Class<? extends T> type, Object... parameters) {
+			throw new UnsupportedOperationException();
+		}
+	};
+
+	@Param({"100", "1000", "10000"})
+	public int entityCount;
+
+	@Param({"default", "columnar"})
+	public String storage;
+
+	private DefaultModelRegistry populatedRegistry;
+
+	@Setup(Level.Invocation)
+	public void setup() {
+		populatedRegistry = populate(newRegistry(), entityCount);
+	}
+
+	private DefaultModelRegistry newRegistry() {
+		final ComponentRegistry components;
+		switch (storage) {
+			case "default": components = new DefaultComponentRegistry(); break;
+			case "columnar": components = new ColumnarComponentRegistry(); break;
+			default: throw new IllegalArgumentException();
+		}
+		return new DefaultModelRegistry(NO_INSTANTIATOR, components);
+	}
+
+	private static DefaultModelRegistry populate(DefaultModelRegistry registry, int entityCount) {
+		final ModelPath parent = ModelPath.root();
+		for (int i = 0; i < entityCount; ++i) {
+			registry.register(ModelRegistration.builder()
+				.withComponent(new ModelPathComponent(parent.child("e" + i)))
+				.withComponent(new MyComponent())
+				.build());
+		}
+		return registry;
+	}
+
+	@Benchmark
+	public DefaultModelRegistry instantiate() {
+		final DefaultModelRegistry registry = newRegistry();
+		final ModelPath parent = ModelPath.root();
+		for (int i = 0; i < entityCount; ++i) {
+			registry.instantiate(ModelRegistration.builder()
+				.withComponent(new ModelPathComponent(parent.child("e" + i)))
+				.withComponent(new MyComponent())
+				.build());
+		}
+		return registry;
+	}
+
+	@Benchmark
+	public DefaultModelRegistry register() {
+		return populate(newRegistry(), entityCount);
+	}
+
+	@Benchmark
+	public DefaultModelRegistry configure() {
+		populatedRegistry.configure(ModelActionWithInputs.of(ModelComponentReference.of(MyComponent.class), (entity, component) -> entity.addComponent(new MyOtherComponent())));
+		return populatedRegistry;
+	}
+
+	public static final class MyComponent implements ModelComponent {}
+	public static final class MyOtherComponent implements ModelComponent {}
+}
@@ -20,6 +20,7 @@ import lombok.EqualsAndHashCode;
 import lombok.val;
 import org.gradle.api.specs.Spec;
 
+import java.util.Arrays;
 import java.util.Set;
 
 @EqualsAndHashCode
@@ -34,6 +35,10 @@ final class AndSpec implements Spec<DomainObjectIdentity>, ModelSpec {
 		this.specs = specs.toArray(new ModelSpec[0]);
 	}
 
+	public Iterable<ModelSpec> getSpecs() {
+		return Arrays.asList(specs);
+	}
+
 	@EqualsAndHashCode.Include
 	private Set<ModelSpec> specs() {
 		return ImmutableSet.copyOf(specs);
@@ -25,6 +25,7 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * Represent what an entity is all about in terms of projection actions
@@ -73,6 +74,16 @@ final class DomainObjectIdentity {
 		return value;
 	}
 
+	public void forEachValue(Class<?> type, Consumer<Object> action) {
+		Objects.requireNonNull(type);
+		final Object value = values.get(type);
+		if (value instanceof Iterable) {
+			((Iterable<?>) value).forEach(action);
+		} else if (value != null) {
+			action.accept(value);
+		}
+	}
+
 	public <T> DomainObjectIdentity with(T value) {
 		Objects.requireNonNull(value);
 		if (value instanceof Iterable) {
@@ -27,6 +27,10 @@ final class EqualSpec implements ModelSpec, Spec<DomainObjectIdentity> {
 		this.value = value;
 	}
 
+	public Object getValue() {
+		return value;
+	}
+
 	@Override
 	public boolean isSatisfiedBy(DomainObjectIdentity element) {
 		val value = element.get(this.value.getClass());
@@ -0,0 +1,196 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.nokee.model.internal.actions;
+
+import dev.nokee.model.internal.core.ModelNode;
+import dev.nokee.model.internal.state.ModelState;
+import dev.nokee.model.internal.type.ModelType;
+import lombok.val;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static dev.nokee.model.internal.core.ModelComponentType.componentOf;
+
+/**
+ * Index of action entities keyed by the most selective facet of their {@link ModelSpec}.
+ * The candidates returned for an identity are a superset of the matching actions, in registration order.
+ * Callers are still expected to evaluate each candidate's specification.
+ */
+final class ModelActionIndex {
+	private static final Comparator<Entry> REGISTRATION_ORDER = Comparator.comparingInt(it -> it.order);
+	private final Map<Class<?>, Map<Object, List<Entry>>> valueIndex = new HashMap<>();
+	private final Map<Class<?>, List<Entry>> typeIndex = new HashMap<>();
+	@SuppressWarnings("unchecked") private final List<Entry>[] stateIndex = new List[ModelState.values().length];
+	private final List<Entry> unindexed = new ArrayList<>();
+	private final Map<Class<?>, Set<Class<?>>> typeHierarchies = new HashMap<>();
+	private int nextOrder = 0;
+
+	public void add(ModelNode actionEntity) {
+		val entry = new Entry(nextOrder++, actionEntity);
+		val specComponent = actionEntity.findComponentNullable(componentOf(ModelSpecComponent.class));
+		val facet = specComponent == null ? null : mostSelectiveFacet(specComponent.get());
+		if (facet instanceof EqualSpec) {
+			index(((EqualSpec) facet).getValue(), entry);
+		} else if (facet instanceof ContainSpec) {
+			index(((ContainSpec) facet).getValue(), entry);
+		} else if (facet instanceof WithTypeSpec) {
+			typeIndex.computeIfAbsent(((WithTypeSpec) facet).getType().getRawType(), __ -> new ArrayList<>()).add(entry);
+		} else if (facet instanceof StateAtLeastSpec) {
+			val ordinal = ((StateAtLeastSpec) facet).getState().ordinal();
+			if (stateIndex[ordinal] == null) {
+				stateIndex[ordinal] = new ArrayList<>();
+			}
+			stateIndex[ordinal].add(entry);
+		} else {
+			unindexed.add(entry);
+		}
+	}
+
+	private void index(Object value, Entry entry) {
+		valueIndex.computeIfAbsent(value.getClass(), __ -> new HashMap<>()).computeIfAbsent(value, __ -> new ArrayList<>()).add(entry);
+	}
+
+	/**
+	 * Returns a snapshot of the action entities that could be satisfied by the specified identity.
+	 *
+	 * @param identity  the entity identity to match, must not be null
+	 * @return a list of candidate action entities in registration order, never null
+	 */
+	public List<ModelNode> candidates(DomainObjectIdentity identity) {
+		val result = new ArrayList<Entry>(unindexed);
+
+		for (val byClass : valueIndex.entrySet()) {
+			identity.forEachValue(byClass.getKey(), value -> {
+				val entries = byClass.getValue().get(value);
+				if (entries != null) {
+					result.addAll(entries);
+				}
+			});
+		}
+
+		if (!typeIndex.isEmpty()) {
+			val visitedTypes = new HashSet<Class<?>>();
+			for (ModelType<?> type : identity.getAll(ModelType.class)) {
+				for (Class<?> it : hierarchyOf(type.getRawType())) {
+					if (visitedTypes.add(it)) {
+						val entries = typeIndex.get(it);
+						if (entries != null) {
+							result.addAll(entries);
+						}
+					}
+				}
+			}
+		}
+
+		val state = identity.get(ModelState.class);
+		if (state != null) {
+			for (int i = 0; i <= state.ordinal(); ++i) {
+				if (stateIndex[i] != null) {
+					result.addAll(stateIndex[i]);
+				}
+			}
+		}
+
+		result.sort(REGISTRATION_ORDER);
+		val nodes = new ArrayList<ModelNode>(result.size());
+		for (Entry it : result) {
+			nodes.add(it.entity);
+		}
+		return nodes;
+	}
+
+	private Set<Class<?>> hierarchyOf(Class<?> type) {
+		Set<Class<?>> result = typeHierarchies.get(type);
+		if (result == null) {
+			result = new LinkedHashSet<>();
+			collectHierarchy(type, result);
+			result.add(Object.class);
+			typeHierarchies.put(type, result);
+		}
+		return result;
+	}
+
+	private static void collectHierarchy(@Nullable Class<?> type, Set<Class<?>> result) {
+		if (type != null && result.add(type)) {
+			collectHierarchy(type.getSuperclass(), result);
+			for (Class<?> it : type.getInterfaces()) {
+				collectHierarchy(it, result);
+			}
+		}
+	}
+
+	// Exact values are the most selective followed by types and lastly states.
+	@Nullable
+	private static ModelSpec mostSelectiveFacet(ModelSpec spec) {
+		if (spec instanceof AndSpec) {
+			ModelSpec result = null;
+			for (ModelSpec it : ((AndSpec) spec).getSpecs()) {
+				if (selectivityOf(it) > selectivityOf(result)) {
+					result = it;
+				}
+			}
+			return result;
+		} else if (selectivityOf(spec) > 0) {
+			return spec;
+		} else {
+			return null;
+		}
+	}
+
+	private static int selectivityOf(@Nullable ModelSpec spec) {
+		if (spec instanceof EqualSpec) {
+			return selectivityOfValue(((EqualSpec) spec).getValue());
+		} else if (spec instanceof ContainSpec) {
+			return selectivityOfValue(((ContainSpec) spec).getValue());
+		} else if (spec instanceof WithTypeSpec) {
+			return 2;
+		} else if (spec instanceof StateAtLeastSpec) {
+			return 1;
+		} else {
+			return 0;
+		}
+	}
+
+	private static int selectivityOfValue(Object value) {
+		if (value instanceof SelfRef) {
+			return 5;
+		} else if (value instanceof ParentRef) {
+			return 4;
+		} else if (value instanceof Iterable) {
+			return 0; // identity never stores iterable under its own type
+		} else {
+			return 3;
+		}
+	}
+
+	private static final class Entry {
+		private final int order;
+		private final ModelNode entity;
+
+		private Entry(int order, ModelNode entity) {
+			this.order = order;
+			this.entity = entity;
+		}
+	}
+}
@@ -51,7 +51,7 @@ import static dev.nokee.model.internal.core.ModelComponentType.componentOf;
 @SuppressWarnings("unchecked")
 public final class ModelActionSystem<T extends ExtensionAware & PluginAware> implements Plugin<T> {
 	private final ReentrantAvoidance reentrant = new ReentrantAvoidance();
-	private final List<ModelNode> allActionEntities = new ArrayList<>();
+	private final ModelActionIndex actionIndex = new ModelActionIndex();
 	private final List<ModelNode> allConfigurableEntities = new ArrayList<>();
 
 	@Override
@@ -76,7 +76,7 @@ public final class ModelActionSystem<T extends ExtensionAware & PluginAware> imp
 	// ComponentFromEntity<ActionComponent> (readonly) all
 	// ComponentFromEntity<ExecutedActionComponent> (read-write) self
 	private void onIdentityChanged(ModelNode entity, ActionSelectorComponent component) {
-		allActions(reentrant.andDeferredActions(entity, filter(actionMatching(component),
+		candidateActions(component, reentrant.andDeferredActions(entity, filter(actionMatching(component),
 			whileIgnoringExecuted(entity, executeAction(entity)))));
 	}
 
@@ -84,8 +84,8 @@ public final class ModelActionSystem<T extends ExtensionAware & PluginAware> imp
 		return it -> it.getComponent(componentOf(ModelActionComponent.class)).get().execute(entity);
 	}
 
-	private void allActions(Consumer<? super Iterable<ModelNode>> action) {
-		action.accept(ImmutableList.copyOf(allActionEntities));
+	private void candidateActions(ActionSelectorComponent component, Consumer<? super Iterable<ModelNode>> action) {
+		action.accept(actionIndex.candidates(component.get()));
 	}
 
 	private static Consumer<Iterable<ModelNode>> filter(Predicate<? super ModelNode> filter, Consumer<? super Iterable<ModelNode>> action) {
@@ -137,7 +137,7 @@ public final class ModelActionSystem<T extends ExtensionAware & PluginAware> imp
 	}
 
 	private void trackActions(ModelNode entity, ModelComponentTag<ModelActionTag> tag) {
-		allActionEntities.add(entity);
+		actionIndex.add(entity);
 	}
 
 	private void trackConfigurableEntities(ModelNode entity, ModelComponentTag<ConfigurableTag> tag) {
@@ -34,6 +34,10 @@ final class StateAtLeastSpec implements Spec<DomainObjectIdentity>, ModelSpec {
 		this.state = state;
 	}
 
+	public ModelState getState() {
+		return state;
+	}
+
 	@Override
 	public boolean isSatisfiedBy(DomainObjectIdentity identity) {
 		val value = identity.get(ModelState.class);
@@ -30,6 +30,10 @@ final class WithTypeSpec implements Spec<DomainObjectIdentity>, ModelSpec {
 		this.type = type;
 	}
 
+	public ModelType<?> getType() {
+		return type;
+	}
+
 	@Override
 	public boolean isSatisfiedBy(DomainObjectIdentity identity) {
 		for (ModelType<?> it : identity.getAll(ModelType.class)) {
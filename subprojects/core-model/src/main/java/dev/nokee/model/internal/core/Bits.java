@@ -66,6 +66,9 @@ public final class Bits implements Iterable<Bit> {
 	 */
 	public Bits and(Bits other) {
 		Objects.requireNonNull(other);
+		if (bits.length == 1 && other.bits.length == 1) {
+			return ofBits(bits[0] & other.bits[0]);
+		}
 		int commonWords = Math.min(bits.length, other.bits.length);
 		long[] newBits = new long[commonWords];
 		for (int i = 0; commonWords > i; i++) {
@@ -79,12 +82,18 @@ public final class Bits implements Iterable<Bit> {
 	 * Returns the result of a logical <b>OR</b> between this bit set and the specified bit set.
 	 * This bit set is <b>not</b> modified and returns the result as a new value.
 	 * A bit in the result has the value true if and only if either corresponding bit in operand's bit set has the value true.
+	 * When the result is equal to one of the operands, the operand is returned instead of allocating a new value.
 	 *
 	 * @param other  the other bit set operand, must not be null
-	 * @return a new {@literal Bits} representing the result of the bitwise or operation, never null
+	 * @return a {@literal Bits} representing the result of the bitwise or operation, never null
 	 */
 	public Bits or(Bits other) {
 		Objects.requireNonNull(other);
+		if (containsAll(other)) {
+			return this;
+		} else if (other.containsAll(this)) {
+			return other;
+		}
 		long[] bits = this.bits;
 		long[] otherBits = other.bits;
 		int otherBitsLength = otherBits.length;
@@ -186,6 +195,9 @@ public final class Bits implements Iterable<Bit> {
 		Objects.requireNonNull(other);
 		long[] bits = this.bits;
 		long[] otherBits = other.bits;
+		if (bits.length == 1 && otherBits.length == 1) {
+			return (bits[0] & otherBits[0]) != 0;
+		}
 		for (int i = Math.min(bits.length, otherBits.length) - 1; i >= 0; i--) {
 			if ((bits[i] & otherBits[i]) != 0) {
 				return true;
@@ -207,6 +219,9 @@ public final class Bits implements Iterable<Bit> {
 		long[] otherBits = other.bits;
 		int otherBitsLength = otherBits.length;
 		int bitsLength = bits.length;
+		if (bitsLength == 1 && otherBitsLength == 1) {
+			return (bits[0] & otherBits[0]) == otherBits[0];
+		}
 
 		for (int i = bitsLength; i < otherBitsLength; i++) {
 			if (otherBits[i] != 0) {
@@ -221,6 +236,11 @@ public final class Bits implements Iterable<Bit> {
 		return true;
 	}
 
+	// For MutableBits only, the array must not be modified
+	long[] words() {
+		return bits;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -328,7 +348,7 @@ public final class Bits implements Iterable<Bit> {
 	}
 
 	// For internal use only, removes unset high words
-	private static Bits ofBits(long[] words) {
+	static Bits ofBits(long[] words) {
 		int i = words.length - 1;
 		while (i >= 0 && words[i] == 0) {
 			--i;
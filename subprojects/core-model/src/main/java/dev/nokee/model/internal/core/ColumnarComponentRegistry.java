@@ -0,0 +1,289 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.nokee.model.internal.core;
+
+import javax.annotation.Nullable;
+import java.util.AbstractCollection;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.IntFunction;
+
+/**
+ * Array-backed component storage.
+ * Each entity is assigned a dense row and each component type a dense column.
+ * Components are stored per column, indexed by the entity row, avoiding a map per entity.
+ * Lookup of {@link ModelEntityId} and {@link ModelComponentType} never goes through {@code equals}/{@code hashCode}.
+ */
+public final class ColumnarComponentRegistry implements ComponentRegistry {
+	private static final int NO_INDEX = -1;
+	private final EntityRows rows = new EntityRows();
+	private final Map<Entity.Id, Integer> foreignRows = new HashMap<>();
+	private final Map<Component.Id, Integer> foreignColumns = new HashMap<>();
+	private int[] typeToColumn = new int[64]; // column + 1, zero means unassigned
+	private Component.Id[] columnIds = new Component.Id[64];
+	private Component[][] columns = new Component[64][];
+	private int columnCount = 0;
+	private int[][] rowColumns = new int[1024][];
+	private int[] rowSizes = new int[1024];
+	private int rowCount = 0;
+
+	@Nullable
+	@Override
+	public Component set(Entity.Id entityId, Component.Id componentId, Component newComponent) {
+		Objects.requireNonNull(newComponent);
+		final int row = rowOf(entityId, true);
+		final int column = columnOf(componentId, true);
+
+		Component[] values = columns[column];
+		if (values.length <= row) {
+			values = columns[column] = Arrays.copyOf(values, grow(values.length, row));
+		}
+		final Component oldComponent = values[row];
+		values[row] = newComponent;
+		if (oldComponent == null) {
+			appendColumn(row, column);
+		}
+		return oldComponent;
+	}
+
+	@Nullable
+	@Override
+	public Component get(Entity.Id entityId, Component.Id componentId) {
+		final int row = rowOf(entityId, false);
+		if (row == NO_INDEX) {
+			return null;
+		}
+		final int column = columnOf(componentId, false);
+		if (column == NO_INDEX) {
+			return null;
+		}
+		final Component[] values = columns[column];
+		return row < values.length ? values[row] : null;
+	}
+
+	@Override
+	public Set<Component.Id> getAllIds(Entity.Id entityId) {
+		return new AbstractSet<Component.Id>() {
+			@Override
+			public Iterator<Component.Id> iterator() {
+				return new RowIterator<>(rowOf(entityId, false), column -> columnIds[column]);
+			}
+
+			@Override
+			public int size() {
+				return sizeOf(entityId);
+			}
+		};
+	}
+
+	@Override
+	public Collection<Component> getAll(Entity.Id entityId) {
+		return new AbstractCollection<Component>() {
+			@Override
+			public Iterator<Component> iterator() {
+				final int row = rowOf(entityId, false);
+				return new RowIterator<>(row, column -> columns[column][row]);
+			}
+
+			@Override
+			public int size() {
+				return sizeOf(entityId);
+			}
+		};
+	}
+
+	private int sizeOf(Entity.Id entityId) {
+		final int row = rowOf(entityId, false);
+		return row == NO_INDEX ? 0 : rowSizes[row];
+	}
+
+	private void appendColumn(int row, int column) {
+		int[] values = rowColumns[row];
+		if (values == null) {
+			values = rowColumns[row] = new int[8];
+		} else if (values.length == rowSizes[row]) {
+			values = rowColumns[row] = Arrays.copyOf(values, values.length * 2);
+		}
+		values[rowSizes[row]++] = column;
+	}
+
+	private int rowOf(Entity.Id entityId, boolean allocate) {
+		int result;
+		if (entityId instanceof ModelEntityId) {
+			result = rows.get(((ModelEntityId) entityId).value());
+			if (result == NO_INDEX && allocate) {
+				result = newRow();
+				rows.put(((ModelEntityId) entityId).value(), result);
+			}
+		} else {
+			final Integer row = foreignRows.get(Objects.requireNonNull(entityId));
+			if (row != null) {
+				result = row;
+			} else if (allocate) {
+				result = newRow();
+				foreignRows.put(entityId, result);
+			} else {
+				result = NO_INDEX;
+			}
+		}
+		return result;
+	}
+
+	private int newRow() {
+		if (rowCount == rowSizes.length) {
+			rowSizes = Arrays.copyOf(rowSizes, rowCount * 2);
+			rowColumns = Arrays.copyOf(rowColumns, rowCount * 2);
+		}
+		return rowCount++;
+	}
+
+	private int columnOf(Component.Id componentId, boolean allocate) {
+		if (componentId instanceof ModelComponentType) {
+			final int typeIndex = ((ModelComponentType<?>) componentId).index();
+			if (typeIndex < typeToColumn.length && typeToColumn[typeIndex] != 0) {
+				return typeToColumn[typeIndex] - 1;
+			} else if (!allocate) {
+				return NO_INDEX;
+			}
+
+			if (typeIndex >= typeToColumn.length) {
+				typeToColumn = Arrays.copyOf(typeToColumn, grow(typeToColumn.length, typeIndex));
+			}
+			final int result = newColumn(componentId);
+			typeToColumn[typeIndex] = result + 1;
+			return result;
+		} else {
+			final Integer column = foreignColumns.get(Objects.requireNonNull(componentId));
+			if (column != null) {
+				return column;
+			} else if (!allocate) {
+				return NO_INDEX;
+			}
+
+			final int result = newColumn(componentId);
+			foreignColumns.put(componentId, result);
+			return result;
+		}
+	}
+
+	private int newColumn(Component.Id componentId) {
+		if (columnCount == columns.length) {
+			columns = Arrays.copyOf(columns, columnCount * 2);
+			columnIds = Arrays.copyOf(columnIds, columnCount * 2);
+		}
+		columns[columnCount] = new Component[Math.max(16, rowCount)];
+		columnIds[columnCount] = componentId;
+		return columnCount++;
+	}
+
+	private static int grow(int length, int index) {
+		int result = Math.max(length, 16);
+		while (result <= index) {
+			result *= 2;
+		}
+		return result;
+	}
+
+	private final class RowIterator<T> implements Iterator<T> {
+		private final int row;
+		private final IntFunction<T> mapper;
+		private int next = 0;
+
+		private RowIterator(int row, IntFunction<T> mapper) {
+			this.row = row;
+			this.mapper = mapper;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return row != NO_INDEX && next < rowSizes[row];
+		}
+
+		@Override
+		public T next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			return mapper.apply(rowColumns[row][next++]);
+		}
+	}
+
+	// Open-addressing map from raw entity id to row, avoids boxing ModelEntityId
+	private static final class EntityRows {
+		private static final long EMPTY = Long.MIN_VALUE;
+		private long[] keys = newKeys(1024);
+		private int[] values = new int[1024];
+		private int size = 0;
+
+		public int get(long key) {
+			final int mask = keys.length - 1;
+			for (int i = mix(key) & mask; ; i = (i + 1) & mask) {
+				if (keys[i] == key) {
+					return values[i];
+				} else if (keys[i] == EMPTY) {
+					return NO_INDEX;
+				}
+			}
+		}
+
+		public void put(long key, int value) {
+			if ((size + 1) * 2 > keys.length) {
+				rehash(keys.length * 2);
+			}
+			final int mask = keys.length - 1;
+			int i = mix(key) & mask;
+			while (keys[i] != EMPTY && keys[i] != key) {
+				i = (i + 1) & mask;
+			}
+			if (keys[i] == EMPTY) {
+				++size;
+			}
+			keys[i] = key;
+			values[i] = value;
+		}
+
+		private void rehash(int capacity) {
+			final long[] oldKeys = keys;
+			final int[] oldValues = values;
+			keys = newKeys(capacity);
+			values = new int[capacity];
+			size = 0;
+			for (int i = 0; i < oldKeys.length; ++i) {
+				if (oldKeys[i] != EMPTY) {
+					put(oldKeys[i], oldValues[i]);
+				}
+			}
+		}
+
+		private static long[] newKeys(int capacity) {
+			final long[] result = new long[capacity];
+			Arrays.fill(result, EMPTY);
+			return result;
+		}
+
+		private static int mix(long key) {
+			final long h = key * 0x9E3779B97F4A7C15L;
+			return (int) (h ^ (h >>> 32));
+		}
+	}
+}
@@ -45,21 +45,21 @@ public abstract class ModelComponentType<T> implements Component.Id {
 		} else {
 			val visitor = new TypeVisitor();
 			((ModelType<Object>) modelType).walkTypeHierarchy(visitor);
-			return visitor.result;
+			return visitor.result.toBits();
 		}
 	}
 	private static int typeIndex = 0;
 
 	private static final class TypeVisitor implements ModelType.Visitor<Object> {
-		private Bits result = Bits.empty();
+		private final MutableBits result = new MutableBits();
 
 		@Override
 		public void visitType(ModelType<? super Object> type) {
-			result = result.or(componentBits(type.getType()));
+			result.or(componentBits(type.getType()));
 			if (type.isParameterized()) {
 				// This account for HasNativeCompileTask<CppCompileTask> && HasNativeCompileTask.
 				//    However, it won't account for HasNativeCompileTask<? extends SourceCompile> matching HasNativeCompileTask<CppCompileTask>
-				result = result.or(componentBits(type.getRawType()));
+				result.or(componentBits(type.getRawType()));
 			}
 		}
 	}
@@ -96,6 +96,11 @@ public abstract class ModelComponentType<T> implements Component.Id {
 	private static int id = 0;
 	private final int hashCode = id++;
 
+	// Dense index for columnar storage, see ColumnarComponentRegistry
+	int index() {
+		return hashCode;
+	}
+
 	@Override
 	public boolean equals(Object o) {
 		return this == o;
@@ -50,6 +50,11 @@ public final class ModelEntityId implements Entity.Id {
 		return new ModelEntityId(nextId++);
 	}
 
+	// Raw value for dense storage, see ColumnarComponentRegistry
+	long value() {
+		return id;
+	}
+
 	@Override
 	public String toString() {
 		return String.valueOf(id);
@@ -155,8 +155,11 @@ public final class ModelNode implements Entity, ComponentTagAwareFactory {
 		if (components.get(id, componentType) == null) {
 			throw new RuntimeException();
 		}
-		componentBits = components.getAllIds(id).stream().map(it -> (ModelComponentType<?>) it)
-			.map(ModelComponentType::familyBits).reduce(Bits.empty(), Bits::or);
+		val bits = new MutableBits();
+		for (Component.Id it : components.getAllIds(id)) {
+			bits.or(((ModelComponentType<?>) it).familyBits());
+		}
+		componentBits = bits.toBits();
 		components.set(id, componentType, component);
 	}
 
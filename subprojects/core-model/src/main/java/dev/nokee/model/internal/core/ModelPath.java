@@ -16,38 +16,45 @@
 package dev.nokee.model.internal.core;
 
 import com.google.common.base.Splitter;
-import com.google.common.collect.Iterables;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
 import com.google.common.collect.Iterators;
-import lombok.EqualsAndHashCode;
-import lombok.val;
+import com.google.common.collect.MapMaker;
 
 import javax.annotation.Nullable;
-import java.util.Arrays;
 import java.util.Iterator;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * A path of a model node.
+ * Paths are interned, equal paths are usually the same instance, and share their parent instance.
+ * Each path caches its interned children, weakly, so resolving a known child doesn't allocate.
  */
 // TODO: There should be a way to warn when path 'a.b.c' is compared as 3 components vs 1 components.
-@EqualsAndHashCode
 public final class ModelPath implements Iterable<String> {
 	private static final char PATH_SEPARATOR = '.';
-	private static final int PATH_SEPARATOR_LENGTH = 1;
 	private static final Splitter PATH_SPLITTER = Splitter.on(PATH_SEPARATOR).omitEmptyStrings();
-	private static final ModelPath ROOT = new ModelPath("", new String[0]);
-	@EqualsAndHashCode.Exclude private final String path;
-	private final String[] components;
-
-	@Nullable
-	@EqualsAndHashCode.Exclude
-	private final ModelPath parent;
-
-	private ModelPath(String path, String[] components) {
-		this.path = path;
-		this.components = components;
-		this.parent = doGetParent();
+	private static final Interner<ModelPath> INTERNER = Interners.newWeakInterner();
+	private static final ModelPath ROOT = new ModelPath(null, "");
+	@Nullable private final ModelPath parent;
+	private final String name;
+	private final int depth;
+	private final int hashCode;
+	@Nullable private String path; // lazily computed
+	@Nullable private volatile ConcurrentMap<String, ModelPath> children; // lazily created, weak values
+
+	private ModelPath(@Nullable ModelPath parent, String name) {
+		this.parent = parent;
+		this.name = name;
+		if (parent == null) {
+			this.depth = 0;
+			this.hashCode = 1;
+		} else {
+			this.depth = parent.depth + 1;
+			this.hashCode = 31 * parent.hashCode + name.hashCode();
+		}
 	}
 
 	public static ModelPath root() {
@@ -55,30 +62,69 @@ public final class ModelPath implements Iterable<String> {
 	}
 
 	public static ModelPath path(String path) {
-		return new ModelPath(path, splitPath(path));
+		ModelPath result = ROOT;
+		for (String name : PATH_SPLITTER.split(path)) {
+			result = result.child(name);
+		}
+		return result;
 	}
 
 	public static ModelPath path(Iterable<String> components) {
-		return new ModelPath(String.join(".", components), Iterables.toArray(components, String.class));
+		ModelPath result = ROOT;
+		for (String name : components) {
+			result = result.child(name);
+		}
+		return result;
 	}
 
 	public String get() {
-		return path;
+		String result = path;
+		if (result == null) {
+			if (parent == null) {
+				result = "";
+			} else if (parent.parent == null) {
+				result = name;
+			} else {
+				result = parent.get() + PATH_SEPARATOR + name;
+			}
+			path = result;
+		}
+		return result;
 	}
 
 	public ModelPath child(String name) {
-		if (components.length == 0) {
-			return new ModelPath(name, new String[]{name});
+		final ConcurrentMap<String, ModelPath> children = children();
+		ModelPath result = children.get(Objects.requireNonNull(name));
+		if (result == null) {
+			result = INTERNER.intern(new ModelPath(this, name));
+			final ModelPath previous = children.putIfAbsent(name, result);
+			if (previous != null) {
+				result = previous;
+			}
+		}
+		return result;
+	}
+
+	private ConcurrentMap<String, ModelPath> children() {
+		ConcurrentMap<String, ModelPath> result = children;
+		if (result == null) {
+			synchronized (this) {
+				result = children;
+				if (result == null) {
+					// Weak values, the children are still collected when no longer used, like with the weak interner
+					children = result = new MapMaker().concurrencyLevel(1).weakValues().makeMap();
+				}
+			}
 		}
-		return new ModelPath(path + "." + name, pushElement(components, name));
+		return result;
 	}
 
 	@Override
 	public String toString() {
-		if (components.length == 0) {
+		if (parent == null) {
 			return "<root>";
 		}
-		return path;
+		return get();
 	}
 
 	public Optional<ModelPath> getParent() {
@@ -87,66 +133,31 @@ public final class ModelPath implements Iterable<String> {
 
 	public boolean isDirectDescendant(ModelPath other) {
 		Objects.requireNonNull(other);
-
-		if (other.components.length != components.length + 1) {
-			return false;
-		}
-
-		return other.getParent().map(this::equals).orElse(false);
+		return other.depth == depth + 1 && equals(other.parent);
 	}
 
 	public boolean isDescendant(ModelPath other) {
 		Objects.requireNonNull(other);
 
-		int length = components.length;
-		if (other.components.length <= components.length) {
+		if (other.depth <= depth) {
 			return false;
 		}
 
-		for (int i = 0; i < length; i++) {
-			if (!components[i].equals(other.components[i])) {
-				return false;
-			}
-		}
-		return true;
-	}
-
-	private static String[] splitPath(String path) {
-		return PATH_SPLITTER.splitToStream(path).toArray(String[]::new);
-	}
-
-	private ModelPath doGetParent() {
-		if (components.length == 0) {
-			return null;
-		}
-
-		if (components.length == 1) {
-			return ROOT;
+		ModelPath ancestor = other;
+		while (ancestor.depth > depth) {
+			ancestor = ancestor.parent;
 		}
-
-		return new ModelPath(dropRight(path, nameOf(components).length() + PATH_SEPARATOR_LENGTH), removeLastElement(components));
-	}
-
-	private static String[] pushElement(String[] components, String name) {
-		val result = Arrays.copyOf(components, components.length + 1);
-		result[result.length - 1] = name;
-		return result;
-	}
-
-	private static String[] removeLastElement(String[] components) {
-		return Arrays.copyOf(components, components.length - 1);
-	}
-
-	private static String dropRight(String self, int count) {
-		return self.substring(0, self.length() - count);
-	}
-
-	private static String nameOf(String[] components) {
-		return components[components.length - 1];
+		return equals(ancestor);
 	}
 
 	@Override
 	public Iterator<String> iterator() {
+		final String[] components = new String[depth];
+		ModelPath current = this;
+		for (int i = depth - 1; i >= 0; --i) {
+			components[i] = current.name;
+			current = current.parent;
+		}
 		return Iterators.forArray(components);
 	}
 
@@ -156,9 +167,32 @@ public final class ModelPath implements Iterable<String> {
 	 * @return the name of the path, never null.
 	 */
 	public String getName() {
-		if (components.length == 0) {
-			return "";
+		return name;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		} else if (!(o instanceof ModelPath)) {
+			return false;
 		}
-		return components[components.length - 1];
+
+		// Paths are interned, the structural comparison is only a fallback
+		ModelPath self = this;
+		ModelPath other = (ModelPath) o;
+		while (self != other) {
+			if (self.hashCode != other.hashCode || self.depth != other.depth || !self.name.equals(other.name)) {
+				return false;
+			}
+			self = self.parent;
+			other = other.parent;
+		}
+		return true;
+	}
+
+	@Override
+	public int hashCode() {
+		return hashCode;
 	}
 }
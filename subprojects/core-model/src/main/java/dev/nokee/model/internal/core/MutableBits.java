@@ -0,0 +1,125 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.nokee.model.internal.core;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Represent a mutable compact vector of bits, a companion to {@link Bits}.
+ * Use this class to accumulate bits in place, e.g. while walking a type hierarchy, and snapshot the result via {@link #toBits()}.
+ */
+public final class MutableBits {
+	private long[] words;
+
+	public MutableBits() {
+		this.words = new long[1];
+	}
+
+	/**
+	 * Performs a logical <b>OR</b> of this bit set with the specified bit set.
+	 * This bit set is modified in place.
+	 *
+	 * @param other  the other bit set operand, must not be null
+	 * @return this bit set, never null
+	 */
+	public MutableBits or(Bits other) {
+		Objects.requireNonNull(other);
+		final long[] otherWords = other.words();
+		if (otherWords.length > words.length) {
+			words = Arrays.copyOf(words, otherWords.length);
+		}
+		for (int i = otherWords.length - 1; i >= 0; --i) {
+			words[i] |= otherWords[i];
+		}
+		return this;
+	}
+
+	/**
+	 * Performs a logical <b>AND</b> of this bit set with the specified bit set.
+	 * This bit set is modified in place.
+	 *
+	 * @param other  the other bit set operand, must not be null
+	 * @return this bit set, never null
+	 */
+	public MutableBits and(Bits other) {
+		Objects.requireNonNull(other);
+		final long[] otherWords = other.words();
+		for (int i = words.length - 1; i >= 0; --i) {
+			words[i] &= i < otherWords.length ? otherWords[i] : 0L;
+		}
+		return this;
+	}
+
+	/**
+	 * Returns true if this bit set has any bits set to true that are also set to true in the specified bit set.
+	 *
+	 * @param other  a bit set
+	 * @return boolean indicating whether this bit set intersects the specified bit set
+	 */
+	public boolean intersects(Bits other) {
+		Objects.requireNonNull(other);
+		final long[] otherWords = other.words();
+		for (int i = Math.min(words.length, otherWords.length) - 1; i >= 0; --i) {
+			if ((words[i] & otherWords[i]) != 0) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns true if this bit set is a super set of the specified set.
+	 *
+	 * @param other  a bit set
+	 * @return boolean indicating whether this bit set is a super set of the specified set
+	 */
+	public boolean containsAll(Bits other) {
+		Objects.requireNonNull(other);
+		final long[] otherWords = other.words();
+		for (int i = otherWords.length - 1; i >= 0; --i) {
+			final long word = i < words.length ? words[i] : 0L;
+			if ((word & otherWords[i]) != otherWords[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Clears all bits so this instance can be reused.
+	 *
+	 * @return this bit set, never null
+	 */
+	public MutableBits clear() {
+		Arrays.fill(words, 0L);
+		return this;
+	}
+
+	/**
+	 * Returns an immutable snapshot of this bit set.
+	 *
+	 * @return a {@link Bits} with the same bits set, never null
+	 */
+	public Bits toBits() {
+		return Bits.ofBits(words);
+	}
+
+	@Override
+	public String toString() {
+		return toBits().toString();
+	}
+}
@@ -18,6 +18,9 @@ package dev.nokee.model.internal.plugins;
 import dev.nokee.model.internal.ProjectIdentifier;
 import dev.nokee.model.internal.actions.ModelActionSystem;
 import dev.nokee.model.internal.ancestors.AncestryCapabilityPlugin;
+import dev.nokee.model.internal.core.ColumnarComponentRegistry;
+import dev.nokee.model.internal.core.ComponentRegistry;
+import dev.nokee.model.internal.core.DefaultComponentRegistry;
 import dev.nokee.model.internal.core.DisplayNameComponent;
 import dev.nokee.model.internal.core.IdentifierComponent;
 import dev.nokee.model.internal.core.ModelPath;
@@ -38,20 +41,26 @@ import org.gradle.api.initialization.Settings;
 import org.gradle.api.model.ObjectFactory;
 import org.gradle.api.plugins.ExtensionAware;
 import org.gradle.api.plugins.PluginAware;
+import org.gradle.api.provider.ProviderFactory;
 
 import javax.inject.Inject;
 
+import static dev.nokee.utils.ProviderUtils.forUseAtConfigurationTime;
+
 public class ModelBasePlugin<T extends PluginAware & ExtensionAware> implements Plugin<T> {
+	private static final String COMPONENT_STORAGE_PROPERTY_NAME = "dev.nokee.internal.model.componentStorage";
 	private final PluginTargetSupport pluginScopes = PluginTargetSupport.builder()
 		.withPluginId("dev.nokee.model-base")
 		.forTarget(Settings.class, this::applyToSettings)
 		.forTarget(Project.class, this::applyToProject)
 		.build();
 	private final ObjectFactory objects;
+	private final ProviderFactory providers;
 
 	@Inject
-	ModelBasePlugin(ObjectFactory objects) {
+	ModelBasePlugin(ObjectFactory objects, ProviderFactory providers) {
 		this.objects = objects;
+		this.providers = providers;
 	}
 
 	@Override
@@ -60,7 +69,7 @@ public class ModelBasePlugin<T extends PluginAware & ExtensionAware> implements
 	}
 
 	private <S extends PluginAware & ExtensionAware> void applyToAllTarget(S target) {
-		val modelRegistry = new DefaultModelRegistry(objects::newInstance);
+		val modelRegistry = new DefaultModelRegistry(objects::newInstance, newComponentStorage());
 		target.getExtensions().add(ModelRegistry.class, "__NOKEE_modelRegistry", modelRegistry);
 		target.getExtensions().add(ModelLookup.class, "__NOKEE_modelLookup", modelRegistry);
 		target.getExtensions().add(ModelConfigurer.class, "__NOKEE_modelConfigurer", modelRegistry);
@@ -78,6 +87,16 @@ public class ModelBasePlugin<T extends PluginAware & ExtensionAware> implements
 		modelRegistry.get(ModelPath.root()).addComponent(new DisplayNameComponent(target.toString()));
 	}
 
+	// Use -Pdev.nokee.internal.model.componentStorage=columnar to select the array-backed storage
+	private ComponentRegistry newComponentStorage() {
+		val storage = forUseAtConfigurationTime(providers.gradleProperty(COMPONENT_STORAGE_PROPERTY_NAME)).getOrElse("default");
+		switch (storage) {
+			case "default": return new DefaultComponentRegistry();
+			case "columnar": return new ColumnarComponentRegistry();
+			default: throw new IllegalArgumentException(String.format("Unknown component storage '%s' for property '%s', use 'default' or 'columnar'.", storage, COMPONENT_STORAGE_PROPERTY_NAME));
+		}
+	}
+
 	private void applyToSettings(Settings settings) {
 		applyToAllTarget(settings);
 	}
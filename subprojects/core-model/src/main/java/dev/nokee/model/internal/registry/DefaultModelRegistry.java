@@ -16,9 +16,7 @@
 package dev.nokee.model.internal.registry;
 
 import com.google.common.base.Preconditions;
-import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.Multimap;
 import dev.nokee.internal.reflect.Instantiator;
 import dev.nokee.model.DomainObjectProvider;
 import dev.nokee.model.internal.ModelElementFactory;
@@ -72,11 +70,18 @@ public final class DefaultModelRegistry implements ModelRegistry, ModelConfigure
 	private final BindManagedProjectionService bindingService;
 	private final ModelNode rootNode;
 	private final ModelElementFactory elementFactory;
-	private final Multimap<ModelComponentType<?>, ModelAction> config = ArrayListMultimap.create();
-	private final ComponentRegistry components = new ObservableComponentRegistry(new DefaultComponentRegistry(), nodeStateListener);
+	private final ModelActionTriggers config = new ModelActionTriggers();
+	private final ModelPathIndex pathIndex = new ModelPathIndex();
+	private final ComponentRegistry components;
 
 	public DefaultModelRegistry(Instantiator instantiator) {
+		this(instantiator, new DefaultComponentRegistry());
+	}
+
+	public DefaultModelRegistry(Instantiator instantiator, ComponentRegistry storage) {
 		this.instantiator = instantiator;
+		this.components = new ObservableComponentRegistry(storage, nodeStateListener);
+		configure(ModelActionWithInputs.of(ModelComponentReference.of(ModelPathComponent.class), (node, path) -> pathIndex.update(node, path.get())));
 		this.elementFactory = new ModelElementFactory(instantiator);
 		this.bindingService = new BindManagedProjectionService(instantiator);
 		configure(ModelActionWithInputs.of(ModelComponentReference.of(ModelPathComponent.class), ModelComponentReference.of(ModelState.class), new ModelActionWithInputs.A2<ModelPathComponent, ModelState>() {
@@ -122,6 +127,7 @@ public final class DefaultModelRegistry implements ModelRegistry, ModelConfigure
 		val entity = new ModelNode(components);
 		idToEntities.put(entity.getId(), entity);
 		entities.add(entity);
+		pathIndex.track(entity);
 		entity.addComponent(new ModelPathComponent(path));
 		return entity;
 	}
@@ -140,6 +146,7 @@ public final class DefaultModelRegistry implements ModelRegistry, ModelConfigure
 		val node = new ModelNode(components);
 		idToEntities.put(node.getId(), node);
 		entities.add(node);
+		pathIndex.track(node);
 		return newNode(node, registration);
 	}
 
@@ -177,10 +184,30 @@ public final class DefaultModelRegistry implements ModelRegistry, ModelConfigure
 
 	@Override
 	public Result query(ModelSpec spec) {
-		val result = entities.stream().filter(spec::isSatisfiedBy).collect(ImmutableList.toImmutableList());
+		val result = candidatesOf(spec).stream().filter(spec::isSatisfiedBy).collect(ImmutableList.toImmutableList());
 		return new ModelLookupDefaultResult(result);
 	}
 
+	// Narrows the entities to scan using the path hints of the specification
+	private List<ModelNode> candidatesOf(ModelSpec spec) {
+		val parent = spec.getParent();
+		if (parent.isPresent()) {
+			return pathIndex.getDirectDescendants(parent.get());
+		}
+
+		val path = spec.getPath().flatMap(ModelPath::getParent);
+		if (path.isPresent()) {
+			return pathIndex.getDirectDescendants(path.get());
+		}
+
+		val ancestor = spec.getAncestor();
+		if (ancestor.isPresent()) {
+			return pathIndex.getDescendants(ancestor.get());
+		}
+
+		return entities;
+	}
+
 	@Override
 	public boolean has(ModelPath path) {
 		return nodes.containsKey(Objects.requireNonNull(path));
@@ -188,7 +215,7 @@ public final class DefaultModelRegistry implements ModelRegistry, ModelConfigure
 
 	@Override
 	public boolean anyMatch(ModelSpec spec) {
-		return entities.stream().anyMatch(spec::isSatisfiedBy);
+		return candidatesOf(spec).stream().anyMatch(spec::isSatisfiedBy);
 	}
 
 	@Override
@@ -196,8 +223,9 @@ public final class DefaultModelRegistry implements ModelRegistry, ModelConfigure
 		Objects.requireNonNull(configuration);
 		Preconditions.checkArgument(configuration instanceof HasInputs);
 		configurations.add(configuration);
+		val inputBits = ((HasInputs) configuration).getInputBits();
 		((HasInputs) configuration).getInputs().stream().distinct().forEach(input -> {
-			config.put(input.getType(), configuration);
+			config.add(input.getType(), configuration, inputBits);
 		});
 
 		val size = entities.size();
@@ -208,22 +236,24 @@ public final class DefaultModelRegistry implements ModelRegistry, ModelConfigure
 	}
 
 	private final class NodeStateListener implements ModelNodeListener, ObservableComponentRegistry.Listener {
+		private final ModelComponentType<ModelProjection> projectionType = ModelComponentType.componentOf(ModelProjection.class);
+
 		@Override
 		public void projectionAdded(ModelNode node, ModelComponent newComponent) {
-			List<ModelAction> c = null;
+			final ModelComponentType<?> newComponentType = newComponent.getComponentType();
+			final ModelActionTriggers.Candidates c;
 			if (newComponent instanceof ModelProjection) {
-				c = new ArrayList<>(config.get(ModelComponentType.componentOf(ModelProjection.class)));
+				c = config.get(projectionType, newComponentType);
 			} else {
-				c = new ArrayList<>(config.get(newComponent.getComponentType()));
+				c = config.get(newComponentType, newComponentType);
 			}
 
-			Bits newComponentBits = newComponent.getComponentType().familyBits();
-			c.removeIf(configuration -> !newComponentBits.intersects(((HasInputs) configuration).getInputBits()) || !node.getComponentBits().containsAll(((HasInputs) configuration).getInputBits()));
-
-			for (int i = 0; i < c.size(); ++i) {
-				val configuration = c.get(i);
-				if (newComponentBits.intersects(((HasInputs) configuration).getInputBits())) { // recheck condition in case something changes
-					configuration.execute(node);
+			// Snapshot the entity and the candidates as actions may add components and configurations
+			final Bits nodeBits = node.getComponentBits();
+			final int size = c.size();
+			for (int i = 0; i < size; ++i) {
+				if (nodeBits.containsAll(c.inputBitsAt(i))) {
+					c.actionAt(i).execute(node);
 				}
 			}
 		}
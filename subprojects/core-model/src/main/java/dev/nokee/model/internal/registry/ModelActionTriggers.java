@@ -0,0 +1,125 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.nokee.model.internal.registry;
+
+import dev.nokee.model.internal.core.Bits;
+import dev.nokee.model.internal.core.ModelAction;
+import dev.nokee.model.internal.core.ModelComponentType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Precomputed lookup of the actions triggered by a new component.
+ * Actions are bucketed by input component type.
+ * Each bucket memoizes, per new component type, the actions whose input bits intersect the component family bits.
+ * Lookups are allocation-free once memoized and new actions are appended to every memoized result.
+ */
+final class ModelActionTriggers {
+	private static final Candidates NO_CANDIDATES = new Candidates(new Bucket(), Bits.empty());
+	private final Map<ModelComponentType<?>, Bucket> buckets = new HashMap<>();
+
+	public void add(ModelComponentType<?> inputType, ModelAction action, Bits inputBits) {
+		buckets.computeIfAbsent(inputType, __ -> new Bucket()).add(action, inputBits);
+	}
+
+	/**
+	 * Returns the actions triggered by a new component of the specified type.
+	 * The result keeps growing as new actions are added, callers should snapshot {@link Candidates#size()} before iterating.
+	 *
+	 * @param bucketType  the input type bucket to look into, must not be null
+	 * @param newComponentType  the type of the new component, must not be null
+	 * @return the candidate actions, never null
+	 */
+	public Candidates get(ModelComponentType<?> bucketType, ModelComponentType<?> newComponentType) {
+		final Bucket bucket = buckets.get(bucketType);
+		if (bucket == null) {
+			return NO_CANDIDATES;
+		}
+		return bucket.candidatesFor(newComponentType);
+	}
+
+	private static final class Bucket {
+		private ModelAction[] actions = new ModelAction[4];
+		private Bits[] inputBits = new Bits[4];
+		private int size = 0;
+		private final Map<ModelComponentType<?>, Candidates> candidatesByType = new HashMap<>();
+		private final List<Candidates> allCandidates = new ArrayList<>();
+
+		public void add(ModelAction action, Bits bits) {
+			if (size == actions.length) {
+				actions = Arrays.copyOf(actions, size * 2);
+				inputBits = Arrays.copyOf(inputBits, size * 2);
+			}
+			actions[size] = action;
+			inputBits[size] = bits;
+			for (Candidates candidates : allCandidates) {
+				candidates.offer(size);
+			}
+			++size;
+		}
+
+		public Candidates candidatesFor(ModelComponentType<?> newComponentType) {
+			Candidates result = candidatesByType.get(newComponentType);
+			if (result == null) {
+				result = new Candidates(this, newComponentType.familyBits());
+				for (int i = 0; i < size; ++i) {
+					result.offer(i);
+				}
+				candidatesByType.put(newComponentType, result);
+				allCandidates.add(result);
+			}
+			return result;
+		}
+	}
+
+	static final class Candidates {
+		private final Bucket bucket;
+		private final Bits familyBits;
+		private int[] indices = new int[0];
+		private int size = 0;
+
+		private Candidates(Bucket bucket, Bits familyBits) {
+			this.bucket = bucket;
+			this.familyBits = familyBits;
+		}
+
+		// Indices are only ever appended, a snapshot of the size stays valid while new actions are added
+		private void offer(int index) {
+			if (familyBits.intersects(bucket.inputBits[index])) {
+				if (size == indices.length) {
+					indices = Arrays.copyOf(indices, Math.max(4, size * 2));
+				}
+				indices[size++] = index;
+			}
+		}
+
+		public int size() {
+			return size;
+		}
+
+		public ModelAction actionAt(int i) {
+			return bucket.actions[indices[i]];
+		}
+
+		public Bits inputBitsAt(int i) {
+			return bucket.inputBits[indices[i]];
+		}
+	}
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.nokee.model.internal.registry;
+
+import dev.nokee.model.internal.core.Entity;
+import dev.nokee.model.internal.core.ModelNode;
+import dev.nokee.model.internal.core.ModelPath;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Parent-children index of the entities by their {@link ModelPath}.
+ * The index is maintained incrementally as entities are instantiated and their path assigned.
+ * Results are returned in instantiation order, the same order as a scan over all entities.
+ */
+final class ModelPathIndex {
+	private static final Comparator<Entry> INSTANTIATION_ORDER = Comparator.comparingInt(it -> it.order);
+	private final Map<Entity.Id, Entry> entries = new HashMap<>();
+	private final Map<ModelPath, List<Entry>> children = new HashMap<>();
+	private int nextOrder = 0;
+
+	/**
+	 * Tracks a newly instantiated entity.
+	 *
+	 * @param entity  the new entity, must not be null
+	 */
+	public void track(ModelNode entity) {
+		entries.put(entity.getId(), new Entry(nextOrder++, entity));
+	}
+
+	/**
+	 * Updates the path of the specified entity.
+	 *
+	 * @param entity  a tracked entity, must not be null
+	 * @param path  the new entity path, must not be null
+	 */
+	public void update(ModelNode entity, ModelPath path) {
+		final Entry entry = entries.get(entity.getId());
+		if (entry == null || path.equals(entry.path)) {
+			return;
+		}
+
+		if (entry.path != null) {
+			entry.path.getParent().ifPresent(parent -> children.get(parent).remove(entry));
+		}
+		entry.path = path;
+		path.getParent().ifPresent(parent -> insert(children.computeIfAbsent(parent, __ -> new ArrayList<>()), entry));
+	}
+
+	// Entities are mostly indexed in instantiation order, avoid searching when appending
+	private static void insert(List<Entry> entries, Entry entry) {
+		if (entries.isEmpty() || entries.get(entries.size() - 1).order < entry.order) {
+			entries.add(entry);
+		} else {
+			final int index = Collections.binarySearch(entries, entry, INSTANTIATION_ORDER);
+			entries.add(-(index + 1), entry);
+		}
+	}
+
+	/**
+	 * Returns the entities directly under the specified path.
+	 *
+	 * @param parent  the parent path, must not be null
+	 * @return a list of entities, never null
+	 */
+	public List<ModelNode> getDirectDescendants(ModelPath parent) {
+		final List<Entry> entries = children.getOrDefault(parent, Collections.emptyList());
+		final List<ModelNode> result = new ArrayList<>(entries.size());
+		for (Entry entry : entries) {
+			result.add(entry.entity);
+		}
+		return result;
+	}
+
+	/**
+	 * Returns all entities under the specified path.
+	 *
+	 * @param ancestor  the ancestor path, must not be null
+	 * @return a list of entities, never null
+	 */
+	public List<ModelNode> getDescendants(ModelPath ancestor) {
+		final List<Entry> entries = new ArrayList<>();
+		collectDescendants(ancestor, entries, new HashSet<>());
+		entries.sort(INSTANTIATION_ORDER);
+		final List<ModelNode> result = new ArrayList<>(entries.size());
+		for (Entry entry : entries) {
+			result.add(entry.entity);
+		}
+		return result;
+	}
+
+	private void collectDescendants(ModelPath ancestor, List<Entry> result, Set<ModelPath> visited) {
+		if (visited.add(ancestor)) {
+			for (Entry entry : children.getOrDefault(ancestor, Collections.emptyList())) {
+				result.add(entry);
+				collectDescendants(entry.path, result, visited);
+			}
+		}
+	}
+
+	private static final class Entry {
+		private final int order;
+		private final ModelNode entity;
+		@Nullable private ModelPath path;
+
+		private Entry(int order, ModelNode entity) {
+			this.order = order;
+			this.entity = entity;
+		}
+	}
+}
@@ -66,11 +66,18 @@ class BitsSingleWordTest implements BitsTester {
 		);
 	}
 
-//	@Test
-//	void returnsSameBitsWhenOrOperationOnSameBits() {
-//		val bits = ofBits(0b1);
-//		assertSame(bits, bits.or(bits));
-//	}
+	@Test
+	void returnsSameBitsWhenOrOperationOnSameBits() {
+		val bits = ofBits(0b1);
+		assertSame(bits, bits.or(bits));
+	}
+
+	@Test
+	void returnsSupersetBitsWhenOrOperationOnSubsetBits() {
+		val bits = ofBits(0b1011);
+		assertSame(bits, bits.or(ofBits(0b10)));
+		assertSame(bits, ofBits(0b10).or(bits));
+	}
 
 	@Test
 	void returnsAllActivatedBitsFromBothBitsDuringOrOperation() {
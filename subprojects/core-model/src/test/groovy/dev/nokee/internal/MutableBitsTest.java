@@ -0,0 +1,85 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.nokee.internal;
+
+import dev.nokee.model.internal.core.MutableBits;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import static dev.nokee.model.internal.core.Bits.empty;
+import static dev.nokee.model.internal.core.Bits.nthBit;
+import static dev.nokee.model.internal.core.Bits.ofBits;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MutableBitsTest {
+	private final MutableBits subject = new MutableBits();
+
+	@Test
+	void hasNoBitsOnNewInstance() {
+		assertEquals(empty(), subject.toBits());
+	}
+
+	@Test
+	void accumulatesBitsInPlaceDuringOrOperation() {
+		subject.or(ofBits(0b101)).or(ofBits(0b11));
+		assertEquals(ofBits(0b111), subject.toBits());
+	}
+
+	@Test
+	void growsWhenOrOperationWithMultiWordsBits() {
+		subject.or(ofBits(0b1)).or(nthBit(130));
+		assertEquals(ofBits(0b1).or(nthBit(130)), subject.toBits());
+	}
+
+	@Test
+	void keepsOnlyCommonBitsDuringAndOperation() {
+		subject.or(ofBits(0b1101)).or(nthBit(70)).and(ofBits(0b0110));
+		assertEquals(ofBits(0b100), subject.toBits());
+	}
+
+	@Test
+	void canCheckIntersection() {
+		subject.or(ofBits(0b1010));
+		assertTrue(subject.intersects(ofBits(0b10)));
+		assertFalse(subject.intersects(ofBits(0b101)));
+		assertFalse(subject.intersects(nthBit(200)));
+	}
+
+	@Test
+	void canCheckContainsAll() {
+		subject.or(ofBits(0b1010));
+		assertTrue(subject.containsAll(ofBits(0b1000)));
+		assertTrue(subject.containsAll(empty()));
+		assertFalse(subject.containsAll(ofBits(0b1011)));
+		assertFalse(subject.containsAll(nthBit(200)));
+	}
+
+	@Test
+	void canClearBitsForReuse() {
+		subject.or(nthBit(100)).clear();
+		assertEquals(empty(), subject.toBits());
+	}
+
+	@Test
+	void returnsImmutableSnapshot() {
+		subject.or(ofBits(0b1));
+		val snapshot = subject.toBits();
+		subject.or(ofBits(0b10));
+		assertEquals(ofBits(0b1), snapshot);
+	}
+}
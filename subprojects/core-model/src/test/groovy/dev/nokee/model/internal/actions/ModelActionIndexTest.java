@@ -0,0 +1,114 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.nokee.model.internal.actions;
+
+import com.google.common.collect.ImmutableSet;
+import dev.nokee.model.internal.core.ModelNode;
+import dev.nokee.model.internal.state.ModelState;
+import org.junit.jupiter.api.Test;
+
+import static dev.nokee.model.internal.actions.ModelSpec.descendantOf;
+import static dev.nokee.model.internal.actions.ModelSpec.ownedBy;
+import static dev.nokee.model.internal.actions.ModelSpec.self;
+import static dev.nokee.model.internal.actions.ModelSpec.stateAtLeast;
+import static dev.nokee.model.internal.actions.ModelSpec.subtypeOf;
+import static dev.nokee.model.internal.type.ModelType.of;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.emptyIterable;
+
+class ModelActionIndexTest {
+	private final ModelActionIndex subject = new ModelActionIndex();
+	private final ModelNode target = new ModelNode();
+	private final ModelNode parent = new ModelNode();
+
+	private ModelNode action(ModelSpec spec) {
+		final ModelNode result = new ModelNode();
+		result.addComponent(new ModelSpecComponent(spec));
+		subject.add(result);
+		return result;
+	}
+
+	@Test
+	void returnsActionsMatchingSelfReference() {
+		final ModelNode action = action(self(target.getId()));
+		action(self(parent.getId()));
+
+		assertThat(subject.candidates(DomainObjectIdentity.of(new SelfRef(target.getId()))), contains(action));
+	}
+
+	@Test
+	void returnsActionsMatchingParentReference() {
+		final ModelNode action = action(ownedBy(parent.getId()).and(stateAtLeast(ModelState.Realized)));
+		action(ownedBy(target.getId()));
+
+		assertThat(subject.candidates(DomainObjectIdentity.of(new ParentRef(parent.getId()))), contains(action));
+	}
+
+	@Test
+	void returnsActionsMatchingAnyAncestorReferences() {
+		final ModelNode action = action(descendantOf(parent.getId()));
+		action(descendantOf(target.getId()));
+
+		assertThat(subject.candidates(DomainObjectIdentity.of(ImmutableSet.of(new AncestorRef(parent.getId())))), contains(action));
+	}
+
+	@Test
+	void returnsActionsMatchingSupertypes() {
+		final ModelNode action0 = action(subtypeOf(of(Object.class)));
+		final ModelNode action1 = action(subtypeOf(of(CharSequence.class)).and(stateAtLeast(ModelState.Created)));
+		action(subtypeOf(of(Integer.class)));
+
+		assertThat(subject.candidates(DomainObjectIdentity.of(ImmutableSet.of(of(String.class)))), contains(action0, action1));
+	}
+
+	@Test
+	void returnsActionsMatchingLowerStates() {
+		final ModelNode action0 = action(stateAtLeast(ModelState.Created));
+		action(stateAtLeast(ModelState.Finalized));
+		final ModelNode action2 = action(stateAtLeast(ModelState.Registered));
+
+		assertThat(subject.candidates(DomainObjectIdentity.of(ModelState.Registered)), contains(action0, action2));
+	}
+
+	@Test
+	void alwaysReturnsActionsWithoutIndexableSpecification() {
+		final ModelNode action0 = action(new ModelSpec() {});
+		final ModelNode action1 = new ModelNode();
+		subject.add(action1);
+
+		assertThat(subject.candidates(DomainObjectIdentity.of(ModelState.Registered)), contains(action0, action1));
+	}
+
+	@Test
+	void returnsCandidatesInRegistrationOrder() {
+		final ModelNode action0 = action(stateAtLeast(ModelState.Created));
+		final ModelNode action1 = action(self(target.getId()));
+		final ModelNode action2 = action(subtypeOf(of(String.class)));
+
+		assertThat(subject.candidates(DomainObjectIdentity.of(ModelState.Created)
+				.with(new SelfRef(target.getId())).plus(of(String.class))),
+			contains(action0, action1, action2));
+	}
+
+	@Test
+	void returnsNoCandidatesForEmptyIdentity() {
+		action(self(target.getId()));
+		action(stateAtLeast(ModelState.Created));
+
+		assertThat(subject.candidates(DomainObjectIdentity.of(ImmutableSet.of())), emptyIterable());
+	}
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.nokee.model.internal.core;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import static dev.nokee.model.fixtures.ModelEntityTestUtils.aComponentId;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.emptyIterable;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+class ColumnarComponentRegistryTests {
+	ComponentRegistry subject = new ColumnarComponentRegistry();
+	ModelEntityId entityId = ModelEntityId.nextId();
+	Component component = Mockito.mock(ModelComponent.class);
+
+	@Test
+	void returnsNullForUnknownEntity() {
+		assertThat(subject.get(entityId, ModelComponentType.componentOf(ModelComponent.class)), nullValue());
+	}
+
+	@Test
+	void returnsNoComponentsForUnknownEntity() {
+		assertThat(subject.getAll(entityId), emptyIterable());
+		assertThat(subject.getAllIds(entityId), emptyIterable());
+	}
+
+	@Test
+	void canRetrieveComponentByModelComponentType() {
+		final Component.Id componentId = ModelComponentType.componentOf(ModelComponent.class);
+		assertThat(subject.set(entityId, componentId, component), nullValue());
+		assertThat(subject.get(entityId, componentId), sameInstance(component));
+		assertThat(subject.get(ModelEntityId.nextId(), componentId), nullValue());
+	}
+
+	@Test
+	void canRetrieveComponentByForeignComponentId() {
+		final Component.Id componentId = aComponentId();
+		subject.set(entityId, componentId, component);
+		assertThat(subject.get(entityId, componentId), sameInstance(component));
+		assertThat(subject.get(entityId, aComponentId()), nullValue());
+	}
+
+	@Test
+	void returnsPreviousComponentWhenReplacing() {
+		final Component.Id componentId = aComponentId();
+		final Component newComponent = Mockito.mock(ModelComponent.class);
+		subject.set(entityId, componentId, component);
+		assertThat(subject.set(entityId, componentId, newComponent), sameInstance(component));
+		assertThat(subject.get(entityId, componentId), sameInstance(newComponent));
+		assertThat(subject.getAll(entityId), contains(newComponent));
+	}
+
+	@Test
+	void keepsComponentsInInsertionOrder() {
+		final Component.Id firstId = aComponentId();
+		final Component.Id secondId = aComponentId();
+		final Component secondComponent = Mockito.mock(ModelComponent.class);
+		subject.set(entityId, secondId, secondComponent);
+		subject.set(entityId, firstId, component);
+		assertThat(subject.getAllIds(entityId), contains(secondId, firstId));
+		assertThat(subject.getAll(entityId), contains(secondComponent, component));
+	}
+
+	@Test
+	void canStoreManyEntities() {
+		final Component.Id componentId = aComponentId();
+		final ModelEntityId[] ids = new ModelEntityId[5000];
+		final Component[] components = new Component[ids.length];
+		for (int i = 0; i < ids.length; ++i) {
+			ids[i] = ModelEntityId.nextId();
+			components[i] = new Component() {};
+			subject.set(ids[i], componentId, components[i]);
+		}
+		for (int i = 0; i < ids.length; ++i) {
+			assertThat(subject.get(ids[i], componentId), sameInstance(components[i]));
+			assertThat(subject.get(ModelEntityId.ofId(Long.parseLong(ids[i].toString())), componentId), sameInstance(components[i]));
+		}
+	}
+}
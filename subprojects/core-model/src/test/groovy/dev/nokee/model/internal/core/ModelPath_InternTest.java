@@ -0,0 +1,62 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.nokee.model.internal.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static dev.nokee.model.internal.core.ModelPath.path;
+import static dev.nokee.model.internal.core.ModelPath.root;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+class ModelPath_InternTest {
+    @Test
+    void equalPathsAreSameInstance() {
+        assertAll(() -> {
+            assertThat(path("a.b"), sameInstance(path("a.b")));
+            assertThat(path("a.b"), sameInstance(path("a").child("b")));
+            assertThat(path("a.b"), sameInstance(root().child("a").child("b")));
+            assertThat(path("a.b"), sameInstance(path(Arrays.asList("a", "b"))));
+            assertThat(path("a.b"), sameInstance(path("a..b")));
+        });
+    }
+
+    @Test
+    void childrenShareParentInstance() {
+        assertAll(() -> {
+            assertThat(path("a.b").getParent().get(), sameInstance(path("a.c").getParent().get()));
+            assertThat(path("a.b.c").getParent().get(), sameInstance(path("a.b")));
+            assertThat(path("a").getParent().get(), sameInstance(root()));
+        });
+    }
+
+    @Test
+    void concurrentChildLookupsReturnSameInstance() {
+        final ModelPath parent = path("concurrent");
+        final Set<ModelPath> children = Collections.newSetFromMap(new IdentityHashMap<>());
+        children.addAll(IntStream.range(0, 1000).parallel().mapToObj(it -> parent.child("child")).collect(Collectors.toList()));
+        assertThat(children, contains(sameInstance(path("concurrent.child"))));
+    }
+}
@@ -48,4 +48,21 @@ public class ModelPath_PathTest {
             assertThat(path("w.x").getParent().map(ModelPath::get), optionalWithValue(equalTo("w")));
         });
     }
+
+    @Test
+    void normalizesEmptyComponentsOfStringPath() {
+        assertAll(() -> {
+            assertEquals("a.b", path("a..b").get());
+            assertEquals("a.b", path(".a.b.").get());
+            assertEquals("", path("..").get());
+        });
+    }
+
+    @Test
+    void normalizedPathIsEqualToPathWithoutEmptyComponents() {
+        assertAll(() -> {
+            assertEquals(path("a.b"), path("a..b"));
+            assertEquals(root(), path(""));
+        });
+    }
 }
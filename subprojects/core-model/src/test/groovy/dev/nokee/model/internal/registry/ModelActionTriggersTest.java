@@ -0,0 +1,77 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.nokee.model.internal.registry;
+
+import dev.nokee.model.internal.core.ModelAction;
+import dev.nokee.model.internal.core.ModelComponent;
+import dev.nokee.model.internal.core.ModelComponentType;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import static dev.nokee.model.internal.core.ModelComponentType.componentOf;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ModelActionTriggersTest {
+	private final ModelActionTriggers subject = new ModelActionTriggers();
+	private final ModelComponentType<MyComponent> type = componentOf(MyComponent.class);
+	private final ModelComponentType<MyOtherComponent> otherType = componentOf(MyOtherComponent.class);
+
+	@Test
+	void hasNoCandidatesForUnknownInputType() {
+		assertEquals(0, subject.get(type, type).size());
+	}
+
+	@Test
+	void returnsActionsInRegistrationOrder() {
+		final ModelAction action0 = Mockito.mock(ModelAction.class);
+		final ModelAction action1 = Mockito.mock(ModelAction.class);
+		subject.add(type, action0, type.familyBits());
+		subject.add(type, action1, type.familyBits().or(otherType.familyBits()));
+
+		final ModelActionTriggers.Candidates candidates = subject.get(type, type);
+		assertEquals(2, candidates.size());
+		assertSame(action0, candidates.actionAt(0));
+		assertSame(action1, candidates.actionAt(1));
+		assertEquals(type.familyBits().or(otherType.familyBits()), candidates.inputBitsAt(1));
+	}
+
+	@Test
+	void excludesActionsNotIntersectingNewComponentFamily() {
+		final ModelAction action = Mockito.mock(ModelAction.class);
+		subject.add(type, action, otherType.familyBits());
+
+		assertEquals(0, subject.get(type, type).size());
+	}
+
+	@Test
+	void appendsNewActionsToMemoizedCandidates() {
+		final ModelAction action0 = Mockito.mock(ModelAction.class);
+		final ModelAction action1 = Mockito.mock(ModelAction.class);
+		subject.add(type, action0, type.familyBits());
+		final ModelActionTriggers.Candidates candidates = subject.get(type, type);
+		final int snapshot = candidates.size();
+
+		subject.add(type, action1, type.familyBits());
+		assertEquals(1, snapshot);
+		assertEquals(2, candidates.size());
+		assertSame(candidates, subject.get(type, type));
+		assertSame(action1, candidates.actionAt(1));
+	}
+
+	interface MyComponent extends ModelComponent {}
+	interface MyOtherComponent extends ModelComponent {}
+}
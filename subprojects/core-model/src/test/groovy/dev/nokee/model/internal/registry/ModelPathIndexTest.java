@@ -0,0 +1,84 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.nokee.model.internal.registry;
+
+import dev.nokee.model.internal.core.ModelNode;
+import org.junit.jupiter.api.Test;
+
+import static dev.nokee.model.internal.core.ModelPath.path;
+import static dev.nokee.model.internal.core.ModelPath.root;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.emptyIterable;
+
+class ModelPathIndexTest {
+	private final ModelPathIndex subject = new ModelPathIndex();
+
+	private ModelNode entity(String path) {
+		final ModelNode result = new ModelNode();
+		subject.track(result);
+		subject.update(result, path(path));
+		return result;
+	}
+
+	@Test
+	void returnsNoDescendantsForUnknownPath() {
+		assertThat(subject.getDirectDescendants(path("foo")), emptyIterable());
+		assertThat(subject.getDescendants(path("foo")), emptyIterable());
+	}
+
+	@Test
+	void returnsDirectDescendantsOnly() {
+		final ModelNode foo = entity("foo");
+		final ModelNode bar = entity("foo.bar");
+		entity("foo.bar.far");
+		final ModelNode baz = entity("foo.baz");
+
+		assertThat(subject.getDirectDescendants(root()), contains(foo));
+		assertThat(subject.getDirectDescendants(path("foo")), contains(bar, baz));
+	}
+
+	@Test
+	void returnsAllDescendantsInInstantiationOrder() {
+		entity("foo");
+		final ModelNode bar = entity("foo.bar");
+		final ModelNode baz = entity("foo.baz");
+		final ModelNode far = entity("foo.bar.far");
+
+		assertThat(subject.getDescendants(path("foo")), contains(bar, baz, far));
+	}
+
+	@Test
+	void movesEntityWhenPathChanges() {
+		final ModelNode first = new ModelNode();
+		final ModelNode second = new ModelNode();
+		subject.track(first);
+		subject.track(second);
+		subject.update(second, path("foo.second"));
+		subject.update(first, path("bar.first"));
+		subject.update(first, path("foo.first"));
+
+		assertThat(subject.getDirectDescendants(path("bar")), emptyIterable());
+		assertThat(subject.getDirectDescendants(path("foo")), contains(first, second));
+	}
+
+	@Test
+	void ignoresUntrackedEntities() {
+		subject.update(new ModelNode(), path("foo.bar"));
+
+		assertThat(subject.getDirectDescendants(path("foo")), emptyIterable());
+	}
+}
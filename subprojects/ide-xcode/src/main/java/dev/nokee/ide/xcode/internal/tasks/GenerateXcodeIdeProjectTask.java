@@ -60,7 +60,6 @@ import org.gradle.api.tasks.TaskAction;
 
 import javax.inject.Inject;
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.util.Arrays;
@@ -90,6 +89,15 @@ public abstract class GenerateXcodeIdeProjectTask extends DefaultTask {
 	@Internal
 	public abstract ListProperty<String> getAdditionalGradleArguments();
 
+	/**
+	 * Only rewrites the generated files which content changed and deletes the stale schemes.
+	 * When disabled, the project directory is deleted and everything is generated again.
+	 *
+	 * @return the property for incremental generation, never null
+	 */
+	@Internal
+	public abstract Property<Boolean> getIncrementalGeneration();
+
 	@Inject
 	public GenerateXcodeIdeProjectTask(XcodeIdeProject xcodeProject) {
 		this.xcodeProject = xcodeProject;
@@ -113,8 +121,11 @@ public abstract class GenerateXcodeIdeProjectTask extends DefaultTask {
 	@TaskAction
 	private void generate() throws IOException {
 		File projectDirectory = getProjectLocation().get().getAsFile();
-		FileUtils.deleteDirectory(projectDirectory);
+		if (!getIncrementalGeneration().getOrElse(true)) {
+			FileUtils.deleteDirectory(projectDirectory);
+		}
 		projectDirectory.mkdirs();
+		final GeneratedFiles generatedFiles = new GeneratedFiles();
 
 		PBXProject.Builder projectBuilder = PBXProject.builder();
 
@@ -150,47 +161,58 @@ public abstract class GenerateXcodeIdeProjectTask extends DefaultTask {
 
 		PBXProject project = projectBuilder.build();
 
-		// Convert to PBXProj model
-		val pbxproj = new PBXObjectArchiver(getGidGenerator().get()).encode(project);
+		// Convert to PBXProj model, the objects are only encoded when written to keep the memory bounded
+		val pbxproj = new PBXObjectArchiver(getGidGenerator().get()).encodeOnDemand(project);
 
+		// Only the targets are needed for the schemes, keep their encoded fields
+		val targets = pbxproj.getObjects().stream().filter(this::isPBXTarget).map(it -> new PBXObjectReference(it.getGlobalID(), it.getFields())).collect(ImmutableList.toImmutableList());
 
 		// Do the schemes... using PBXProj model as it has GlobalIDs
 		File schemesDirectory = new File(projectDirectory, "xcshareddata/xcschemes");
 		schemesDirectory.mkdirs();
-		pbxproj.getObjects().stream().filter(this::isPBXTarget).filter(this::notTestingOrIndexingTarget).forEach(targetRef -> {
+		targets.stream().filter(this::notTestingOrIndexingTarget).forEach(targetRef -> {
 			ImmutableList.Builder<XCScheme.BuildAction.BuildActionEntry> buildActionBuilder = ImmutableList.builder();
 			buildActionBuilder.add(new XCScheme.BuildAction.BuildActionEntry(false, true, false, false, false, newBuildableReference(targetRef)));
 
 			ImmutableList.Builder<XCScheme.TestAction.TestableReference> testActionBuilder = ImmutableList.builder();
 
-			pbxproj.getObjects().stream().filter(this::isPBXTarget).filter(this::isTestingTarget).forEach(it -> {
+			targets.stream().filter(this::isTestingTarget).forEach(it -> {
 				buildActionBuilder.add(new XCScheme.BuildAction.BuildActionEntry(true, false, false, false, false, newBuildableReference(it)));
 
 				testActionBuilder.add(new XCScheme.TestAction.TestableReference(newBuildableReference(it)));
 			});
 
-			try (val writer = new XCSchemeWriter(new FileWriter(new File(schemesDirectory, targetRef.getFields().get("name") + ".xcscheme")))) {
-				writer.write(new XCScheme(
-					new XCScheme.BuildAction(buildActionBuilder.build()),
-					new XCScheme.TestAction(testActionBuilder.build()),
-					new XCScheme.LaunchAction(XcodeIdeProductType.of(targetRef.getFields().get("productType").toString()).equals(XcodeIdeProductTypes.DYNAMIC_LIBRARY) ? null : new XCScheme.LaunchAction.BuildableProductRunnable(newBuildableReference(targetRef)))
-				));
+			try {
+				generatedFiles.generate(new File(schemesDirectory, targetRef.getFields().get("name") + ".xcscheme"), out -> {
+					try (val writer = new XCSchemeWriter(out)) {
+						writer.write(new XCScheme(
+							new XCScheme.BuildAction(buildActionBuilder.build()),
+							new XCScheme.TestAction(testActionBuilder.build()),
+							new XCScheme.LaunchAction(XcodeIdeProductType.of(targetRef.getFields().get("productType").toString()).equals(XcodeIdeProductTypes.DYNAMIC_LIBRARY) ? null : new XCScheme.LaunchAction.BuildableProductRunnable(newBuildableReference(targetRef)))
+						));
+					}
+				});
 			} catch (IOException e) {
 				throw new UncheckedIOException(e);
 			}
 		});
+		generatedFiles.deleteStaleFiles(schemesDirectory, it -> it.getName().endsWith(".xcscheme"));
 
 		// Write the PBXProj file
-		try (val writer = new PBXProjWriter(new FileWriter(new File(projectDirectory, "project.pbxproj")))) {
-			writer.write(pbxproj);
-		}
+		generatedFiles.generate(new File(projectDirectory, "project.pbxproj"), out -> {
+			try (val writer = new PBXProjWriter(out)) {
+				writer.write(pbxproj);
+			}
+		});
 
 		// Write the WorkspaceSettings file
-		File workspaceSettingsFile = new File(projectDirectory, "project.xcworkspace/xcshareddata/WorkspaceSettings.xcsettings");
-		workspaceSettingsFile.getParentFile().mkdirs();
-		try (val writer = new WorkspaceSettingsWriter(new FileWriter(workspaceSettingsFile))) {
-			writer.write(WorkspaceSettings.builder().put(WorkspaceSettings.AutoCreateSchemes.Disabled).build());
-		}
+		generatedFiles.generate(new File(projectDirectory, "project.xcworkspace/xcshareddata/WorkspaceSettings.xcsettings"), out -> {
+			try (val writer = new WorkspaceSettingsWriter(out)) {
+				writer.write(WorkspaceSettings.builder().put(WorkspaceSettings.AutoCreateSchemes.Disabled).build());
+			}
+		});
+
+		getLogger().info("Rewrote {} of {} generated files for Xcode project '{}'.", generatedFiles.getWrittenFileCount(), generatedFiles.getGeneratedFileCount(), projectDirectory.getName());
 	}
 
 	private boolean notTestingOrIndexingTarget(PBXObjectReference reference) {
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.nokee.ide.xcode.internal.tasks;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileFilter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Writes generated files, leaving untouched the files which content is already up-to-date.
+ * Tools watching the files, e.g. Xcode, only reload what actually changed.
+ *
+ * <p>Each file is first written next to its destination, so the content is never held in memory.
+ */
+final class GeneratedFiles {
+	private final Set<File> generatedFiles = new HashSet<>();
+	private int writtenFileCount = 0;
+
+	/**
+	 * Generates the specified file, only replacing the existing file if the content differs.
+	 *
+	 * @param file  the file to generate, must not be null
+	 * @param action  the action writing the content, the writer may be closed by the action
+	 * @throws IOException if the file could not be generated
+	 */
+	public void generate(File file, GenerateAction action) throws IOException {
+		generatedFiles.add(file);
+		final Path path = file.toPath();
+		Files.createDirectories(path.getParent());
+		final Path temporaryFile = path.resolveSibling(path.getFileName() + ".tmp");
+		try {
+			try (Writer writer = Files.newBufferedWriter(temporaryFile, StandardCharsets.UTF_8)) {
+				action.execute(writer);
+			}
+
+			if (hasSameContent(temporaryFile, path)) {
+				Files.delete(temporaryFile);
+			} else {
+				Files.move(temporaryFile, path, StandardCopyOption.REPLACE_EXISTING);
+				++writtenFileCount;
+			}
+		} finally {
+			Files.deleteIfExists(temporaryFile);
+		}
+	}
+
+	/**
+	 * Deletes the files in the specified directory matching the filter which were not generated.
+	 *
+	 * @param directory  the directory to clean, must not be null
+	 * @param filter  the files to consider, must not be null
+	 * @throws IOException if a stale file could not be deleted
+	 */
+	public void deleteStaleFiles(File directory, FileFilter filter) throws IOException {
+		final File[] files = directory.listFiles(filter);
+		if (files == null) {
+			return; // no directory, nothing to delete
+		}
+		for (File file : files) {
+			if (!generatedFiles.contains(file)) {
+				Files.delete(file.toPath());
+			}
+		}
+	}
+
+	public int getGeneratedFileCount() {
+		return generatedFiles.size();
+	}
+
+	public int getWrittenFileCount() {
+		return writtenFileCount;
+	}
+
+	private static boolean hasSameContent(Path actual, Path expected) throws IOException {
+		if (!Files.isRegularFile(expected) || Files.size(actual) != Files.size(expected)) {
+			return false;
+		}
+
+		try (InputStream actualStream = new BufferedInputStream(Files.newInputStream(actual)); InputStream expectedStream = new BufferedInputStream(Files.newInputStream(expected))) {
+			final byte[] actualBuffer = new byte[8192];
+			final byte[] expectedBuffer = new byte[8192];
+			int count;
+			while ((count = actualStream.read(actualBuffer)) != -1) {
+				int offset = 0;
+				while (offset < count) {
+					final int n = expectedStream.read(expectedBuffer, offset, count - offset);
+					if (n == -1) {
+						return false;
+					}
+					offset += n;
+				}
+				for (int i = 0; i < count; ++i) {
+					if (actualBuffer[i] != expectedBuffer[i]) {
+						return false;
+					}
+				}
+			}
+			return expectedStream.read() == -1;
+		}
+	}
+
+	interface GenerateAction {
+		void execute(Writer writer) throws IOException;
+	}
+}
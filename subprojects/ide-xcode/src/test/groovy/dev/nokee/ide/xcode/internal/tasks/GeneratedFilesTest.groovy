@@ -0,0 +1,128 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.nokee.ide.xcode.internal.tasks
+
+import org.junit.Rule
+import org.junit.rules.TemporaryFolder
+import spock.lang.Specification
+import spock.lang.Subject
+
+@Subject(GeneratedFiles)
+class GeneratedFilesTest extends Specification {
+	@Rule TemporaryFolder temporaryFolder = new TemporaryFolder()
+	def subject = new GeneratedFiles()
+
+	private static GeneratedFiles.GenerateAction content(String text) {
+		return { Writer writer -> writer.write(text) } as GeneratedFiles.GenerateAction
+	}
+
+	def "writes missing files"() {
+		given:
+		def file = new File(temporaryFolder.root, 'App.xcodeproj/project.pbxproj')
+
+		when:
+		subject.generate(file, content('// !$*UTF8*$!'))
+
+		then:
+		file.text == '// !$*UTF8*$!'
+		subject.generatedFileCount == 1
+		subject.writtenFileCount == 1
+		temporaryFolder.root.listFiles().every { !it.name.endsWith('.tmp') }
+	}
+
+	def "does not rewrite files with unchanged content"() {
+		given:
+		def file = temporaryFolder.newFile('project.pbxproj')
+		file.text = 'same content'
+		file.lastModified = 1000L
+
+		when:
+		subject.generate(file, content('same content'))
+
+		then:
+		file.text == 'same content'
+		file.lastModified() == 1000L
+		subject.generatedFileCount == 1
+		subject.writtenFileCount == 0
+		!new File(temporaryFolder.root, 'project.pbxproj.tmp').exists()
+	}
+
+	def "rewrites files with changed content"() {
+		given:
+		def file = temporaryFolder.newFile('project.pbxproj')
+		file.text = 'old content'
+		file.lastModified = 1000L
+
+		when:
+		subject.generate(file, content('new content'))
+
+		then:
+		file.text == 'new content'
+		file.lastModified() != 1000L
+		subject.writtenFileCount == 1
+	}
+
+	def "rewrites files with same length but different content"() {
+		given:
+		def file = temporaryFolder.newFile('project.pbxproj')
+		file.text = 'abc'
+
+		when:
+		subject.generate(file, content('abd'))
+
+		then:
+		file.text == 'abd'
+		subject.writtenFileCount == 1
+	}
+
+	def "writes content as UTF-8"() {
+		given:
+		def file = new File(temporaryFolder.root, 'App.xcscheme')
+
+		when:
+		subject.generate(file, content('Grüße'))
+
+		then:
+		file.getText('UTF-8') == 'Grüße'
+	}
+
+	def "deletes stale files matching the filter only"() {
+		given:
+		def schemesDirectory = temporaryFolder.newFolder('xcschemes')
+		def staleScheme = new File(schemesDirectory, 'Stale.xcscheme')
+		staleScheme.text = 'stale'
+		def otherFile = new File(schemesDirectory, 'xcschememanagement.plist')
+		otherFile.text = 'kept'
+		def generatedScheme = new File(schemesDirectory, 'App.xcscheme')
+
+		when:
+		subject.generate(generatedScheme, content('scheme'))
+		subject.deleteStaleFiles(schemesDirectory, { File it -> it.name.endsWith('.xcscheme') } as FileFilter)
+
+		then:
+		!staleScheme.exists()
+		generatedScheme.text == 'scheme'
+		otherFile.text == 'kept'
+	}
+
+	def "ignores missing directory when deleting stale files"() {
+		when:
+		subject.deleteStaleFiles(new File(temporaryFolder.root, 'missing'), { true } as FileFilter)
+
+		then:
+		noExceptionThrown()
+	}
+}
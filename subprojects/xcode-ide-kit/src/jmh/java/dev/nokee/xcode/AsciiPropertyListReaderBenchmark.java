@@ -0,0 +1,84 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.nokee.xcode;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.StringReader;
+import java.nio.CharBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the ANTLR-based and streaming ASCII property list readers on generated multi-megabyte pbxproj documents.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class AsciiPropertyListReaderBenchmark {
+	@Param({"10000", "50000"}) // ~1.8MB and ~9MB
+	public int objectCount;
+
+	private String content;
+
+	@Setup
+	public void setup() {
+		final StringBuilder builder = new StringBuilder();
+		builder.append("// !$*UTF8*$!\n{\n\tarchiveVersion = 1;\n\tclasses = {\n\t};\n\tobjectVersion = 46;\n\tobjects = {\n");
+		for (int i = 0; i < objectCount; ++i) {
+			builder.append(String.format("\t\t%024X /* File%d.swift in Sources */ = {isa = PBXBuildFile; fileRef = %024X /* File%d.swift */; settings = {COMPILER_FLAGS = \"-Wall \\\"-DNAME=%d\\\"\"; ATTRIBUTES = (Public, ); }; };\n", i, i, i + objectCount, i, i));
+		}
+		builder.append("\t};\n\trootObject = 000000000000000000000000 /* Project object */;\n}\n");
+		content = builder.toString();
+	}
+
+	@Benchmark
+	public void antlr(Blackhole blackhole) {
+		consume(new AsciiPropertyListReader(new StringReader(content)), blackhole);
+	}
+
+	@Benchmark
+	public void streaming(Blackhole blackhole) {
+		consume(new StreamingAsciiPropertyListReader(new StringReader(content)), blackhole);
+	}
+
+	@Benchmark
+	public void streamingFromCharBuffer(Blackhole blackhole) {
+		consume(new StreamingAsciiPropertyListReader(CharBuffer.wrap(content)), blackhole);
+	}
+
+	private static void consume(PropertyListReader reader, Blackhole blackhole) {
+		while (reader.hasNext()) {
+			switch (reader.next()) {
+				case DICTIONARY_KEY:
+					blackhole.consume(reader.readDictionaryKey());
+					break;
+				case STRING:
+					blackhole.consume(reader.readString());
+					break;
+				default:
+					break;
+			}
+		}
+	}
+}
@@ -230,7 +230,7 @@ public final class AsciiPropertyListReader implements PropertyListReader {
 		}
 	}
 
-	private static String unescapeString(String s) {
+	static String unescapeString(String s) {
 		if (s.contains("\\")) {
 			final StringBuilder builder = new StringBuilder();
 			new CodePointIterator(s).forEachRemaining(builder::appendCodePoint);
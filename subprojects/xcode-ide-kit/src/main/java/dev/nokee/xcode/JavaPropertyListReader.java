@@ -63,7 +63,22 @@ public final class JavaPropertyListReader implements Closeable {
 		}
 
 		public void skipObject() {
-			readObject();
+			// Walk the events without decoding the values
+			int depth = 0;
+			do {
+				switch (reader.next()) {
+					case DICTIONARY_START:
+					case ARRAY_START:
+						++depth;
+						break;
+					case DICTIONARY_END:
+					case ARRAY_END:
+						--depth;
+						break;
+					default:
+						break; // keys and scalar values
+				}
+			} while (depth > 0);
 		}
 
 		public Map<String, Object> readDict() {
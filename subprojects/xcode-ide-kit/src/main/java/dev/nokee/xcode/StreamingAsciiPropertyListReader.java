@@ -0,0 +1,432 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.nokee.xcode;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.CharBuffer;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Pull-parser for old-style ASCII property lists.
+ * It tokenizes the characters as events are requested, without building a parse tree, so memory is constant regardless of the document size.
+ * It produces the same events as {@link AsciiPropertyListReader}, but syntax errors are only reported when reaching the offending token.
+ */
+public final class StreamingAsciiPropertyListReader implements PropertyListReader {
+	private static final int EOF = -1;
+	private static final byte DICT = 0;
+	private static final byte ARRAY = 1;
+
+	private enum State {
+		START_DOCUMENT,
+		DOCUMENT_VALUE,
+		AFTER_DOCUMENT_VALUE,
+		DICT_KEY_OR_END,
+		DICT_VALUE,
+		AFTER_DICT_VALUE,
+		ARRAY_ELEMENT_OR_END,
+		AFTER_ARRAY_ELEMENT,
+		DONE
+	}
+
+	private final Reader reader;
+	private final CharBuffer source;
+	private final char[] buffer;
+	private int position = 0;
+	private int limit = 0;
+	private long bufferOffset = 0; // offset of buffer[0] within the input
+	private int line = 1;
+	private int column = 0;
+
+	private final StringBuilder token = new StringBuilder();
+	private byte[] containers = new byte[16];
+	private int depth = 0;
+	private State state = State.START_DOCUMENT;
+	private Event current;
+
+	public StreamingAsciiPropertyListReader(Reader reader) {
+		this.reader = reader;
+		this.source = null;
+		this.buffer = new char[8192];
+	}
+
+	/**
+	 * Creates a reader over the specified characters, e.g. a decoded memory-mapped file.
+	 *
+	 * @param source  the characters to read, must not be null
+	 */
+	public StreamingAsciiPropertyListReader(CharBuffer source) {
+		this.reader = null;
+		this.source = source;
+		this.buffer = new char[Math.min(8192, source.remaining() + 2)]; // small sources, e.g. a single object, don't need a full buffer
+	}
+
+	@Override
+	public Event next() {
+		while (true) {
+			switch (state) {
+				case START_DOCUMENT:
+					state = State.DOCUMENT_VALUE;
+					return current = Event.DOCUMENT_START;
+				case DOCUMENT_VALUE: {
+					final int c = skipIgnorable();
+					if (c == EOF) {
+						state = State.DONE;
+						return current = Event.DOCUMENT_END;
+					}
+					return current = readValue(c);
+				}
+				case AFTER_DOCUMENT_VALUE:
+					if (skipIgnorable() != EOF) {
+						throw syntaxError("extraneous input after document value");
+					}
+					state = State.DONE;
+					return current = Event.DOCUMENT_END;
+				case DICT_KEY_OR_END: {
+					final int c = skipIgnorable();
+					if (c == '}') {
+						read();
+						return current = endContainer(Event.DICTIONARY_END);
+					} else if (!isStringStart(c)) {
+						throw syntaxError(c == EOF ? "unexpected end of input, expecting '}' or dictionary key" : String.format("unexpected '%c', expecting '}' or dictionary key", (char) c));
+					}
+					readStringToken(c);
+					if (skipIgnorable() != '=') {
+						throw syntaxError("expecting '=' after dictionary key");
+					}
+					read();
+					state = State.DICT_VALUE;
+					return current = Event.DICTIONARY_KEY;
+				}
+				case DICT_VALUE:
+					return current = readValue(skipIgnorable());
+				case AFTER_DICT_VALUE:
+					if (skipIgnorable() != ';') {
+						throw syntaxError("expecting ';' after dictionary value");
+					}
+					read();
+					state = State.DICT_KEY_OR_END;
+					break; // continue with the next key
+				case ARRAY_ELEMENT_OR_END: {
+					final int c = skipIgnorable();
+					if (c == ')') {
+						read();
+						return current = endContainer(Event.ARRAY_END);
+					}
+					return current = readValue(c);
+				}
+				case AFTER_ARRAY_ELEMENT: {
+					final int c = skipIgnorable();
+					if (c == ',') {
+						read();
+						state = State.ARRAY_ELEMENT_OR_END; // trailing comma allowed
+					} else if (c == ')') {
+						read();
+						return current = endContainer(Event.ARRAY_END);
+					} else {
+						throw syntaxError("expecting ',' or ')' after array element");
+					}
+					break;
+				}
+				case DONE:
+				default:
+					throw new NoSuchElementException("DOCUMENT_END reached: no more elements on the stream.");
+			}
+		}
+	}
+
+	/**
+	 * Returns the offset, in characters, of the next unread character.
+	 * After a {@link Event#DICTIONARY_KEY} event, it's the offset following the {@code =} separator.
+	 * After a container end event, it's the offset following the closing character.
+	 *
+	 * @return the current offset within the input
+	 */
+	public long getOffset() {
+		return bufferOffset + position;
+	}
+
+	@Override
+	public boolean hasNext() {
+		return state != State.DONE;
+	}
+
+	private Event readValue(int c) {
+		switch (c) {
+			case '{':
+				read();
+				push(DICT);
+				state = State.DICT_KEY_OR_END;
+				return Event.DICTIONARY_START;
+			case '(':
+				read();
+				push(ARRAY);
+				state = State.ARRAY_ELEMENT_OR_END;
+				return Event.ARRAY_START;
+			case '<':
+				readDataToken();
+				completeValue();
+				return Event.DATA;
+			default:
+				if (!isStringStart(c)) {
+					throw syntaxError(c == EOF ? "unexpected end of input, expecting value" : String.format("unexpected '%c', expecting value", (char) c));
+				}
+				readStringToken(c);
+				completeValue();
+				return Event.STRING;
+		}
+	}
+
+	private Event endContainer(Event event) {
+		--depth;
+		completeValue();
+		return event;
+	}
+
+	private void completeValue() {
+		if (depth == 0) {
+			state = State.AFTER_DOCUMENT_VALUE;
+		} else if (containers[depth - 1] == DICT) {
+			state = State.AFTER_DICT_VALUE;
+		} else {
+			state = State.AFTER_ARRAY_ELEMENT;
+		}
+	}
+
+	private void push(byte container) {
+		if (depth == containers.length) {
+			containers = Arrays.copyOf(containers, depth * 2);
+		}
+		containers[depth++] = container;
+	}
+
+	//region Tokenizer
+	private static boolean isStringStart(int c) {
+		return c == '"' || isUnquotedStringCharacter(c);
+	}
+
+	private static boolean isUnquotedStringCharacter(int c) {
+		return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+			|| c == '.' || c == '/' || c == '_' || c == '$' || c == '-' || c == ':';
+	}
+
+	// Keeps escape sequences as-is, the token is unescaped on read (dictionary keys are never unescaped)
+	private void readStringToken(int c) {
+		token.setLength(0);
+		if (c == '"') {
+			read();
+			for (int ch = read(); ch != '"'; ch = read()) {
+				if (ch == EOF) {
+					throw syntaxError("unterminated quoted string");
+				}
+				token.append((char) ch);
+				if (ch == '\\') {
+					final int escaped = read();
+					if (escaped == EOF) {
+						throw syntaxError("unterminated quoted string");
+					}
+					token.append((char) escaped);
+				}
+			}
+		} else {
+			while (isUnquotedStringCharacter(peek())) {
+				token.append((char) read());
+			}
+		}
+	}
+
+	private void readDataToken() {
+		token.setLength(0);
+		read(); // '<'
+		for (int ch = read(); ch != '>'; ch = read()) {
+			if (ch == EOF) {
+				throw syntaxError("unterminated data");
+			} else if (Character.digit(ch, 16) >= 0) {
+				token.append((char) ch);
+			} else if (ch != ' ') {
+				throw syntaxError(String.format("unexpected '%c' in data", (char) ch));
+			}
+		}
+	}
+
+	// Skips whitespaces, comments and any unrecognized characters (same as the grammar), returns the next significant character
+	private int skipIgnorable() {
+		while (true) {
+			final int c = peek();
+			if (c == EOF || c == '{' || c == '}' || c == '(' || c == ')' || c == '<' || c == '=' || c == ';' || c == ',' || c == '"') {
+				return c;
+			} else if (c == '/') {
+				final int next = peekNext();
+				if (next == '*') {
+					skipBlockComment();
+				} else if (next == '/') {
+					skipLineComment();
+				} else {
+					return c;
+				}
+			} else if (isUnquotedStringCharacter(c)) {
+				return c;
+			} else {
+				read();
+			}
+		}
+	}
+
+	private void skipBlockComment() {
+		read();
+		read();
+		for (int c = read(); c != EOF; c = read()) {
+			if (c == '*' && peek() == '/') {
+				read();
+				return;
+			}
+		}
+		throw syntaxError("unterminated comment");
+	}
+
+	private void skipLineComment() {
+		for (int c = peek(); c != EOF && c != '\n' && c != '\r'; c = peek()) {
+			read();
+		}
+	}
+
+	private int peek() {
+		if (position == limit && !fill(0)) {
+			return EOF;
+		}
+		return buffer[position];
+	}
+
+	private int peekNext() {
+		if (limit - position < 2 && !fill(1)) {
+			return EOF;
+		}
+		return buffer[position + 1];
+	}
+
+	private int read() {
+		final int c = peek();
+		if (c != EOF) {
+			++position;
+			if (c == '\n') {
+				++line;
+				column = 0;
+			} else {
+				++column;
+			}
+		}
+		return c;
+	}
+
+	// Refills the buffer keeping the unread characters, returns true if more than {@code keep} characters are available
+	private boolean fill(int keep) {
+		final int remaining = limit - position;
+		System.arraycopy(buffer, position, buffer, 0, remaining);
+		bufferOffset += position;
+		position = 0;
+		limit = remaining;
+		while (limit <= keep) {
+			final int count = readInto(buffer, limit, buffer.length - limit);
+			if (count < 0) {
+				return false;
+			}
+			limit += count;
+		}
+		return true;
+	}
+
+	private int readInto(char[] buffer, int offset, int length) {
+		if (source != null) {
+			if (!source.hasRemaining()) {
+				return EOF;
+			}
+			final int count = Math.min(length, source.remaining());
+			source.get(buffer, offset, count);
+			return count;
+		}
+
+		try {
+			return reader.read(buffer, offset, length);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private RuntimeException syntaxError(String message) {
+		return new IllegalStateException("line " + line + ":" + column + " " + message);
+	}
+	//endregion
+
+	@Override
+	public String readDictionaryKey() {
+		if (current != Event.DICTIONARY_KEY) {
+			throw new UnsupportedOperationException();
+		}
+		return token.toString();
+	}
+
+	@Override
+	public byte[] readData() {
+		if (current != Event.DATA) {
+			throw new UnsupportedOperationException();
+		}
+		final byte[] result = new byte[token.length()];
+		for (int i = 0; i < result.length; ++i) {
+			result[i] = (byte) Character.digit(token.charAt(i), 16);
+		}
+		return result;
+	}
+
+	@Override
+	public LocalDateTime readDate() {
+		return LocalDateTime.parse(readString());
+	}
+
+	@Override
+	public boolean readBoolean() {
+		return Boolean.parseBoolean(readString());
+	}
+
+	@Override
+	public String readString() {
+		if (current == Event.DICTIONARY_KEY) {
+			throw new UnsupportedOperationException("Use readDictionaryKey instead of readString because although a dictionary key in ASCII format are string, both differ in meaning.");
+		} else if (current != Event.STRING) {
+			throw new UnsupportedOperationException();
+		}
+		return AsciiPropertyListReader.unescapeString(token.toString());
+	}
+
+	@Override
+	public long readInteger() {
+		return Long.parseLong(readString());
+	}
+
+	@Override
+	public float readReal() {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (reader != null) {
+			reader.close();
+		}
+	}
+}
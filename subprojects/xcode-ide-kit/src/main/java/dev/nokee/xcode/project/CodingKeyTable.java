@@ -0,0 +1,75 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.nokee.xcode.project;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+
+import javax.annotation.Nullable;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Known coding keys of a keyed object indexed by name.
+ * The tables are interned, all objects of the same {@code isa} share the same table.
+ */
+final class CodingKeyTable {
+	private static final Interner<CodingKeyTable> TABLES = Interners.newWeakInterner();
+	private final ImmutableSet<CodingKey> keys;
+	@Nullable private volatile Map<String, CodingKey> keysByName = null;
+
+	private CodingKeyTable(ImmutableSet<CodingKey> keys) {
+		this.keys = keys;
+	}
+
+	public static CodingKeyTable of(Set<CodingKey> keys) {
+		if (keys instanceof ImmutableSet) {
+			return TABLES.intern(new CodingKeyTable((ImmutableSet<CodingKey>) keys));
+		}
+		return TABLES.intern(new CodingKeyTable(ImmutableSet.copyOf(keys)));
+	}
+
+	public Set<CodingKey> keys() {
+		return keys;
+	}
+
+	@Nullable
+	public CodingKey get(String name) {
+		Map<String, CodingKey> result = keysByName;
+		if (result == null) {
+			final Map<String, CodingKey> builder = new LinkedHashMap<>();
+			keys.forEach(key -> builder.putIfAbsent(key.getName(), key));
+			keysByName = result = ImmutableMap.copyOf(builder);
+		}
+		return result.get(name);
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		return o instanceof CodingKeyTable && keys.equals(((CodingKeyTable) o).keys);
+	}
+
+	@Override
+	public int hashCode() {
+		return keys.hashCode();
+	}
+}
@@ -17,12 +17,10 @@ package dev.nokee.xcode.project;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
-import com.google.common.collect.MoreCollectors;
 import lombok.EqualsAndHashCode;
 import lombok.val;
 
 import javax.annotation.Nullable;
-import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
@@ -33,14 +31,20 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.Predicate;
-import java.util.stream.Collectors;
 
+/**
+ * Keyed object layering values over an optional parent object.
+ *
+ * <p>Building an object over another {@code DefaultKeyedObject} collapses both layers (see {@link Builder#build()}),
+ * so repeatedly modified objects never grow a chain of parents.
+ * Decoding and mapping are linear in the number of keys, the known keys are indexed by name in a table shared by all objects with the same keys.
+ */
 @EqualsAndHashCode
 public final class DefaultKeyedObject implements KeyedObject {
-	@EqualsAndHashCode.Exclude private final long age = System.nanoTime(); // signal this object is newer than parent
+	@EqualsAndHashCode.Exclude private final long age = KeyedObjectAge.next(); // signal this object is newer than parent
 	private final KeyedObject parent;
 	private final ImmutableMap<CodingKey, Object> values;
-	private final Set<CodingKey> knownKeys;
+	private final CodingKeyTable knownKeys;
 
 	public DefaultKeyedObject(ImmutableMap<CodingKey, Object> values) {
 		this(null, values, values.keySet());
@@ -51,6 +55,10 @@ public final class DefaultKeyedObject implements KeyedObject {
 	}
 
 	public DefaultKeyedObject(KeyedObject parent, ImmutableMap<CodingKey, Object> values, Set<CodingKey> knownKeys) {
+		this(parent, values, CodingKeyTable.of(knownKeys));
+	}
+
+	private DefaultKeyedObject(KeyedObject parent, ImmutableMap<CodingKey, Object> values, CodingKeyTable knownKeys) {
 		this.parent = parent;
 		this.values = values;
 		this.knownKeys = knownKeys;
@@ -71,16 +79,16 @@ public final class DefaultKeyedObject implements KeyedObject {
 		if (parent == null) {
 			return values;
 		} else {
-			val result = new LinkedHashMap<CodingKey, Object>();
-			result.putAll(parent.getAsMap().entrySet().stream().map(it -> {
-				val key = it.getKey();
-				val knownKey = knownKeys.stream().filter(t -> key.getName().equals(t.getName())).collect(MoreCollectors.toOptional());
-				if (knownKey.isPresent()) {
-					return new AbstractMap.SimpleImmutableEntry<>(knownKey.get(), tryDecode(knownKey.get()));
+			final Map<CodingKey, Object> parentValues = parent.getAsMap();
+			val result = new LinkedHashMap<CodingKey, Object>(Math.max(16, (parentValues.size() + values.size()) * 4 / 3 + 1));
+			parentValues.forEach((key, value) -> {
+				final CodingKey knownKey = knownKeys.get(key.getName());
+				if (knownKey != null) {
+					result.put(knownKey, tryDecode(knownKey));
 				} else {
-					return it;
+					result.put(key, value);
 				}
-			}).collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue)));
+			});
 			result.putAll(values);
 			return result;
 		}
@@ -165,7 +173,18 @@ public final class DefaultKeyedObject implements KeyedObject {
 					builder.put(k, v);
 				}
 			});
-			DefaultKeyedObject result = new DefaultKeyedObject(parent, ImmutableMap.copyOf(builder), knownKeys);
+			DefaultKeyedObject result;
+			if (parent instanceof DefaultKeyedObject) {
+				// Collapse both layers, values of this builder win
+				final DefaultKeyedObject parentObject = (DefaultKeyedObject) parent;
+				final LinkedHashMap<CodingKey, Object> values = new LinkedHashMap<>(parentObject.values);
+				values.putAll(builder);
+				final Set<CodingKey> keys = new HashSet<>(parentObject.knownKeys.keys());
+				keys.addAll(knownKeys);
+				result = new DefaultKeyedObject(parentObject.parent, ImmutableMap.copyOf(values), keys);
+			} else {
+				result = new DefaultKeyedObject(parent, ImmutableMap.copyOf(builder), knownKeys);
+			}
 			if (!lenient) {
 				for (Predicate<? super KeyedObject> requirement : requirements) {
 					if (!requirement.test(result)) {
@@ -15,20 +15,30 @@
  */
 package dev.nokee.xcode.project;
 
-import com.google.common.collect.Sets;
-
 import java.util.Set;
 
 /**
  * Generator for Global ID (GID) which are present on every xcode project object.
  *
  * The GID is a 96 bit identifier that's unique on a per-project basis.
+ *
+ * <p>This class is thread-safe.
+ * For the same sequence of calls, the generated GIDs are always the same.
  */
 public class GidGenerator {
-	private final Set<String> generatedAndReservedIds;
+	private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+	// Each GID is kept as its upper 64 bits (class name hash and object hash) and its counter
+	private final LongIntSet generatedAndReservedIds = new LongIntSet();
+	// Next counter to try for the upper 64 bits, all lower counters are known to be taken
+	private final LongIntMap nextCounters = new LongIntMap();
 
 	public GidGenerator(Set<String> reservedIds) {
-		generatedAndReservedIds = Sets.newHashSet(reservedIds);
+		for (String reservedId : reservedIds) {
+			// Only uppercase 24 hex digits IDs can collide with generated IDs
+			if (isGeneratedForm(reservedId)) {
+				generatedAndReservedIds.add(Long.parseUnsignedLong(reservedId.substring(0, 16), 16), Integer.parseUnsignedInt(reservedId.substring(16), 16));
+			}
+		}
 	}
 
 	/**
@@ -42,12 +52,147 @@ public class GidGenerator {
 	 * @return new global ID
 	 */
 	public String generateGid(String pbxClassName, int hash) {
-		int counter = 0;
-		String gid;
-		do {
-			gid = String.format("%08X%08X%08X", pbxClassName.hashCode(), hash, counter++);
-		} while (generatedAndReservedIds.contains(gid));
-		generatedAndReservedIds.add(gid);
-		return gid;
+		final long prefix = ((long) pbxClassName.hashCode() << 32) | (hash & 0xFFFFFFFFL);
+		final int counter;
+		synchronized (this) {
+			int candidate = nextCounters.get(prefix);
+			while (!generatedAndReservedIds.add(prefix, candidate)) {
+				++candidate;
+			}
+			nextCounters.put(prefix, candidate + 1);
+			counter = candidate;
+		}
+		return toHexString(prefix, counter);
+	}
+
+	private static String toHexString(long prefix, int counter) {
+		final char[] result = new char[24];
+		for (int i = 15; i >= 0; --i) {
+			result[i] = HEX_DIGITS[(int) (prefix & 0xF)];
+			prefix >>>= 4;
+		}
+		for (int i = 23; i >= 16; --i) {
+			result[i] = HEX_DIGITS[counter & 0xF];
+			counter >>>= 4;
+		}
+		return new String(result);
+	}
+
+	private static boolean isGeneratedForm(String id) {
+		if (id.length() != 24) {
+			return false;
+		}
+		for (int i = 0; i < id.length(); ++i) {
+			final char c = id.charAt(i);
+			if (!(c >= '0' && c <= '9') && !(c >= 'A' && c <= 'F')) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	// Open addressing set of (long, int) pairs, avoids boxing and the string form of each GID
+	private static final class LongIntSet {
+		private long[] highs = new long[1024];
+		private int[] lows = new int[1024];
+		private boolean[] used = new boolean[1024];
+		private int size = 0;
+
+		public boolean add(long high, int low) {
+			if (size * 4 >= highs.length * 3) {
+				resize();
+			}
+			final int mask = highs.length - 1;
+			for (int i = indexOf(high, low) & mask; ; i = (i + 1) & mask) {
+				if (!used[i]) {
+					used[i] = true;
+					highs[i] = high;
+					lows[i] = low;
+					++size;
+					return true;
+				} else if (highs[i] == high && lows[i] == low) {
+					return false;
+				}
+			}
+		}
+
+		private void resize() {
+			final long[] oldHighs = highs;
+			final int[] oldLows = lows;
+			final boolean[] oldUsed = used;
+			highs = new long[oldHighs.length * 2];
+			lows = new int[oldHighs.length * 2];
+			used = new boolean[oldHighs.length * 2];
+			size = 0;
+			for (int i = 0; i < oldHighs.length; ++i) {
+				if (oldUsed[i]) {
+					add(oldHighs[i], oldLows[i]);
+				}
+			}
+		}
+
+		private static int indexOf(long high, int low) {
+			return mix(high * 31 + low);
+		}
+	}
+
+	// Open addressing map of long to int, missing keys map to 0
+	private static final class LongIntMap {
+		private long[] keys = new long[1024];
+		private int[] values = new int[1024];
+		private boolean[] used = new boolean[1024];
+		private int size = 0;
+
+		public int get(long key) {
+			final int mask = keys.length - 1;
+			for (int i = mix(key) & mask; used[i]; i = (i + 1) & mask) {
+				if (keys[i] == key) {
+					return values[i];
+				}
+			}
+			return 0;
+		}
+
+		public void put(long key, int value) {
+			if (size * 4 >= keys.length * 3) {
+				resize();
+			}
+			final int mask = keys.length - 1;
+			int i = mix(key) & mask;
+			while (used[i] && keys[i] != key) {
+				i = (i + 1) & mask;
+			}
+			if (!used[i]) {
+				used[i] = true;
+				keys[i] = key;
+				++size;
+			}
+			values[i] = value;
+		}
+
+		private void resize() {
+			final long[] oldKeys = keys;
+			final int[] oldValues = values;
+			final boolean[] oldUsed = used;
+			keys = new long[oldKeys.length * 2];
+			values = new int[oldKeys.length * 2];
+			used = new boolean[oldKeys.length * 2];
+			size = 0;
+			for (int i = 0; i < oldKeys.length; ++i) {
+				if (oldUsed[i]) {
+					put(oldKeys[i], oldValues[i]);
+				}
+			}
+		}
+	}
+
+	private static int mix(long h) {
+		// MurmurHash3 finalizer
+		h ^= h >>> 33;
+		h *= 0xff51afd7ed558ccdL;
+		h ^= h >>> 33;
+		h *= 0xc4ceb9fe1a85ec53L;
+		h ^= h >>> 33;
+		return (int) h;
 	}
 }
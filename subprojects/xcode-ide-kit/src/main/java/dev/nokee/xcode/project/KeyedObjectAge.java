@@ -0,0 +1,32 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.nokee.xcode.project;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Source of the {@link Codeable#age() age} of keyed objects.
+ * A counter is cheaper than {@link System#nanoTime()} and two objects never share the same age.
+ */
+final class KeyedObjectAge {
+	private static final AtomicLong COUNTER = new AtomicLong();
+
+	private KeyedObjectAge() {}
+
+	public static long next() {
+		return COUNTER.incrementAndGet();
+	}
+}
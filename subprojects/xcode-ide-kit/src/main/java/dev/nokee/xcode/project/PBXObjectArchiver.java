@@ -22,6 +22,7 @@ import dev.nokee.xcode.project.coders.DefaultBycopyObject;
 import dev.nokee.xcode.project.coders.DefaultByrefObject;
 import lombok.val;
 
+import javax.annotation.Nullable;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
@@ -48,12 +49,28 @@ public final class PBXObjectArchiver {
 	}
 
 	public <T extends PBXProject> PBXProj encode(T obj) {
+		return encode(obj, false);
+	}
+
+	/**
+	 * Encodes the specified project without retaining the encoded fields.
+	 * The object graph is traversed eagerly to assign the global IDs, but the fields of each object are encoded again on each access.
+	 * Writing the result using {@link PBXProjWriter} only holds the fields of one object at a time.
+	 *
+	 * @param obj  the project to encode, must not be null
+	 * @return the encoded project, never null
+	 */
+	public <T extends PBXProject> PBXProj encodeOnDemand(T obj) {
+		return encode(obj, true);
+	}
+
+	private <T extends PBXProject> PBXProj encode(T obj, boolean onDemand) {
 		Map<Encodeable, String> encodedObjects = new HashMap<>();
 		Map<String, Encodeable> objectsToEncode = new HashMap<>();
 		Map<String, PBXObjectReference> objectsToRef = new LinkedHashMap<>();
 
 		val rootObjectGid = globalIdOf(encodedObjects, (Encodeable) obj);
-		mark(objectsToRef, encodedObjects, objectsToEncode, rootObjectGid, (Encodeable) obj);
+		mark(objectsToRef, encodedObjects, objectsToEncode, rootObjectGid, (Encodeable) obj, onDemand);
 
 		PBXObjects.Builder objects = PBXObjects.builder();
 		for (PBXObjectReference value : objectsToRef.values()) {
@@ -62,19 +79,29 @@ public final class PBXObjectArchiver {
 		return PBXProj.builder().objects(objects.build()).rootObject(rootObjectGid).build();
 	}
 
-	private <T extends Encodeable> PBXObjectReference encodeRefInternal(Map<String, PBXObjectReference> objectsToRef, String globalId, Map<Encodeable, String> encodedObjects, T obj, Map<String, Encodeable> objectsToEncode) {
-		val context = encodeContextOf(objectsToRef, encodedObjects, objectsToEncode);
+	private <T extends Encodeable> PBXObjectReference encodeRefInternal(Map<String, PBXObjectReference> objectsToRef, String globalId, Map<Encodeable, String> encodedObjects, T obj, Map<String, Encodeable> objectsToEncode, boolean onDemand) {
+		val context = encodeContextOf(objectsToRef, encodedObjects, objectsToEncode, onDemand);
 		obj.encode(context);
 		context.flushEncoding();
 
+		if (onDemand) {
+			// The graph is fully marked at this point, encoding again only resolves the known global IDs
+			return PBXObjectReference.onDemand(globalId, obj.isa(), () -> {
+				val fieldsContext = encodeContextOf(null, encodedObjects, null, true);
+				obj.encode(fieldsContext);
+				fieldsContext.flushEncoding();
+				return PBXObjectFields.fromMap(fieldsContext.map);
+			});
+		}
+
 		PBXObjectReference reference = PBXObjectReference.of(globalId, it -> {
 			context.map.forEach((a, b) -> it.putField(a, b));
 		});
 		return reference;
 	}
 
-	private MyEncodeContext encodeContextOf(Map<String, PBXObjectReference> objectsToRef, Map<Encodeable, String> encodedObjects, Map<String, Encodeable> objectsToEncode) {
-		return new MyEncodeContext(objectsToRef, encodedObjects, objectsToEncode);
+	private MyEncodeContext encodeContextOf(Map<String, PBXObjectReference> objectsToRef, Map<Encodeable, String> encodedObjects, Map<String, Encodeable> objectsToEncode, boolean onDemand) {
+		return new MyEncodeContext(objectsToRef, encodedObjects, objectsToEncode, onDemand);
 	}
 
 	private String globalIdOf(Map<Encodeable, String> encodedObjects, Encodeable object) {
@@ -90,16 +117,16 @@ public final class PBXObjectArchiver {
 		}
 	}
 
-	private void mark(Map<String, PBXObjectReference> objectsToRef, Map<Encodeable, String> encodedObjects, Map<String, Encodeable> objectsToEncode, String globalId, Encodeable object) {
+	private void mark(Map<String, PBXObjectReference> objectsToRef, Map<Encodeable, String> encodedObjects, Map<String, Encodeable> objectsToEncode, String globalId, Encodeable object, boolean onDemand) {
 		val prevObj = objectsToEncode.get(globalId);
 		if (prevObj == null) {
 			objectsToEncode.put(globalId, object);
-			objectsToRef.put(globalId, encodeRefInternal(objectsToRef, globalId, encodedObjects, object, objectsToEncode));
+			objectsToRef.put(globalId, encodeRefInternal(objectsToRef, globalId, encodedObjects, object, objectsToEncode, onDemand));
 		} else if (prevObj.age() >= object.age()) {
 			// nothing to do, already visited and latest version found
 		} else {
 			objectsToEncode.put(globalId, object); // revisit with a newer version
-			objectsToRef.put(globalId, encodeRefInternal(objectsToRef, globalId, encodedObjects, object, objectsToEncode));
+			objectsToRef.put(globalId, encodeRefInternal(objectsToRef, globalId, encodedObjects, object, objectsToEncode, onDemand));
 		}
 	}
 
@@ -107,14 +134,17 @@ public final class PBXObjectArchiver {
 		private final Map<String, PBXObjectReference> objectsToRef;
 		private final Map<Encodeable, String> encodedObjects;
 		private final Map<String, Encodeable> objectsToEncode;
+		private final boolean onDemand;
 		String gid;
 		Map<String, Object> map;
 		Map<CodingKey, Object> codingMap = new LinkedHashMap<>();
 
-		public MyEncodeContext(Map<String, PBXObjectReference> objectsToRef, Map<Encodeable, String> encodedObjects, Map<String, Encodeable> objectsToEncode) {
+		// objectsToRef and objectsToEncode are null when only encoding the fields of an already marked object
+		public MyEncodeContext(@Nullable Map<String, PBXObjectReference> objectsToRef, Map<Encodeable, String> encodedObjects, @Nullable Map<String, Encodeable> objectsToEncode, boolean onDemand) {
 			this.objectsToRef = objectsToRef;
 			this.encodedObjects = encodedObjects;
 			this.objectsToEncode = objectsToEncode;
+			this.onDemand = onDemand;
 			gid = null;
 			map = new LinkedHashMap<>();
 		}
@@ -154,13 +184,15 @@ public final class PBXObjectArchiver {
 					@Override
 					public ByrefObject encodeByrefObject(Encodeable object) {
 						val globalId = globalIdOf(encodedObjects, object);
-						mark(objectsToRef, encodedObjects, objectsToEncode, globalId, object);
+						if (objectsToRef != null) {
+							mark(objectsToRef, encodedObjects, objectsToEncode, globalId, object, onDemand);
+						}
 						return new DefaultByrefObject(globalId);
 					}
 
 					@Override
 					public BycopyObject encodeBycopyObject(Encodeable object) {
-						val context = encodeContextOf(objectsToRef, encodedObjects, objectsToEncode);
+						val context = encodeContextOf(objectsToRef, encodedObjects, objectsToEncode, onDemand);
 						object.encode(context);
 						assert context.gid == null;
 						return new DefaultBycopyObject(copyOf(context.map));
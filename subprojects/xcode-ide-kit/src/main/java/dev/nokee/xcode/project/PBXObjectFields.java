@@ -45,6 +45,15 @@ public final class PBXObjectFields {
 		return fields.entrySet();
 	}
 
+	/**
+	 * Returns an unmodifiable view of the fields, without copying.
+	 *
+	 * @return the fields by name, never null
+	 */
+	public Map<String, Object> asMap() {
+		return fields;
+	}
+
 	public static Builder builder() {
 		return new Builder();
 	}
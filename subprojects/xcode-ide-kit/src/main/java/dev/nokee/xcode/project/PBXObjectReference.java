@@ -15,21 +15,28 @@
  */
 package dev.nokee.xcode.project;
 
-import lombok.EqualsAndHashCode;
+import com.google.common.base.Suppliers;
 
+import javax.annotation.Nullable;
 import java.util.Map;
 import java.util.Objects;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 import static java.util.stream.Collectors.joining;
 
-@EqualsAndHashCode
 public final class PBXObjectReference {
 	private final String globalID;
-	private final PBXObjectFields fields;
+	@Nullable private final String isa;
+	private final Supplier<PBXObjectFields> fields;
 
 	public PBXObjectReference(String globalID, PBXObjectFields fields) {
+		this(globalID, null, () -> fields);
+	}
+
+	private PBXObjectReference(String globalID, @Nullable String isa, Supplier<PBXObjectFields> fields) {
 		this.globalID = globalID;
+		this.isa = isa;
 		this.fields = fields;
 	}
 
@@ -38,11 +45,15 @@ public final class PBXObjectReference {
 	}
 
 	public String isa() {
+		if (isa != null) {
+			return isa;
+		}
+		final PBXObjectFields fields = getFields();
 		return Objects.requireNonNull(fields.get("isa"), () -> String.format("no 'isa' field, found: %s", fields.entrySet().stream().map(Map.Entry::getKey).collect(joining(", ")))).toString();
 	}
 
 	public PBXObjectFields getFields() {
-		return fields;
+		return fields.get();
 	}
 
 	public static PBXObjectReference of(String globalID, Consumer<? super PBXObjectFields.Builder> builderConsumer) {
@@ -51,6 +62,55 @@ public final class PBXObjectReference {
 		return new PBXObjectReference(globalID, builder.build());
 	}
 
+	/**
+	 * Creates a reference which fields are decoded on first access, at most once.
+	 *
+	 * @param globalID  the object global ID, must not be null
+	 * @param isa  the object isa if known without decoding, may be null
+	 * @param fieldsSupplier  the fields decoder, must not be null
+	 * @return a new object reference, never null
+	 */
+	public static PBXObjectReference lazy(String globalID, @Nullable String isa, Supplier<PBXObjectFields> fieldsSupplier) {
+		return new PBXObjectReference(globalID, isa, Suppliers.memoize(fieldsSupplier::get));
+	}
+
+	/**
+	 * Creates a reference which fields are computed on each access and never retained.
+	 * Callers accessing the fields more than once should keep the returned fields.
+	 *
+	 * @param globalID  the object global ID, must not be null
+	 * @param isa  the object isa, must not be null
+	 * @param fieldsSupplier  the fields supplier, must not be null
+	 * @return a new object reference, never null
+	 */
+	public static PBXObjectReference onDemand(String globalID, String isa, Supplier<PBXObjectFields> fieldsSupplier) {
+		return new PBXObjectReference(globalID, Objects.requireNonNull(isa), fieldsSupplier);
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (!(o instanceof PBXObjectReference)) {
+			return false;
+		}
+		final PBXObjectReference that = (PBXObjectReference) o;
+		if (!globalID.equals(that.globalID)) {
+			return false;
+		} else if (isa != null && that.isa != null && !isa.equals(that.isa)) {
+			return false;
+		}
+		// Only decode the fields of objects with the same identity
+		return getFields().equals(that.getFields());
+	}
+
+	@Override
+	public int hashCode() {
+		// Never decode the fields, the isa is not part of the hash as it may only be known by one of two equal references
+		return globalID.hashCode();
+	}
+
 	@Override
 	public String toString() {
 		return String.format("isa=%s gid=%s", isa(), globalID);
@@ -22,8 +22,6 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
-import static com.google.common.collect.ImmutableMap.copyOf;
-
 @EqualsAndHashCode
 public final class PBXObjectReferenceKeyedObject implements KeyedObject {
 	@EqualsAndHashCode.Exclude private final long age;
@@ -32,7 +30,7 @@ public final class PBXObjectReferenceKeyedObject implements KeyedObject {
 	@EqualsAndHashCode.Exclude private final CodingKeyCoders coders;
 
 	public PBXObjectReferenceKeyedObject(PBXObjects objects, PBXObjectReference reference, CodingKeyCoders coders) {
-		this(objects, reference, coders, System.nanoTime());
+		this(objects, reference, coders, KeyedObjectAge.next());
 	}
 
 	private PBXObjectReferenceKeyedObject(PBXObjects objects, PBXObjectReference reference, CodingKeyCoders coders, long age) {
@@ -47,7 +45,7 @@ public final class PBXObjectReferenceKeyedObject implements KeyedObject {
 
 	@Override
 	public <T> T tryDecode(CodingKey key) {
-		return tryDecode(key, copyOf(reference.getFields().entrySet()));
+		return tryDecode(key, reference.getFields().asMap());
 	}
 
 	@SuppressWarnings("unchecked")
@@ -132,7 +130,7 @@ public final class PBXObjectReferenceKeyedObject implements KeyedObject {
 	@Override
 	public void encode(EncodeContext context) {
 		context.gid(reference.getGlobalID());
-		context.base(copyOf(reference.getFields().entrySet()));
+		context.base(reference.getFields().asMap());
 	}
 
 	@Override
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.nokee.xcode.project;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static dev.nokee.xcode.project.PBXProjBinaryWriter.MAGIC;
+import static dev.nokee.xcode.project.PBXProjBinaryWriter.NO_STRING;
+import static dev.nokee.xcode.project.PBXProjBinaryWriter.TAG_ARRAY;
+import static dev.nokee.xcode.project.PBXProjBinaryWriter.TAG_BOOLEAN;
+import static dev.nokee.xcode.project.PBXProjBinaryWriter.TAG_DATA;
+import static dev.nokee.xcode.project.PBXProjBinaryWriter.TAG_DATE;
+import static dev.nokee.xcode.project.PBXProjBinaryWriter.TAG_DICTIONARY;
+import static dev.nokee.xcode.project.PBXProjBinaryWriter.TAG_INTEGER;
+import static dev.nokee.xcode.project.PBXProjBinaryWriter.TAG_REAL;
+import static dev.nokee.xcode.project.PBXProjBinaryWriter.TAG_STRING;
+import static dev.nokee.xcode.project.PBXProjBinaryWriter.VERSION;
+
+/**
+ * Reads a {@link PBXProj} written by {@link PBXProjBinaryWriter}.
+ * The buffer can be memory-mapped, it must not be modified while the returned project is in use.
+ * Reading only indexes the objects, the fields of each object are decoded from the buffer on first access.
+ * Decoded values are immutable collections, the same as decoded by {@link PBXProjReader}.
+ */
+public final class PBXProjBinaryReader {
+	private final ByteBuffer buffer;
+	private String[] strings;
+
+	public PBXProjBinaryReader(ByteBuffer buffer) {
+		this.buffer = buffer;
+	}
+
+	/**
+	 * Indexes the project objects from the buffer.
+	 * The string table and the object headers are validated eagerly, the object fields are decoded lazily.
+	 *
+	 * @return the project, never null
+	 * @throws IllegalStateException if the buffer content is not a supported binary project
+	 */
+	public PBXProj read() {
+		try {
+			if (buffer.getInt() != MAGIC) {
+				throw new IllegalStateException("not a binary PBXProj");
+			}
+			final int version = buffer.getInt();
+			if (version != VERSION) {
+				throw new IllegalStateException(String.format("unsupported binary PBXProj version %d", version));
+			}
+
+			strings = new String[buffer.getInt()];
+			for (int i = 0; i < strings.length; ++i) {
+				final byte[] bytes = new byte[buffer.getInt()];
+				buffer.get(bytes);
+				strings[i] = new String(bytes, StandardCharsets.UTF_8);
+			}
+
+			final PBXProj.Builder builder = PBXProj.builder().rootObject(readString(buffer));
+			final PBXObjects.Builder objects = PBXObjects.builder();
+			for (int i = buffer.getInt(); i > 0; --i) {
+				final String gid = readString(buffer);
+				final String isa = readString(buffer);
+				final int length = buffer.getInt();
+				final int offset = buffer.position();
+				buffer.position(Math.addExact(offset, length)); // skip the fields
+				objects.add(PBXObjectReference.lazy(gid, isa, () -> readFields(offset)));
+			}
+			return builder.objects(objects.build()).build();
+		} catch (BufferUnderflowException | IndexOutOfBoundsException | NegativeArraySizeException | IllegalArgumentException | ArithmeticException e) {
+			throw new IllegalStateException("truncated or corrupted binary PBXProj", e);
+		}
+	}
+
+	private PBXObjectFields readFields(int offset) {
+		// Each object decodes from its own view, objects can be decoded concurrently
+		final ByteBuffer view = buffer.duplicate();
+		view.position(offset);
+		try {
+			final PBXObjectFields.Builder builder = PBXObjectFields.builder();
+			for (int i = view.getInt(); i > 0; --i) {
+				builder.putField(readString(view), readValue(view));
+			}
+			return builder.build();
+		} catch (BufferUnderflowException | IndexOutOfBoundsException | NegativeArraySizeException e) {
+			throw new IllegalStateException("truncated or corrupted binary PBXProj", e);
+		}
+	}
+
+	private String readString(ByteBuffer buffer) {
+		final int index = buffer.getInt();
+		if (index == NO_STRING) {
+			return null;
+		}
+		return strings[index];
+	}
+
+	private Object readValue(ByteBuffer buffer) {
+		final byte tag = buffer.get();
+		switch (tag) {
+			case TAG_STRING:
+				return readString(buffer);
+			case TAG_INTEGER:
+				return buffer.getLong();
+			case TAG_BOOLEAN:
+				return buffer.get() != 0;
+			case TAG_REAL:
+				return buffer.getFloat();
+			case TAG_DATA: {
+				final byte[] bytes = new byte[buffer.getInt()];
+				buffer.get(bytes);
+				return bytes;
+			}
+			case TAG_DATE:
+				return LocalDateTime.parse(readString(buffer));
+			case TAG_ARRAY: {
+				final int size = buffer.getInt();
+				final ImmutableList.Builder<Object> builder = ImmutableList.builderWithExpectedSize(size);
+				for (int i = 0; i < size; ++i) {
+					builder.add(readValue(buffer));
+				}
+				return builder.build();
+			}
+			case TAG_DICTIONARY: {
+				final int size = buffer.getInt();
+				final ImmutableMap.Builder<String, Object> builder = ImmutableMap.builderWithExpectedSize(size);
+				for (int i = 0; i < size; ++i) {
+					builder.put(readString(buffer), readValue(buffer));
+				}
+				return builder.build();
+			}
+			default:
+				throw new IllegalStateException(String.format("unknown value tag <%d> in binary PBXProj", tag));
+		}
+	}
+}
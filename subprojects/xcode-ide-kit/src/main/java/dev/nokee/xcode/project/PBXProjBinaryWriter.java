@@ -0,0 +1,154 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.nokee.xcode.project;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes a {@link PBXProj} in a compact binary format suitable for caching.
+ * All strings (global IDs, keys and values) are deduplicated in a string table written ahead of the objects.
+ * Each object is prefixed by its global ID, isa and encoded length so a reader can index the objects without decoding their fields.
+ *
+ * @see PBXProjBinaryReader
+ */
+public final class PBXProjBinaryWriter implements Closeable {
+	static final int MAGIC = 0x50425842; // PBXB
+	static final int VERSION = 2;
+	static final byte TAG_STRING = 0;
+	static final byte TAG_INTEGER = 1;
+	static final byte TAG_BOOLEAN = 2;
+	static final byte TAG_REAL = 3;
+	static final byte TAG_DATA = 4;
+	static final byte TAG_DATE = 5;
+	static final byte TAG_ARRAY = 6;
+	static final byte TAG_DICTIONARY = 7;
+	static final int NO_STRING = -1;
+
+	private final DataOutputStream out;
+	private final Map<String, Integer> strings = new HashMap<>();
+	private final List<String> stringTable = new ArrayList<>();
+
+	public PBXProjBinaryWriter(OutputStream out) {
+		this.out = new DataOutputStream(out);
+	}
+
+	public void write(PBXProj proj) {
+		try {
+			final ByteArrayOutputStream body = new ByteArrayOutputStream();
+			final DataOutputStream bodyOut = new DataOutputStream(body);
+			bodyOut.writeInt(indexOf(proj.getRootObject()));
+			bodyOut.writeInt(proj.getObjects().size());
+			final ByteArrayOutputStream fields = new ByteArrayOutputStream();
+			final DataOutputStream fieldsOut = new DataOutputStream(fields);
+			for (PBXObjectReference object : proj.getObjects()) {
+				fields.reset();
+				fieldsOut.writeInt(object.getFields().size());
+				for (Map.Entry<String, Object> field : object.getFields().entrySet()) {
+					fieldsOut.writeInt(indexOf(field.getKey()));
+					writeValue(fieldsOut, field.getValue());
+				}
+				fieldsOut.flush();
+
+				bodyOut.writeInt(indexOf(object.getGlobalID()));
+				final Object isa = object.getFields().get("isa");
+				bodyOut.writeInt(isa instanceof String ? indexOf((String) isa) : NO_STRING);
+				bodyOut.writeInt(fields.size());
+				fields.writeTo(bodyOut);
+			}
+			bodyOut.flush();
+
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(stringTable.size());
+			for (String value : stringTable) {
+				final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+				out.writeInt(bytes.length);
+				out.write(bytes);
+			}
+			body.writeTo(out);
+			out.flush();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private void writeValue(DataOutputStream out, Object value) throws IOException {
+		if (value instanceof String) {
+			out.writeByte(TAG_STRING);
+			out.writeInt(indexOf((String) value));
+		} else if (value instanceof Long || value instanceof Integer) {
+			out.writeByte(TAG_INTEGER);
+			out.writeLong(((Number) value).longValue());
+		} else if (value instanceof Boolean) {
+			out.writeByte(TAG_BOOLEAN);
+			out.writeBoolean((Boolean) value);
+		} else if (value instanceof Float) {
+			out.writeByte(TAG_REAL);
+			out.writeFloat((Float) value);
+		} else if (value instanceof byte[]) {
+			out.writeByte(TAG_DATA);
+			out.writeInt(((byte[]) value).length);
+			out.write((byte[]) value);
+		} else if (value instanceof LocalDateTime) {
+			out.writeByte(TAG_DATE);
+			out.writeInt(indexOf(value.toString()));
+		} else if (value instanceof List) {
+			out.writeByte(TAG_ARRAY);
+			out.writeInt(((List<?>) value).size());
+			for (Object element : (List<?>) value) {
+				writeValue(out, element);
+			}
+		} else if (value instanceof Map) {
+			out.writeByte(TAG_DICTIONARY);
+			out.writeInt(((Map<?, ?>) value).size());
+			for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+				out.writeInt(indexOf((String) entry.getKey()));
+				writeValue(out, entry.getValue());
+			}
+		} else {
+			throw new UnsupportedOperationException(String.format("Unknown object of type %s", value == null ? "null" : value.getClass().getSimpleName()));
+		}
+	}
+
+	private int indexOf(String value) {
+		if (value == null) {
+			return NO_STRING;
+		}
+		Integer result = strings.get(value);
+		if (result == null) {
+			result = stringTable.size();
+			strings.put(value, result);
+			stringTable.add(value);
+		}
+		return result;
+	}
+
+	@Override
+	public void close() throws IOException {
+		out.close();
+	}
+}
@@ -17,17 +17,44 @@ package dev.nokee.xcode.project;
 
 import dev.nokee.xcode.JavaPropertyListReader;
 import dev.nokee.xcode.PropertyListReader;
+import dev.nokee.xcode.StreamingAsciiPropertyListReader;
 
+import javax.annotation.Nullable;
 import java.io.Closeable;
 import java.io.IOException;
+import java.nio.CharBuffer;
 import java.util.Map;
 import java.util.function.BiConsumer;
 
 public final class PBXProjReader implements Closeable {
 	private final JavaPropertyListReader delegate;
+	@Nullable private final StreamingAsciiPropertyListReader scanner; // only for lazy reads
+	@Nullable private final CharSequence content; // only for lazy reads
 
 	public PBXProjReader(PropertyListReader delegate) {
 		this.delegate = new JavaPropertyListReader(delegate);
+		this.scanner = null;
+		this.content = null;
+	}
+
+	private PBXProjReader(StreamingAsciiPropertyListReader scanner, CharSequence content) {
+		this.delegate = new JavaPropertyListReader(scanner);
+		this.scanner = scanner;
+		this.content = content;
+	}
+
+	/**
+	 * Creates a reader which only indexes the objects of the specified content.
+	 * Each object is scanned for its character range and {@code isa}, its fields are decoded from the content on first access.
+	 * Querying objects by {@code isa} doesn't decode any fields.
+	 *
+	 * <p>The returned {@link PBXProj} keeps a reference to the content.
+	 *
+	 * @param content  the project content, must not be null
+	 * @return a new lazy reader, never null
+	 */
+	public static PBXProjReader lazy(CharSequence content) {
+		return new PBXProjReader(new StreamingAsciiPropertyListReader(CharBuffer.wrap(content)), content);
 	}
 
 	public PBXProj read() {
@@ -60,12 +87,39 @@ public final class PBXProjReader implements Closeable {
 	}
 
 	private BiConsumer<String, JavaPropertyListReader.ValueReader> readObjectReference(PBXObjects.Builder builder) {
+		if (scanner != null) {
+			return indexObjectReference(builder, scanner, content);
+		}
+
 		return (gid, reader) -> {
 			final Map<String, Object> object = reader.readDict();
 			builder.add(PBXObjectReference.of(gid, it -> object.forEach(it::putField)));
 		};
 	}
 
+	private static BiConsumer<String, JavaPropertyListReader.ValueReader> indexObjectReference(PBXObjects.Builder builder, StreamingAsciiPropertyListReader scanner, CharSequence content) {
+		return (gid, reader) -> {
+			final int start = Math.toIntExact(scanner.getOffset());
+			final String[] isa = new String[1];
+			reader.readDict((key, value) -> {
+				if (key.equals("isa")) {
+					isa[0] = value.readString();
+				} else {
+					value.skipObject();
+				}
+			});
+			final int end = Math.toIntExact(scanner.getOffset());
+			builder.add(PBXObjectReference.lazy(gid, isa[0], () -> decodeObject(content, start, end)));
+		};
+	}
+
+	private static PBXObjectFields decodeObject(CharSequence content, int start, int end) {
+		final PBXObjectFields.Builder builder = PBXObjectFields.builder();
+		new JavaPropertyListReader(new StreamingAsciiPropertyListReader(CharBuffer.wrap(content, start, end)))
+			.readDocument(doc -> doc.readDict().forEach(builder::putField));
+		return builder.build();
+	}
+
 	@Override
 	public void close() throws IOException {
 		delegate.close();
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.nokee.xcode;
+
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
+import java.nio.CharBuffer;
+
+import static dev.nokee.xcode.PropertyListReader.Event.ARRAY_END;
+import static dev.nokee.xcode.PropertyListReader.Event.ARRAY_START;
+import static dev.nokee.xcode.PropertyListReader.Event.DATA;
+import static dev.nokee.xcode.PropertyListReader.Event.DICTIONARY_END;
+import static dev.nokee.xcode.PropertyListReader.Event.DICTIONARY_KEY;
+import static dev.nokee.xcode.PropertyListReader.Event.DICTIONARY_START;
+import static dev.nokee.xcode.PropertyListReader.Event.DOCUMENT_END;
+import static dev.nokee.xcode.PropertyListReader.Event.DOCUMENT_START;
+import static dev.nokee.xcode.PropertyListReader.Event.STRING;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class StreamingAsciiPropertyListReaderTest extends AsciiPropertyListReaderTester {
+	@Override
+	StreamingAsciiPropertyListReader newReader(String... lines) {
+		return new StreamingAsciiPropertyListReader(new InputStreamReader(new ByteArrayInputStream(content(lines))));
+	}
+
+	@Test
+	void canReadDocumentFromCharBuffer() {
+		val subject = new StreamingAsciiPropertyListReader(CharBuffer.wrap("{ \"key\" = ( a, <B0B> ); }"));
+		assertThat(subject.next(), is(DOCUMENT_START));
+		assertThat(subject.next(), is(DICTIONARY_START));
+		assertThat(subject.next(), is(DICTIONARY_KEY));
+		assertThat(subject.readDictionaryKey(), equalTo("key"));
+		assertThat(subject.next(), is(ARRAY_START));
+		assertThat(subject.next(), is(STRING));
+		assertThat(subject.readString(), equalTo("a"));
+		assertThat(subject.next(), is(DATA));
+		assertArrayEquals(new byte[] { (byte) 0xb, (byte) 0x0, (byte) 0xb }, subject.readData());
+		assertThat(subject.next(), is(ARRAY_END));
+		assertThat(subject.next(), is(DICTIONARY_END));
+		assertThat(subject.next(), is(DOCUMENT_END));
+	}
+
+	@Test
+	void ignoresComments() {
+		val subject = newReader(withUTF8Header("{", "\tkey /* a comment */ = value; // another comment", "}"));
+		assertThat(subject.next(), is(DOCUMENT_START));
+		assertThat(subject.next(), is(DICTIONARY_START));
+		assertThat(subject.next(), is(DICTIONARY_KEY));
+		assertThat(subject.readDictionaryKey(), equalTo("key"));
+		assertThat(subject.next(), is(STRING));
+		assertThat(subject.readString(), equalTo("value"));
+		assertThat(subject.next(), is(DICTIONARY_END));
+		assertThat(subject.next(), is(DOCUMENT_END));
+	}
+
+	@Test
+	void throwsExceptionOnParsingErrorWhenReachingOffendingToken() {
+		val subject = newReader("{ aKey = aValue;");
+		assertThat(subject.next(), is(DOCUMENT_START));
+		assertThat(subject.next(), is(DICTIONARY_START));
+		assertThat(subject.next(), is(DICTIONARY_KEY));
+		assertThat(subject.next(), is(STRING));
+		val ex = assertThrows(RuntimeException.class, subject::next);
+		assertThat(ex.getMessage(), equalTo("line 1:16 unexpected end of input, expecting '}' or dictionary key"));
+	}
+
+	@Test
+	void reportsLineAndColumnOfOffendingTokenAcrossLines() {
+		val subject = newReader(withUTF8Header("{", "\tkey = value", "}"));
+		assertThat(subject.next(), is(DOCUMENT_START));
+		assertThat(subject.next(), is(DICTIONARY_START));
+		assertThat(subject.next(), is(DICTIONARY_KEY));
+		assertThat(subject.next(), is(STRING));
+		val ex = assertThrows(RuntimeException.class, subject::next);
+		assertThat(ex.getMessage(), equalTo("line 4:0 expecting ';' after dictionary value"));
+	}
+
+	@Test
+	void throwsExceptionOnInvalidDataDigit() {
+		val subject = newReader("<b0 0g>");
+		assertThat(subject.next(), is(DOCUMENT_START));
+		val ex = assertThrows(RuntimeException.class, subject::next);
+		assertThat(ex.getMessage(), equalTo("line 1:6 unexpected 'g' in data"));
+	}
+
+	@Test
+	void throwsExceptionOnExtraneousInputAfterDocumentValue() {
+		val subject = newReader("{ key = value; } extra");
+		assertThat(subject.next(), is(DOCUMENT_START));
+		assertThat(subject.next(), is(DICTIONARY_START));
+		assertThat(subject.next(), is(DICTIONARY_KEY));
+		assertThat(subject.next(), is(STRING));
+		assertThat(subject.next(), is(DICTIONARY_END));
+		val ex = assertThrows(RuntimeException.class, subject::next);
+		assertThat(ex.getMessage(), equalTo("line 1:17 extraneous input after document value"));
+	}
+
+	@Test
+	void throwsExceptionOnUnterminatedQuotedString() {
+		val subject = newReader("\"value");
+		assertThat(subject.next(), is(DOCUMENT_START));
+		assertThrows(RuntimeException.class, subject::next);
+	}
+}
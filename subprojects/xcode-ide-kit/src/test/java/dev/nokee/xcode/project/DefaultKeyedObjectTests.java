@@ -0,0 +1,83 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.nokee.xcode.project;
+
+import com.google.common.collect.ImmutableMap;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static dev.nokee.xcode.project.DefaultKeyedObjectTests.CodingKeys.keyA;
+import static dev.nokee.xcode.project.DefaultKeyedObjectTests.CodingKeys.keyB;
+import static dev.nokee.xcode.project.DefaultKeyedObjectTests.CodingKeys.keyC;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DefaultKeyedObjectTests {
+	@Mock KeyedObject base;
+
+	enum CodingKeys implements CodingKey {
+		keyA, keyB, keyC;
+
+		@Override
+		public String getName() {
+			return name();
+		}
+	}
+
+	@Test
+	void collapsesLayersBuiltOverDefaultKeyedObject() {
+		DefaultKeyedObject first = DefaultKeyedObject.builder().knownKeys(keyA, keyB).put(keyA, "a").put(keyB, "b").build();
+		DefaultKeyedObject second = DefaultKeyedObject.builder().parent(first).knownKeys(keyA, keyB).put(keyB, "new-b").build();
+		DefaultKeyedObject third = DefaultKeyedObject.builder().parent(second).knownKeys(keyA, keyB).put(keyA, "new-a").build();
+
+		assertThat(third, equalTo(new DefaultKeyedObject(ImmutableMap.of(keyA, "new-a", keyB, "new-b"))));
+	}
+
+	@Test
+	void keepsNonDefaultKeyedObjectParent() {
+		when(base.tryDecode(keyC)).thenReturn("c");
+		DefaultKeyedObject first = DefaultKeyedObject.builder().parent(base).knownKeys(keyA).put(keyA, "a").build();
+		DefaultKeyedObject second = DefaultKeyedObject.builder().parent(first).knownKeys(keyB).put(keyB, "b").build();
+
+		assertThat(second.tryDecode(keyA), equalTo("a"));
+		assertThat(second.tryDecode(keyB), equalTo("b"));
+		assertThat(second.tryDecode(keyC), equalTo("c"));
+	}
+
+	@Test
+	void mapsParentEntriesToKnownKeys() {
+		when(base.getAsMap()).thenReturn(ImmutableMap.<CodingKey, Object>of(() -> "keyA", "raw-a", () -> "keyC", "raw-c"));
+		when(base.tryDecode(keyA)).thenReturn("decoded-a");
+		DefaultKeyedObject subject = DefaultKeyedObject.builder().parent(base).knownKeys(keyA).put(keyB, "b").build();
+
+		assertThat(subject.getAsMap().get(keyA), equalTo("decoded-a"));
+		assertThat(subject.getAsMap().get(keyB), equalTo("b"));
+		assertThat(subject.getAsMap().size(), equalTo(3));
+	}
+
+	@Test
+	void newerObjectsHaveGreaterAgeThanTheirParents() {
+		DefaultKeyedObject first = DefaultKeyedObject.builder().put(keyA, "a").build();
+		DefaultKeyedObject second = DefaultKeyedObject.builder().parent(first).put(keyA, "new-a").build();
+
+		assertThat(second.age(), greaterThan(first.age()));
+	}
+}
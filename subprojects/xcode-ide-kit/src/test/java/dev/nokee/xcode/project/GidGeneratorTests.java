@@ -0,0 +1,74 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.nokee.xcode.project;
+
+import com.google.common.collect.ImmutableSet;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+
+class GidGeneratorTests {
+	GidGenerator subject = new GidGenerator(Collections.emptySet());
+
+	private static String gid(String isa, int hash, int counter) {
+		return String.format("%08X%08X%08X", isa.hashCode(), hash, counter);
+	}
+
+	@Test
+	void generatesGidFromClassNameHashObjectHashAndCounter() {
+		assertThat(subject.generateGid("PBXGroup", 42), equalTo(gid("PBXGroup", 42, 0)));
+		assertThat(subject.generateGid("PBXFileReference", -1), equalTo(gid("PBXFileReference", -1, 0)));
+	}
+
+	@Test
+	void incrementsCounterOnCollision() {
+		assertThat(subject.generateGid("PBXGroup", 42), equalTo(gid("PBXGroup", 42, 0)));
+		assertThat(subject.generateGid("PBXGroup", 42), equalTo(gid("PBXGroup", 42, 1)));
+		assertThat(subject.generateGid("PBXGroup", 42), equalTo(gid("PBXGroup", 42, 2)));
+	}
+
+	@Test
+	void skipsReservedIds() {
+		subject = new GidGenerator(ImmutableSet.of(gid("PBXGroup", 42, 0), gid("PBXGroup", 42, 2), "not-a-generated-id"));
+
+		assertThat(subject.generateGid("PBXGroup", 42), equalTo(gid("PBXGroup", 42, 1)));
+		assertThat(subject.generateGid("PBXGroup", 42), equalTo(gid("PBXGroup", 42, 3)));
+	}
+
+	@Test
+	void generatesUniqueIdsFromConcurrentCallers() {
+		final Set<String> gids = ConcurrentHashMap.newKeySet();
+		IntStream.range(0, 10_000).parallel().forEach(i -> gids.add(subject.generateGid("PBXBuildFile", i % 100)));
+
+		assertThat(gids.size(), is(10_000));
+	}
+
+	@Test
+	void generatesSameIdsForSameCalls() {
+		final GidGenerator other = new GidGenerator(new HashSet<>());
+		for (int i = 0; i < 5_000; ++i) {
+			assertThat(subject.generateGid("PBXFileReference", i % 7), equalTo(other.generateGid("PBXFileReference", i % 7)));
+		}
+	}
+}
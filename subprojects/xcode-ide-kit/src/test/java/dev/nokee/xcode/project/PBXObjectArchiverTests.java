@@ -0,0 +1,75 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.nokee.xcode.project;
+
+import dev.nokee.xcode.objects.PBXProject;
+import dev.nokee.xcode.objects.files.PBXFileReference;
+import dev.nokee.xcode.objects.files.PBXSourceTree;
+import dev.nokee.xcode.objects.targets.PBXAggregateTarget;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Collections;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+class PBXObjectArchiverTests {
+	PBXProject project = PBXProject.builder()
+		.buildConfigurations(it -> it.buildConfiguration(builder -> builder.name("Debug")))
+		.group(builder -> builder.name("Sources").child(PBXFileReference.builder().name("main").path("main.c").sourceTree(PBXSourceTree.GROUP).build()))
+		.target(PBXAggregateTarget.builder().name("App").buildConfigurations(it -> it.buildConfiguration(builder -> builder.name("Debug"))).build())
+		.target(PBXAggregateTarget.builder().name("Lib").buildConfigurations(it -> it.buildConfiguration(builder -> builder.name("Debug"))).build())
+		.build();
+
+	private static PBXObjectArchiver newArchiver() {
+		return new PBXObjectArchiver(new GidGenerator(Collections.emptySet()));
+	}
+
+	private static String write(PBXProj proj) throws IOException {
+		final StringWriter result = new StringWriter();
+		try (PBXProjWriter writer = new PBXProjWriter(result)) {
+			writer.write(proj);
+		}
+		return result.toString();
+	}
+
+	@Test
+	void encodesSameObjectsOnDemand() {
+		final PBXProj eager = newArchiver().encode(project);
+		final PBXProj onDemand = newArchiver().encodeOnDemand(project);
+
+		assertThat(onDemand.getRootObject(), equalTo(eager.getRootObject()));
+		assertThat(onDemand.getObjects().stream().map(PBXObjectReference::getGlobalID).collect(Collectors.toList()),
+			equalTo(eager.getObjects().stream().map(PBXObjectReference::getGlobalID).collect(Collectors.toList())));
+		for (PBXObjectReference reference : eager.getObjects()) {
+			assertThat(onDemand.getObjects().getById(reference.getGlobalID()), equalTo(reference));
+		}
+	}
+
+	@Test
+	void writesSameContentOnDemand() throws IOException {
+		assertThat(write(newArchiver().encodeOnDemand(project)), equalTo(write(newArchiver().encode(project))));
+	}
+
+	@Test
+	void queriesObjectsByIsaOnDemand() {
+		assertThat(newArchiver().encodeOnDemand(project).getObjects().get("PBXAggregateTarget").map(it -> it.getFields().get("name")).collect(Collectors.toList()),
+			equalTo(newArchiver().encode(project).getObjects().get("PBXAggregateTarget").map(it -> it.getFields().get("name")).collect(Collectors.toList())));
+	}
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.nokee.xcode.project;
+
+import com.google.common.testing.EqualsTester;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+
+class PBXObjectReferenceTests {
+	final AtomicInteger decodeCount = new AtomicInteger();
+
+	private Supplier<PBXObjectFields> fields(String isa, String name) {
+		return () -> {
+			decodeCount.incrementAndGet();
+			return PBXObjectFields.builder().putField("isa", isa).putField("name", name).build();
+		};
+	}
+
+	@Test
+	void doesNotDecodeFieldsWhenHashing() {
+		PBXObjectReference.lazy("ABC", null, fields("PBXNativeTarget", "App")).hashCode();
+		PBXObjectReference.onDemand("ABC", "PBXNativeTarget", fields("PBXNativeTarget", "App")).hashCode();
+		assertThat(decodeCount.get(), equalTo(0));
+	}
+
+	@Test
+	void doesNotDecodeFieldsOfObjectsWithDifferentIdentity() {
+		assertThat(PBXObjectReference.lazy("ABC", null, fields("PBXNativeTarget", "App")), not(equalTo(PBXObjectReference.lazy("DEF", null, fields("PBXNativeTarget", "App")))));
+		assertThat(PBXObjectReference.onDemand("ABC", "PBXNativeTarget", fields("PBXNativeTarget", "App")), not(equalTo(PBXObjectReference.onDemand("ABC", "PBXAggregateTarget", fields("PBXAggregateTarget", "App")))));
+		assertThat(decodeCount.get(), equalTo(0));
+	}
+
+	@Test
+	@SuppressWarnings("UnstableApiUsage")
+	void checkEquals() {
+		new EqualsTester()
+			.addEqualityGroup(PBXObjectReference.lazy("ABC", null, fields("PBXNativeTarget", "App")), PBXObjectReference.lazy("ABC", "PBXNativeTarget", fields("PBXNativeTarget", "App")), PBXObjectReference.onDemand("ABC", "PBXNativeTarget", fields("PBXNativeTarget", "App")))
+			.addEqualityGroup(PBXObjectReference.lazy("ABC", null, fields("PBXNativeTarget", "Lib")))
+			.addEqualityGroup(PBXObjectReference.lazy("DEF", null, fields("PBXNativeTarget", "App")))
+			.testEquals();
+	}
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.nokee.xcode.project;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PBXProjBinaryReaderTest {
+	private static byte[] write(PBXProj proj) {
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		new PBXProjBinaryWriter(out).write(proj);
+		return out.toByteArray();
+	}
+
+	private static PBXProj read(byte[] bytes) {
+		return new PBXProjBinaryReader(ByteBuffer.wrap(bytes)).read();
+	}
+
+	@Test
+	void canRoundTripProject() {
+		final PBXProj proj = PBXProj.builder().rootObject("ROOT").objects(builder -> {
+			builder.add(PBXObjectReference.of("ROOT", it -> it.putField("isa", "PBXProject").putField("targets", ImmutableList.of("TARGET"))));
+			builder.add(PBXObjectReference.of("TARGET", it -> it.putField("isa", "PBXAggregateTarget").putField("name", "Foo")
+				.putField("buildSettings", ImmutableMap.of("ENABLED", true, "COUNT", 42L, "RATIO", 1.5f))));
+		}).build();
+
+		final PBXProj result = read(write(proj));
+		assertThat(result.getRootObject(), equalTo("ROOT"));
+		assertThat(result.getObjects().size(), equalTo(2));
+		assertThat(result.getObjects().getById("ROOT"), equalTo(proj.getObjects().getById("ROOT")));
+		assertThat(result.getObjects().getById("TARGET"), equalTo(proj.getObjects().getById("TARGET")));
+	}
+
+	@Test
+	void decodesObjectFieldsOnlyOnFirstAccess() {
+		final byte[] bytes = write(PBXProj.builder().rootObject("ROOT").objects(builder -> {
+			builder.add(PBXObjectReference.of("ROOT", it -> it.putField("isa", "PBXProject")));
+			builder.add(PBXObjectReference.of("TARGET", it -> it.putField("isa", "PBXAggregateTarget").putField("name", "Foo")));
+		}).build());
+		final PBXProj result = read(bytes);
+		assertThat(result.getObjects().getById("ROOT").getFields().get("isa"), equalTo("PBXProject"));
+
+		Arrays.fill(bytes, (byte) 0x7f); // overwrite the buffer, only objects not yet decoded are affected
+		assertThat(result.getObjects().getById("ROOT").getFields().get("isa"), equalTo("PBXProject"));
+		assertThat(result.getObjects().getById("TARGET").isa(), equalTo("PBXAggregateTarget"));
+		assertThrows(IllegalStateException.class, () -> result.getObjects().getById("TARGET").getFields());
+	}
+
+	@Test
+	void canRoundTripProjectWithoutRootObject() {
+		assertThat(read(write(PBXProj.builder().build())).getRootObject(), nullValue());
+	}
+
+	@Test
+	void throwsExceptionOnTruncatedContent() {
+		final byte[] bytes = write(PBXProj.builder().rootObject("ROOT").objects(builder -> builder.add(PBXObjectReference.of("ROOT", it -> it.putField("isa", "PBXProject")))).build());
+		assertThrows(IllegalStateException.class, () -> read(Arrays.copyOf(bytes, bytes.length - 3)));
+	}
+
+	@Test
+	void throwsExceptionOnUnknownFormat() {
+		assertThrows(IllegalStateException.class, () -> read(new byte[] {1, 2, 3, 4, 0, 0, 0, 1}));
+	}
+}
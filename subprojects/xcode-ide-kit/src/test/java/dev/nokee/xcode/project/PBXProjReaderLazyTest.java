@@ -0,0 +1,86 @@
+/*
+ * Copyright 2023 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dev.nokee.xcode.project;
+
+import dev.nokee.xcode.StreamingAsciiPropertyListReader;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+
+class PBXProjReaderLazyTest {
+	private static final String CONTENT = String.join(System.lineSeparator(),
+		"// !$*UTF8*$!",
+		"{",
+		"	archiveVersion = 1;",
+		"	classes = {",
+		"	};",
+		"	objectVersion = 54;",
+		"	objects = {",
+		"		ABC /* Project object */ = {isa = PBXProject; targets = (DEF, GHI); attributes = {LastUpgradeCheck = 1420; tags = (a, b, ); }; };",
+		"		DEF /* App */ = {isa = PBXNativeTarget; name = App; productName = \"My App\"; };",
+		"		GHI /* Lib */ = {name = Lib; isa = PBXNativeTarget; };",
+		"	};",
+		"	rootObject = ABC /* Project object */;",
+		"}");
+
+	private static PBXProj readLazily(CharSequence content) {
+		return PBXProjReader.lazy(content).read();
+	}
+
+	private static PBXProj readEagerly(String content) {
+		return new PBXProjReader(new StreamingAsciiPropertyListReader(new StringReader(content))).read();
+	}
+
+	@Test
+	void readsRootObject() {
+		assertThat(readLazily(CONTENT).getRootObject(), equalTo("ABC"));
+	}
+
+	@Test
+	void queriesObjectsByIsaWithoutDecodingFields() {
+		assertThat(readLazily(CONTENT).getObjects().get("PBXNativeTarget").map(PBXObjectReference::getGlobalID).collect(Collectors.toList()), contains("DEF", "GHI"));
+	}
+
+	@Test
+	void decodesSameFieldsAsEagerReader() {
+		final PBXProj lazy = readLazily(CONTENT);
+		final PBXProj eager = readEagerly(CONTENT);
+		for (String gid : new String[] {"ABC", "DEF", "GHI"}) {
+			assertThat(lazy.getObjects().getById(gid), equalTo(eager.getObjects().getById(gid)));
+			assertThat(lazy.getObjects().getById(gid).getFields(), equalTo(eager.getObjects().getById(gid).getFields()));
+		}
+	}
+
+	@Test
+	void decodesObjectsBeyondFirstReaderBuffer() {
+		final StringBuilder content = new StringBuilder("{objects = {");
+		for (int i = 0; i < 2000; ++i) {
+			content.append("OBJ").append(i).append(" = {isa = PBXFileReference; path = \"file").append(i).append(".c\"; };\n");
+		}
+		content.append("}; rootObject = OBJ0; }");
+
+		final PBXProj lazy = readLazily(content);
+		final PBXProj eager = readEagerly(content.toString());
+		for (int i = 0; i < 2000; ++i) {
+			assertThat(lazy.getObjects().getById("OBJ" + i), equalTo(eager.getObjects().getById("OBJ" + i)));
+		}
+	}
+}